@@ -0,0 +1,53 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.annotation.Nullable;
+
+
+/**
+ * Runs the benchmarks, taking the usual JMH command line options.  Unless told
+ * otherwise, results are written as JSON to {@link #DEFAULT_RESULT_FILENAME} so
+ * runs can be compared by tools as well as read.
+ */
+public final class BenchmarkMain {
+
+    public static final String DEFAULT_RESULT_FILENAME = "jmh-result.json";
+
+
+    private BenchmarkMain() {
+    }
+
+
+    /**
+     * Command line run method.
+     *
+     * @param args JMH command line arguments, e.g. a benchmark name pattern.
+     * @throws Exception on error running the benchmarks.
+     */
+    public static void main(@Nullable final String... args) throws Exception {
+
+        final CommandLineOptions options = new CommandLineOptions(args == null ? new String[0] : args);
+        if (options.shouldHelp() || options.shouldList() || options.shouldListWithParams()
+            || options.shouldListProfilers() || options.shouldListResultFormats()) {
+
+            org.openjdk.jmh.Main.main(args);
+
+            return;
+        }
+
+        final OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(options);
+        if (!options.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!options.getResult().hasValue()) {
+            builder.result(DEFAULT_RESULT_FILENAME);
+        }
+
+        new Runner(builder.build()).run();
+    }
+}
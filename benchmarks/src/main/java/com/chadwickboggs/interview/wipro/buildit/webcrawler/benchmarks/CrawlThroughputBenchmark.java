@@ -0,0 +1,166 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler.benchmarks;
+
+import com.chadwickboggs.interview.wipro.buildit.webcrawler.CrawlConfiguration;
+import com.chadwickboggs.interview.wipro.buildit.webcrawler.CrawlEngine;
+import com.chadwickboggs.interview.wipro.buildit.webcrawler.FetcherType;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+
+
+/**
+ * End to end crawl throughput against a site served in process on the loopback
+ * interface.  The site has {@link #pages} pages, each linking to a dozen others
+ * spread across the site, so every page is reachable and most links found are
+ * already visited.  Each operation crawls the whole site, with no rate limit and
+ * robots.txt ignored; pages crawled per second is {@link #pages} divided by the
+ * time reported.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CrawlThroughputBenchmark {
+
+    private static final int LINKS_PER_PAGE = 12;
+
+    @Param({"2000"})
+    public int pages;
+
+    @Param({"16"})
+    public int workers;
+
+    @Param({"http-client", "url-stream"})
+    public String fetcher;
+
+    static {
+        // Without TCP_NODELAY the server's separate header and body writes wait
+        // on the client's delayed ACK, adding 40ms to every response.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private URL startUrl;
+    private CrawlConfiguration configuration;
+    private PrintStream sitemapStream;
+
+
+    @Setup
+    public void setUp() throws IOException {
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        serverExecutor = Executors.newFixedThreadPool(workers);
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        startUrl = new URL("http", "127.0.0.1", server.getAddress().getPort(), "/page/0.html");
+        configuration = new CrawlConfiguration()
+            .setWorkers(workers)
+            .setFetcherType(FetcherType.fromOptionValue(fetcher).orElseThrow(IllegalArgumentException::new))
+            .setHostRequestsPerSecond(0)
+            .setIgnoreRobots(true);
+        sitemapStream = new PrintStream(OutputStream.nullOutputStream());
+    }
+
+
+    @TearDown
+    public void tearDown() {
+
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+
+    @Benchmark
+    public void crawl() throws IOException, InterruptedException {
+        new CrawlEngine(configuration, sitemapStream).crawl(startUrl);
+    }
+
+
+    private void handle(@Nonnull final HttpExchange exchange) throws IOException {
+
+        try {
+            final String path = exchange.getRequestURI().getPath();
+            final int page = pageNumber(path);
+            if (page < 0) {
+                exchange.sendResponseHeaders(404, -1);
+
+                return;
+            }
+
+            final byte[] body = page(page);
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        }
+        finally {
+            exchange.close();
+        }
+    }
+
+
+    private int pageNumber(@Nonnull final String path) {
+
+        if (!path.startsWith("/page/") || !path.endsWith(".html")) {
+            return -1;
+        }
+
+        try {
+            final int page = Integer.parseInt(path.substring("/page/".length(), path.length() - ".html".length()));
+
+            return page < pages ? page : -1;
+        }
+        catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+
+    /**
+     * A page linking to its two children in a binary tree over the site, which
+     * makes every page reachable, and to pages spread across the site.
+     */
+    @Nonnull
+    private byte[] page(int page) {
+
+        final StringBuilder html = new StringBuilder(2048);
+        html.append("<!DOCTYPE html>\n<html><head><title>Page ").append(page).append("</title></head><body>\n");
+        for (int i = 0; i < LINKS_PER_PAGE; i++) {
+            final long link = i < 2 ? 2L * page + 1 + i : ((long) page * 31 + i * 7919L) % pages;
+            if (link < pages) {
+                html.append("<p>Paragraph ").append(i).append(" <a href=\"/page/").append(link)
+                    .append(".html\">page ").append(link).append("</a></p>\n");
+            }
+        }
+        html.append("</body></html>\n");
+
+        return html.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,123 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler.benchmarks;
+
+import com.chadwickboggs.interview.wipro.buildit.webcrawler.HostScope;
+import com.chadwickboggs.interview.wipro.buildit.webcrawler.PublicSuffixList;
+import com.chadwickboggs.interview.wipro.buildit.webcrawler.UrlCanonicalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+
+
+/**
+ * The per-link work done on every page: deciding whether a link's host is in
+ * scope and putting the link in canonical form.  The original domain check,
+ * which split and rebuilt every host, is kept here as a baseline.  Each
+ * operation handles a batch of {@link #LINKS} links over a few dozen hosts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HostScopeBenchmark {
+
+    private static final int LINKS = 1024;
+    private static final String[] HOSTS = {
+        "www.example.com", "example.com", "shop.example.com", "cdn.example.net", "www.example.co.uk",
+        "static.example.co.uk", "blog.example.org", "a.b.c.example.com", "other.com", "www.other.co.jp"
+    };
+
+    private URL[] links;
+    private String[] linkStrings;
+    private URL pageUrl;
+    private HostScope scope;
+    private PublicSuffixList publicSuffixList;
+    private UrlCanonicalizer canonicalizer;
+    private String domainNameLimit;
+
+
+    @Setup
+    public void setUp() throws MalformedURLException {
+
+        pageUrl = new URL("http://www.example.com/section/page.html");
+        links = new URL[LINKS];
+        linkStrings = new String[LINKS];
+        for (int i = 0; i < LINKS; i++) {
+            linkStrings[i] = "http://" + HOSTS[i % HOSTS.length] + "/section/" + i + "/../page-" + i
+                + ".html?b=" + i + "&a=1&utm_source=x#top";
+            links[i] = new URL(linkStrings[i]);
+        }
+
+        scope = new HostScope(pageUrl, Collections.singletonList("*.example.net"), Collections.emptyList());
+        publicSuffixList = PublicSuffixList.getDefault();
+        canonicalizer = new UrlCanonicalizer(Collections.singletonList("utm_*"));
+        domainNameLimit = splitDomainName(pageUrl);
+    }
+
+
+    @Benchmark
+    public void splitDomainNameBaseline(final Blackhole blackhole) {
+
+        for (final URL link : links) {
+            blackhole.consume(domainNameLimit.equals(splitDomainName(link)));
+        }
+    }
+
+
+    @Benchmark
+    public void hostScopeContains(final Blackhole blackhole) {
+
+        for (final URL link : links) {
+            blackhole.consume(scope.contains(link));
+        }
+    }
+
+
+    @Benchmark
+    public void registrableDomain(final Blackhole blackhole) {
+
+        for (final URL link : links) {
+            blackhole.consume(publicSuffixList.getRegistrableDomain(link.getHost()));
+        }
+    }
+
+
+    @Benchmark
+    public void canonicalize(final Blackhole blackhole) throws MalformedURLException {
+
+        for (final String link : linkStrings) {
+            blackhole.consume(canonicalizer.resolve(pageUrl, link));
+        }
+    }
+
+
+    /**
+     * The domain check the crawler used before {@link HostScope}: the last two
+     * labels of the host.
+     */
+    @Nonnull
+    private static String splitDomainName(@Nonnull final URL url) {
+
+        final String[] split = url.getHost().split("\\.");
+        final StringBuilder buf = new StringBuilder();
+        buf.append(split[split.length - 2]).append(".").append(split[split.length - 1]);
+
+        return buf.toString().toLowerCase(Locale.ENGLISH);
+    }
+}
@@ -0,0 +1,121 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Generates HTML pages shaped like those of real sites: a head with meta tags,
+ * stylesheets and scripts, a navigation menu, paragraphs of text with inline
+ * links, images, a form, comments, inline script, and a footer.  Links are a mix
+ * of absolute, root relative and relative URLs, some with queries, fragments
+ * and character references.  Pages are generated from a seed, so every run
+ * benchmarks the same bytes.
+ */
+public final class HtmlCorpus {
+
+    private static final String[] WORDS = {
+        "crawler", "sitemap", "page", "link", "domain", "content", "network", "request", "response", "server",
+        "cache", "index", "search", "document", "archive", "product", "service", "article", "review", "support"
+    };
+
+
+    private HtmlCorpus() {
+    }
+
+
+    /**
+     * Generate a page.
+     *
+     * @param seed the seed the page is generated from.
+     * @param paragraphs the number of paragraphs of body text, which sets the
+     *     page size; about 40 gives a typical 20KB page.
+     * @return the page, UTF-8 encoded.
+     */
+    @Nonnull
+    public static byte[] page(long seed, int paragraphs) {
+
+        final Random random = new Random(seed);
+        final StringBuilder html = new StringBuilder(paragraphs * 600 + 4096);
+        html.append("<!DOCTYPE html>\n<html lang=\"en\">\n<head>\n")
+            .append("<meta charset=\"utf-8\">\n")
+            .append("<meta name=\"viewport\" content=\"width=device-width, initial-scale=1\">\n")
+            .append("<title>").append(sentence(random, 6)).append("</title>\n")
+            .append("<link rel=\"stylesheet\" href=\"/static/css/site.css?v=").append(random.nextInt(1000))
+            .append("\">\n")
+            .append("<link rel=\"icon\" href=\"/favicon.ico\">\n")
+            .append("<script src=\"https://cdn.example.net/js/analytics.js\" async></script>\n")
+            .append("<style>body { font-family: sans-serif; } a[href^=\"http\"] { color: #036; }</style>\n")
+            .append("</head>\n<body class=\"page\">\n<!-- <a href=\"/commented-out.html\">old</a> -->\n");
+
+        html.append("<nav><ul>\n");
+        for (int i = 0; i < 12; i++) {
+            html.append("<li><a class=\"nav-link\" href=\"/").append(word(random)).append('/')
+                .append(word(random)).append(".html\">").append(word(random)).append("</a></li>\n");
+        }
+        html.append("</ul></nav>\n<main>\n");
+
+        for (int i = 0; i < paragraphs; i++) {
+            html.append("<p>").append(sentence(random, 20 + random.nextInt(30)));
+            switch (random.nextInt(6)) {
+                case 0:
+                    html.append(" <a href=\"https://www.example.com/").append(word(random)).append("?id=")
+                        .append(random.nextInt(100000)).append("&amp;ref=").append(word(random))
+                        .append("\">").append(word(random)).append("</a>");
+                    break;
+                case 1:
+                    html.append(" <a href=\"../").append(word(random)).append("/index.html#")
+                        .append(word(random)).append("\">").append(word(random)).append("</a>");
+                    break;
+                case 2:
+                    html.append(" <a href='").append(word(random)).append(".html' title=\"")
+                        .append(sentence(random, 4)).append("\">").append(word(random)).append("</a>");
+                    break;
+                case 3:
+                    html.append(" <img src=\"/images/").append(random.nextInt(5000)).append(".jpg\" alt=\"")
+                        .append(sentence(random, 3)).append("\">");
+                    break;
+                case 4:
+                    html.append(" <a href=\"mailto:").append(word(random)).append("@example.com\">mail</a>");
+                    break;
+                default:
+                    html.append(" <em>").append(sentence(random, 5)).append("</em>");
+                    break;
+            }
+            html.append("</p>\n");
+        }
+
+        html.append("<form action=\"/search\" method=\"get\"><input name=\"q\"></form>\n")
+            .append("<script>var links = document.querySelectorAll('a[href]'); if (links.length < 2) {}</script>\n")
+            .append("</main>\n<footer>\n");
+        for (int i = 0; i < 8; i++) {
+            html.append("<a href=\"/about/").append(word(random)).append("\">").append(word(random))
+                .append("</a> | ");
+        }
+        html.append("\n</footer>\n</body>\n</html>\n");
+
+        return html.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+
+    @Nonnull
+    private static String word(@Nonnull final Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+
+    @Nonnull
+    private static String sentence(@Nonnull final Random random, int words) {
+
+        final StringBuilder buf = new StringBuilder(words * 8);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                buf.append(' ');
+            }
+            buf.append(word(random));
+        }
+
+        return buf.toString();
+    }
+}
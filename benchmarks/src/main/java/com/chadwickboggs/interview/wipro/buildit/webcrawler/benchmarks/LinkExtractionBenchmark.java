@@ -0,0 +1,83 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler.benchmarks;
+
+import com.chadwickboggs.interview.wipro.buildit.webcrawler.LinkExtractor;
+import com.chadwickboggs.interview.wipro.buildit.webcrawler.WebCrawler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+
+
+/**
+ * Link extraction over a corpus of generated pages: the original
+ * {@link WebCrawler#URL_PATTERN} regular expression run over the decoded page,
+ * against the {@link LinkExtractor} tokenizer run over its bytes.  Each
+ * operation scans the whole corpus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LinkExtractionBenchmark {
+
+    private static final int CORPUS_PAGES = 64;
+
+    /**
+     * Paragraphs per page: 4 gives 4KB pages, 40 typical 20KB pages, 400 large
+     * 200KB pages.
+     */
+    @Param({"4", "40", "400"})
+    public int paragraphs;
+
+    private URL pageUrl;
+    private byte[][] corpus;
+
+
+    @Setup
+    public void setUp() throws IOException {
+
+        pageUrl = new URL("http://www.example.com/section/page.html");
+        corpus = new byte[CORPUS_PAGES][];
+        for (int i = 0; i < CORPUS_PAGES; i++) {
+            corpus[i] = HtmlCorpus.page(i, paragraphs);
+        }
+    }
+
+
+    @Benchmark
+    public void urlPattern(final Blackhole blackhole) {
+
+        for (final byte[] page : corpus) {
+            final Matcher matcher = WebCrawler.URL_PATTERN.matcher(new String(page, StandardCharsets.UTF_8));
+            while (matcher.find()) {
+                blackhole.consume(matcher.group(1));
+            }
+        }
+    }
+
+
+    @Benchmark
+    public void linkExtractor(final Blackhole blackhole) throws IOException {
+
+        for (final byte[] page : corpus) {
+            blackhole.consume(LinkExtractor.extract(pageUrl, new ByteArrayInputStream(page), "text/html"));
+        }
+    }
+}
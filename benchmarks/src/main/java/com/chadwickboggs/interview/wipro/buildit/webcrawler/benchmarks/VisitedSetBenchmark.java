@@ -0,0 +1,131 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler.benchmarks;
+
+import com.chadwickboggs.interview.wipro.buildit.webcrawler.CrawlConfiguration;
+import com.chadwickboggs.interview.wipro.buildit.webcrawler.DedupeType;
+import com.chadwickboggs.interview.wipro.buildit.webcrawler.VisitedSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Insert and lookup in each visited set, holding a million or more pages.  The
+ * set is filled with {@link #entries} pages before each iteration; inserts then
+ * add as many pages not yet seen, and lookups look up pages which are, and are
+ * not, in the set.  Lookups run on several threads, as the crawl workers share
+ * the set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Threads(4)
+public class VisitedSetBenchmark {
+
+    @Param({"exact", "fingerprint", "bloom"})
+    public String dedupe;
+
+    @Param({"1000000"})
+    public int entries;
+
+    private URL[] present;
+    private URL[] absent;
+    private VisitedSet visitedSet;
+
+
+    @Setup(Level.Trial)
+    public void setUpUrls() throws MalformedURLException {
+
+        present = urls("present", entries);
+        absent = urls("absent", entries);
+    }
+
+
+    @Setup(Level.Iteration)
+    public void setUpSet() {
+
+        final CrawlConfiguration configuration = new CrawlConfiguration()
+            .setDedupeType(DedupeType.fromOptionValue(dedupe).orElseThrow(IllegalArgumentException::new))
+            .setDedupeMemoryBytes(CrawlConfiguration.DEFAULT_DEDUPE_MEMORY_BYTES);
+        visitedSet = configuration.getDedupeType().create(configuration);
+        for (final URL url : present) {
+            visitedSet.add(url);
+        }
+    }
+
+
+    /**
+     * Add {@link #entries} new pages to the full set, the time reported being
+     * for all of them.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Threads(1)
+    public int addNew() {
+
+        int added = 0;
+        for (final URL url : absent) {
+            if (visitedSet.add(url)) {
+                added++;
+            }
+        }
+
+        return added;
+    }
+
+
+    @Benchmark
+    public boolean containsHit(final Cursor cursor) {
+        return visitedSet.contains(present[cursor.next(present.length)]);
+    }
+
+
+    @Benchmark
+    public boolean containsMiss(final Cursor cursor) {
+        return visitedSet.contains(absent[cursor.next(absent.length)]);
+    }
+
+
+    private static URL[] urls(final String prefix, int count) throws MalformedURLException {
+
+        final URL[] urls = new URL[count];
+        for (int i = 0; i < count; i++) {
+            urls[i] = new URL("http://www.example.com/" + prefix + "/" + (i % 1000) + "/page-" + i + ".html");
+        }
+
+        return urls;
+    }
+
+
+    /**
+     * Each thread's position in the URL array, started at a random point so the
+     * threads do not look up the same pages in step.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int position = (int) (Math.random() * Integer.MAX_VALUE);
+
+
+        int next(int length) {
+            return Math.floorMod(position++, length);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.annotation.Nonnull;
+
+
+/**
+ * A fixed size array of longs supporting atomic compare-and-set, held either on
+ * the heap or in a direct buffer outside of it.  Off-heap slots add nothing to
+ * the garbage collected heap however large they are.
+ */
+abstract class AtomicLongSlots {
+
+    /**
+     * The most slots a single direct buffer can hold.
+     */
+    static final int MAX_SLOTS = Integer.MAX_VALUE / Long.BYTES - 1;
+
+
+    /**
+     * Create slots on the heap.
+     *
+     * @param length the number of slots.
+     * @return the slots, all zero.
+     */
+    @Nonnull
+    static AtomicLongSlots onHeap(int length) {
+        return new HeapSlots(length);
+    }
+
+
+    /**
+     * Create slots in a direct buffer outside of the heap.
+     *
+     * @param length the number of slots, at most {@link #MAX_SLOTS}.
+     * @return the slots, all zero.
+     */
+    @Nonnull
+    static AtomicLongSlots offHeap(int length) {
+        return new OffHeapSlots(length);
+    }
+
+
+    abstract int length();
+
+
+    abstract long get(int index);
+
+
+    abstract boolean compareAndSet(int index, long expectedValue, long newValue);
+
+
+    private static final class HeapSlots extends AtomicLongSlots {
+
+        private final AtomicLongArray slots;
+
+
+        private HeapSlots(int length) {
+
+            this.slots = new AtomicLongArray(length);
+        }
+
+
+        @Override
+        int length() {
+            return slots.length();
+        }
+
+
+        @Override
+        long get(int index) {
+            return slots.get(index);
+        }
+
+
+        @Override
+        boolean compareAndSet(int index, long expectedValue, long newValue) {
+            return slots.compareAndSet(index, expectedValue, newValue);
+        }
+    }
+
+
+    private static final class OffHeapSlots extends AtomicLongSlots {
+
+        private static final VarHandle SLOT = MethodHandles.byteBufferViewVarHandle(
+            long[].class, ByteOrder.nativeOrder()
+        );
+
+        private final ByteBuffer buffer;
+        private final int length;
+
+
+        private OffHeapSlots(int length) {
+
+            if (length > MAX_SLOTS) {
+                throw new IllegalArgumentException(String.format(
+                    "Too many off-heap slots.  Length: %d, Maximum: %d", length, MAX_SLOTS
+                ));
+            }
+
+            this.buffer = ByteBuffer.allocateDirect(length * Long.BYTES + Long.BYTES - 1)
+                .alignedSlice(Long.BYTES);
+            this.length = length;
+        }
+
+
+        @Override
+        int length() {
+            return length;
+        }
+
+
+        @Override
+        long get(int index) {
+            return (long) SLOT.getVolatile(buffer, index * Long.BYTES);
+        }
+
+
+        @Override
+        boolean compareAndSet(int index, long expectedValue, long newValue) {
+            return SLOT.compareAndSet(buffer, index * Long.BYTES, expectedValue, newValue);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Compact visited set backed by a lock-free Bloom filter.  The filter is sized
+ * from a memory cap and the number of bits set per page is chosen for the
+ * requested false positive rate.  A false positive makes the crawl skip a page
+ * it has not seen, never fetch a page twice.
+ *
+ * <p>The filter accepts pages only up to the count at which it still meets its
+ * false positive rate, so the memory cap and rate together bound the crawl.
+ * Two workers adding the same new page at the same instant may both be told it
+ * is new, which at worst fetches that page twice.</p>
+ */
+public final class BloomFilterVisitedSet implements VisitedSet {
+
+    private static final double LN_2 = Math.log(2);
+
+    private final AtomicLongSlots words;
+    private final long bitCount;
+    private final int hashCount;
+    private final long capacity;
+    private final AtomicLong size = new AtomicLong();
+    private final AtomicBoolean fullReported = new AtomicBoolean();
+
+
+    /**
+     * Construct instance.
+     *
+     * @param memoryBytes the most memory the filter may use.
+     * @param falsePositiveRate the false positive rate to hold to, between zero and one.
+     * @param offHeap true to hold the filter in a direct buffer outside of the heap.
+     */
+    public BloomFilterVisitedSet(long memoryBytes, double falsePositiveRate, boolean offHeap) {
+
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException(String.format(
+                "False positive rate must be between zero and one.  Rate: %s", falsePositiveRate
+            ));
+        }
+
+        final int length = (int) Math.min(memoryBytes / Long.BYTES, AtomicLongSlots.MAX_SLOTS);
+        if (length < 1) {
+            throw new IllegalArgumentException(String.format(
+                "Visited set memory is too small.  Memory Bytes: %d", memoryBytes
+            ));
+        }
+
+        this.words = offHeap ? AtomicLongSlots.offHeap(length) : AtomicLongSlots.onHeap(length);
+        this.bitCount = (long) length * Long.SIZE;
+        this.hashCount = Math.max(1, (int) Math.round(-Math.log(falsePositiveRate) / LN_2));
+        this.capacity = (long) (bitCount * LN_2 * LN_2 / -Math.log(falsePositiveRate));
+    }
+
+
+    @Override
+    public boolean add(@Nonnull final URL url) {
+
+        final long fingerprint = UrlKeys.fingerprint(url);
+        if (size.get() >= capacity) {
+            if (!contains(fingerprint)) {
+                reportFull();
+            }
+
+            return false;
+        }
+
+        final long increment = UrlKeys.mix(fingerprint) | 1L;
+        boolean added = false;
+        for (int i = 0; i < hashCount; i++) {
+            added |= setBit(Math.floorMod(fingerprint + i * increment, bitCount));
+        }
+
+        if (added) {
+            size.incrementAndGet();
+        }
+
+        return added;
+    }
+
+
+    @Override
+    public boolean contains(@Nonnull final URL url) {
+        return contains(UrlKeys.fingerprint(url));
+    }
+
+
+    @Override
+    public long size() {
+        return size.get();
+    }
+
+
+    /**
+     * Returns the most pages the filter accepts.
+     *
+     * @return the most pages the filter accepts.
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+
+    private boolean contains(long fingerprint) {
+
+        final long increment = UrlKeys.mix(fingerprint) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            final long bit = Math.floorMod(fingerprint + i * increment, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Set a bit, returning true if it was not already set.
+     */
+    private boolean setBit(long bit) {
+
+        final int index = (int) (bit >>> 6);
+        final long mask = 1L << bit;
+        while (true) {
+            final long word = words.get(index);
+            if ((word & mask) != 0) {
+                return false;
+            }
+
+            if (words.compareAndSet(index, word, word | mask)) {
+                return true;
+            }
+        }
+    }
+
+
+    private void reportFull() {
+
+        if (fullReported.compareAndSet(false, true)) {
+            System.err.println(String.format(
+                "Visited set is full.  No further pages will be crawled.  Capacity: %d", capacity
+            ));
+        }
+    }
+}
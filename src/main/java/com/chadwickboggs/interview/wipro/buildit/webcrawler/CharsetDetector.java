@@ -0,0 +1,246 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * Determines the charset of a page, in the order browsers do: a byte order mark,
+ * then the charset parameter of the Content-Type header, then a
+ * {@code <meta charset>} or {@code <meta http-equiv="Content-Type">} declaration
+ * near the start of the body.  Pages declaring none are taken to be UTF-8.
+ */
+public final class CharsetDetector {
+
+    /**
+     * How far into the body to look for a meta charset declaration.
+     */
+    public static final int PRESCAN_LENGTH = 1024;
+
+    public static final Charset DEFAULT_CHARSET = StandardCharsets.UTF_8;
+
+    private static final byte[] ASCII_SAMPLE = "<a href=\"/?#:;,.=-_'\">".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] META = "<meta".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CHARSET = "charset".getBytes(StandardCharsets.US_ASCII);
+
+    private static final Map<Charset, Boolean> ASCII_COMPATIBLE = new ConcurrentHashMap<>();
+
+
+    private CharsetDetector() {
+    }
+
+
+    /**
+     * Determine the charset of a page.
+     *
+     * @param contentType the Content-Type header value, if any.
+     * @param bytes the buffer holding the start of the body.
+     * @param offset the offset of the body in the buffer.
+     * @param length the number of body bytes available, ideally at least {@link #PRESCAN_LENGTH}.
+     * @return the charset.
+     */
+    @Nonnull
+    public static Charset detect(
+        @Nullable final String contentType, @Nonnull final byte[] bytes, int offset, int length
+    ) {
+
+        return fromByteOrderMark(bytes, offset, length)
+            .orElseGet(() -> fromContentType(contentType)
+                .orElseGet(() -> fromMetaDeclaration(bytes, offset, length)
+                    .orElse(DEFAULT_CHARSET)));
+    }
+
+
+    /**
+     * Returns the charset named by a byte order mark at the start of the body.
+     *
+     * @param bytes the buffer holding the start of the body.
+     * @param offset the offset of the body in the buffer.
+     * @param length the number of body bytes available.
+     * @return the charset, or empty if the body does not start with a byte order mark.
+     */
+    @Nonnull
+    public static Optional<Charset> fromByteOrderMark(@Nonnull final byte[] bytes, int offset, int length) {
+
+        if (length >= 3 && (bytes[offset] & 0xff) == 0xef && (bytes[offset + 1] & 0xff) == 0xbb
+            && (bytes[offset + 2] & 0xff) == 0xbf) {
+
+            return Optional.of(StandardCharsets.UTF_8);
+        }
+
+        if (length >= 2 && (bytes[offset] & 0xff) == 0xfe && (bytes[offset + 1] & 0xff) == 0xff) {
+            return Optional.of(StandardCharsets.UTF_16BE);
+        }
+
+        if (length >= 2 && (bytes[offset] & 0xff) == 0xff && (bytes[offset + 1] & 0xff) == 0xfe) {
+            return Optional.of(StandardCharsets.UTF_16LE);
+        }
+
+        return Optional.empty();
+    }
+
+
+    /**
+     * Returns the charset named by the charset parameter of a Content-Type value,
+     * e.g. "text/html; charset=ISO-8859-1".
+     *
+     * @param contentType the Content-Type value.
+     * @return the charset, or empty if none is named or it is not supported.
+     */
+    @Nonnull
+    public static Optional<Charset> fromContentType(@Nullable final String contentType) {
+
+        if (contentType == null) {
+            return Optional.empty();
+        }
+
+        final int index = contentType.toLowerCase(Locale.ENGLISH).indexOf("charset=");
+        if (index < 0) {
+            return Optional.empty();
+        }
+
+        final int start = index + "charset=".length();
+        int end = start;
+        while (end < contentType.length() && contentType.charAt(end) != ';') {
+            end++;
+        }
+
+        return forName(contentType.substring(start, end));
+    }
+
+
+    /**
+     * Returns the charset declared by a meta element in the start of the body:
+     * {@code <meta charset="...">} or the charset parameter of
+     * {@code <meta http-equiv="Content-Type" content="...">}.
+     *
+     * @param bytes the buffer holding the start of the body.
+     * @param offset the offset of the body in the buffer.
+     * @param length the number of body bytes available.
+     * @return the charset, or empty if none is declared or it is not supported.
+     */
+    @Nonnull
+    public static Optional<Charset> fromMetaDeclaration(@Nonnull final byte[] bytes, int offset, int length) {
+
+        final int end = offset + Math.min(length, PRESCAN_LENGTH);
+        int meta = indexOfIgnoreCase(bytes, offset, end, META);
+        while (meta >= 0) {
+            int tagEnd = meta + META.length;
+            while (tagEnd < end && bytes[tagEnd] != '>') {
+                tagEnd++;
+            }
+
+            final int charset = indexOfIgnoreCase(bytes, meta + META.length, tagEnd, CHARSET);
+            if (charset >= 0) {
+                int i = charset + CHARSET.length;
+                while (i < tagEnd && bytes[i] == ' ') {
+                    i++;
+                }
+                if (i < tagEnd && bytes[i] == '=') {
+                    i++;
+                    while (i < tagEnd && (bytes[i] == ' ' || bytes[i] == '"' || bytes[i] == '\'')) {
+                        i++;
+                    }
+
+                    final int start = i;
+                    while (i < tagEnd && bytes[i] != '"' && bytes[i] != '\'' && bytes[i] != ';'
+                        && bytes[i] != ' ' && bytes[i] != '/') {
+                        i++;
+                    }
+
+                    final Optional<Charset> declared = forName(
+                        new String(bytes, start, i - start, StandardCharsets.US_ASCII)
+                    );
+                    if (declared.isPresent()) {
+                        // A page can not truthfully declare UTF-16 in ASCII bytes.
+                        return isAsciiCompatible(declared.get())
+                            ? declared
+                            : Optional.of(StandardCharsets.UTF_8);
+                    }
+                }
+            }
+
+            meta = indexOfIgnoreCase(bytes, tagEnd, end, META);
+        }
+
+        return Optional.empty();
+    }
+
+
+    /**
+     * Returns true if a charset encodes the ASCII characters used by HTML markup
+     * and URLs as their single ASCII bytes, so markup can be scanned without
+     * decoding.
+     *
+     * @param charset the charset.
+     * @return true if the charset is ASCII compatible.
+     */
+    public static boolean isAsciiCompatible(@Nonnull final Charset charset) {
+
+        return ASCII_COMPATIBLE.computeIfAbsent(charset, c -> {
+            if (!c.canEncode()) {
+                return false;
+            }
+
+            return Arrays.equals(ASCII_SAMPLE, new String(ASCII_SAMPLE, StandardCharsets.US_ASCII).getBytes(c));
+        });
+    }
+
+
+    @Nonnull
+    private static Optional<Charset> forName(@Nonnull final String name) {
+
+        final String trimmed = name.trim().replace("\"", "").replace("'", "");
+        if (trimmed.isEmpty()) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(Charset.forName(trimmed));
+        }
+        catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+            return Optional.empty();
+        }
+    }
+
+
+    private static int indexOfIgnoreCase(
+        @Nonnull final byte[] bytes, int start, int end, @Nonnull final byte[] target
+    ) {
+
+        for (int i = start; i <= end - target.length; i++) {
+            if (regionMatchesIgnoreCase(bytes, i, target)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+
+    private static boolean regionMatchesIgnoreCase(
+        @Nonnull final byte[] bytes, int offset, @Nonnull final byte[] target
+    ) {
+
+        for (int j = 0; j < target.length; j++) {
+            int c = bytes[offset + j];
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            if (c != target[j]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
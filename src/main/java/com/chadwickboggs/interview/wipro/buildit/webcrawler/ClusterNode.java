@@ -0,0 +1,774 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * One node of a crawl shared by several crawler processes, each running its own
+ * {@link CrawlEngine} with the same list of node addresses.  Every node owns the
+ * hosts a {@link HostPartitioner} assigns it, so each host's robots.txt, request
+ * rate and visited pages are kept by one node alone.  Links to hosts owned by
+ * another node are forwarded to it in batches over plain TCP connections, one
+ * from every node to every other.
+ *
+ * <p>Node zero coordinates.  It finds the crawl finished by probing every node in
+ * waves for whether it is idle and how many links it has sent and received: once
+ * two waves in a row find every node idle with unchanged counts, and as many
+ * links received as sent so that none is in flight, it tells the nodes to stop.
+ * The other nodes then send it the pages they crawled, which it merges into the
+ * one sitemap.  A node lost before then fails the crawl.</p>
+ */
+final class ClusterNode implements Closeable {
+
+    static final int COORDINATOR = 0;
+    static final long CONNECT_TIMEOUT_MILLIS = 60000;
+
+    private static final long RETRY_INTERVAL_MILLIS = 100;
+    private static final long FLUSH_INTERVAL_MILLIS = 20;
+    private static final long PROBE_INTERVAL_MILLIS = 100;
+    private static final long WAVE_TIMEOUT_MILLIS = 1000;
+    private static final int BATCH_SIZE = 512;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final byte HELLO = 'H';
+    private static final byte LINKS = 'L';
+    private static final byte PROBE = 'P';
+    private static final byte STATUS = 'S';
+    private static final byte TERMINATE = 'T';
+    private static final byte PAGE = 'G';
+    private static final byte PAGES_DONE = 'D';
+
+    private final List<InetSocketAddress> addresses;
+    private final int nodeIndex;
+    private final HostPartitioner partitioner;
+    private final Peer[] peers;
+    private final List<Socket> inbound = new CopyOnWriteArrayList<>();
+    private final List<Thread> threads = new CopyOnWriteArrayList<>();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+    private final BlockingQueue<Status> statuses = new LinkedBlockingQueue<>();
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    private final CountDownLatch pagesDone;
+    private final AtomicReference<IOException> failure = new AtomicReference<>();
+    private volatile Listener listener;
+    private volatile boolean started;
+    private volatile boolean closed;
+    private ServerSocket serverSocket;
+
+
+    /**
+     * Construct instance.  Nothing is opened until the node is started.
+     *
+     * @param addresses the address of every node, in the same order on each.
+     * @param nodeIndex the index of this node in the addresses.
+     */
+    ClusterNode(@Nonnull final List<InetSocketAddress> addresses, int nodeIndex) {
+
+        if (nodeIndex < 0 || nodeIndex >= addresses.size()) {
+            throw new IllegalArgumentException(String.format(
+                "Node index out of range.  Node Index: %d, Node Count: %d", nodeIndex, addresses.size()
+            ));
+        }
+
+        this.addresses = Collections.unmodifiableList(new ArrayList<>(addresses));
+        this.nodeIndex = nodeIndex;
+        this.partitioner = new HostPartitioner(addresses.size());
+        this.peers = new Peer[addresses.size()];
+        this.pagesDone = new CountDownLatch(isCoordinator() ? addresses.size() - 1 : 0);
+    }
+
+
+    int getNodeIndex() {
+        return nodeIndex;
+    }
+
+
+    boolean isCoordinator() {
+        return nodeIndex == COORDINATOR;
+    }
+
+
+    /**
+     * Returns true if this node crawls a URL's host.
+     *
+     * @param url the URL.
+     * @return true if the URL is crawled by this node.
+     */
+    boolean owns(@Nonnull final URL url) {
+        return partitioner.nodeOf(url) == nodeIndex;
+    }
+
+
+    /**
+     * Listen for the other nodes and connect to each of them, waiting up to
+     * {@link #CONNECT_TIMEOUT_MILLIS} for them to start.
+     *
+     * @param listener the receiver of what the other nodes send.
+     * @throws IOException if a node can not be reached.
+     */
+    void start(@Nonnull final Listener listener) throws IOException {
+
+        this.listener = listener;
+        serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(addresses.get(nodeIndex));
+        startThread("web-crawler-cluster-acceptor", this::accept);
+
+        final long deadline = System.currentTimeMillis() + CONNECT_TIMEOUT_MILLIS;
+        for (int node = 0; node < peers.length; node++) {
+            if (node != nodeIndex) {
+                peers[node] = connect(node, deadline);
+            }
+        }
+        started = true;
+
+        startThread("web-crawler-cluster-flusher", this::flushPeriodically);
+        if (isCoordinator()) {
+            startThread("web-crawler-cluster-coordinator", this::coordinate);
+        }
+    }
+
+
+    /**
+     * Send a task to the node owning its host.  Tasks are sent in batches, at
+     * the latest {@link #FLUSH_INTERVAL_MILLIS} after being forwarded.
+     *
+     * @param task the task, whose host is owned by another node.
+     */
+    void forward(@Nonnull final CrawlTask task) {
+
+        final int owner = partitioner.nodeOf(task.getUrl());
+        sent.incrementAndGet();
+        try {
+            peers[owner].forward(task);
+        }
+        catch (IOException e) {
+            fail(new IOException(String.format(
+                "Error forwarding links to cluster node.  Node: %d, Error Message: \"%s\"", owner, e.getMessage()
+            ), e));
+        }
+    }
+
+
+    /**
+     * Wait until the crawl is finished on every node, and on the coordinator
+     * until every other node has sent it its pages.
+     *
+     * @throws IOException if the cluster failed.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    void awaitCompletion() throws IOException, InterruptedException {
+
+        terminated.await();
+        pagesDone.await();
+
+        final IOException error = failure.get();
+        if (error != null) {
+            throw error;
+        }
+    }
+
+
+    /**
+     * Returns a sitemap sink sending this node's pages on to the coordinator,
+     * for a node other than the coordinator.
+     *
+     * @return the sink.
+     */
+    @Nonnull
+    SitemapSink newSitemapSink() {
+
+        return new SitemapSink() {
+
+            @Override
+            public void write(@Nonnull final SitemapPage page) throws IOException {
+
+                if (started) {
+                    peers[COORDINATOR].page(page);
+                }
+            }
+
+
+            @Override
+            public void flush() throws IOException {
+
+                if (started) {
+                    peers[COORDINATOR].flush();
+                }
+            }
+
+
+            @Override
+            public void close() throws IOException {
+
+                if (started) {
+                    peers[COORDINATOR].pagesDone();
+                }
+            }
+        };
+    }
+
+
+    @Override
+    public void close() throws IOException {
+
+        closed = true;
+        threads.forEach(Thread::interrupt);
+
+        IOException error = null;
+        for (final Peer peer : peers) {
+            if (peer != null) {
+                try {
+                    peer.close();
+                }
+                catch (IOException e) {
+                    error = e;
+                }
+            }
+        }
+        if (serverSocket != null) {
+            serverSocket.close();
+        }
+        for (final Socket socket : inbound) {
+            socket.close();
+        }
+
+        if (error != null) {
+            throw error;
+        }
+    }
+
+
+    @Nonnull
+    private Peer connect(int node, long deadline) throws IOException {
+
+        while (true) {
+            final Socket socket = new Socket();
+            try {
+                socket.connect(addresses.get(node), (int) CONNECT_TIMEOUT_MILLIS);
+                socket.setTcpNoDelay(true);
+                final Peer peer = new Peer(socket);
+                peer.hello(nodeIndex);
+
+                return peer;
+            }
+            catch (IOException e) {
+                socket.close();
+                if (System.currentTimeMillis() >= deadline) {
+                    throw new IOException(String.format(
+                        "Unable to connect to cluster node.  Node: %d, Address: \"%s\", Error Message: \"%s\"",
+                        node, addresses.get(node), e.getMessage()
+                    ), e);
+                }
+            }
+
+            try {
+                Thread.sleep(RETRY_INTERVAL_MILLIS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                throw new InterruptedIOException("Interrupted connecting to the cluster.");
+            }
+        }
+    }
+
+
+    private void accept() {
+
+        try {
+            while (!closed) {
+                final Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                inbound.add(socket);
+                startThread("web-crawler-cluster-reader", () -> read(socket));
+            }
+        }
+        catch (IOException e) {
+            if (!closed) {
+                fail(e);
+            }
+        }
+    }
+
+
+    /**
+     * Read what one other node sends.  A lost connection fails the crawl if it is
+     * the coordinator's before the crawl is finished, or, on the coordinator,
+     * any node's before it has sent its pages.
+     */
+    private void read(@Nonnull final Socket socket) {
+
+        int from = -1;
+        boolean finished = false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), BUFFER_SIZE))) {
+            if (in.readByte() != HELLO) {
+                throw new IOException("Unexpected cluster message.  Expected: \"HELLO\"");
+            }
+            from = in.readInt();
+
+            while (true) {
+                final byte type = in.readByte();
+                switch (type) {
+                    case LINKS:
+                        receiveLinks(in);
+                        break;
+                    case PROBE:
+                        final int wave = in.readInt();
+                        if (started) {
+                            peers[COORDINATOR].status(localStatus(wave));
+                        }
+                        break;
+                    case STATUS:
+                        statuses.add(new Status(from, in.readInt(), in.readBoolean(), in.readLong(), in.readLong()));
+                        break;
+                    case TERMINATE:
+                        terminate();
+                        finished = true;
+                        break;
+                    case PAGE:
+                        listener.pageReceived(readPage(in));
+                        break;
+                    case PAGES_DONE:
+                        pagesDone.countDown();
+                        finished = true;
+                        break;
+                    default:
+                        throw new IOException(String.format(
+                            "Unknown cluster message.  Node: %d, Type: %d", from, type
+                        ));
+                }
+            }
+        }
+        catch (EOFException e) {
+            final boolean expected = finished || !isCoordinator() && from != COORDINATOR;
+            if (!closed && !expected) {
+                fail(new IOException(String.format("Lost connection to cluster node.  Node: %d", from)));
+            }
+        }
+        catch (IOException e) {
+            if (!closed) {
+                fail(new IOException(String.format(
+                    "Error reading from cluster node.  Node: %d, Error Message: \"%s\"", from, e.getMessage()
+                ), e));
+            }
+        }
+    }
+
+
+    private void receiveLinks(@Nonnull final DataInputStream in) throws IOException {
+
+        final int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            final int depth = in.readInt();
+            final String url = readString(in);
+            try {
+                listener.taskReceived(new CrawlTask(new URL(url), depth));
+            }
+            catch (MalformedURLException e) {
+                System.err.println(String.format("Malformed URL from cluster node.  URL: \"%s\"", url));
+            }
+            received.incrementAndGet();
+        }
+    }
+
+
+    /**
+     * Probe the nodes in waves until two waves in a row find every node idle,
+     * with the same counts each time and as many links received as sent.  Counts
+     * unchanged between the waves mean no node sent or received anything in
+     * between, so at some moment between them every node was idle with nothing
+     * in flight: the crawl was finished.
+     */
+    private void coordinate() {
+
+        try {
+            long[] previous = null;
+            for (int wave = 1; terminated.getCount() > 0; wave++) {
+                Thread.sleep(PROBE_INTERVAL_MILLIS);
+                for (final Peer peer : peers) {
+                    if (peer != null) {
+                        peer.probe(wave);
+                    }
+                }
+
+                final Status[] replies = collect(wave);
+                if (replies == null) {
+                    return;
+                }
+
+                if (Arrays.asList(replies).contains(null)) {
+                    previous = null;
+                    continue;
+                }
+
+                boolean idle = true;
+                long sentTotal = 0;
+                long receivedTotal = 0;
+                final long[] counts = new long[replies.length * 2];
+                for (int node = 0; node < replies.length; node++) {
+                    idle &= replies[node].idle;
+                    sentTotal += replies[node].sent;
+                    receivedTotal += replies[node].received;
+                    counts[node * 2] = replies[node].sent;
+                    counts[node * 2 + 1] = replies[node].received;
+                }
+
+                if (idle && sentTotal == receivedTotal && Arrays.equals(counts, previous)) {
+                    for (final Peer peer : peers) {
+                        if (peer != null) {
+                            peer.terminate();
+                        }
+                    }
+                    terminate();
+
+                    return;
+                }
+                previous = idle ? counts : null;
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        catch (IOException e) {
+            if (!closed) {
+                fail(e);
+            }
+        }
+    }
+
+
+    /**
+     * Collect every node's status for a wave, this node's own included, waiting
+     * up to {@link #WAVE_TIMEOUT_MILLIS} for them.  A node still starting up does
+     * not answer.
+     *
+     * @return the statuses by node, null where a node did not answer in time, or
+     *     null if the crawl ended meanwhile.
+     */
+    @Nullable
+    private Status[] collect(int wave) throws InterruptedException {
+
+        final Status[] replies = new Status[peers.length];
+        replies[nodeIndex] = localStatus(wave);
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAVE_TIMEOUT_MILLIS);
+        int missing = peers.length - 1;
+        while (missing > 0 && System.nanoTime() < deadline) {
+            final Status status = statuses.poll(PROBE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            if (terminated.getCount() == 0) {
+                return null;
+            }
+            if (status != null && status.wave == wave && replies[status.node] == null) {
+                replies[status.node] = status;
+                missing--;
+            }
+        }
+
+        return replies;
+    }
+
+
+    @Nonnull
+    private Status localStatus(int wave) {
+
+        final long sentCount = sent.get();
+        final long receivedCount = received.get();
+
+        return new Status(nodeIndex, wave, listener.isIdle(), sentCount, receivedCount);
+    }
+
+
+    private void flushPeriodically() {
+
+        try {
+            while (!closed) {
+                Thread.sleep(FLUSH_INTERVAL_MILLIS);
+                for (final Peer peer : peers) {
+                    if (peer != null) {
+                        peer.flush();
+                    }
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        catch (IOException e) {
+            if (!closed) {
+                fail(e);
+            }
+        }
+    }
+
+
+    private synchronized void terminate() {
+
+        if (terminated.getCount() > 0) {
+            terminated.countDown();
+            listener.terminated();
+        }
+    }
+
+
+    /**
+     * Fail the crawl: stop waiting for the other nodes and let the workers finish.
+     */
+    private void fail(@Nonnull final IOException e) {
+
+        if (failure.compareAndSet(null, e)) {
+            System.err.println(e.getMessage());
+        }
+        while (pagesDone.getCount() > 0) {
+            pagesDone.countDown();
+        }
+        terminate();
+    }
+
+
+    private void startThread(@Nonnull final String name, @Nonnull final Runnable runnable) {
+
+        final Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        threads.add(thread);
+        thread.start();
+    }
+
+
+    @Nonnull
+    private static SitemapPage readPage(@Nonnull final DataInputStream in) throws IOException {
+
+        final int depth = in.readInt();
+        final URL url = new URL(readString(in));
+        final int linkCount = in.readInt();
+        final List<URL> links = new ArrayList<>(linkCount);
+        for (int i = 0; i < linkCount; i++) {
+            links.add(new URL(readString(in)));
+        }
+        final URL aliasOf = in.readBoolean() ? new URL(readString(in)) : null;
+
+        return new SitemapPage(url, depth, links, aliasOf);
+    }
+
+
+    @Nonnull
+    private static String readString(@Nonnull final DataInputStream in) throws IOException {
+
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+
+    private static void writeString(@Nonnull final DataOutputStream out, @Nonnull final String value)
+        throws IOException {
+
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+
+    /**
+     * Receives what the other nodes send.  Called from the threads reading their
+     * connections.
+     */
+    interface Listener {
+
+        /**
+         * A task forwarded by another node.
+         *
+         * @param task the task, whose host this node owns.
+         */
+        void taskReceived(@Nonnull CrawlTask task);
+
+
+        /**
+         * A page crawled by another node, received by the coordinator.
+         *
+         * @param page the page.
+         */
+        void pageReceived(@Nonnull SitemapPage page);
+
+
+        /**
+         * Returns true if this node has no task queued or in progress.
+         *
+         * @return true if idle.
+         */
+        boolean isIdle();
+
+
+        /**
+         * The crawl is finished on every node, or the cluster failed.
+         */
+        void terminated();
+    }
+
+
+    /**
+     * The connection to one other node, written by any thread.
+     */
+    private static final class Peer {
+
+        private final Socket socket;
+        private final DataOutputStream out;
+        private final List<CrawlTask> batch = new ArrayList<>();
+
+
+        private Peer(@Nonnull final Socket socket) throws IOException {
+
+            this.socket = socket;
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE));
+        }
+
+
+        private synchronized void hello(int nodeIndex) throws IOException {
+
+            out.writeByte(HELLO);
+            out.writeInt(nodeIndex);
+            out.flush();
+        }
+
+
+        private synchronized void forward(@Nonnull final CrawlTask task) throws IOException {
+
+            batch.add(task);
+            if (batch.size() >= BATCH_SIZE) {
+                writeBatch();
+            }
+        }
+
+
+        private synchronized void probe(int wave) throws IOException {
+
+            out.writeByte(PROBE);
+            out.writeInt(wave);
+            out.flush();
+        }
+
+
+        private synchronized void status(@Nonnull final Status status) throws IOException {
+
+            out.writeByte(STATUS);
+            out.writeInt(status.wave);
+            out.writeBoolean(status.idle);
+            out.writeLong(status.sent);
+            out.writeLong(status.received);
+            out.flush();
+        }
+
+
+        private synchronized void terminate() throws IOException {
+
+            out.writeByte(TERMINATE);
+            out.flush();
+        }
+
+
+        private synchronized void page(@Nonnull final SitemapPage page) throws IOException {
+
+            out.writeByte(PAGE);
+            out.writeInt(page.getDepth());
+            writeString(out, page.getUrl().toString());
+            out.writeInt(page.getLinks().size());
+            for (final URL link : page.getLinks()) {
+                writeString(out, link.toString());
+            }
+            out.writeBoolean(page.getAliasOf() != null);
+            if (page.getAliasOf() != null) {
+                writeString(out, page.getAliasOf().toString());
+            }
+        }
+
+
+        private synchronized void pagesDone() throws IOException {
+
+            out.writeByte(PAGES_DONE);
+            out.flush();
+        }
+
+
+        private synchronized void flush() throws IOException {
+
+            writeBatch();
+            out.flush();
+        }
+
+
+        private void writeBatch() throws IOException {
+
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            out.writeByte(LINKS);
+            out.writeInt(batch.size());
+            for (final CrawlTask task : batch) {
+                out.writeInt(task.getDepth());
+                writeString(out, task.getUrl().toString());
+            }
+            batch.clear();
+        }
+
+
+        private void close() throws IOException {
+
+            try {
+                flush();
+            }
+            finally {
+                socket.close();
+            }
+        }
+    }
+
+
+    /**
+     * One node's answer to a probe.
+     */
+    private static final class Status {
+
+        private final int node;
+        private final int wave;
+        private final boolean idle;
+        private final long sent;
+        private final long received;
+
+
+        private Status(int node, int wave, boolean idle, long sent, long received) {
+
+            this.node = node;
+            this.wave = wave;
+            this.idle = idle;
+            this.sent = sent;
+            this.received = received;
+        }
+    }
+}
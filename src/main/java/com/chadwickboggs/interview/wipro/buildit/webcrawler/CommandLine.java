@@ -300,7 +300,8 @@ public final class CommandLine {
 
 
     /**
-     * Register an a command line argument.
+     * Register an a command line argument.  It is recognized both by its symbol,
+     * "-x", and by its name, "--name", if it has one.
      *
      * @param arg the command line argument.
      * @return this command line instance.
@@ -309,6 +310,9 @@ public final class CommandLine {
     public CommandLine registerArg(@Nonnull final Arg arg) {
 
         registeredArgs.put("-" + arg.getSymbol(), arg);
+        if (StringUtils.isNoneBlank(arg.getName())) {
+            registeredArgs.put("--" + arg.getName(), arg);
+        }
 
         return this;
     }
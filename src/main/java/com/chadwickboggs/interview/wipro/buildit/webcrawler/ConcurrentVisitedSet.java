@@ -0,0 +1,35 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.net.URL;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Visited set keyed on the canonical text form of each URL, see
+ * {@link UrlKeys#canonicalKey(URL)}.  Backed by a concurrent hash set, so lookups
+ * are lock free and inserts only contend when two keys share a bin.
+ */
+public final class ConcurrentVisitedSet implements VisitedSet {
+
+    private final Set<String> keys = ConcurrentHashMap.newKeySet();
+
+
+    @Override
+    public boolean add(@Nonnull final URL url) {
+        return keys.add(UrlKeys.canonicalKey(url));
+    }
+
+
+    @Override
+    public boolean contains(@Nonnull final URL url) {
+        return keys.contains(UrlKeys.canonicalKey(url));
+    }
+
+
+    @Override
+    public long size() {
+        return keys.size();
+    }
+}
@@ -0,0 +1,36 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Decodes a response body sent with one HTTP content coding, such as gzip.  The
+ * crawl advertises the codings of its decoders in the Accept-Encoding header and
+ * decodes bodies as they stream in, so a compressed page is never held whole.
+ * The codings the JDK supports are the {@link ContentEncoding}s; others, e.g.
+ * Brotli, can be plugged in by implementing this interface.
+ */
+public interface ContentDecoder {
+
+    /**
+     * Returns the content coding decoded, as named in the Content-Encoding header.
+     *
+     * @return the coding name, e.g. "gzip".
+     */
+    @Nonnull
+    String getEncoding();
+
+
+    /**
+     * Wrap an encoded stream in one decoding it.  Closing the returned stream
+     * closes the encoded one and releases any native memory the decoder holds.
+     *
+     * @param encoded the encoded stream.
+     * @return the decoded stream.
+     * @throws IOException on error reading the start of the encoded stream.
+     */
+    @Nonnull
+    InputStream decode(@Nonnull InputStream encoded) throws IOException;
+}
@@ -0,0 +1,87 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * The content codings a crawl accepts: the Accept-Encoding header naming them,
+ * and the decoding of response bodies by their Content-Encoding header.  Codings
+ * applied one after another, e.g. "gzip, deflate", are undone in reverse.
+ */
+final class ContentDecoders {
+
+    private static final String IDENTITY = "identity";
+
+    private final Map<String, ContentDecoder> decoders = new LinkedHashMap<>();
+    private final String acceptEncoding;
+
+
+    /**
+     * Create instance.
+     *
+     * @param decoders the decoders, in order of preference.
+     */
+    ContentDecoders(@Nonnull final List<ContentDecoder> decoders) {
+
+        for (final ContentDecoder decoder : decoders) {
+            this.decoders.putIfAbsent(decoder.getEncoding().toLowerCase(Locale.ENGLISH), decoder);
+        }
+        this.acceptEncoding = this.decoders.isEmpty() ? null : String.join(", ", this.decoders.keySet());
+    }
+
+
+    /**
+     * Returns the Accept-Encoding header value.
+     *
+     * @return the codings accepted, or null if none besides identity.
+     */
+    @Nullable
+    String getAcceptEncoding() {
+        return acceptEncoding;
+    }
+
+
+    /**
+     * Wrap a body in the decoders undoing its content codings.
+     *
+     * @param contentEncoding the Content-Encoding header value, if any.
+     * @param body the body as received.
+     * @return the decoded body.
+     * @throws IOException if a coding is not supported, or on error reading the
+     *     start of the body.
+     */
+    @Nonnull
+    InputStream decode(@Nullable final String contentEncoding, @Nonnull final InputStream body) throws IOException {
+
+        if (contentEncoding == null) {
+            return body;
+        }
+
+        final List<String> codings = Arrays.stream(contentEncoding.split(","))
+            .map(coding -> coding.trim().toLowerCase(Locale.ENGLISH))
+            .filter(coding -> !coding.isEmpty() && !IDENTITY.equals(coding))
+            .collect(Collectors.toList());
+        InputStream decoded = body;
+        for (int i = codings.size() - 1; i >= 0; i--) {
+            final String coding = "x-gzip".equals(codings.get(i)) ? ContentEncoding.GZIP.getEncoding() : codings.get(i);
+            final ContentDecoder decoder = decoders.get(coding);
+            if (decoder == null) {
+                throw new IOException(String.format(
+                    "Unsupported content encoding.  Content Encoding: \"%s\"", contentEncoding
+                ));
+            }
+            decoded = decoder.decode(decoded);
+        }
+
+        return decoded;
+    }
+}
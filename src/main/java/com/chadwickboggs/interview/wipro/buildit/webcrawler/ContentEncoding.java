@@ -0,0 +1,111 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * The content codings decoded with the JDK's own inflater, selectable on the
+ * command line.
+ */
+public enum ContentEncoding implements ContentDecoder {
+
+    GZIP("gzip") {
+        @Override
+        @Nonnull
+        public InputStream decode(@Nonnull final InputStream encoded) throws IOException {
+            return new GZIPInputStream(encoded, BUFFER_SIZE);
+        }
+    },
+    /**
+     * The "deflate" coding is meant to be zlib wrapped deflate, but some servers
+     * send raw deflate instead, so the wrapper is looked for and used if present.
+     */
+    DEFLATE("deflate") {
+        @Override
+        @Nonnull
+        public InputStream decode(@Nonnull final InputStream encoded) throws IOException {
+
+            final InputStream in = new BufferedInputStream(encoded, BUFFER_SIZE);
+            in.mark(2);
+            final int cmf = in.read();
+            final int flg = in.read();
+            in.reset();
+            final boolean zlib = (cmf & 0x0f) == 8 && flg >= 0 && ((cmf << 8) | flg) % 31 == 0;
+
+            return new EndingInflaterInputStream(in, new Inflater(!zlib));
+        }
+    };
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final String optionValue;
+
+
+    ContentEncoding(@Nonnull final String optionValue) {
+
+        this.optionValue = optionValue;
+    }
+
+
+    @Nonnull
+    public String getOptionValue() {
+        return optionValue;
+    }
+
+
+    @Override
+    @Nonnull
+    public String getEncoding() {
+        return optionValue;
+    }
+
+
+    /**
+     * Find the encoding with the given command line option value.
+     *
+     * @param optionValue the option value, e.g. "gzip".
+     * @return the encoding, or empty if there is none with that value.
+     */
+    @Nonnull
+    public static Optional<ContentEncoding> fromOptionValue(@Nullable final String optionValue) {
+
+        return Arrays.stream(values())
+            .filter(encoding -> encoding.optionValue.equalsIgnoreCase(String.valueOf(optionValue).trim()))
+            .findFirst();
+    }
+
+
+    /**
+     * Inflates with its own {@link Inflater}, ending it on close: unlike
+     * {@link GZIPInputStream}, an {@link InflaterInputStream} given an inflater
+     * leaves its native memory to the finalizer.
+     */
+    private static final class EndingInflaterInputStream extends InflaterInputStream {
+
+        private EndingInflaterInputStream(@Nonnull final InputStream in, @Nonnull final Inflater inflater) {
+
+            super(in, inflater, BUFFER_SIZE);
+        }
+
+
+        @Override
+        public void close() throws IOException {
+
+            try {
+                super.close();
+            }
+            finally {
+                inf.end();
+            }
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * Fingerprints of the text of a page, by which copies of it served under other
+ * URLs are found: an exact hash of its words in order, and a 64-bit SimHash of
+ * its three word shingles, which differs in few bits between pages differing in
+ * few words.  Each distinct shingle counts once, so text repeated throughout a
+ * page does not outweigh the rest.  The SimHash takes in only the text, not the
+ * markup.  The exact hash takes in the targets of the page's links too, so
+ * pages of the same text linking to different pages, such as the pages of a
+ * gallery or calendar, are not exact copies, but up to any query or fragment
+ * only, so copies whose links carry different session IDs or tracking
+ * parameters still are.  Words are runs of ASCII letters and digits, compared
+ * case insensitively, and of non-ASCII bytes, so text in any ASCII compatible
+ * encoding is split the same way.
+ */
+final class ContentFingerprint {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * The most distinct shingles of a page counted in its SimHash, bounding the
+     * memory taken by a large page.
+     */
+    static final int MAX_SHINGLES = 1 << 16;
+
+    private static final byte[] HREF = {'h', 'r', 'e', 'f'};
+
+    /**
+     * Where in the markup the bytes added are: in text, in a tag, in a tag's
+     * "href" attribute name, between the name and "=", between "=" and the
+     * value, or in the value.
+     */
+    private static final int TEXT = 0;
+    private static final int TAG = 1;
+    private static final int NAME = 2;
+    private static final int NAME_END = 3;
+    private static final int VALUE_START = 4;
+    private static final int VALUE = 5;
+
+    private final long exactHash;
+    private final long simHash;
+
+
+    /**
+     * Construct instance.
+     *
+     * @param exactHash the hash of the page's words in order.
+     * @param simHash the SimHash of the page's shingles.
+     */
+    ContentFingerprint(long exactHash, long simHash) {
+
+        this.exactHash = exactHash;
+        this.simHash = simHash;
+    }
+
+
+    /**
+     * Returns the fingerprint of a page read whole.
+     *
+     * @param body the page's bytes.
+     * @return the fingerprint, or null if the page has no text.
+     */
+    @Nullable
+    static ContentFingerprint of(@Nonnull final byte[] body) {
+
+        final Builder builder = new Builder();
+        builder.update(body, 0, body.length);
+
+        return builder.build();
+    }
+
+
+    long getExactHash() {
+        return exactHash;
+    }
+
+
+    long getSimHash() {
+        return simHash;
+    }
+
+
+    /**
+     * Returns the number of bits in which the SimHashes of two pages differ.
+     *
+     * @param other the other page's fingerprint.
+     * @return the Hamming distance, from 0 to 64.
+     */
+    int distance(@Nonnull final ContentFingerprint other) {
+        return Long.bitCount(simHash ^ other.simHash);
+    }
+
+
+    @Override
+    @Nonnull
+    public String toString() {
+
+        return "ContentFingerprint{"
+            + "exactHash='" + Long.toHexString(exactHash) + '\''
+            + ", simHash='" + Long.toHexString(simHash) + '\''
+            + "}";
+    }
+
+
+    /**
+     * Computes a fingerprint from a page's bytes as they are read, so a page
+     * streamed into the link scanner need not be held whole.
+     */
+    static final class Builder {
+
+        private final int[] weights = new int[Long.SIZE];
+        private long[] shingles = new long[64];
+        private int shingleCount;
+        private int markup = TEXT;
+        private boolean afterSpace;
+        private int nameLength;
+        private int quote;
+        private boolean inTarget;
+        private long linkHash = FNV_OFFSET_BASIS;
+        private long word = FNV_OFFSET_BASIS;
+        private int wordLength;
+        private long previousWord;
+        private long wordBeforeThat;
+        private long exactHash = FNV_OFFSET_BASIS;
+        private long wordCount;
+
+
+        /**
+         * Add bytes of the page, in the order they are read.
+         *
+         * @param bytes the buffer.
+         * @param offset the offset of the first byte.
+         * @param length the number of bytes.
+         */
+        void update(@Nonnull final byte[] bytes, int offset, int length) {
+
+            for (int i = offset; i < offset + length; i++) {
+                update(bytes[i]);
+            }
+        }
+
+
+        /**
+         * Add one byte of the page.
+         *
+         * @param b the byte.
+         */
+        void update(int b) {
+
+            final int c = b & 0xff;
+            if (markup != TEXT) {
+                updateTag(c);
+            }
+            else if (c == '<') {
+                endWord();
+                markup = TAG;
+                afterSpace = false;
+            }
+            else if (c >= 'A' && c <= 'Z') {
+                appendToWord(c + ('a' - 'A'));
+            }
+            else if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c >= 0x80) {
+                appendToWord(c);
+            }
+            else {
+                endWord();
+            }
+        }
+
+
+        /**
+         * Returns the fingerprint of the bytes added.
+         *
+         * @return the fingerprint, or null if the page has no text.
+         */
+        @Nullable
+        ContentFingerprint build() {
+
+            endWord();
+            if (wordCount == 0) {
+                return null;
+            }
+
+            long simHash = 0;
+            for (int bit = 0; bit < Long.SIZE; bit++) {
+                if (weights[bit] > 0) {
+                    simHash |= 1L << bit;
+                }
+            }
+
+            return new ContentFingerprint(UrlKeys.mix(exactHash ^ UrlKeys.mix(linkHash)), simHash);
+        }
+
+
+        /**
+         * Add one byte of a tag, hashing the targets of "href" attributes up to
+         * any query or fragment.  Any "&gt;" ends the tag, as it does in the text
+         * taken in, even one in a quoted value.
+         */
+        private void updateTag(int c) {
+
+            if (c == '>') {
+                endLink();
+                markup = TEXT;
+
+                return;
+            }
+
+            final boolean space = c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+            switch (markup) {
+                case VALUE:
+                    updateValue(c, space);
+                    break;
+                case VALUE_START:
+                    if (!space) {
+                        markup = VALUE;
+                        inTarget = true;
+                        quote = c == '"' || c == '\'' ? c : 0;
+                        if (quote == 0) {
+                            updateValue(c, false);
+                        }
+                    }
+                    break;
+                case NAME_END:
+                    if (c == '=') {
+                        markup = VALUE_START;
+                    }
+                    else if (!space) {
+                        markup = TAG;
+                        afterSpace = false;
+                    }
+                    break;
+                case NAME:
+                    if (nameLength < HREF.length && (c | 0x20) == HREF[nameLength]) {
+                        nameLength++;
+                    }
+                    else if (nameLength == HREF.length && (c == '=' || space)) {
+                        markup = c == '=' ? VALUE_START : NAME_END;
+                    }
+                    else {
+                        markup = TAG;
+                        afterSpace = space;
+                    }
+                    break;
+                default:
+                    if (afterSpace && (c | 0x20) == HREF[0]) {
+                        markup = NAME;
+                        nameLength = 1;
+                    }
+                    afterSpace = space;
+                    break;
+            }
+        }
+
+
+        private void updateValue(int c, boolean space) {
+
+            if (quote != 0 ? c == quote : space) {
+                endLink();
+                markup = TAG;
+                afterSpace = space;
+            }
+            else if (c == '?' || c == '#') {
+                inTarget = false;
+            }
+            else if (inTarget) {
+                linkHash = (linkHash ^ c) * FNV_PRIME;
+            }
+        }
+
+
+        private void endLink() {
+
+            if (markup == VALUE) {
+                linkHash = (linkHash ^ 0x100) * FNV_PRIME;
+            }
+        }
+
+
+        private void appendToWord(int c) {
+
+            word = (word ^ c) * FNV_PRIME;
+            wordLength++;
+        }
+
+
+        private void endWord() {
+
+            if (wordLength == 0) {
+                return;
+            }
+
+            final long wordHash = UrlKeys.mix(word);
+            exactHash = (exactHash ^ wordHash) * FNV_PRIME;
+            final long shingle = UrlKeys.mix((wordBeforeThat * FNV_PRIME + previousWord) * FNV_PRIME + wordHash);
+            if (addShingle(shingle)) {
+                for (int bit = 0; bit < Long.SIZE; bit++) {
+                    weights[bit] += (shingle >>> bit & 1) == 0 ? -1 : 1;
+                }
+            }
+            wordBeforeThat = previousWord;
+            previousWord = wordHash;
+            wordCount++;
+            word = FNV_OFFSET_BASIS;
+            wordLength = 0;
+        }
+
+
+        /**
+         * Add a shingle to the open addressed set of those seen, zero marking an
+         * empty slot.
+         *
+         * @return true if the shingle is new and is to be counted.
+         */
+        private boolean addShingle(long shingle) {
+
+            if (shingleCount == MAX_SHINGLES) {
+                return false;
+            }
+            if (shingleCount * 2 >= shingles.length) {
+                final long[] previous = shingles;
+                shingles = new long[previous.length * 2];
+                shingleCount = 0;
+                for (final long value : previous) {
+                    if (value != 0) {
+                        insert(value);
+                    }
+                }
+            }
+
+            return insert(shingle == 0 ? 1 : shingle);
+        }
+
+
+        private boolean insert(long shingle) {
+
+            final int mask = shingles.length - 1;
+            int slot = (int) shingle & mask;
+            while (shingles[slot] != 0) {
+                if (shingles[slot] == shingle) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            shingles[slot] = shingle;
+            shingleCount++;
+
+            return true;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Locale;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * Decides from its response headers whether a resource is worth scanning for
+ * links.  Only HTML is scanned; PDFs, images, office documents and the like are
+ * listed in the sitemap without their bodies being read.  HTML bodies are read
+ * no further than a size limit.
+ */
+final class ContentGate {
+
+    private static final String[] HTML_MEDIA_TYPES = {"text/html", "application/xhtml+xml"};
+    private static final String[] HTML_EXTENSIONS = {
+        "html", "htm", "xhtml", "shtml", "php", "asp", "aspx", "jsp", "cgi", "pl", "cfm"
+    };
+
+    private final long maxBytes;
+
+
+    /**
+     * Create instance.
+     *
+     * @param maxBytes the most bytes of a page read.
+     */
+    ContentGate(long maxBytes) {
+
+        this.maxBytes = maxBytes;
+    }
+
+
+    /**
+     * Returns true if a response is HTML, or does not say, and is not declared
+     * larger than the size limit.
+     *
+     * @param response the response, whose body is not yet read.
+     * @return true if the body should be scanned.
+     */
+    boolean admits(@Nonnull final PageResponse response) {
+
+        if (!isHtml(response.getHeader("Content-Type").orElse(null))) {
+            return false;
+        }
+
+        final Optional<String> contentLength = response.getHeader("Content-Length");
+        if (contentLength.isPresent()) {
+            try {
+                return Long.parseLong(contentLength.get().trim()) <= maxBytes;
+            }
+            catch (NumberFormatException e) {
+                return true;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Returns true if a URL looks like it names an HTML page: its path ends in a
+     * directory, has no extension, or has an extension HTML is commonly served
+     * under.  Other URLs are worth a HEAD request before being downloaded.
+     *
+     * @param url the URL.
+     * @return true if the URL probably names an HTML page.
+     */
+    static boolean isProbablyHtml(@Nonnull final URL url) {
+
+        final String path = url.getPath();
+        final int slash = path.lastIndexOf('/');
+        final int dot = path.lastIndexOf('.');
+        if (dot <= slash) {
+            return true;
+        }
+
+        final String extension = path.substring(dot + 1).toLowerCase(Locale.ENGLISH);
+        for (final String htmlExtension : HTML_EXTENSIONS) {
+            if (htmlExtension.equals(extension)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Returns true if a Content-Type is HTML, or missing.
+     *
+     * @param contentType the Content-Type header value, if any.
+     * @return true if the content is HTML or of unknown type.
+     */
+    static boolean isHtml(@Nullable final String contentType) {
+
+        if (contentType == null) {
+            return true;
+        }
+
+        final int semicolon = contentType.indexOf(';');
+        final String mediaType = (semicolon < 0 ? contentType : contentType.substring(0, semicolon))
+            .trim().toLowerCase(Locale.ENGLISH);
+        if (mediaType.isEmpty()) {
+            return true;
+        }
+
+        for (final String htmlMediaType : HTML_MEDIA_TYPES) {
+            if (htmlMediaType.equals(mediaType)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Returns a stream over at most the size limit of a body, so a page of
+     * unknown length is never read past it.
+     *
+     * @param body the body.
+     * @return the limited body.
+     */
+    @Nonnull
+    InputStream limit(@Nonnull final InputStream body) {
+        return new LimitedInputStream(body, maxBytes);
+    }
+
+
+    /**
+     * Ends a stream after a number of bytes.
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+
+        private long remaining;
+
+
+        private LimitedInputStream(@Nonnull final InputStream in, long limit) {
+
+            super(in);
+            this.remaining = limit;
+        }
+
+
+        @Override
+        public int read() throws IOException {
+
+            if (remaining <= 0) {
+                return -1;
+            }
+
+            final int b = super.read();
+            if (b != -1) {
+                remaining--;
+            }
+
+            return b;
+        }
+
+
+        @Override
+        public int read(@Nonnull final byte[] b, int off, int len) throws IOException {
+
+            if (remaining <= 0) {
+                return -1;
+            }
+
+            final int count = super.read(b, off, (int) Math.min(len, remaining));
+            if (count > 0) {
+                remaining -= count;
+            }
+
+            return count;
+        }
+
+
+        @Override
+        public long skip(long n) throws IOException {
+
+            final long skipped = super.skip(Math.min(n, remaining));
+            remaining -= skipped;
+
+            return skipped;
+        }
+
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * The limits on the work of one crawl: how deep links are followed, and how many
+ * pages, bytes and seconds it may take.  A zero limit is no limit.  Once the
+ * pages, bytes or time run out the {@link Frontier} stops handing out pages, and
+ * the pages in flight are finished; the bytes and time limits may therefore be
+ * overrun by those pages.  Pages not crawled stay pending, so a crawl with a
+ * state directory may be resumed with a fresh budget.
+ */
+public final class CrawlBudget {
+
+    private final int maxDepth;
+    private final long maxPages;
+    private final long maxBytes;
+    private final long maxNanos;
+    private final CrawlMetrics metrics;
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong pagesStarted = new AtomicLong();
+    private volatile String exhausted;
+
+
+    /**
+     * Create instance.
+     *
+     * @param configuration the configuration the limits are read from.
+     * @param metrics the metrics the bytes fetched are read from.
+     */
+    public CrawlBudget(@Nonnull final CrawlConfiguration configuration, @Nonnull final CrawlMetrics metrics) {
+
+        this.maxDepth = configuration.getMaxDepth();
+        this.maxPages = configuration.getMaxPages();
+        this.maxBytes = configuration.getMaxBytes();
+        this.maxNanos = configuration.getMaxTimeSeconds() * 1000000000L;
+        this.metrics = metrics;
+    }
+
+
+    /**
+     * Returns true if links found at the given depth are to be followed.
+     *
+     * @param depth the depth of the page the links are on.
+     * @return true if the links are within the depth limit.
+     */
+    public boolean followsLinksAt(int depth) {
+        return maxDepth == 0 || depth < maxDepth;
+    }
+
+
+    /**
+     * Claim one page of the budget, before crawling it.
+     *
+     * @return false if the budget is spent, and the page must not be crawled.
+     */
+    public boolean tryStartPage() {
+
+        if (isExhausted()) {
+            return false;
+        }
+        if (maxPages != 0 && pagesStarted.incrementAndGet() > maxPages) {
+            exhausted = "max-pages=" + maxPages;
+
+            return false;
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Returns true if the bytes or time of the budget are spent, or all of its
+     * pages claimed.
+     *
+     * @return true if no more pages may be crawled.
+     */
+    public boolean isExhausted() {
+
+        if (exhausted != null) {
+            return true;
+        }
+
+        if (maxPages != 0 && pagesStarted.get() >= maxPages) {
+            exhausted = "max-pages=" + maxPages;
+        }
+        else if (maxBytes != 0 && metrics.getBytesFetched() >= maxBytes) {
+            exhausted = "max-bytes=" + maxBytes;
+        }
+        else if (maxNanos != 0 && System.nanoTime() - startNanos >= maxNanos) {
+            exhausted = "max-time=" + maxNanos / 1000000000L + "s";
+        }
+
+        return exhausted != null;
+    }
+
+
+    /**
+     * Spend the budget at once, stopping the crawl as if a limit were reached.
+     */
+    public void cancel() {
+
+        exhausted = "cancelled";
+    }
+
+
+    /**
+     * Returns the limit which ended the crawl.
+     *
+     * @return the limit, e.g. "max-pages=1000", "cancelled" if the crawl was
+     *     cancelled, or null if none was reached.
+     */
+    @Nullable
+    public String getExhaustedLimit() {
+        return exhausted;
+    }
+
+
+    @Override
+    @Nonnull
+    public String toString() {
+
+        return "CrawlBudget{"
+            + "maxDepth='" + maxDepth + '\''
+            + ", maxPages='" + maxPages + '\''
+            + ", maxBytes='" + maxBytes + '\''
+            + ", maxNanos='" + maxNanos + '\''
+            + ", exhausted='" + exhausted + '\''
+            + "}";
+    }
+}
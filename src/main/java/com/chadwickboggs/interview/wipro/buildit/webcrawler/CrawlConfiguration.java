@@ -0,0 +1,1189 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * Tunable settings of a crawl.
+ */
+public final class CrawlConfiguration {
+
+    public static final int DEFAULT_WORKERS = 16;
+    public static final int DEFAULT_MAX_IN_FLIGHT = 10000;
+    public static final int DEFAULT_STAGE_QUEUE_CAPACITY = 64;
+    public static final long DEFAULT_DEDUPE_MEMORY_BYTES = 256L * 1024 * 1024;
+    public static final double DEFAULT_DEDUPE_FALSE_POSITIVE_RATE = 0.000001;
+    public static final int DEFAULT_CHECKPOINT_INTERVAL_SECONDS = 30;
+    public static final int DEFAULT_FRONTIER_MEMORY_TASKS = 100000;
+    public static final double DEFAULT_HOST_REQUESTS_PER_SECOND = 2;
+    public static final long DEFAULT_MAX_PAGE_BYTES = 10L * 1024 * 1024;
+    public static final int DEFAULT_DNS_TIME_TO_LIVE_SECONDS =
+        (int) TimeUnit.MILLISECONDS.toSeconds(DnsCache.DEFAULT_TIME_TO_LIVE_MILLIS);
+    public static final int DEFAULT_NEAR_DUPLICATE_DISTANCE = 3;
+
+    private int workers = DEFAULT_WORKERS;
+    private boolean virtualThreads;
+    private boolean pipeline;
+    private int parseThreads = Runtime.getRuntime().availableProcessors();
+    private int dedupeThreads = 1;
+    private int emitThreads = 1;
+    private int stageQueueCapacity = DEFAULT_STAGE_QUEUE_CAPACITY;
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+    private FetcherType fetcherType = FetcherType.HTTP_CLIENT;
+    private DedupeType dedupeType = DedupeType.EXACT;
+    private long dedupeMemoryBytes = DEFAULT_DEDUPE_MEMORY_BYTES;
+    private double dedupeFalsePositiveRate = DEFAULT_DEDUPE_FALSE_POSITIVE_RATE;
+    private boolean dedupeOffHeap;
+    private Path stateDirectory;
+    private boolean resume;
+    private int checkpointIntervalSeconds = DEFAULT_CHECKPOINT_INTERVAL_SECONDS;
+    private int frontierMemoryTasks;
+    private double hostRequestsPerSecond = DEFAULT_HOST_REQUESTS_PER_SECOND;
+    private boolean ignoreRobots;
+    private List<String> allowedHosts = Collections.emptyList();
+    private List<String> blockedHosts = Collections.emptyList();
+    private List<String> stripParameters = Collections.emptyList();
+    private Path cacheDirectory;
+    private long maxPageBytes = DEFAULT_MAX_PAGE_BYTES;
+    private boolean headRequests;
+    private Path outputPath;
+    private Path linkReportPath;
+    private SitemapFormat sitemapFormat = SitemapFormat.TREE;
+    private boolean gzip;
+    private int progressIntervalSeconds;
+    private FrontierOrder frontierOrder = FrontierOrder.DEPTH;
+    private TaskScorer taskScorer;
+    private int maxDepth;
+    private long maxPages;
+    private long maxBytes;
+    private long maxTimeSeconds;
+    private List<InetSocketAddress> clusterNodes = Collections.emptyList();
+    private int nodeIndex;
+    private int dnsTimeToLiveSeconds = DEFAULT_DNS_TIME_TO_LIVE_SECONDS;
+    private HostResolver hostResolver = HostResolver.SYSTEM;
+    private boolean detectDuplicates;
+    private int nearDuplicateDistance = DEFAULT_NEAR_DUPLICATE_DISTANCE;
+    private List<ContentDecoder> contentDecoders = Collections.unmodifiableList(Arrays.asList(
+        ContentEncoding.GZIP, ContentEncoding.DEFLATE
+    ));
+
+
+    public int getWorkers() {
+        return workers;
+    }
+
+
+    /**
+     * Set the number of worker threads fetching and scanning pages concurrently.
+     *
+     * @param workers the number of workers, at least one.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setWorkers(int workers) {
+
+        if (workers < 1) {
+            throw new IllegalArgumentException(String.format(
+                "Worker count must be at least one.  Workers: %d", workers
+            ));
+        }
+
+        this.workers = workers;
+
+        return this;
+    }
+
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+
+    /**
+     * Set whether each page is fetched and scanned on its own virtual thread
+     * instead of on the fixed pool of workers.
+     *
+     * @param virtualThreads true to crawl on virtual threads.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setVirtualThreads(boolean virtualThreads) {
+
+        this.virtualThreads = virtualThreads;
+
+        return this;
+    }
+
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+
+    /**
+     * Set the maximum number of pages being fetched at once when crawling on
+     * virtual threads.
+     *
+     * @param maxInFlight the maximum number of in-flight requests, at least one.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setMaxInFlight(int maxInFlight) {
+
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException(String.format(
+                "Maximum in-flight count must be at least one.  Max In Flight: %d", maxInFlight
+            ));
+        }
+
+        this.maxInFlight = maxInFlight;
+
+        return this;
+    }
+
+
+    public boolean isPipeline() {
+        return pipeline;
+    }
+
+
+    /**
+     * Set whether pages pass through a pipeline of stages, fetch, parse, dedupe
+     * and emit, each on threads of its own, the workers fetching.
+     *
+     * @param pipeline true to crawl on a pipeline.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setPipeline(boolean pipeline) {
+
+        this.pipeline = pipeline;
+
+        return this;
+    }
+
+
+    public int getParseThreads() {
+        return parseThreads;
+    }
+
+
+    /**
+     * Set the number of threads scanning pages for links in a pipelined crawl.
+     *
+     * @param parseThreads the number of threads, at least one.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setParseThreads(int parseThreads) {
+
+        if (parseThreads < 1) {
+            throw new IllegalArgumentException(String.format(
+                "Parse thread count must be at least one.  Parse Threads: %d", parseThreads
+            ));
+        }
+
+        this.parseThreads = parseThreads;
+
+        return this;
+    }
+
+
+    public int getDedupeThreads() {
+        return dedupeThreads;
+    }
+
+
+    /**
+     * Set the number of threads deduplicating links in a pipelined crawl.
+     *
+     * @param dedupeThreads the number of threads, at least one.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setDedupeThreads(int dedupeThreads) {
+
+        if (dedupeThreads < 1) {
+            throw new IllegalArgumentException(String.format(
+                "Dedupe thread count must be at least one.  Dedupe Threads: %d", dedupeThreads
+            ));
+        }
+
+        this.dedupeThreads = dedupeThreads;
+
+        return this;
+    }
+
+
+    public int getEmitThreads() {
+        return emitThreads;
+    }
+
+
+    /**
+     * Set the number of threads emitting pages to the sitemap in a pipelined crawl.
+     *
+     * @param emitThreads the number of threads, at least one.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setEmitThreads(int emitThreads) {
+
+        if (emitThreads < 1) {
+            throw new IllegalArgumentException(String.format(
+                "Emit thread count must be at least one.  Emit Threads: %d", emitThreads
+            ));
+        }
+
+        this.emitThreads = emitThreads;
+
+        return this;
+    }
+
+
+    public int getStageQueueCapacity() {
+        return stageQueueCapacity;
+    }
+
+
+    /**
+     * Set how many pages may wait for each stage of a pipelined crawl.  Pages wait
+     * for the parse stage with their bodies read whole.
+     *
+     * @param stageQueueCapacity the number of pages, at least one.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setStageQueueCapacity(int stageQueueCapacity) {
+
+        if (stageQueueCapacity < 1) {
+            throw new IllegalArgumentException(String.format(
+                "Stage queue capacity must be at least one.  Stage Queue Capacity: %d", stageQueueCapacity
+            ));
+        }
+
+        this.stageQueueCapacity = stageQueueCapacity;
+
+        return this;
+    }
+
+
+    @Nonnull
+    public FetcherType getFetcherType() {
+        return fetcherType;
+    }
+
+
+    /**
+     * Set the page fetcher implementation pages are downloaded with.
+     *
+     * @param fetcherType the fetcher type.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setFetcherType(@Nonnull final FetcherType fetcherType) {
+
+        this.fetcherType = fetcherType;
+
+        return this;
+    }
+
+
+    @Nonnull
+    public DedupeType getDedupeType() {
+        return dedupeType;
+    }
+
+
+    /**
+     * Set the visited set implementation pages are deduplicated with.
+     *
+     * @param dedupeType the dedupe type.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setDedupeType(@Nonnull final DedupeType dedupeType) {
+
+        this.dedupeType = dedupeType;
+
+        return this;
+    }
+
+
+    public long getDedupeMemoryBytes() {
+        return dedupeMemoryBytes;
+    }
+
+
+    /**
+     * Set the memory cap of the compact visited sets.  It bounds the number of
+     * pages the crawl visits.
+     *
+     * @param dedupeMemoryBytes the memory cap in bytes.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setDedupeMemoryBytes(long dedupeMemoryBytes) {
+
+        if (dedupeMemoryBytes < Long.BYTES * 2) {
+            throw new IllegalArgumentException(String.format(
+                "Dedupe memory is too small.  Memory Bytes: %d", dedupeMemoryBytes
+            ));
+        }
+
+        this.dedupeMemoryBytes = dedupeMemoryBytes;
+
+        return this;
+    }
+
+
+    public double getDedupeFalsePositiveRate() {
+        return dedupeFalsePositiveRate;
+    }
+
+
+    /**
+     * Set the false positive rate of the Bloom filter visited set.
+     *
+     * @param dedupeFalsePositiveRate the rate, between zero and one.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setDedupeFalsePositiveRate(double dedupeFalsePositiveRate) {
+
+        if (!(dedupeFalsePositiveRate > 0 && dedupeFalsePositiveRate < 1)) {
+            throw new IllegalArgumentException(String.format(
+                "Dedupe false positive rate must be between zero and one.  Rate: %s", dedupeFalsePositiveRate
+            ));
+        }
+
+        this.dedupeFalsePositiveRate = dedupeFalsePositiveRate;
+
+        return this;
+    }
+
+
+    public boolean isDedupeOffHeap() {
+        return dedupeOffHeap;
+    }
+
+
+    /**
+     * Set whether the compact visited sets are held outside of the heap.
+     *
+     * @param dedupeOffHeap true to hold them in direct memory.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setDedupeOffHeap(boolean dedupeOffHeap) {
+
+        this.dedupeOffHeap = dedupeOffHeap;
+
+        return this;
+    }
+
+
+    @Nullable
+    public Path getStateDirectory() {
+        return stateDirectory;
+    }
+
+
+    /**
+     * Set the directory the crawl is journaled and checkpointed in, and the
+     * frontier spills to.  Without one the crawl can not be resumed.
+     *
+     * @param stateDirectory the state directory, or null for none.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setStateDirectory(@Nullable final Path stateDirectory) {
+
+        this.stateDirectory = stateDirectory;
+
+        return this;
+    }
+
+
+    public boolean isResume() {
+        return resume;
+    }
+
+
+    /**
+     * Set whether to resume the crawl checkpointed in the state directory rather
+     * than start a new one.
+     *
+     * @param resume true to resume.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setResume(boolean resume) {
+
+        this.resume = resume;
+
+        return this;
+    }
+
+
+    public int getCheckpointIntervalSeconds() {
+        return checkpointIntervalSeconds;
+    }
+
+
+    /**
+     * Set how often the crawl is checkpointed to the state directory.
+     *
+     * @param checkpointIntervalSeconds the interval in seconds, at least one.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setCheckpointIntervalSeconds(int checkpointIntervalSeconds) {
+
+        if (checkpointIntervalSeconds < 1) {
+            throw new IllegalArgumentException(String.format(
+                "Checkpoint interval must be at least one second.  Checkpoint Interval: %d",
+                checkpointIntervalSeconds
+            ));
+        }
+
+        this.checkpointIntervalSeconds = checkpointIntervalSeconds;
+
+        return this;
+    }
+
+
+    public int getFrontierMemoryTasks() {
+        return frontierMemoryTasks;
+    }
+
+
+    /**
+     * Set the number of pending pages the frontier holds in memory before spilling
+     * the rest to disk.  Zero keeps the whole frontier in memory, unless there is a
+     * state directory, in which case {@link #DEFAULT_FRONTIER_MEMORY_TASKS} is used.
+     *
+     * @param frontierMemoryTasks the number of pages, or zero.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setFrontierMemoryTasks(int frontierMemoryTasks) {
+
+        if (frontierMemoryTasks < 0) {
+            throw new IllegalArgumentException(String.format(
+                "Frontier memory must not be negative.  Frontier Memory: %d", frontierMemoryTasks
+            ));
+        }
+
+        this.frontierMemoryTasks = frontierMemoryTasks;
+
+        return this;
+    }
+
+
+    public double getHostRequestsPerSecond() {
+        return hostRequestsPerSecond;
+    }
+
+
+    /**
+     * Set the most requests per second made to any one host.  A robots.txt
+     * Crawl-delay lowers it further for its site.
+     *
+     * @param hostRequestsPerSecond the rate, or zero for no limit.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setHostRequestsPerSecond(double hostRequestsPerSecond) {
+
+        if (!(hostRequestsPerSecond >= 0) || Double.isInfinite(hostRequestsPerSecond)) {
+            throw new IllegalArgumentException(String.format(
+                "Host rate must be zero or a positive number.  Host Rate: %s", hostRequestsPerSecond
+            ));
+        }
+
+        this.hostRequestsPerSecond = hostRequestsPerSecond;
+
+        return this;
+    }
+
+
+    public boolean isIgnoreRobots() {
+        return ignoreRobots;
+    }
+
+
+    /**
+     * Set whether robots.txt is ignored.  Only for crawling sites you own.
+     *
+     * @param ignoreRobots true to ignore robots.txt.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setIgnoreRobots(boolean ignoreRobots) {
+
+        this.ignoreRobots = ignoreRobots;
+
+        return this;
+    }
+
+
+    @Nonnull
+    public List<String> getAllowedHosts() {
+        return allowedHosts;
+    }
+
+
+    /**
+     * Set the patterns of hosts crawled besides those of the start page's site.
+     * A pattern is a host name, or "*." and a domain to match the domain and
+     * every host under it.
+     *
+     * @param allowedHosts the host patterns.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setAllowedHosts(@Nonnull final List<String> allowedHosts) {
+
+        this.allowedHosts = Collections.unmodifiableList(new ArrayList<>(allowedHosts));
+
+        return this;
+    }
+
+
+    @Nonnull
+    public List<String> getBlockedHosts() {
+        return blockedHosts;
+    }
+
+
+    /**
+     * Set the patterns of hosts never crawled, even within the start page's site.
+     *
+     * @param blockedHosts the host patterns, as for {@link #setAllowedHosts(List)}.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setBlockedHosts(@Nonnull final List<String> blockedHosts) {
+
+        this.blockedHosts = Collections.unmodifiableList(new ArrayList<>(blockedHosts));
+
+        return this;
+    }
+
+
+    @Nonnull
+    public List<String> getStripParameters() {
+        return stripParameters;
+    }
+
+
+    /**
+     * Set the query parameters removed from links, such as tracking parameters,
+     * so pages differing only by them are crawled once.  A rule is a parameter
+     * name, or a prefix followed by "*", e.g. "utm_*".
+     *
+     * @param stripParameters the parameter rules.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setStripParameters(@Nonnull final List<String> stripParameters) {
+
+        this.stripParameters = Collections.unmodifiableList(new ArrayList<>(stripParameters));
+
+        return this;
+    }
+
+
+    @Nullable
+    public Path getCacheDirectory() {
+        return cacheDirectory;
+    }
+
+
+    /**
+     * Set the directory the validators and links of each page are cached in, so
+     * that a re-crawl only downloads the pages which have changed.
+     *
+     * @param cacheDirectory the cache directory, or null for none.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setCacheDirectory(@Nullable final Path cacheDirectory) {
+
+        this.cacheDirectory = cacheDirectory;
+
+        return this;
+    }
+
+
+    public long getMaxPageBytes() {
+        return maxPageBytes;
+    }
+
+
+    /**
+     * Set the size limit of a page.  Pages declared larger are not downloaded, and
+     * pages of unknown length are read no further.
+     *
+     * @param maxPageBytes the size limit in bytes, at least one.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setMaxPageBytes(long maxPageBytes) {
+
+        if (maxPageBytes < 1) {
+            throw new IllegalArgumentException(String.format(
+                "Page size limit must be at least one byte.  Max Page Bytes: %d", maxPageBytes
+            ));
+        }
+
+        this.maxPageBytes = maxPageBytes;
+
+        return this;
+    }
+
+
+    public boolean isHeadRequests() {
+        return headRequests;
+    }
+
+
+    /**
+     * Set whether resources which do not look like HTML pages by their URL are
+     * checked with a HEAD request before being downloaded.
+     *
+     * @param headRequests true to send HEAD requests.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setHeadRequests(boolean headRequests) {
+
+        this.headRequests = headRequests;
+
+        return this;
+    }
+
+
+    @Nullable
+    public Path getOutputPath() {
+        return outputPath;
+    }
+
+
+    /**
+     * Set the file the sitemap is written to.
+     *
+     * @param outputPath the output file, or null for the standard output stream.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setOutputPath(@Nullable final Path outputPath) {
+
+        this.outputPath = outputPath;
+
+        return this;
+    }
+
+
+    @Nullable
+    public Path getLinkReportPath() {
+        return linkReportPath;
+    }
+
+
+    /**
+     * Set the file a report of the crawl's link graph is written to: the pages
+     * ranked by how many pages link to them, and the orphan pages no page links
+     * to.
+     *
+     * @param linkReportPath the report file, or null for no report.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setLinkReportPath(@Nullable final Path linkReportPath) {
+
+        this.linkReportPath = linkReportPath;
+
+        return this;
+    }
+
+
+    @Nonnull
+    public SitemapFormat getSitemapFormat() {
+        return sitemapFormat;
+    }
+
+
+    @Nonnull
+    public CrawlConfiguration setSitemapFormat(@Nonnull final SitemapFormat sitemapFormat) {
+
+        this.sitemapFormat = sitemapFormat;
+
+        return this;
+    }
+
+
+    public boolean isGzip() {
+        return gzip;
+    }
+
+
+    /**
+     * Set whether the sitemap is gzip compressed as it is written.
+     *
+     * @param gzip true to compress the sitemap.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setGzip(boolean gzip) {
+
+        this.gzip = gzip;
+
+        return this;
+    }
+
+
+    public int getProgressIntervalSeconds() {
+        return progressIntervalSeconds;
+    }
+
+
+    /**
+     * Set how often a line of crawl progress is printed to the standard error.
+     *
+     * @param progressIntervalSeconds the interval in seconds, or zero for none.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setProgressIntervalSeconds(int progressIntervalSeconds) {
+
+        if (progressIntervalSeconds < 0) {
+            throw new IllegalArgumentException(String.format(
+                "Progress interval must not be negative.  Progress Interval: %d", progressIntervalSeconds
+            ));
+        }
+
+        this.progressIntervalSeconds = progressIntervalSeconds;
+
+        return this;
+    }
+
+
+    @Nonnull
+    public FrontierOrder getFrontierOrder() {
+        return frontierOrder;
+    }
+
+
+    /**
+     * Set the order pages are crawled in.
+     *
+     * @param frontierOrder the order.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setFrontierOrder(@Nonnull final FrontierOrder frontierOrder) {
+
+        this.frontierOrder = frontierOrder;
+
+        return this;
+    }
+
+
+    @Nullable
+    public TaskScorer getTaskScorer() {
+        return taskScorer;
+    }
+
+
+    /**
+     * Set a custom scorer ordering the pages crawled, in place of the frontier
+     * order.
+     *
+     * @param taskScorer the scorer, or null to use the frontier order.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setTaskScorer(@Nullable final TaskScorer taskScorer) {
+
+        this.taskScorer = taskScorer;
+
+        return this;
+    }
+
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+
+    /**
+     * Set the deepest pages crawled, in links from the start page.  Links on the
+     * deepest pages are listed but not followed.
+     *
+     * @param maxDepth the depth, or zero for no limit.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setMaxDepth(int maxDepth) {
+
+        this.maxDepth = nonNegative(maxDepth, "Max depth");
+
+        return this;
+    }
+
+
+    public long getMaxPages() {
+        return maxPages;
+    }
+
+
+    /**
+     * Set the most pages crawled.
+     *
+     * @param maxPages the number of pages, or zero for no limit.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setMaxPages(long maxPages) {
+
+        this.maxPages = nonNegative(maxPages, "Max pages");
+
+        return this;
+    }
+
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+
+    /**
+     * Set the bytes downloaded after which no more pages are crawled.
+     *
+     * @param maxBytes the number of bytes, or zero for no limit.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setMaxBytes(long maxBytes) {
+
+        this.maxBytes = nonNegative(maxBytes, "Max bytes");
+
+        return this;
+    }
+
+
+    public long getMaxTimeSeconds() {
+        return maxTimeSeconds;
+    }
+
+
+    /**
+     * Set the time after which no more pages are crawled.
+     *
+     * @param maxTimeSeconds the time in seconds, or zero for no limit.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setMaxTimeSeconds(long maxTimeSeconds) {
+
+        this.maxTimeSeconds = nonNegative(maxTimeSeconds, "Max time");
+
+        return this;
+    }
+
+
+    @Nonnull
+    public List<InetSocketAddress> getClusterNodes() {
+        return clusterNodes;
+    }
+
+
+    /**
+     * Set the addresses of the nodes of a cluster crawl, each a crawler process
+     * crawling the hosts hashed to it.  Every node must be given the same list.
+     *
+     * @param clusterNodes the node addresses, or an empty list to crawl alone.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setClusterNodes(@Nonnull final List<InetSocketAddress> clusterNodes) {
+
+        this.clusterNodes = Collections.unmodifiableList(new ArrayList<>(clusterNodes));
+
+        return this;
+    }
+
+
+    public int getNodeIndex() {
+        return nodeIndex;
+    }
+
+
+    /**
+     * Set which of the cluster nodes this crawler is.  Node zero coordinates the
+     * crawl and writes the sitemap.
+     *
+     * @param nodeIndex the index into the cluster nodes.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setNodeIndex(int nodeIndex) {
+
+        this.nodeIndex = nonNegative(nodeIndex, "Node index");
+
+        return this;
+    }
+
+
+    @Nonnull
+    public List<ContentDecoder> getContentDecoders() {
+        return contentDecoders;
+    }
+
+
+    /**
+     * Set the content codings pages may be sent in, compressed, and are decoded
+     * from as they are read.  By default gzip and deflate.
+     *
+     * @param contentDecoders the decoders in order of preference, or an empty
+     *     list to have pages sent uncompressed.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setContentDecoders(@Nonnull final List<ContentDecoder> contentDecoders) {
+
+        this.contentDecoders = Collections.unmodifiableList(new ArrayList<>(contentDecoders));
+
+        return this;
+    }
+
+
+    public int getDnsTimeToLiveSeconds() {
+        return dnsTimeToLiveSeconds;
+    }
+
+
+    /**
+     * Set how long the addresses of hosts are cached by the crawl.
+     *
+     * @param dnsTimeToLiveSeconds the time to live in seconds, or zero to look
+     *     hosts up as the Java runtime does, uncached by the crawl.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setDnsTimeToLiveSeconds(int dnsTimeToLiveSeconds) {
+
+        this.dnsTimeToLiveSeconds = nonNegative(dnsTimeToLiveSeconds, "DNS time to live");
+
+        return this;
+    }
+
+
+    @Nonnull
+    public HostResolver getHostResolver() {
+        return hostResolver;
+    }
+
+
+    /**
+     * Set the resolver hosts are looked up with.  The default is the Java
+     * runtime's.
+     *
+     * @param hostResolver the resolver.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setHostResolver(@Nonnull final HostResolver hostResolver) {
+
+        this.hostResolver = hostResolver;
+
+        return this;
+    }
+
+
+    public boolean isDetectDuplicates() {
+        return detectDuplicates;
+    }
+
+
+    /**
+     * Set whether pages whose text is a copy of a page crawled before are listed
+     * as aliases of it, without their links being followed.
+     *
+     * @param detectDuplicates true to detect duplicate pages.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setDetectDuplicates(boolean detectDuplicates) {
+
+        this.detectDuplicates = detectDuplicates;
+
+        return this;
+    }
+
+
+    public int getNearDuplicateDistance() {
+        return nearDuplicateDistance;
+    }
+
+
+    /**
+     * Set how many bits the SimHashes of two pages may differ in for one to be
+     * a copy of the other, when duplicates are detected.
+     *
+     * @param nearDuplicateDistance the distance, from zero, for exact copies
+     *     only, to three.
+     * @return this configuration.
+     */
+    @Nonnull
+    public CrawlConfiguration setNearDuplicateDistance(int nearDuplicateDistance) {
+
+        if (nearDuplicateDistance < 0 || nearDuplicateDistance > DuplicateIndex.MAX_DISTANCE) {
+            throw new IllegalArgumentException(String.format(
+                "Near-duplicate distance must be from zero to %d.  Distance: %d",
+                DuplicateIndex.MAX_DISTANCE, nearDuplicateDistance
+            ));
+        }
+
+        this.nearDuplicateDistance = nearDuplicateDistance;
+
+        return this;
+    }
+
+
+    private static int nonNegative(int value, @Nonnull final String name) {
+        return (int) nonNegative((long) value, name);
+    }
+
+
+    private static long nonNegative(long value, @Nonnull final String name) {
+
+        if (value < 0) {
+            throw new IllegalArgumentException(String.format(
+                "%s must not be negative.  Value: %d", name, value
+            ));
+        }
+
+        return value;
+    }
+
+
+    /**
+     * Returns a copy of this configuration, unaffected by later changes to this
+     * one.  The lists it holds are unmodifiable, so they are shared.
+     *
+     * @return the copy.
+     */
+    @Nonnull
+    public CrawlConfiguration copy() {
+
+        final CrawlConfiguration copy = new CrawlConfiguration();
+        copy.workers = workers;
+        copy.virtualThreads = virtualThreads;
+        copy.pipeline = pipeline;
+        copy.parseThreads = parseThreads;
+        copy.dedupeThreads = dedupeThreads;
+        copy.emitThreads = emitThreads;
+        copy.stageQueueCapacity = stageQueueCapacity;
+        copy.maxInFlight = maxInFlight;
+        copy.fetcherType = fetcherType;
+        copy.dedupeType = dedupeType;
+        copy.dedupeMemoryBytes = dedupeMemoryBytes;
+        copy.dedupeFalsePositiveRate = dedupeFalsePositiveRate;
+        copy.dedupeOffHeap = dedupeOffHeap;
+        copy.stateDirectory = stateDirectory;
+        copy.resume = resume;
+        copy.checkpointIntervalSeconds = checkpointIntervalSeconds;
+        copy.frontierMemoryTasks = frontierMemoryTasks;
+        copy.hostRequestsPerSecond = hostRequestsPerSecond;
+        copy.ignoreRobots = ignoreRobots;
+        copy.allowedHosts = allowedHosts;
+        copy.blockedHosts = blockedHosts;
+        copy.stripParameters = stripParameters;
+        copy.cacheDirectory = cacheDirectory;
+        copy.maxPageBytes = maxPageBytes;
+        copy.headRequests = headRequests;
+        copy.outputPath = outputPath;
+        copy.linkReportPath = linkReportPath;
+        copy.sitemapFormat = sitemapFormat;
+        copy.gzip = gzip;
+        copy.progressIntervalSeconds = progressIntervalSeconds;
+        copy.frontierOrder = frontierOrder;
+        copy.taskScorer = taskScorer;
+        copy.maxDepth = maxDepth;
+        copy.maxPages = maxPages;
+        copy.maxBytes = maxBytes;
+        copy.maxTimeSeconds = maxTimeSeconds;
+        copy.clusterNodes = clusterNodes;
+        copy.nodeIndex = nodeIndex;
+        copy.dnsTimeToLiveSeconds = dnsTimeToLiveSeconds;
+        copy.hostResolver = hostResolver;
+        copy.detectDuplicates = detectDuplicates;
+        copy.nearDuplicateDistance = nearDuplicateDistance;
+        copy.contentDecoders = contentDecoders;
+
+        return copy;
+    }
+
+
+    @Override
+    @Nonnull
+    public String toString() {
+
+        return "CrawlConfiguration{"
+            + "workers='" + workers + '\''
+            + ", virtualThreads='" + virtualThreads + '\''
+            + ", pipeline='" + pipeline + '\''
+            + ", parseThreads='" + parseThreads + '\''
+            + ", dedupeThreads='" + dedupeThreads + '\''
+            + ", emitThreads='" + emitThreads + '\''
+            + ", stageQueueCapacity='" + stageQueueCapacity + '\''
+            + ", maxInFlight='" + maxInFlight + '\''
+            + ", fetcherType='" + fetcherType + '\''
+            + ", dedupeType='" + dedupeType + '\''
+            + ", dedupeMemoryBytes='" + dedupeMemoryBytes + '\''
+            + ", dedupeFalsePositiveRate='" + dedupeFalsePositiveRate + '\''
+            + ", dedupeOffHeap='" + dedupeOffHeap + '\''
+            + ", stateDirectory='" + stateDirectory + '\''
+            + ", resume='" + resume + '\''
+            + ", checkpointIntervalSeconds='" + checkpointIntervalSeconds + '\''
+            + ", frontierMemoryTasks='" + frontierMemoryTasks + '\''
+            + ", hostRequestsPerSecond='" + hostRequestsPerSecond + '\''
+            + ", ignoreRobots='" + ignoreRobots + '\''
+            + ", allowedHosts='" + allowedHosts + '\''
+            + ", blockedHosts='" + blockedHosts + '\''
+            + ", stripParameters='" + stripParameters + '\''
+            + ", cacheDirectory='" + cacheDirectory + '\''
+            + ", maxPageBytes='" + maxPageBytes + '\''
+            + ", headRequests='" + headRequests + '\''
+            + ", outputPath='" + outputPath + '\''
+            + ", linkReportPath='" + linkReportPath + '\''
+            + ", sitemapFormat='" + sitemapFormat + '\''
+            + ", gzip='" + gzip + '\''
+            + ", progressIntervalSeconds='" + progressIntervalSeconds + '\''
+            + ", frontierOrder='" + frontierOrder + '\''
+            + ", taskScorer='" + taskScorer + '\''
+            + ", maxDepth='" + maxDepth + '\''
+            + ", maxPages='" + maxPages + '\''
+            + ", maxBytes='" + maxBytes + '\''
+            + ", maxTimeSeconds='" + maxTimeSeconds + '\''
+            + ", clusterNodes='" + clusterNodes + '\''
+            + ", nodeIndex='" + nodeIndex + '\''
+            + ", dnsTimeToLiveSeconds='" + dnsTimeToLiveSeconds + '\''
+            + ", hostResolver='" + hostResolver + '\''
+            + ", detectDuplicates='" + detectDuplicates + '\''
+            + ", nearDuplicateDistance='" + nearDuplicateDistance + '\''
+            + ", contentDecoders='" + contentDecoders + '\''
+            + "}";
+    }
+}
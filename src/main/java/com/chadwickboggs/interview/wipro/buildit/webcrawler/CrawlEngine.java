@@ -0,0 +1,1260 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import jdk.jfr.FlightRecorder;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.UnknownHostException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.management.ObjectName;
+
+
+/**
+ * Crawls a site iteratively.  Pages wait in a shared {@link Frontier} and a
+ * pool of worker threads takes them, downloads and scans each one, and offers
+ * the newly discovered links within the crawl's {@link HostScope} back to the
+ * frontier.  The frontier hands out pages in the order of a {@link TaskScorer},
+ * breadth first by default, until the crawl's {@link CrawlBudget} is spent.
+ * Alternatively each page may be crawled on its own virtual thread, bounded by
+ * a maximum number of requests in flight, or pages may pass through a pipeline
+ * of {@link PipelineStage}s, fetched, parsed, deduplicated and emitted each by
+ * threads of their own.  Pages are downloaded through the configured
+ * {@link PageFetcher}.  With a state directory the frontier spills to disk and
+ * the crawl is journaled and checkpointed there so it can be resumed.  Requests
+ * to each host are rate limited by a {@link PolitenessScheduler}, and pages are
+ * only fetched if the site's robots.txt allows it.  With a cache directory
+ * pages which have not changed since the last crawl are not downloaded again.
+ * Only HTML is scanned for links; other resources are listed but not
+ * downloaded.  The sitemap is written by a {@link SitemapWriter} in the
+ * configured format.  Each crawl keeps {@link CrawlMetrics}, readable through
+ * JMX while it runs, printed as a periodic progress line if so configured, and
+ * recorded as Flight Recorder events.  Hosts are looked up through a
+ * {@link DnsCache}, prefetched as soon as links to them are put on the
+ * frontier.  In a cluster crawl the engine is one {@link ClusterNode}: it
+ * crawls only the hosts hashed to it, forwards links to the other hosts' nodes,
+ * and the coordinator writes the pages of every node to its sitemap.  The
+ * result of each page crawled may also be handed to a
+ * {@link CrawlResultListener}, which is how a {@link Crawler} publishes them.
+ */
+public final class CrawlEngine {
+
+    private static final String ACCEPT_ENCODING = "Accept-Encoding";
+    private static final int PIPELINE_BATCH_SIZE = 64;
+
+    private final CrawlConfiguration configuration;
+    private final PrintStream printStream;
+    private final ContentGate contentGate;
+    private final UrlCanonicalizer canonicalizer;
+    private final ContentDecoders decoders;
+    private final Map<String, String> acceptEncodingHeaders;
+
+
+    /**
+     * Construct instance.
+     *
+     * @param configuration the crawl configuration.
+     * @param printStream the stream the sitemap is printed to when no output file is configured.
+     */
+    public CrawlEngine(@Nonnull final CrawlConfiguration configuration, @Nonnull final PrintStream printStream) {
+
+        this.configuration = configuration;
+        this.printStream = printStream;
+        this.contentGate = new ContentGate(configuration.getMaxPageBytes());
+        this.canonicalizer = new UrlCanonicalizer(configuration.getStripParameters());
+        this.decoders = new ContentDecoders(configuration.getContentDecoders());
+        this.acceptEncodingHeaders = decoders.getAcceptEncoding() == null
+            ? Collections.emptyMap()
+            : Collections.singletonMap(ACCEPT_ENCODING, decoders.getAcceptEncoding());
+    }
+
+
+    /**
+     * Crawl the site at the given start page, printing its sitemap.  With a state
+     * directory configured the crawl is journaled and checkpointed there, and may
+     * resume from its last checkpoint.
+     *
+     * @param startPage the start page.
+     * @throws IOException if the start page can not be read, or on error reading
+     *     or writing the state directory.
+     * @throws InterruptedException if interrupted while waiting on the workers.
+     */
+    public void crawl(@Nonnull final URL startPage) throws IOException, InterruptedException {
+
+        crawl(startPage, Collections.emptyList(), null);
+    }
+
+
+    /**
+     * Crawl the site at the given start page, and the other seed pages, printing
+     * its sitemap and handing the result of each page crawled to the listener.
+     * Seed pages are crawled as start pages, except that failing to crawl one
+     * does not fail the crawl; those outside the crawl's scope are ignored.  A
+     * resumed crawl is not seeded again.
+     *
+     * @param startPage the start page.
+     * @param seeds the other seed pages.
+     * @param listener the listener, if any.
+     * @throws IOException if the start page can not be read, or on error reading
+     *     or writing the state directory.
+     * @throws InterruptedException if interrupted while waiting on the workers.
+     */
+    public void crawl(
+        @Nonnull final URL startPage, @Nonnull final Collection<URL> seeds, @Nullable final CrawlResultListener listener
+    ) throws IOException, InterruptedException {
+
+        final URL startUrl = canonicalizer.canonicalize(startPage);
+        final CrawlJournal journal = configuration.getStateDirectory() == null
+            ? null
+            : new CrawlJournal(configuration.getStateDirectory());
+        try (PageFetcher fetcher = configuration.getFetcherType().create();
+             ValidatorCache validatorCache = configuration.getCacheDirectory() == null
+                 ? null
+                 : new ValidatorCache(configuration.getCacheDirectory());
+             DnsCache dns = configuration.getDnsTimeToLiveSeconds() == 0
+                 ? null
+                 : new DnsCache(
+                     configuration.getHostResolver(), TimeUnit.SECONDS.toMillis(configuration.getDnsTimeToLiveSeconds())
+                 );
+             ClusterNode cluster = configuration.getClusterNodes().isEmpty()
+                 ? null
+                 : new ClusterNode(configuration.getClusterNodes(), configuration.getNodeIndex());
+             SitemapWriter sitemap = new SitemapWriter(newSitemapSink(startUrl, cluster))) {
+
+            final RobotsCache robots = configuration.isIgnoreRobots()
+                ? null
+                : new RobotsCache(fetcher, RobotsCache.DEFAULT_TIME_TO_LIVE_MILLIS);
+            final HostScope scope = new HostScope(
+                startUrl, configuration.getAllowedHosts(), configuration.getBlockedHosts()
+            );
+            final Collection<URL> listedUrls = configuration.getTaskScorer() == null
+                && configuration.getFrontierOrder() == FrontierOrder.LISTED
+                ? readListedUrls(startUrl, fetcher, robots, scope)
+                : Collections.emptyList();
+            final TaskScorer scorer = configuration.getTaskScorer() != null
+                ? configuration.getTaskScorer()
+                : configuration.getFrontierOrder().create(
+                    listedUrls.stream().map(URL::toString).collect(Collectors.toSet())
+                );
+            final CrawlMetrics metrics = new CrawlMetrics(startUrl);
+            try (Frontier frontier = new Frontier(newFrontierQueue(robots, scorer), journal)) {
+                crawl(new Crawl(
+                    startUrl, scope, fetcher, robots, validatorCache, sitemap,
+                    configuration.getDedupeType().create(configuration), frontier, metrics,
+                    new CrawlBudget(configuration, metrics), dns,
+                    configuration.isDetectDuplicates()
+                        ? new DuplicateIndex(configuration.getNearDuplicateDistance())
+                        : null,
+                    cluster, journal, listener
+                ), journal, listedUrls, seeds);
+            }
+        }
+        finally {
+            if (journal != null) {
+                journal.close();
+            }
+        }
+    }
+
+
+    /**
+     * Create the sitemap sink: the configured format and output, and the link
+     * report if configured, except on a cluster node other than the coordinator,
+     * whose pages go to the coordinator.
+     */
+    @Nonnull
+    private SitemapSink newSitemapSink(@Nonnull final URL startUrl, @Nullable final ClusterNode cluster)
+        throws IOException {
+
+        if (cluster != null && !cluster.isCoordinator()) {
+            return cluster.newSitemapSink();
+        }
+
+        final SitemapSink sink = configuration.getSitemapFormat().create(
+            new SitemapOutput(configuration.getOutputPath(), printStream, configuration.isGzip()), startUrl
+        );
+
+        return configuration.getLinkReportPath() == null
+            ? sink
+            : new LinkReportSink(sink, configuration.getLinkReportPath());
+    }
+
+
+    /**
+     * Read the URLs listed in the site's XML sitemaps: those named by its
+     * robots.txt, or else "/sitemap.xml".
+     */
+    @Nonnull
+    private Collection<URL> readListedUrls(
+        @Nonnull final URL startUrl, @Nonnull final PageFetcher fetcher, @Nullable final RobotsCache robots,
+        @Nonnull final HostScope scope
+    ) throws MalformedURLException {
+
+        final RobotsCache robotsCache = robots != null
+            ? robots
+            : new RobotsCache(fetcher, RobotsCache.DEFAULT_TIME_TO_LIVE_MILLIS);
+        final List<URL> sitemapUrls = new ArrayList<>();
+        for (String sitemapUrl : robotsCache.getRules(startUrl).getSitemaps()) {
+            try {
+                sitemapUrls.add(canonicalizer.resolve(startUrl, sitemapUrl));
+            }
+            catch (MalformedURLException e) {
+                System.err.println(String.format("Malformed sitemap URL.  URL: \"%s\"", sitemapUrl));
+            }
+        }
+        if (sitemapUrls.isEmpty()) {
+            sitemapUrls.add(canonicalizer.resolve(startUrl, "/sitemap.xml"));
+        }
+
+        return XmlSitemapReader.read(fetcher, sitemapUrls, canonicalizer, scope::contains);
+    }
+
+
+    private void crawl(
+        @Nonnull final Crawl crawl, @Nullable final CrawlJournal journal, @Nonnull final Collection<URL> listedUrls,
+        @Nonnull final Collection<URL> seeds
+    ) throws IOException, InterruptedException {
+
+        if (!seed(crawl, journal, listedUrls, seeds)) {
+            // Only a resumed crawl can be already complete: its sitemap is the one journaled.
+            journal.replayPages(crawl.sitemap::write);
+
+            return;
+        }
+
+        final ScheduledExecutorService checkpointer = journal == null
+            ? null
+            : startCheckpointer(journal, crawl.startUrl);
+        crawl.metrics.setFrontierDepth(crawl.frontier::size);
+        crawl.frontier.setBudget(crawl.budget);
+        final ObjectName metricsName = crawl.metrics.register();
+        final Runnable statistics = () -> CrawlStatisticsEvent.emit(crawl.metrics);
+        FlightRecorder.addPeriodicEvent(CrawlStatisticsEvent.class, statistics);
+        final ScheduledExecutorService progress = configuration.getProgressIntervalSeconds() == 0
+            ? null
+            : startProgress(crawl.metrics);
+        try {
+            if (crawl.cluster != null) {
+                crawl.frontier.hold();
+                crawl.cluster.start(new ClusterListener(crawl));
+            }
+            if (journal != null && configuration.isResume() && journal.hasCheckpoint()) {
+                journal.replayPages(crawl.sitemap::write);
+            }
+
+            if (configuration.isPipeline()) {
+                crawlOnPipeline(crawl);
+            }
+            else if (configuration.isVirtualThreads()) {
+                crawlOnVirtualThreads(crawl);
+            }
+            else {
+                crawlOnWorkers(crawl);
+            }
+
+            if (crawl.cluster != null) {
+                crawl.workersDone = true;
+                crawl.cluster.awaitCompletion();
+            }
+        }
+        finally {
+            if (progress != null) {
+                progress.shutdownNow();
+                System.err.println(crawl.metrics.getProgressLine());
+            }
+            FlightRecorder.removePeriodicEvent(statistics);
+            CrawlMetrics.unregister(metricsName);
+            if (checkpointer != null) {
+                checkpointer.shutdownNow();
+                journal.checkpoint(crawl.startUrl);
+            }
+        }
+
+        if (crawl.budget.getExhaustedLimit() != null && crawl.frontier.getPendingCount() > 0) {
+            System.err.println(String.format(
+                "Crawl budget spent.  Pages left uncrawled.  Limit: \"%s\", Pending Pages: %d",
+                crawl.budget.getExhaustedLimit(), crawl.frontier.getPendingCount()
+            ));
+        }
+
+        if (crawl.startPageError.get() != null) {
+            throw crawl.startPageError.get();
+        }
+    }
+
+
+    /**
+     * Put the first tasks on the frontier: either those left pending at the last
+     * checkpoint, when resuming, the pages completed before it being written to
+     * the sitemap from the journal once the crawl starts, or the start page and other seed pages, and the
+     * pages listed in the site's sitemaps, one link from the start page.  A
+     * cluster node puts only those of the hosts it owns.
+     *
+     * @return false if there is nothing left to crawl.
+     */
+    private boolean seed(
+        @Nonnull final Crawl crawl, @Nullable final CrawlJournal journal, @Nonnull final Collection<URL> listedUrls,
+        @Nonnull final Collection<URL> seeds
+    ) throws IOException {
+
+        if (journal != null && configuration.isResume() && journal.hasCheckpoint()) {
+            final AtomicInteger restored = new AtomicInteger();
+            journal.recover(crawl.startUrl, (task, completed) -> {
+                crawl.siteMapUrls.add(task.getUrl());
+                if (!completed) {
+                    crawl.frontier.restore(task);
+                    restored.incrementAndGet();
+                }
+            });
+
+            if (restored.get() == 0) {
+                System.err.println(String.format(
+                    "Crawl is already complete.  Nothing to resume.  Target URL: \"%s\"", crawl.startUrl
+                ));
+
+                return false;
+            }
+
+            return true;
+        }
+
+        if (journal != null) {
+            if (configuration.isResume()) {
+                System.err.println(String.format(
+                    "No checkpoint to resume from.  Starting a new crawl.  State Directory: \"%s\"",
+                    configuration.getStateDirectory()
+                ));
+            }
+            journal.reset();
+        }
+
+        if (crawl.owns(crawl.startUrl)) {
+            crawl.siteMapUrls.add(crawl.startUrl);
+            crawl.offer(new CrawlTask(crawl.startUrl, 0));
+        }
+        for (URL seed : seeds) {
+            final URL seedUrl = canonicalizer.canonicalize(seed);
+            if (crawl.scope.contains(seedUrl) && crawl.owns(seedUrl) && crawl.siteMapUrls.add(seedUrl)) {
+                crawl.offer(new CrawlTask(seedUrl, 0));
+            }
+        }
+        if (crawl.budget.followsLinksAt(0)) {
+            listedUrls.stream()
+                .filter(crawl::owns)
+                .filter(crawl.siteMapUrls::add)
+                .forEach(url -> crawl.offer(new CrawlTask(url, 1)));
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Create the frontier queue: the storage below, with requests to each host
+     * spaced out by a {@link PolitenessScheduler} unless there is no limit.
+     */
+    @Nonnull
+    private FrontierQueue newFrontierQueue(@Nullable final RobotsCache robots, @Nonnull final TaskScorer scorer)
+        throws IOException {
+
+        final FrontierQueue queue = newStorageQueue(scorer);
+        if (configuration.getHostRequestsPerSecond() == 0 && robots == null) {
+            return queue;
+        }
+
+        return new PolitenessScheduler(queue, scorer, configuration.getHostRequestsPerSecond(), robots);
+    }
+
+
+    /**
+     * Create the frontier storage.  Tasks spill to disk past the configured memory
+     * threshold, into the state directory if there is one.
+     */
+    @Nonnull
+    private FrontierQueue newStorageQueue(@Nonnull final TaskScorer scorer) throws IOException {
+
+        if (configuration.getFrontierMemoryTasks() == 0 && configuration.getStateDirectory() == null) {
+            return new MemoryFrontierQueue(scorer);
+        }
+
+        final int memoryTasks = configuration.getFrontierMemoryTasks() == 0
+            ? CrawlConfiguration.DEFAULT_FRONTIER_MEMORY_TASKS
+            : configuration.getFrontierMemoryTasks();
+        Path spillDirectory = configuration.getStateDirectory();
+        if (spillDirectory == null) {
+            spillDirectory = Files.createTempDirectory("web-crawler-");
+            spillDirectory.toFile().deleteOnExit();
+        }
+
+        return new SpillingFrontierQueue(Files.createDirectories(spillDirectory), memoryTasks, scorer);
+    }
+
+
+    @Nonnull
+    private ScheduledExecutorService startCheckpointer(
+        @Nonnull final CrawlJournal journal, @Nonnull final URL startUrl
+    ) {
+
+        final ScheduledExecutorService checkpointer = Executors.newSingleThreadScheduledExecutor(
+            new WorkerThreadFactory("web-crawler-checkpoint-")
+        );
+        final long interval = configuration.getCheckpointIntervalSeconds();
+        checkpointer.scheduleWithFixedDelay(() -> {
+            try {
+                journal.checkpoint(startUrl);
+            }
+            catch (IOException e) {
+                System.err.println(String.format(
+                    "Error writing checkpoint.  State Directory: \"%s\", Error Message: \"%s\"",
+                    configuration.getStateDirectory(), e.getMessage()
+                ));
+            }
+        }, interval, interval, TimeUnit.SECONDS);
+
+        return checkpointer;
+    }
+
+
+    @Nonnull
+    private ScheduledExecutorService startProgress(@Nonnull final CrawlMetrics metrics) {
+
+        final ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(
+            new WorkerThreadFactory("web-crawler-progress-")
+        );
+        final long interval = configuration.getProgressIntervalSeconds();
+        progress.scheduleAtFixedRate(
+            () -> System.err.println(metrics.getProgressLine()), interval, interval, TimeUnit.SECONDS
+        );
+
+        return progress;
+    }
+
+
+    private void crawlOnWorkers(@Nonnull final Crawl crawl) throws InterruptedException {
+
+        final ExecutorService workers = Executors.newFixedThreadPool(
+            configuration.getWorkers(), new WorkerThreadFactory("web-crawler-worker-")
+        );
+        try {
+            for (int i = 0; i < configuration.getWorkers(); i++) {
+                workers.execute(() -> work(crawl));
+            }
+        }
+        finally {
+            workers.shutdown();
+        }
+
+        awaitTermination(workers);
+    }
+
+
+    /**
+     * Start each page on its own virtual thread.  A semaphore bounds the number
+     * of pages in flight at once, so the crawl does not open more connections
+     * than the configured maximum however many threads are cheap to start.  On
+     * a runtime without virtual threads pages run on a fixed pool of the
+     * configured number of workers instead, as a platform thread per page in
+     * flight would cost what virtual threads are meant to save.
+     */
+    private void crawlOnVirtualThreads(@Nonnull final Crawl crawl) throws InterruptedException {
+
+        final Optional<ExecutorService> virtualExecutor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+        if (!virtualExecutor.isPresent()) {
+            System.err.println(String.format(
+                "Virtual threads are not available on this Java runtime.  Using platform threads.  Workers: %d",
+                configuration.getWorkers()
+            ));
+        }
+
+        final ExecutorService executor = virtualExecutor.orElseGet(() -> Executors.newFixedThreadPool(
+            configuration.getWorkers(), new WorkerThreadFactory("web-crawler-worker-")
+        ));
+        final Semaphore inFlight = new Semaphore(configuration.getMaxInFlight());
+        try {
+            CrawlTask task;
+            long waitStart = System.nanoTime();
+            while ((task = crawl.frontier.take()) != null) {
+                crawl.metrics.recordLatency(CrawlStage.FRONTIER, System.nanoTime() - waitStart);
+                inFlight.acquire();
+
+                final CrawlTask claimedTask = task;
+                try {
+                    executor.execute(() -> {
+                        try {
+                            crawlTask(claimedTask, crawl);
+                        }
+                        finally {
+                            inFlight.release();
+                        }
+                    });
+                }
+                catch (RejectedExecutionException e) {
+                    inFlight.release();
+                    crawl.frontier.done(claimedTask);
+
+                    throw e;
+                }
+                waitStart = System.nanoTime();
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+
+        awaitTermination(executor);
+    }
+
+
+    private static void awaitTermination(@Nonnull final ExecutorService executor) throws InterruptedException {
+
+        while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+            // Wait for the frontier to drain.
+        }
+    }
+
+
+    private void work(@Nonnull final Crawl crawl) {
+
+        try {
+            CrawlTask task;
+            long waitStart = System.nanoTime();
+            while ((task = crawl.frontier.take()) != null) {
+                crawl.metrics.recordLatency(CrawlStage.FRONTIER, System.nanoTime() - waitStart);
+                crawlTask(task, crawl);
+                waitStart = System.nanoTime();
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * Crawl one task taken from the frontier, every stage on this thread, marking
+     * it done when finished.
+     */
+    private void crawlTask(@Nonnull final CrawlTask task, @Nonnull final Crawl crawl) {
+
+        final PageWork work = new PageWork(task);
+        try {
+            fetch(work, crawl, false);
+            parse(work, crawl);
+            dedupe(work, crawl);
+        }
+        catch (RuntimeException e) {
+            failed(work, crawl, e);
+        }
+        finally {
+            emit(work, crawl);
+        }
+    }
+
+
+    /**
+     * Crawl on a pipeline of stages, each on threads of its own and fed through a
+     * bounded queue: the workers fetch pages, reading each body whole, parse
+     * threads scan them for links, dedupe threads take the links of many pages
+     * at a time and put those not seen before on the frontier, and emit threads
+     * hand the pages to the sitemap and mark them done.  Fetching, which waits
+     * on the network, and parsing, which waits on the processor, then overlap
+     * and are sized apart, and a stage falling behind holds back those before it.
+     */
+    private void crawlOnPipeline(@Nonnull final Crawl crawl) throws InterruptedException {
+
+        final int queueCapacity = configuration.getStageQueueCapacity();
+        final PipelineStage<PageWork> emit = new PipelineStage<>(
+            "emit", configuration.getEmitThreads(), queueCapacity, PIPELINE_BATCH_SIZE,
+            batch -> {
+                // Each page is marked done even if one before it in the batch fails.
+                for (final PageWork work : batch) {
+                    try {
+                        emit(work, crawl);
+                    }
+                    catch (RuntimeException e) {
+                        failed(work, crawl, e);
+                    }
+                }
+            }
+        );
+        final PipelineStage<PageWork> dedupe = new PipelineStage<>(
+            "dedupe", configuration.getDedupeThreads(), queueCapacity, PIPELINE_BATCH_SIZE, batch -> {
+                for (final PageWork work : batch) {
+                    try {
+                        dedupe(work, crawl);
+                    }
+                    catch (RuntimeException e) {
+                        failed(work, crawl, e);
+                    }
+                    emit.put(work);
+                }
+            }
+        );
+        final PipelineStage<PageWork> parse = new PipelineStage<>(
+            "parse", configuration.getParseThreads(), queueCapacity, 1, batch -> {
+                for (final PageWork work : batch) {
+                    try {
+                        parse(work, crawl);
+                    }
+                    catch (RuntimeException e) {
+                        failed(work, crawl, e);
+                    }
+                    dedupe.put(work);
+                }
+            }
+        );
+        final Map<String, LongSupplier> queueDepths = new LinkedHashMap<>();
+        for (final PipelineStage<PageWork> stage : Arrays.asList(parse, dedupe, emit)) {
+            queueDepths.put(stage.getName(), stage::getQueueDepth);
+        }
+        crawl.metrics.setStageQueueDepths(queueDepths);
+
+        final ExecutorService fetchers = Executors.newFixedThreadPool(
+            configuration.getWorkers(), new WorkerThreadFactory("web-crawler-fetch-")
+        );
+        try {
+            for (int i = 0; i < configuration.getWorkers(); i++) {
+                fetchers.execute(() -> {
+                    try {
+                        CrawlTask task;
+                        long waitStart = System.nanoTime();
+                        while ((task = crawl.frontier.take()) != null) {
+                            crawl.metrics.recordLatency(CrawlStage.FRONTIER, System.nanoTime() - waitStart);
+                            final PageWork work = new PageWork(task);
+                            fetch(work, crawl, true);
+                            parse.put(work);
+                            waitStart = System.nanoTime();
+                        }
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+        }
+        finally {
+            fetchers.shutdown();
+        }
+
+        try {
+            awaitTermination(fetchers);
+        }
+        finally {
+            parse.close();
+            dedupe.close();
+            emit.close();
+        }
+    }
+
+
+    /**
+     * Fetch a page: look up its host, check robots.txt and download it.  Unless
+     * the body is to be parsed by another stage, it is scanned for links as it is
+     * read.  Errors are recorded in the work, not thrown.
+     */
+    private void fetch(@Nonnull final PageWork work, @Nonnull final Crawl crawl, boolean deferParse) {
+
+        final CrawlTask task = work.task;
+        work.event.begin();
+        try {
+            if (crawl.dns != null && !task.getUrl().getHost().isEmpty()) {
+                resolve(task.getUrl(), crawl);
+            }
+            if (crawl.robots != null && !isAllowed(task.getUrl(), crawl)) {
+                crawl.metrics.recordPageDisallowed();
+                if (crawl.isStartPage(task)) {
+                    System.err.println(String.format(
+                        "Start page is disallowed by robots.txt.  URL: \"%s\"", task.getUrl()
+                    ));
+                }
+                work.listed = false;
+
+                return;
+            }
+
+            final Collection<URL> extracted = listUrls(task.getUrl(), crawl, work, deferParse);
+            if (extracted != null) {
+                work.extracted = extracted;
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            failed(work, crawl, e);
+        }
+    }
+
+
+    /**
+     * Scan a body read whole by the fetch stage for links, and fingerprint it if
+     * duplicates are detected, then keep the links within the crawl's scope.
+     */
+    private void parse(@Nonnull final PageWork work, @Nonnull final Crawl crawl) {
+
+        if (work.body != null) {
+            final long parseStart = System.nanoTime();
+            try {
+                work.extracted = LinkExtractor.extract(
+                    work.baseUrl, new ByteArrayInputStream(work.body), work.contentType, canonicalizer
+                );
+                if (crawl.validatorCache != null) {
+                    crawl.validatorCache.put(work.task.getUrl(), work.etag, work.lastModified, work.extracted);
+                }
+                if (crawl.duplicates != null) {
+                    work.fingerprint = ContentFingerprint.of(work.body);
+                }
+            }
+            catch (IOException | RuntimeException e) {
+                failed(work, crawl, e);
+            }
+            finally {
+                work.body = null;
+                work.event.parseTime = System.nanoTime() - parseStart;
+                crawl.metrics.recordLatency(CrawlStage.PARSE, work.event.parseTime);
+            }
+        }
+
+        if (!work.extracted.isEmpty()) {
+            work.links = work.extracted.stream()
+                .filter(crawl.scope::contains)
+                .collect(Collectors.toList());
+        }
+    }
+
+
+    /**
+     * Put the links of a page not seen before on the frontier, or forward them to
+     * the node owning their host.  A page whose content is a copy of a page
+     * crawled before becomes an alias of it, and its links are not followed, as
+     * they lead to copies of the original's.
+     */
+    private void dedupe(@Nonnull final PageWork work, @Nonnull final Crawl crawl) {
+
+        if (work.fingerprint != null) {
+            work.duplicateOf = crawl.duplicates.register(work.task.getUrl(), work.fingerprint);
+            if (work.duplicateOf != null) {
+                crawl.metrics.recordPageDuplicate();
+            }
+        }
+
+        int alreadySeen = 0;
+        if (work.listed && work.duplicateOf == null && crawl.budget.followsLinksAt(work.task.getDepth())) {
+            for (URL url : work.links) {
+                if (!crawl.siteMapUrls.add(url)) {
+                    alreadySeen++;
+                }
+                else if (crawl.owns(url)) {
+                    crawl.offer(new CrawlTask(url, work.task.getDepth() + 1));
+                }
+                else {
+                    crawl.cluster.forward(new CrawlTask(url, work.task.getDepth() + 1));
+                }
+            }
+        }
+        crawl.metrics.recordLinks(work.extracted.size(), work.extracted.size() - work.links.size(), alreadySeen);
+        if (work.duplicateOf != null) {
+            work.links = Collections.emptyList();
+        }
+    }
+
+
+    /**
+     * Hand a page to the sitemap, its event and the result listener, then mark it
+     * done, the last step of every page taken from the frontier.
+     */
+    private void emit(@Nonnull final PageWork work, @Nonnull final Crawl crawl) {
+
+        final CrawlTask task = work.task;
+        try {
+            if (!work.listed) {
+                return;
+            }
+
+            final long outputStart = System.nanoTime();
+            final SitemapPage page = new SitemapPage(task.getUrl(), task.getDepth(), work.links, work.duplicateOf);
+            crawl.sitemap.write(page);
+            if (crawl.journal != null) {
+                crawl.journal.written(page);
+            }
+            crawl.metrics.recordLatency(CrawlStage.OUTPUT, System.nanoTime() - outputStart);
+            final PageCrawlEvent event = work.event;
+            if (event.shouldCommit()) {
+                event.url = task.getUrl().toString();
+                event.depth = task.getDepth();
+                event.links = work.links.size();
+                event.commit();
+            }
+            if (crawl.listener != null && !crawl.listener.pageCrawled(new CrawlResult(
+                page, event.statusCode, event.bytes, event.fetchTime, event.transferTime, event.parseTime,
+                work.errorMessage
+            ))) {
+                crawl.budget.cancel();
+            }
+        }
+        finally {
+            crawl.frontier.done(task);
+        }
+    }
+
+
+    /**
+     * Record an error crawling a page.  A page which fails is still listed, with
+     * the links found before the error.
+     */
+    private void failed(@Nonnull final PageWork work, @Nonnull final Crawl crawl, @Nonnull final Exception e) {
+
+        work.errorMessage = e.getMessage();
+        crawl.metrics.recordError(e);
+        if (e instanceof IOException) {
+            if (crawl.isStartPage(work.task)) {
+                crawl.startPageError.set((IOException) e);
+            }
+            else {
+                System.err.println(String.format(
+                    "Error crawling url.  URL: \"%s\"", work.task.getUrl()
+                ));
+            }
+        }
+        else {
+            System.err.println(String.format(
+                "Error crawling url.  URL: \"%s\", Error Message: \"%s\"",
+                work.task.getUrl(), e.getMessage()
+            ));
+        }
+    }
+
+
+    private void resolve(@Nonnull final URL url, @Nonnull final Crawl crawl) throws UnknownHostException {
+
+        final long start = System.nanoTime();
+        try {
+            crawl.dns.resolve(url.getHost());
+        }
+        finally {
+            crawl.metrics.recordLatency(CrawlStage.RESOLVE, System.nanoTime() - start);
+        }
+    }
+
+
+    private boolean isAllowed(@Nonnull final URL url, @Nonnull final Crawl crawl) throws IOException {
+
+        final long start = System.nanoTime();
+        try {
+            return crawl.robots.isAllowed(url);
+        }
+        finally {
+            crawl.metrics.recordLatency(CrawlStage.ROBOTS, System.nanoTime() - start);
+        }
+    }
+
+
+    /**
+     * Returns the links of a page.  With a validator cache, a page fetched before
+     * is requested conditionally, and if it has not changed its cached links are
+     * returned without downloading or scanning it.  Resources which are not HTML,
+     * or are too large, are not read, checked with a HEAD request first if so
+     * configured.  Pages are requested compressed in the configured codings and
+     * decoded as they are scanned; the size limit applies to the decoded page, and
+     * the bytes and transfer time recorded in the crawl's metrics and the page's
+     * event to the page as sent.  The time taken by each stage is recorded too.
+     * When parsing is deferred to another stage, the decoded body is instead read
+     * whole into the work, and null returned.  Otherwise, if duplicates are
+     * detected, the page is fingerprinted as it is scanned.
+     */
+    @Nullable
+    private Collection<URL> listUrls(
+        @Nonnull final URL url, @Nonnull final Crawl crawl, @Nonnull final PageWork work, boolean deferParse
+    ) throws IOException {
+
+        final PageCrawlEvent event = work.event;
+        final ValidatorCache.Entry cached = crawl.validatorCache == null ? null : crawl.validatorCache.get(url);
+        if (cached == null && configuration.isHeadRequests() && !ContentGate.isProbablyHtml(url)) {
+            final long headStart = System.nanoTime();
+            try (PageResponse response = crawl.fetcher.head(url)) {
+                crawl.metrics.recordLatency(CrawlStage.FETCH, System.nanoTime() - headStart);
+                event.statusCode = response.getStatusCode();
+                if (response.isSuccessful() && !contentGate.admits(response)) {
+                    return Collections.emptyList();
+                }
+            }
+        }
+
+        final Map<String, String> requestHeaders = requestHeaders(cached);
+
+        final long fetchStart = System.nanoTime();
+        try (PageResponse response = crawl.fetcher.fetch(url, requestHeaders)) {
+            event.fetchTime = System.nanoTime() - fetchStart;
+            event.statusCode = response.getStatusCode();
+            crawl.metrics.recordLatency(CrawlStage.FETCH, event.fetchTime);
+            if (cached != null && response.isNotModified()) {
+                crawl.metrics.recordPageNotModified();
+
+                return cached.getLinks();
+            }
+
+            if (!response.isSuccessful()) {
+                throw new HttpStatusException(String.format(
+                    "Unsuccessful response.  URL: \"%s\", Status Code: %d", url, response.getStatusCode()
+                ), response.getStatusCode());
+            }
+
+            Collection<URL> links = Collections.emptyList();
+            if (contentGate.admits(response)) {
+                final TimedInputStream body = new TimedInputStream(response.getBody());
+                final long parseStart = System.nanoTime();
+                try (InputStream decoded = decoders.decode(response.getHeader("Content-Encoding").orElse(null), body)) {
+                    if (deferParse) {
+                        work.body = contentGate.limit(decoded).readAllBytes();
+                        work.baseUrl = response.getUrl();
+                        work.contentType = response.getHeader("Content-Type").orElse(null);
+                        work.etag = response.getHeader("ETag").orElse(null);
+                        work.lastModified = response.getHeader("Last-Modified").orElse(null);
+                        event.transferTime = body.readNanos;
+                        event.bytes = body.bytesRead;
+                        crawl.metrics.recordLatency(CrawlStage.TRANSFER, event.transferTime);
+                        crawl.metrics.recordPageFetched(event.bytes);
+
+                        return null;
+                    }
+                    final FingerprintingInputStream page = crawl.duplicates == null
+                        ? null
+                        : new FingerprintingInputStream(contentGate.limit(decoded));
+                    links = LinkExtractor.extract(
+                        response.getUrl(), page == null ? contentGate.limit(decoded) : page,
+                        response.getHeader("Content-Type").orElse(null), canonicalizer
+                    );
+                    if (page != null) {
+                        work.fingerprint = page.fingerprint.build();
+                    }
+                }
+                event.transferTime = body.readNanos;
+                event.parseTime = System.nanoTime() - parseStart - body.readNanos;
+                event.bytes = body.bytesRead;
+                crawl.metrics.recordLatency(CrawlStage.TRANSFER, event.transferTime);
+                crawl.metrics.recordLatency(CrawlStage.PARSE, event.parseTime);
+            }
+            crawl.metrics.recordPageFetched(event.bytes);
+            if (crawl.validatorCache != null) {
+                crawl.validatorCache.put(
+                    url, response.getHeader("ETag").orElse(null), response.getHeader("Last-Modified").orElse(null),
+                    links
+                );
+            }
+
+            return links;
+        }
+    }
+
+
+    /**
+     * Returns the headers of a page request: the accepted content codings, and
+     * the validators of the cached page if there is one.
+     */
+    @Nonnull
+    private Map<String, String> requestHeaders(@Nullable final ValidatorCache.Entry cached) {
+
+        if (cached == null) {
+            return acceptEncodingHeaders;
+        }
+
+        final Map<String, String> headers = new HashMap<>(cached.getConditionalHeaders());
+        headers.putAll(acceptEncodingHeaders);
+
+        return headers;
+    }
+
+
+    /**
+     * One page as it passes through the stages of its crawl.  Handed from stage
+     * to stage through their queues, so each field is written by one stage at a
+     * time.
+     */
+    private static final class PageWork {
+
+        private final CrawlTask task;
+        private final PageCrawlEvent event = new PageCrawlEvent();
+        private boolean listed = true;
+        private Collection<URL> extracted = Collections.emptyList();
+        private List<URL> links = Collections.emptyList();
+        private String errorMessage;
+        private byte[] body;
+        private URL baseUrl;
+        private String contentType;
+        private String etag;
+        private String lastModified;
+        private ContentFingerprint fingerprint;
+        private URL duplicateOf;
+
+
+        private PageWork(@Nonnull final CrawlTask task) {
+
+            this.task = task;
+        }
+    }
+
+
+    /**
+     * The state shared by the workers of one crawl.
+     */
+    private static final class Crawl {
+
+        private final URL startUrl;
+        private final HostScope scope;
+        private final PageFetcher fetcher;
+        private final RobotsCache robots;
+        private final ValidatorCache validatorCache;
+        private final SitemapWriter sitemap;
+        private final VisitedSet siteMapUrls;
+        private final Frontier frontier;
+        private final CrawlMetrics metrics;
+        private final CrawlBudget budget;
+        private final DnsCache dns;
+        private final DuplicateIndex duplicates;
+        private final ClusterNode cluster;
+        private final CrawlJournal journal;
+        private final CrawlResultListener listener;
+        private final AtomicReference<IOException> startPageError = new AtomicReference<>();
+        private volatile boolean workersDone;
+
+
+        private Crawl(
+            @Nonnull final URL startUrl, @Nonnull final HostScope scope, @Nonnull final PageFetcher fetcher,
+            @Nullable final RobotsCache robots,
+            @Nullable final ValidatorCache validatorCache, @Nonnull final SitemapWriter sitemap,
+            @Nonnull final VisitedSet siteMapUrls, @Nonnull final Frontier frontier,
+            @Nonnull final CrawlMetrics metrics, @Nonnull final CrawlBudget budget,
+            @Nullable final DnsCache dns, @Nullable final DuplicateIndex duplicates,
+            @Nullable final ClusterNode cluster, @Nullable final CrawlJournal journal,
+            @Nullable final CrawlResultListener listener
+        ) {
+
+            this.startUrl = startUrl;
+            this.scope = scope;
+            this.fetcher = fetcher;
+            this.robots = robots;
+            this.validatorCache = validatorCache;
+            this.sitemap = sitemap;
+            this.siteMapUrls = siteMapUrls;
+            this.frontier = frontier;
+            this.metrics = metrics;
+            this.budget = budget;
+            this.dns = dns;
+            this.duplicates = duplicates;
+            this.cluster = cluster;
+            this.journal = journal;
+            this.listener = listener;
+        }
+
+
+        /**
+         * Returns true if a task is the start page, whose failure fails the crawl.
+         * Told apart from other seeds at depth zero by its text, as URL equality
+         * would look up its host.
+         */
+        private boolean isStartPage(@Nonnull final CrawlTask task) {
+            return task.getDepth() == 0 && task.getUrl().toString().equals(startUrl.toString());
+        }
+
+
+        /**
+         * Put a task on the frontier, and start looking up its host so that is
+         * done by the time the task is taken.
+         */
+        private void offer(@Nonnull final CrawlTask task) {
+
+            frontier.offer(task);
+            if (dns != null && !task.getUrl().getHost().isEmpty()) {
+                dns.prefetch(task.getUrl().getHost());
+            }
+        }
+
+
+        /**
+         * Returns true if this crawl fetches a URL itself: always, unless it is one
+         * node of a cluster and another node owns the URL's host.
+         */
+        private boolean owns(@Nonnull final URL url) {
+            return cluster == null || cluster.owns(url);
+        }
+    }
+
+
+    /**
+     * Connects a crawl to the other nodes of its cluster: tasks they forward are
+     * put on the frontier unless already seen, pages they send are written to the
+     * sitemap, and the crawl is idle once no task is pending or its workers have
+     * stopped, e.g. on spending its budget.
+     */
+    private static final class ClusterListener implements ClusterNode.Listener {
+
+        private final Crawl crawl;
+
+
+        private ClusterListener(@Nonnull final Crawl crawl) {
+
+            this.crawl = crawl;
+        }
+
+
+        @Override
+        public void taskReceived(@Nonnull final CrawlTask task) {
+
+            if (crawl.siteMapUrls.add(task.getUrl())) {
+                crawl.offer(task);
+            }
+        }
+
+
+        @Override
+        public void pageReceived(@Nonnull final SitemapPage page) {
+
+            crawl.sitemap.write(page);
+        }
+
+
+        @Override
+        public boolean isIdle() {
+            return crawl.workersDone || crawl.frontier.getPendingCount() == 0;
+        }
+
+
+        @Override
+        public void terminated() {
+
+            crawl.frontier.release();
+        }
+    }
+
+
+    /**
+     * Counts the bytes read from a response body and the time spent waiting for
+     * them, which is the transfer time of the page.  Used by one thread only.
+     */
+    private static final class TimedInputStream extends FilterInputStream {
+
+        private long bytesRead;
+        private long readNanos;
+
+
+        private TimedInputStream(@Nonnull final InputStream in) {
+
+            super(in);
+        }
+
+
+        @Override
+        public int read() throws IOException {
+
+            final long start = System.nanoTime();
+            final int b = super.read();
+            readNanos += System.nanoTime() - start;
+            if (b >= 0) {
+                bytesRead++;
+            }
+
+            return b;
+        }
+
+
+        @Override
+        public int read(@Nonnull final byte[] b, int off, int len) throws IOException {
+
+            final long start = System.nanoTime();
+            final int count = super.read(b, off, len);
+            readNanos += System.nanoTime() - start;
+            if (count > 0) {
+                bytesRead += count;
+            }
+
+            return count;
+        }
+    }
+
+
+    /**
+     * Fingerprints the content of a page as it is read.
+     */
+    private static final class FingerprintingInputStream extends FilterInputStream {
+
+        private final ContentFingerprint.Builder fingerprint = new ContentFingerprint.Builder();
+
+
+        private FingerprintingInputStream(@Nonnull final InputStream in) {
+
+            super(in);
+        }
+
+
+        @Override
+        public int read() throws IOException {
+
+            final int b = super.read();
+            if (b >= 0) {
+                fingerprint.update(b);
+            }
+
+            return b;
+        }
+
+
+        @Override
+        public int read(@Nonnull final byte[] b, int off, int len) throws IOException {
+
+            final int count = super.read(b, off, len);
+            if (count > 0) {
+                fingerprint.update(b, off, count);
+            }
+
+            return count;
+        }
+    }
+
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+
+        private final String namePrefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+
+        private WorkerThreadFactory(@Nonnull final String namePrefix) {
+
+            this.namePrefix = namePrefix;
+        }
+
+
+        @Override
+        @Nonnull
+        public Thread newThread(@Nonnull final Runnable runnable) {
+
+            final Thread thread = new Thread(runnable, namePrefix + count.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        }
+    }
+}
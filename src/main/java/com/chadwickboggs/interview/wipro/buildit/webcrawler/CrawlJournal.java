@@ -0,0 +1,387 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Consumer;
+import javax.annotation.Nonnull;
+
+
+/**
+ * The persistent record of a crawl, kept in a state directory so that a crawl can
+ * be resumed after a crash or restart.  Append-only {@link SegmentLog}s record
+ * every task enqueued on the frontier, every page written to the sitemap and the
+ * fingerprint of every task completed.  A checkpoint file records how far into
+ * each log is safely on disk.
+ *
+ * <p>Resuming replays the logs up to the last checkpoint: every enqueued page is
+ * marked visited, and those not completed are put back on the frontier.  The
+ * pages of the tasks completed are written to the resumed crawl's sitemap again,
+ * so it lists the whole crawl.  Pages completed after the last checkpoint are
+ * fetched again.</p>
+ */
+public final class CrawlJournal implements Closeable {
+
+    private static final String ENQUEUED_LOG_NAME = "enqueued";
+    private static final String COMPLETED_LOG_NAME = "completed";
+    private static final String PAGES_LOG_NAME = "pages";
+    private static final String CHECKPOINT_FILENAME = "checkpoint.properties";
+    private static final String TARGET_PROPERTY = "target";
+    private static final String ENQUEUED_POSITION_PROPERTY = "enqueued.position";
+    private static final String COMPLETED_POSITION_PROPERTY = "completed.position";
+    private static final String PAGES_POSITION_PROPERTY = "pages.position";
+    private static final String TIMESTAMP_PROPERTY = "timestamp";
+
+    private final Path directory;
+    private final SegmentLog enqueued;
+    private final SegmentLog completed;
+    private final SegmentLog pages;
+    private final Properties checkpoint;
+
+
+    /**
+     * Open the journal in a state directory, creating the directory if needed.
+     *
+     * @param directory the state directory.
+     * @throws IOException on error creating the directory or reading its checkpoint.
+     */
+    public CrawlJournal(@Nonnull final Path directory) throws IOException {
+
+        this.directory = Files.createDirectories(directory);
+        this.checkpoint = readCheckpoint();
+        this.enqueued = new SegmentLog(
+            directory, ENQUEUED_LOG_NAME, SegmentLog.DEFAULT_SEGMENT_SIZE,
+            Long.parseLong(checkpoint.getProperty(ENQUEUED_POSITION_PROPERTY, "0"))
+        );
+        this.completed = new SegmentLog(
+            directory, COMPLETED_LOG_NAME, SegmentLog.DEFAULT_SEGMENT_SIZE,
+            Long.parseLong(checkpoint.getProperty(COMPLETED_POSITION_PROPERTY, "0"))
+        );
+        this.pages = new SegmentLog(
+            directory, PAGES_LOG_NAME, SegmentLog.DEFAULT_SEGMENT_SIZE,
+            Long.parseLong(checkpoint.getProperty(PAGES_POSITION_PROPERTY, "0"))
+        );
+    }
+
+
+    /**
+     * Discard any earlier crawl recorded in the state directory.
+     *
+     * @throws IOException on error deleting its files.
+     */
+    public void reset() throws IOException {
+
+        enqueued.reset();
+        completed.reset();
+        pages.reset();
+        checkpoint.clear();
+        Files.deleteIfExists(directory.resolve(CHECKPOINT_FILENAME));
+    }
+
+
+    /**
+     * Record a task added to the frontier.
+     *
+     * @param task the task.
+     */
+    public void enqueued(@Nonnull final CrawlTask task) {
+
+        enqueued.append(encode(task));
+    }
+
+
+    /**
+     * Record a page written to the sitemap, before its task is recorded finished.
+     *
+     * @param page the page.
+     */
+    public void written(@Nonnull final SitemapPage page) {
+
+        pages.append(encode(page));
+    }
+
+
+    /**
+     * Record a task finished, whether or not it succeeded.
+     *
+     * @param task the task.
+     */
+    public void completed(@Nonnull final CrawlTask task) {
+
+        completed.append(ByteBuffer.allocate(Long.BYTES).putLong(UrlKeys.fingerprint(task.getUrl())).array());
+    }
+
+
+    /**
+     * Flush the logs to disk and record their positions as the new checkpoint.
+     * The completed position is taken before the others, so every task whose
+     * completion is in the checkpoint has its page and discovered links in it too.
+     *
+     * @param target the start page of the crawl.
+     * @throws IOException on error writing the checkpoint file.
+     */
+    public synchronized void checkpoint(@Nonnull final URL target) throws IOException {
+
+        final long completedPosition = completed.getWritePosition();
+        final long pagesPosition = pages.getWritePosition();
+        final long enqueuedPosition = enqueued.getWritePosition();
+        completed.force();
+        pages.force();
+        enqueued.force();
+
+        checkpoint.setProperty(TARGET_PROPERTY, target.toString());
+        checkpoint.setProperty(ENQUEUED_POSITION_PROPERTY, Long.toString(enqueuedPosition));
+        checkpoint.setProperty(COMPLETED_POSITION_PROPERTY, Long.toString(completedPosition));
+        checkpoint.setProperty(PAGES_POSITION_PROPERTY, Long.toString(pagesPosition));
+        checkpoint.setProperty(TIMESTAMP_PROPERTY, Long.toString(System.currentTimeMillis()));
+
+        final Path temporaryFile = directory.resolve(CHECKPOINT_FILENAME + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+            checkpoint.store(writer, "Web Crawler checkpoint");
+        }
+        Files.move(
+            temporaryFile, directory.resolve(CHECKPOINT_FILENAME),
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE
+        );
+    }
+
+
+    /**
+     * Returns true if the state directory holds a checkpoint to resume from.
+     *
+     * @return true if there is a checkpoint.
+     */
+    public boolean hasCheckpoint() {
+        return checkpoint.containsKey(ENQUEUED_POSITION_PROPERTY);
+    }
+
+
+    /**
+     * Replay the logs up to the last checkpoint.
+     *
+     * @param target the start page of the crawl being resumed.
+     * @param handler the handler every enqueued task is passed to.
+     * @throws IOException if the checkpoint is of a crawl of another target.
+     */
+    public void recover(@Nonnull final URL target, @Nonnull final RecoveryHandler handler) throws IOException {
+
+        final String checkpointTarget = checkpoint.getProperty(TARGET_PROPERTY);
+        if (!target.toString().equals(checkpointTarget)) {
+            throw new IOException(String.format(
+                "State directory holds a crawl of another target.  Target: \"%s\", Checkpoint Target: \"%s\"",
+                target, checkpointTarget
+            ));
+        }
+
+        final long[] fingerprints = readCompletedFingerprints();
+        enqueued.read(0, Long.parseLong(checkpoint.getProperty(ENQUEUED_POSITION_PROPERTY)), record -> {
+            final CrawlTask task = decode(record);
+            handler.onEnqueued(
+                task, Arrays.binarySearch(fingerprints, UrlKeys.fingerprint(task.getUrl())) >= 0
+            );
+        });
+    }
+
+
+    /**
+     * Replay the pages written to the sitemap by the tasks completed up to the
+     * last checkpoint.  A page written whose task completed after it is left out,
+     * as the task is crawled again.
+     *
+     * @param handler the handler every page is passed to.
+     */
+    public void replayPages(@Nonnull final Consumer<SitemapPage> handler) {
+
+        final long[] fingerprints = readCompletedFingerprints();
+        pages.read(0, Long.parseLong(checkpoint.getProperty(PAGES_POSITION_PROPERTY, "0")), record -> {
+            final SitemapPage page = decodePage(record);
+            if (Arrays.binarySearch(fingerprints, UrlKeys.fingerprint(page.getUrl())) >= 0) {
+                handler.accept(page);
+            }
+        });
+    }
+
+
+    @Override
+    public void close() {
+
+        enqueued.close();
+        completed.close();
+        pages.close();
+    }
+
+
+    /**
+     * Returns the completed fingerprints, sorted for binary search.  Eight bytes per
+     * page, so even very large crawls recover in modest memory.
+     */
+    @Nonnull
+    private long[] readCompletedFingerprints() {
+
+        final CompletedFingerprints fingerprints = new CompletedFingerprints();
+        completed.read(0, Long.parseLong(checkpoint.getProperty(COMPLETED_POSITION_PROPERTY, "0")), fingerprints);
+
+        final long[] sorted = Arrays.copyOf(fingerprints.values, fingerprints.count);
+        Arrays.sort(sorted);
+
+        return sorted;
+    }
+
+
+    @Nonnull
+    private Properties readCheckpoint() throws IOException {
+
+        final Properties properties = new Properties();
+        final Path file = directory.resolve(CHECKPOINT_FILENAME);
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+        }
+
+        return properties;
+    }
+
+
+    /**
+     * Encode a task as a record: its depth followed by its URL in UTF-8.
+     */
+    @Nonnull
+    static byte[] encode(@Nonnull final CrawlTask task) {
+
+        final byte[] url = task.getUrl().toString().getBytes(StandardCharsets.UTF_8);
+
+        return ByteBuffer.allocate(Integer.BYTES + url.length).putInt(task.getDepth()).put(url).array();
+    }
+
+
+    @Nonnull
+    static CrawlTask decode(@Nonnull final byte[] record) {
+
+        final ByteBuffer buffer = ByteBuffer.wrap(record);
+        final int depth = buffer.getInt();
+        final String url = new String(record, Integer.BYTES, record.length - Integer.BYTES, StandardCharsets.UTF_8);
+        try {
+            return new CrawlTask(new URL(url), depth);
+        }
+        catch (MalformedURLException e) {
+            throw new UncheckedIOException(String.format(
+                "Corrupt task record.  URL: \"%s\"", url
+            ), e);
+        }
+    }
+
+
+    /**
+     * Encode a page as a record: its depth, its URL, the page it is an alias of or
+     * an empty string, and its link count and links, each string as its UTF-8
+     * length and bytes.
+     */
+    @Nonnull
+    static byte[] encode(@Nonnull final SitemapPage page) {
+
+        final List<byte[]> strings = new ArrayList<>(page.getLinks().size() + 2);
+        strings.add(page.getUrl().toString().getBytes(StandardCharsets.UTF_8));
+        strings.add(page.getAliasOf() == null
+            ? new byte[0]
+            : page.getAliasOf().toString().getBytes(StandardCharsets.UTF_8));
+        for (final URL link : page.getLinks()) {
+            strings.add(link.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        int length = Integer.BYTES * 2;
+        for (final byte[] string : strings) {
+            length += Integer.BYTES + string.length;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(length)
+            .putInt(page.getDepth())
+            .putInt(page.getLinks().size());
+        for (final byte[] string : strings) {
+            buffer.putInt(string.length).put(string);
+        }
+
+        return buffer.array();
+    }
+
+
+    @Nonnull
+    static SitemapPage decodePage(@Nonnull final byte[] record) {
+
+        final ByteBuffer buffer = ByteBuffer.wrap(record);
+        final int depth = buffer.getInt();
+        final int linkCount = buffer.getInt();
+        final String url = readString(buffer);
+        try {
+            final String aliasOf = readString(buffer);
+            final List<URL> links = new ArrayList<>(linkCount);
+            for (int i = 0; i < linkCount; i++) {
+                links.add(new URL(readString(buffer)));
+            }
+
+            return new SitemapPage(new URL(url), depth, links, aliasOf.isEmpty() ? null : new URL(aliasOf));
+        }
+        catch (MalformedURLException e) {
+            throw new UncheckedIOException(String.format(
+                "Corrupt page record.  URL: \"%s\"", url
+            ), e);
+        }
+    }
+
+
+    @Nonnull
+    private static String readString(@Nonnull final ByteBuffer buffer) {
+
+        final byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * Collects the fingerprints read from the completed log.
+     */
+    private static final class CompletedFingerprints implements SegmentLog.RecordHandler {
+
+        private long[] values = new long[1024];
+        private int count;
+
+
+        @Override
+        public void onRecord(@Nonnull final byte[] record) {
+
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = ByteBuffer.wrap(record).getLong();
+        }
+    }
+
+
+    /**
+     * Receives the tasks replayed from the journal.
+     */
+    public interface RecoveryHandler {
+
+        /**
+         * Handle one enqueued task.
+         *
+         * @param task the task.
+         * @param completed true if the task completed before the checkpoint.
+         */
+        void onEnqueued(@Nonnull CrawlTask task, boolean completed);
+    }
+}
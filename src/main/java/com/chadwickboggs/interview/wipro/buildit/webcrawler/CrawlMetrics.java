@@ -0,0 +1,377 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+
+/**
+ * Counters and latency histograms of one crawl.  Every method may be called
+ * from any thread: counters are {@link LongAdder}s and histograms lock-free, so
+ * recording costs a few uncontended atomic adds per page.  The metrics can be
+ * read through JMX while the crawl runs, see {@link #register()}, and summarized
+ * on one line by {@link #getProgressLine()}.
+ */
+public final class CrawlMetrics implements CrawlMetricsMXBean {
+
+    static final String OBJECT_NAME_PREFIX =
+        "com.chadwickboggs.interview.wipro.buildit.webcrawler:type=CrawlMetrics";
+
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final AtomicLong CRAWL_SEQUENCE = new AtomicLong();
+
+    private final String startUrl;
+    private final long startNanos = System.nanoTime();
+    private final LongAdder pagesFetched = new LongAdder();
+    private final LongAdder pagesNotModified = new LongAdder();
+    private final LongAdder pagesDisallowed = new LongAdder();
+    private final LongAdder pagesDuplicate = new LongAdder();
+    private final LongAdder bytesFetched = new LongAdder();
+    private final LongAdder linksExtracted = new LongAdder();
+    private final LongAdder linksOutOfScope = new LongAdder();
+    private final LongAdder dedupeHits = new LongAdder();
+    private final ConcurrentMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final Map<CrawlStage, LatencyHistogram> latencies = new EnumMap<>(CrawlStage.class);
+    private volatile LongSupplier frontierDepth = () -> 0;
+    private volatile Map<String, LongSupplier> stageQueueDepths = Collections.emptyMap();
+
+
+    /**
+     * Create instance.
+     *
+     * @param startUrl the start page of the crawl.
+     */
+    public CrawlMetrics(@Nonnull final URL startUrl) {
+
+        this.startUrl = startUrl.toString();
+        for (CrawlStage stage : CrawlStage.values()) {
+            latencies.put(stage, new LatencyHistogram());
+        }
+    }
+
+
+    /**
+     * Set the source of the frontier depth, read whenever it is reported.
+     *
+     * @param frontierDepth the number of pages waiting to be crawled.
+     */
+    void setFrontierDepth(@Nonnull final LongSupplier frontierDepth) {
+
+        this.frontierDepth = frontierDepth;
+    }
+
+
+    /**
+     * Set the sources of the queue depths of a pipelined crawl's stages, read
+     * whenever they are reported.
+     *
+     * @param stageQueueDepths the number of pages waiting for each stage, by stage
+     *     name, in pipeline order.
+     */
+    void setStageQueueDepths(@Nonnull final Map<String, LongSupplier> stageQueueDepths) {
+
+        this.stageQueueDepths = Collections.unmodifiableMap(new LinkedHashMap<>(stageQueueDepths));
+    }
+
+
+    void recordLatency(@Nonnull final CrawlStage stage, long nanos) {
+        latencies.get(stage).record(nanos);
+    }
+
+
+    void recordPageFetched(long bytes) {
+
+        pagesFetched.increment();
+        bytesFetched.add(bytes);
+    }
+
+
+    void recordPageNotModified() {
+        pagesNotModified.increment();
+    }
+
+
+    void recordPageDisallowed() {
+        pagesDisallowed.increment();
+    }
+
+
+    void recordPageDuplicate() {
+        pagesDuplicate.increment();
+    }
+
+
+    void recordLinks(int extracted, int outOfScope, int alreadySeen) {
+
+        linksExtracted.add(extracted);
+        linksOutOfScope.add(outOfScope);
+        dedupeHits.add(alreadySeen);
+    }
+
+
+    /**
+     * Count an error crawling a page.
+     *
+     * @param e the error.
+     */
+    void recordError(@Nonnull final Exception e) {
+        errors.computeIfAbsent(errorType(e), type -> new LongAdder()).increment();
+    }
+
+
+    @Nonnull
+    private static String errorType(@Nonnull final Exception e) {
+
+        if (e instanceof HttpStatusException) {
+            return "HTTP " + ((HttpStatusException) e).getStatusCode() / 100 + "xx";
+        }
+
+        return e.getClass().getSimpleName();
+    }
+
+
+    /**
+     * Register these metrics with the platform MBean server, named after the
+     * start page and numbered in the order crawls register, so crawls of the
+     * same site at once each have metrics of their own, e.g.
+     * {@code name="https://example.com/",crawl=2}.
+     *
+     * @return the name registered under, or null if the registration failed.
+     */
+    @Nullable
+    ObjectName register() {
+
+        try {
+            final ObjectName name = new ObjectName(OBJECT_NAME_PREFIX
+                + ",name=" + ObjectName.quote(startUrl) + ",crawl=" + CRAWL_SEQUENCE.incrementAndGet());
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+
+            return name;
+        }
+        catch (JMException e) {
+            System.err.println(String.format(
+                "Unable to register crawl metrics.  Target URL: \"%s\", Error Message: \"%s\"",
+                startUrl, e.getMessage()
+            ));
+
+            return null;
+        }
+    }
+
+
+    static void unregister(@Nullable final ObjectName name) {
+
+        if (name == null) {
+            return;
+        }
+
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.unregisterMBean(name);
+        }
+        catch (JMException e) {
+            // Already gone.
+        }
+    }
+
+
+    /**
+     * Returns a one line summary of the crawl so far.
+     *
+     * @return the progress line.
+     */
+    @Nonnull
+    public String getProgressLine() {
+
+        final LatencyHistogram fetch = latencies.get(CrawlStage.FETCH);
+        final StringBuilder queues = new StringBuilder();
+        stageQueueDepths.forEach((stage, depth) -> queues
+            .append(queues.length() == 0 ? ", Queues: " : " ")
+            .append(stage).append('=').append(depth.getAsLong())
+        );
+
+        return String.format(Locale.ROOT,
+            "Crawl progress.  Elapsed: %.0fs, Pages: %d, Pages/sec: %.1f, MB: %.1f, Links: %d, Dedupe Hits: %d,"
+                + " Frontier: %d, Errors: %d, Fetch p50: %.1fms, Fetch p99: %.1fms",
+            getElapsedSeconds(), getPagesFetched(), getPagesPerSecond(), getBytesFetched() / (1024.0 * 1024),
+            getLinksExtracted(), getDedupeHits(), getFrontierDepth(), getErrorCount(),
+            fetch.getPercentile(0.50) / NANOS_PER_MILLI, fetch.getPercentile(0.99) / NANOS_PER_MILLI
+        ) + queues;
+    }
+
+
+    @Override
+    @Nonnull
+    public String getStartUrl() {
+        return startUrl;
+    }
+
+
+    @Override
+    public double getElapsedSeconds() {
+        return (System.nanoTime() - startNanos) / NANOS_PER_SECOND;
+    }
+
+
+    @Override
+    public long getPagesFetched() {
+        return pagesFetched.sum();
+    }
+
+
+    @Override
+    public long getPagesNotModified() {
+        return pagesNotModified.sum();
+    }
+
+
+    @Override
+    public long getPagesDisallowed() {
+        return pagesDisallowed.sum();
+    }
+
+
+    @Override
+    public long getPagesDuplicate() {
+        return pagesDuplicate.sum();
+    }
+
+
+    @Override
+    public long getBytesFetched() {
+        return bytesFetched.sum();
+    }
+
+
+    @Override
+    public long getLinksExtracted() {
+        return linksExtracted.sum();
+    }
+
+
+    @Override
+    public long getLinksOutOfScope() {
+        return linksOutOfScope.sum();
+    }
+
+
+    @Override
+    public long getDedupeHits() {
+        return dedupeHits.sum();
+    }
+
+
+    @Override
+    public long getFrontierDepth() {
+        return frontierDepth.getAsLong();
+    }
+
+
+    @Override
+    @Nonnull
+    public Map<String, Long> getStageQueueDepths() {
+
+        final Map<String, Long> depths = new LinkedHashMap<>();
+        stageQueueDepths.forEach((stage, depth) -> depths.put(stage, depth.getAsLong()));
+
+        return depths;
+    }
+
+
+    @Override
+    public long getErrorCount() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+
+    @Override
+    @Nonnull
+    public Map<String, Long> getErrors() {
+
+        final Map<String, Long> counts = new TreeMap<>();
+        errors.forEach((type, count) -> counts.put(type, count.sum()));
+
+        return Collections.unmodifiableMap(counts);
+    }
+
+
+    @Override
+    public double getPagesPerSecond() {
+        return getPagesFetched() / Math.max(getElapsedSeconds(), 0.001);
+    }
+
+
+    @Override
+    public double getBytesPerSecond() {
+        return getBytesFetched() / Math.max(getElapsedSeconds(), 0.001);
+    }
+
+
+    @Override
+    @Nonnull
+    public Map<String, Double> getLatencyMillisP50() {
+        return getLatencyMillis(0.50);
+    }
+
+
+    @Override
+    @Nonnull
+    public Map<String, Double> getLatencyMillisP99() {
+        return getLatencyMillis(0.99);
+    }
+
+
+    /**
+     * Returns a percentile of the time spent in a stage.
+     *
+     * @param stage the stage.
+     * @param percentile the percentile, e.g. 0.99.
+     * @return the duration in nanoseconds, or zero if the stage was never timed.
+     */
+    public long getLatencyNanos(@Nonnull final CrawlStage stage, double percentile) {
+        return latencies.get(stage).getPercentile(percentile);
+    }
+
+
+    @Nonnull
+    private Map<String, Double> getLatencyMillis(double percentile) {
+
+        final Map<String, Double> millis = new LinkedHashMap<>();
+        latencies.forEach((stage, histogram) ->
+            millis.put(stage.getLabel(), histogram.getPercentile(percentile) / NANOS_PER_MILLI)
+        );
+
+        return Collections.unmodifiableMap(millis);
+    }
+
+
+    @Override
+    @Nonnull
+    public String toString() {
+
+        return "CrawlMetrics{"
+            + "startUrl='" + startUrl + '\''
+            + ", pagesFetched='" + getPagesFetched() + '\''
+            + ", bytesFetched='" + getBytesFetched() + '\''
+            + ", linksExtracted='" + getLinksExtracted() + '\''
+            + ", dedupeHits='" + getDedupeHits() + '\''
+            + ", errors='" + getErrors() + '\''
+            + "}";
+    }
+}
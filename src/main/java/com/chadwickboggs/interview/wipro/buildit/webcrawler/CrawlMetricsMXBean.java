@@ -0,0 +1,75 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.util.Map;
+
+
+/**
+ * The management interface of {@link CrawlMetrics}, registered with the platform
+ * MBean server for the duration of a crawl.
+ */
+public interface CrawlMetricsMXBean {
+
+    String getStartUrl();
+
+    double getElapsedSeconds();
+
+    long getPagesFetched();
+
+    long getPagesNotModified();
+
+    long getPagesDisallowed();
+
+    /**
+     * Returns the number of pages found to be copies of pages crawled before,
+     * whose links were not followed.
+     *
+     * @return the number of duplicate pages.
+     */
+    long getPagesDuplicate();
+
+    long getBytesFetched();
+
+    long getLinksExtracted();
+
+    long getLinksOutOfScope();
+
+    long getDedupeHits();
+
+    long getFrontierDepth();
+
+    /**
+     * Returns the number of pages waiting for each stage of a pipelined crawl.
+     *
+     * @return the queue depths by stage name, empty unless the crawl is pipelined.
+     */
+    Map<String, Long> getStageQueueDepths();
+
+    long getErrorCount();
+
+    /**
+     * Returns the number of errors of each type: "HTTP 4xx", "HTTP 5xx", or the
+     * name of the exception.
+     *
+     * @return the error counts by type.
+     */
+    Map<String, Long> getErrors();
+
+    double getPagesPerSecond();
+
+    double getBytesPerSecond();
+
+    /**
+     * Returns the median time spent in each {@link CrawlStage}, by stage label.
+     *
+     * @return the medians in milliseconds.
+     */
+    Map<String, Double> getLatencyMillisP50();
+
+    /**
+     * Returns the 99th percentile time spent in each {@link CrawlStage}, by stage
+     * label.
+     *
+     * @return the 99th percentiles in milliseconds.
+     */
+    Map<String, Double> getLatencyMillisP99();
+}
@@ -0,0 +1,134 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.net.URL;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * The outcome of crawling one page: the page as listed in the sitemap, the
+ * status of its response, and how long each stage of fetching it took.  Pages
+ * which were not downloaded, such as those answered from the validator cache
+ * or not HTML, have no transfer or parse time.
+ */
+public final class CrawlResult {
+
+    private final SitemapPage page;
+    private final int statusCode;
+    private final long bytes;
+    private final long fetchNanos;
+    private final long transferNanos;
+    private final long parseNanos;
+    private final String errorMessage;
+
+
+    /**
+     * Construct instance.
+     *
+     * @param page the page as listed in the sitemap.
+     * @param statusCode the HTTP status code, or zero if no response was read.
+     * @param bytes the bytes of the body read, as sent.
+     * @param fetchNanos the time from sending the request to reading the response headers.
+     * @param transferNanos the time spent reading the body.
+     * @param parseNanos the time spent scanning the body for links.
+     * @param errorMessage the message of the error crawling the page, if any.
+     */
+    public CrawlResult(
+        @Nonnull final SitemapPage page, int statusCode, long bytes, long fetchNanos, long transferNanos,
+        long parseNanos, @Nullable final String errorMessage
+    ) {
+
+        this.page = page;
+        this.statusCode = statusCode;
+        this.bytes = bytes;
+        this.fetchNanos = fetchNanos;
+        this.transferNanos = transferNanos;
+        this.parseNanos = parseNanos;
+        this.errorMessage = errorMessage;
+    }
+
+
+    @Nonnull
+    public URL getUrl() {
+        return page.getUrl();
+    }
+
+
+    public int getDepth() {
+        return page.getDepth();
+    }
+
+
+    /**
+     * Returns the in-scope links found on the page, in document order.
+     *
+     * @return the links.
+     */
+    @Nonnull
+    public List<URL> getLinks() {
+        return page.getLinks();
+    }
+
+
+    /**
+     * Returns the page this one was found to be a copy of, whose links were
+     * followed instead.
+     *
+     * @return the original page's URL, or null if this page is not an alias.
+     */
+    @Nullable
+    public URL getAliasOf() {
+        return page.getAliasOf();
+    }
+
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+
+    public long getBytes() {
+        return bytes;
+    }
+
+
+    public long getFetchNanos() {
+        return fetchNanos;
+    }
+
+
+    public long getTransferNanos() {
+        return transferNanos;
+    }
+
+
+    public long getParseNanos() {
+        return parseNanos;
+    }
+
+
+    @Nullable
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+
+    @Override
+    @Nonnull
+    public String toString() {
+
+        return "CrawlResult{"
+            + "url='" + page.getUrl() + '\''
+            + ", depth='" + page.getDepth() + '\''
+            + ", statusCode='" + statusCode + '\''
+            + ", links='" + page.getLinks().size() + '\''
+            + ", aliasOf='" + page.getAliasOf() + '\''
+            + ", bytes='" + bytes + '\''
+            + ", fetchNanos='" + fetchNanos + '\''
+            + ", transferNanos='" + transferNanos + '\''
+            + ", parseNanos='" + parseNanos + '\''
+            + ", errorMessage='" + errorMessage + '\''
+            + "}";
+    }
+}
@@ -0,0 +1,22 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import javax.annotation.Nonnull;
+
+
+/**
+ * Receives the result of each page crawled, on the worker thread which crawled
+ * it, once the page has been handed to the sitemap.  The worker waits for the
+ * listener, so a listener which blocks slows the crawl down to its own pace.
+ */
+@FunctionalInterface
+public interface CrawlResultListener {
+
+    /**
+     * Receive the result of one page.  Called from many workers at once.
+     *
+     * @param result the result.
+     * @return false to stop the crawl: no further pages are started, and those
+     *     in flight are finished.
+     */
+    boolean pageCrawled(@Nonnull CrawlResult result);
+}
@@ -0,0 +1,55 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import javax.annotation.Nonnull;
+
+
+/**
+ * The stages a page passes through as it is crawled, each timed by
+ * {@link CrawlMetrics}.  Connecting is part of {@link #FETCH}: neither page
+ * fetcher reports it apart.
+ */
+public enum CrawlStage {
+
+    /**
+     * Waiting for the frontier to hand out a page, e.g. on the host rate limit.
+     */
+    FRONTIER("frontier"),
+    /**
+     * Looking up the page's host, usually answered by the crawl's DNS cache.
+     */
+    RESOLVE("resolve"),
+    /**
+     * Checking robots.txt, which includes fetching it once per host.
+     */
+    ROBOTS("robots"),
+    /**
+     * Sending the request and waiting for the response headers.
+     */
+    FETCH("fetch"),
+    /**
+     * Reading the response body.
+     */
+    TRANSFER("transfer"),
+    /**
+     * Scanning the page for links, less the time spent reading it.
+     */
+    PARSE("parse"),
+    /**
+     * Handing the page to the sitemap writer.
+     */
+    OUTPUT("output");
+
+    private final String label;
+
+
+    CrawlStage(@Nonnull final String label) {
+
+        this.label = label;
+    }
+
+
+    @Nonnull
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,71 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+import javax.annotation.Nonnull;
+
+
+/**
+ * A periodic Flight Recorder event with the running totals of a crawl's
+ * {@link CrawlMetrics}, emitted once a second while a recording enables it.
+ */
+@Name("com.chadwickboggs.webcrawler.CrawlStatistics")
+@Label("Crawl Statistics")
+@Category("Web Crawler")
+@Description("Running totals of a crawl")
+@Period("1 s")
+@StackTrace(false)
+final class CrawlStatisticsEvent extends Event {
+
+    @Label("Start URL")
+    String startUrl;
+
+    @Label("Pages Fetched")
+    long pagesFetched;
+
+    @Label("Bytes Fetched")
+    @DataAmount
+    long bytesFetched;
+
+    @Label("Links Extracted")
+    long linksExtracted;
+
+    @Label("Dedupe Hits")
+    long dedupeHits;
+
+    @Label("Frontier Depth")
+    long frontierDepth;
+
+    @Label("Errors")
+    long errors;
+
+
+    /**
+     * Emit an event with the current totals of a crawl.
+     *
+     * @param metrics the metrics of the crawl.
+     */
+    static void emit(@Nonnull final CrawlMetrics metrics) {
+
+        final CrawlStatisticsEvent event = new CrawlStatisticsEvent();
+        if (!event.shouldCommit()) {
+            return;
+        }
+
+        event.startUrl = metrics.getStartUrl();
+        event.pagesFetched = metrics.getPagesFetched();
+        event.bytesFetched = metrics.getBytesFetched();
+        event.linksExtracted = metrics.getLinksExtracted();
+        event.dedupeHits = metrics.getDedupeHits();
+        event.frontierDepth = metrics.getFrontierDepth();
+        event.errors = metrics.getErrorCount();
+        event.commit();
+    }
+}
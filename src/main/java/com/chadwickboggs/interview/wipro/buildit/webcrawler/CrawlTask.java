@@ -0,0 +1,50 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.net.URL;
+import javax.annotation.Nonnull;
+
+
+/**
+ * One unit of crawl work: a page to fetch and the depth at which it was
+ * discovered.
+ */
+public final class CrawlTask {
+
+    private final URL url;
+    private final int depth;
+
+
+    /**
+     * Construct instance.
+     *
+     * @param url the page URL.
+     * @param depth the link depth from the start page.
+     */
+    public CrawlTask(@Nonnull final URL url, int depth) {
+
+        this.url = url;
+        this.depth = depth;
+    }
+
+
+    @Nonnull
+    public URL getUrl() {
+        return url;
+    }
+
+
+    public int getDepth() {
+        return depth;
+    }
+
+
+    @Override
+    @Nonnull
+    public String toString() {
+
+        return "CrawlTask{"
+            + "url='" + url + '\''
+            + ", depth='" + depth + '\''
+            + "}";
+    }
+}
@@ -0,0 +1,395 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import javax.annotation.Nonnull;
+
+
+/**
+ * The crawler as a library: a {@link Flow.Publisher} of the {@link CrawlResult}
+ * of every page crawled.  Each subscription runs a crawl of its own, started on
+ * subscribing, and completes when the crawl does, or with the error which failed
+ * it.  The crawl follows the subscriber's demand: once the subscriber has fallen
+ * a buffer's worth of results behind what it has requested, workers wait to
+ * hand over their next result rather than fetch more pages, and cancelling the
+ * subscription stops the crawl.  No sitemap is written unless configured.
+ * A crawler holds a copy of its builder's configuration, taken when it is
+ * built, so building again or changing the builder affects no crawler built
+ * before.  With a state directory only one subscription at a time may crawl,
+ * as each would journal into it; a second fails with an
+ * {@link IllegalStateException}.
+ *
+ * <pre>
+ *     Crawler.builder()
+ *         .seed(new URL("https://example.com/"))
+ *         .workers(32)
+ *         .maxPages(10000)
+ *         .build()
+ *         .subscribe(subscriber);
+ * </pre>
+ */
+public final class Crawler implements Flow.Publisher<CrawlResult> {
+
+    /**
+     * Delivers results to subscribers, on threads of its own so a slow subscriber
+     * ties up no shared pool.
+     */
+    private static final Executor DELIVERY = Executors.newCachedThreadPool(runnable -> {
+        final Thread thread = new Thread(runnable, "web-crawler-delivery");
+        thread.setDaemon(true);
+
+        return thread;
+    });
+
+    private final CrawlConfiguration configuration;
+    private final List<URL> seeds;
+    private final int bufferSize;
+    private final AtomicBoolean journaling = new AtomicBoolean();
+
+
+    private Crawler(@Nonnull final Builder builder, @Nonnull final CrawlConfiguration configuration) {
+
+        this.configuration = configuration;
+        this.seeds = Collections.unmodifiableList(new ArrayList<>(builder.seeds));
+        this.bufferSize = builder.bufferSize;
+    }
+
+
+    /**
+     * Create a builder, with the defaults of {@link CrawlConfiguration} except that
+     * no sitemap is written.
+     *
+     * @return the new builder.
+     */
+    @Nonnull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+
+    /**
+     * Start a crawl publishing to the subscriber.
+     *
+     * @param subscriber the subscriber.
+     */
+    @Override
+    public void subscribe(@Nonnull final Flow.Subscriber<? super CrawlResult> subscriber) {
+
+        final SubmissionPublisher<CrawlResult> publisher = new SubmissionPublisher<>(DELIVERY, bufferSize);
+        publisher.subscribe(subscriber);
+        if (configuration.getStateDirectory() != null && !journaling.compareAndSet(false, true)) {
+            publisher.closeExceptionally(new IllegalStateException(String.format(
+                "A crawl is already journaling in the state directory.  State Directory: \"%s\"",
+                configuration.getStateDirectory()
+            )));
+
+            return;
+        }
+
+        final Thread thread = new Thread(() -> crawl(publisher), "web-crawler-publisher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+
+    private void crawl(@Nonnull final SubmissionPublisher<CrawlResult> publisher) {
+
+        try {
+            new CrawlEngine(configuration, new PrintStream(OutputStream.nullOutputStream())).crawl(
+                seeds.get(0), seeds.subList(1, seeds.size()), result -> {
+                    if (!publisher.hasSubscribers()) {
+                        return false;
+                    }
+                    publisher.submit(result);
+
+                    return publisher.hasSubscribers();
+                }
+            );
+            publisher.close();
+        }
+        catch (IOException | RuntimeException e) {
+            publisher.closeExceptionally(e);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            publisher.closeExceptionally(e);
+        }
+        finally {
+            if (configuration.getStateDirectory() != null) {
+                journaling.set(false);
+            }
+        }
+    }
+
+
+    @Override
+    @Nonnull
+    public String toString() {
+
+        return "Crawler{"
+            + "seeds='" + seeds + '\''
+            + ", bufferSize='" + bufferSize + '\''
+            + ", configuration='" + configuration + '\''
+            + "}";
+    }
+
+
+    /**
+     * Builds a {@link Crawler}.  The settings not offered here are reached through
+     * {@link #configure(Consumer)}.
+     */
+    public static final class Builder {
+
+        private final CrawlConfiguration configuration = new CrawlConfiguration()
+            .setSitemapFormat(SitemapFormat.NONE);
+        private final List<URL> seeds = new ArrayList<>();
+        private final List<String> allowedHosts = new ArrayList<>();
+        private final List<String> blockedHosts = new ArrayList<>();
+        private int bufferSize = Flow.defaultBufferSize();
+
+
+        private Builder() {
+        }
+
+
+        /**
+         * Add a page to start crawling from.  The first is the start page, whose
+         * site the crawl keeps to and whose failure fails the crawl; the hosts of
+         * the others are added to the crawl's scope.
+         *
+         * @param seed the page.
+         * @return this builder.
+         */
+        @Nonnull
+        public Builder seed(@Nonnull final URL seed) {
+
+            seeds.add(seed);
+
+            return this;
+        }
+
+
+        /**
+         * Crawl hosts matching a pattern besides the start page's site.
+         *
+         * @param hostPattern a host name, or "*." and a domain.
+         * @return this builder.
+         */
+        @Nonnull
+        public Builder allowHost(@Nonnull final String hostPattern) {
+
+            allowedHosts.add(hostPattern);
+
+            return this;
+        }
+
+
+        /**
+         * Crawl no host matching a pattern.
+         *
+         * @param hostPattern a host name, or "*." and a domain.
+         * @return this builder.
+         */
+        @Nonnull
+        public Builder blockHost(@Nonnull final String hostPattern) {
+
+            blockedHosts.add(hostPattern);
+
+            return this;
+        }
+
+
+        /**
+         * Crawl on a pool of worker threads.
+         *
+         * @param workers the number of workers, at least one.
+         * @return this builder.
+         */
+        @Nonnull
+        public Builder workers(int workers) {
+
+            configuration.setVirtualThreads(false).setWorkers(workers);
+
+            return this;
+        }
+
+
+        /**
+         * Crawl each page on a virtual thread of its own.
+         *
+         * @param maxInFlight the most pages crawled at once, at least one.
+         * @return this builder.
+         */
+        @Nonnull
+        public Builder virtualThreads(int maxInFlight) {
+
+            configuration.setVirtualThreads(true).setMaxInFlight(maxInFlight);
+
+            return this;
+        }
+
+
+        /**
+         * Set the most links followed from a seed page.
+         *
+         * @param maxDepth the depth, or zero for no limit.
+         * @return this builder.
+         */
+        @Nonnull
+        public Builder maxDepth(int maxDepth) {
+
+            configuration.setMaxDepth(maxDepth);
+
+            return this;
+        }
+
+
+        /**
+         * Set the most pages crawled.
+         *
+         * @param maxPages the number of pages, or zero for no limit.
+         * @return this builder.
+         */
+        @Nonnull
+        public Builder maxPages(long maxPages) {
+
+            configuration.setMaxPages(maxPages);
+
+            return this;
+        }
+
+
+        /**
+         * Set the bytes downloaded after which no more pages are started.
+         *
+         * @param maxBytes the bytes, or zero for no limit.
+         * @return this builder.
+         */
+        @Nonnull
+        public Builder maxBytes(long maxBytes) {
+
+            configuration.setMaxBytes(maxBytes);
+
+            return this;
+        }
+
+
+        /**
+         * Set how long the crawl may run before no more pages are started.
+         *
+         * @param maxTime the time, to the second, or zero for no limit.
+         * @return this builder.
+         */
+        @Nonnull
+        public Builder maxTime(@Nonnull final Duration maxTime) {
+
+            configuration.setMaxTimeSeconds(maxTime.getSeconds());
+
+            return this;
+        }
+
+
+        /**
+         * Set the most requests per second made to any one host.
+         *
+         * @param hostRequestsPerSecond the rate, or zero for no limit.
+         * @return this builder.
+         */
+        @Nonnull
+        public Builder hostRequestsPerSecond(double hostRequestsPerSecond) {
+
+            configuration.setHostRequestsPerSecond(hostRequestsPerSecond);
+
+            return this;
+        }
+
+
+        /**
+         * Set whether robots.txt is ignored.
+         *
+         * @param ignoreRobots true to crawl pages robots.txt disallows.
+         * @return this builder.
+         */
+        @Nonnull
+        public Builder ignoreRobots(boolean ignoreRobots) {
+
+            configuration.setIgnoreRobots(ignoreRobots);
+
+            return this;
+        }
+
+
+        /**
+         * Set how many results may wait for the subscriber's demand before the
+         * crawl waits too.
+         *
+         * @param bufferSize the number of results, at least one.
+         * @return this builder.
+         */
+        @Nonnull
+        public Builder bufferSize(int bufferSize) {
+
+            if (bufferSize < 1) {
+                throw new IllegalArgumentException(String.format(
+                    "Buffer size must be at least one.  Buffer Size: %d", bufferSize
+                ));
+            }
+
+            this.bufferSize = bufferSize;
+
+            return this;
+        }
+
+
+        /**
+         * Change any other setting of the crawl, e.g. to write a sitemap too.
+         *
+         * @param configurer called with the crawl's configuration.
+         * @return this builder.
+         */
+        @Nonnull
+        public Builder configure(@Nonnull final Consumer<CrawlConfiguration> configurer) {
+
+            configurer.accept(configuration);
+
+            return this;
+        }
+
+
+        /**
+         * Build the crawler, with a copy of the configuration built so far.
+         *
+         * @return the new crawler.
+         * @throws IllegalStateException if no seed page was given.
+         */
+        @Nonnull
+        public Crawler build() {
+
+            if (seeds.isEmpty()) {
+                throw new IllegalStateException("No seed page.  A crawl needs at least one.");
+            }
+
+            final CrawlConfiguration snapshot = configuration.copy();
+            final List<String> hosts = new ArrayList<>(snapshot.getAllowedHosts());
+            hosts.addAll(allowedHosts);
+            seeds.subList(1, seeds.size()).forEach(seed -> hosts.add(seed.getHost()));
+            final List<String> blocked = new ArrayList<>(snapshot.getBlockedHosts());
+            blocked.addAll(blockedHosts);
+            snapshot.setAllowedHosts(hosts).setBlockedHosts(blocked);
+
+            return new Crawler(this, snapshot);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * The visited set implementations selectable on the command line.
+ */
+public enum DedupeType {
+
+    EXACT("exact", configuration -> new ConcurrentVisitedSet()),
+    FINGERPRINT("fingerprint", configuration -> new FingerprintVisitedSet(
+        configuration.getDedupeMemoryBytes(), configuration.isDedupeOffHeap()
+    )),
+    BLOOM("bloom", configuration -> new BloomFilterVisitedSet(
+        configuration.getDedupeMemoryBytes(), configuration.getDedupeFalsePositiveRate(),
+        configuration.isDedupeOffHeap()
+    ));
+
+    private final String optionValue;
+    private final Function<CrawlConfiguration, VisitedSet> factory;
+
+
+    DedupeType(
+        @Nonnull final String optionValue, @Nonnull final Function<CrawlConfiguration, VisitedSet> factory
+    ) {
+
+        this.optionValue = optionValue;
+        this.factory = factory;
+    }
+
+
+    @Nonnull
+    public String getOptionValue() {
+        return optionValue;
+    }
+
+
+    /**
+     * Create a new visited set of this type.
+     *
+     * @param configuration the crawl configuration, giving memory cap and false positive rate.
+     * @return the new visited set.
+     */
+    @Nonnull
+    public VisitedSet create(@Nonnull final CrawlConfiguration configuration) {
+        return factory.apply(configuration);
+    }
+
+
+    /**
+     * Find the dedupe type with the given command line option value.
+     *
+     * @param optionValue the option value, e.g. "bloom".
+     * @return the dedupe type, or empty if there is none with that value.
+     */
+    @Nonnull
+    public static Optional<DedupeType> fromOptionValue(@Nullable final String optionValue) {
+
+        return Arrays.stream(values())
+            .filter(type -> type.optionValue.equalsIgnoreCase(String.valueOf(optionValue).trim()))
+            .findFirst();
+    }
+}
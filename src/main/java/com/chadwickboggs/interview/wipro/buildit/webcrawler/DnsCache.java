@@ -0,0 +1,226 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.Closeable;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.security.Security;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Caches the addresses of the hosts a crawl visits for a time to live, and that
+ * a host has none for a shorter time, so links to a dead host fail at once
+ * rather than each waiting on a lookup.  Concurrent requests for a host not yet
+ * cached wait on the one lookup in progress.  Hosts may be prefetched: looked up
+ * on a background thread as soon as links to them are found, so by the time a
+ * page of the host is fetched its lookup is done.
+ *
+ * <p>The page fetchers connect through the Java runtime, which resolves the
+ * host again itself; the lookups made here also fill the runtime's own cache,
+ * so that one finds the answer waiting too.  The default time to live is the
+ * runtime's own, so a host is not taken as looked up here for longer than the
+ * runtime keeps its addresses.</p>
+ */
+public final class DnsCache implements Closeable {
+
+    public static final long DEFAULT_TIME_TO_LIVE_MILLIS = TimeUnit.SECONDS.toMillis(runtimeTimeToLiveSeconds());
+
+    static final int MAX_CACHED_HOSTS = 100000;
+
+    private static final long NEGATIVE_TIME_TO_LIVE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final int PREFETCH_THREADS = 4;
+    private static final int RUNTIME_DEFAULT_TIME_TO_LIVE_SECONDS = 30;
+    private static final int CACHED_FOREVER_TIME_TO_LIVE_SECONDS = 300;
+
+    private final HostResolver resolver;
+    private final long timeToLiveMillis;
+    private final long negativeTimeToLiveMillis;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ExecutorService prefetcher;
+
+
+    /**
+     * Create instance.
+     *
+     * @param resolver the resolver hosts are looked up with.
+     * @param timeToLiveMillis how long addresses are cached for.  A host found to
+     *     have none is cached for at most a minute.
+     */
+    public DnsCache(@Nonnull final HostResolver resolver, long timeToLiveMillis) {
+
+        this.resolver = resolver;
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.negativeTimeToLiveMillis = Math.min(timeToLiveMillis, NEGATIVE_TIME_TO_LIVE_MILLIS);
+        final AtomicInteger count = new AtomicInteger();
+        this.prefetcher = Executors.newFixedThreadPool(PREFETCH_THREADS, runnable -> {
+            final Thread thread = new Thread(runnable, "web-crawler-dns-" + count.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        });
+    }
+
+
+    /**
+     * Returns the addresses of a host, looking it up if it is not cached.
+     *
+     * @param host the host name.
+     * @return the addresses.
+     * @throws UnknownHostException if the host has no addresses, now or when
+     *     last looked up.
+     */
+    @Nonnull
+    public InetAddress[] resolve(@Nonnull final String host) throws UnknownHostException {
+
+        final Entry entry = getEntry(host.toLowerCase(Locale.ENGLISH), false);
+        final LookupResult result = entry.result.join();
+        if (result.addresses == null) {
+            throw new UnknownHostException(result.errorMessage);
+        }
+
+        return result.addresses.clone();
+    }
+
+
+    /**
+     * Start looking up a host in the background unless it is cached or already
+     * being looked up.
+     *
+     * @param host the host name.
+     */
+    public void prefetch(@Nonnull final String host) {
+        getEntry(host.toLowerCase(Locale.ENGLISH), true);
+    }
+
+
+    /**
+     * Returns the cached entry of a host, installing a new one and looking the
+     * host up, on this thread or a prefetch thread, if there is none still live.
+     */
+    @Nonnull
+    private Entry getEntry(@Nonnull final String host, boolean background) {
+
+        final long now = System.currentTimeMillis();
+        final Entry current = entries.get(host);
+        if (current != null && !current.isExpired(now)) {
+            return current;
+        }
+
+        final Entry fresh = new Entry();
+        final Entry installed = entries.size() < MAX_CACHED_HOSTS || current != null
+            ? entries.compute(host, (key, existing) -> existing != null && !existing.isExpired(now) ? existing : fresh)
+            : fresh;
+        if (installed == fresh) {
+            if (background) {
+                try {
+                    prefetcher.execute(() -> complete(host, fresh));
+                }
+                catch (RejectedExecutionException e) {
+                    complete(host, fresh);
+                }
+            }
+            else {
+                complete(host, fresh);
+            }
+        }
+
+        return installed;
+    }
+
+
+    private void complete(@Nonnull final String host, @Nonnull final Entry entry) {
+
+        LookupResult result;
+        try {
+            result = new LookupResult(resolver.resolve(host), null);
+        }
+        catch (UnknownHostException | RuntimeException e) {
+            result = new LookupResult(null, e.getMessage() != null ? e.getMessage() : host);
+        }
+        entry.complete(
+            result, System.currentTimeMillis(), result.addresses != null ? timeToLiveMillis : negativeTimeToLiveMillis
+        );
+    }
+
+
+    @Override
+    public void close() {
+        prefetcher.shutdownNow();
+    }
+
+
+    /**
+     * Returns how long the Java runtime caches the addresses it looks up: its
+     * networkaddress.cache.ttl security property, else the sun.net.inetaddr.ttl
+     * system property, else 30 seconds.  A runtime caching addresses forever is
+     * taken as caching them for five minutes.
+     */
+    static int runtimeTimeToLiveSeconds() {
+
+        String value = Security.getProperty("networkaddress.cache.ttl");
+        if (value == null) {
+            value = System.getProperty("sun.net.inetaddr.ttl");
+        }
+
+        int seconds = RUNTIME_DEFAULT_TIME_TO_LIVE_SECONDS;
+        if (value != null) {
+            try {
+                seconds = Integer.parseInt(value.trim());
+            }
+            catch (NumberFormatException e) {
+                // Ignored by the runtime too.
+            }
+        }
+
+        return seconds < 0 ? CACHED_FOREVER_TIME_TO_LIVE_SECONDS : seconds;
+    }
+
+
+    /**
+     * The outcome of one lookup: the addresses, or the message of the error.
+     */
+    private static final class LookupResult {
+
+        private final InetAddress[] addresses;
+        private final String errorMessage;
+
+
+        private LookupResult(final InetAddress[] addresses, final String errorMessage) {
+
+            this.addresses = addresses;
+            this.errorMessage = errorMessage;
+        }
+    }
+
+
+    /**
+     * The cached lookup of one host.  The result is completed by the one thread
+     * looking it up.
+     */
+    private static final class Entry {
+
+        private final CompletableFuture<LookupResult> result = new CompletableFuture<>();
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+
+        private void complete(@Nonnull final LookupResult lookupResult, long now, long timeToLiveMillis) {
+
+            expiresAt = now + timeToLiveMillis;
+            result.complete(lookupResult);
+        }
+
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
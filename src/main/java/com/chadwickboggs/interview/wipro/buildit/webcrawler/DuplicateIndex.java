@@ -0,0 +1,149 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * The content fingerprints of the pages crawled, by which a page is found to be
+ * a copy of one crawled before.  Exact copies are found by hash.  Near copies,
+ * whose SimHashes differ in at most the configured number of bits, are found
+ * without comparing against every page: the SimHash is split into four 16-bit
+ * blocks and each page is indexed under each of its blocks, and since pages
+ * differing in at most three bits share at least one block unchanged, only the
+ * pages sharing a block need comparing.  Past {@link #MAX_INDEXED_PAGES} pages,
+ * further pages are still checked but no longer indexed, bounding the memory
+ * held.
+ */
+final class DuplicateIndex {
+
+    /**
+     * The most bits SimHashes may differ in for pages to be near copies.
+     */
+    static final int MAX_DISTANCE = 3;
+
+    static final int MAX_INDEXED_PAGES = 1000000;
+
+    private static final int BLOCKS = MAX_DISTANCE + 1;
+    private static final int BLOCK_BITS = Long.SIZE / BLOCKS;
+    private static final int BLOCK_MASK = (1 << BLOCK_BITS) - 1;
+
+    private final int maxDistance;
+    private final Map<Long, URL> exact = new HashMap<>();
+    private final List<Map<Integer, List<Entry>>> blocks = new ArrayList<>(BLOCKS);
+
+
+    /**
+     * Construct instance.
+     *
+     * @param maxDistance the most bits SimHashes may differ in for pages to be
+     *     near copies, from zero, for exact copies only, to {@link #MAX_DISTANCE}.
+     */
+    DuplicateIndex(int maxDistance) {
+
+        if (maxDistance < 0 || maxDistance > MAX_DISTANCE) {
+            throw new IllegalArgumentException(String.format(
+                "Near-duplicate distance must be from zero to %d.  Distance: %d", MAX_DISTANCE, maxDistance
+            ));
+        }
+
+        this.maxDistance = maxDistance;
+        if (maxDistance > 0) {
+            for (int i = 0; i < BLOCKS; i++) {
+                blocks.add(new HashMap<>());
+            }
+        }
+    }
+
+
+    /**
+     * Check a page against the pages indexed and, unless it is a copy of one of
+     * them, index it.
+     *
+     * @param url the page URL.
+     * @param fingerprint the page's fingerprint.
+     * @return the URL of the page indexed first which it is a copy of, or null
+     *     if it is none's.
+     */
+    @Nullable
+    synchronized URL register(@Nonnull final URL url, @Nonnull final ContentFingerprint fingerprint) {
+
+        final URL exactCopyOf = exact.get(fingerprint.getExactHash());
+        if (exactCopyOf != null) {
+            return exactCopyOf;
+        }
+
+        if (maxDistance > 0) {
+            for (int i = 0; i < BLOCKS; i++) {
+                final List<Entry> entries = blocks.get(i).get(block(fingerprint, i));
+                if (entries != null) {
+                    for (final Entry entry : entries) {
+                        if (entry.fingerprint.distance(fingerprint) <= maxDistance) {
+                            return entry.url;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (exact.size() < MAX_INDEXED_PAGES) {
+            exact.put(fingerprint.getExactHash(), url);
+            if (maxDistance > 0) {
+                final Entry entry = new Entry(url, fingerprint);
+                for (int i = 0; i < BLOCKS; i++) {
+                    blocks.get(i).computeIfAbsent(block(fingerprint, i), key -> new ArrayList<>(1)).add(entry);
+                }
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Returns the number of pages indexed.
+     *
+     * @return the number of pages.
+     */
+    synchronized int size() {
+        return exact.size();
+    }
+
+
+    private static int block(@Nonnull final ContentFingerprint fingerprint, int index) {
+        return (int) (fingerprint.getSimHash() >>> (index * BLOCK_BITS)) & BLOCK_MASK;
+    }
+
+
+    @Override
+    @Nonnull
+    public String toString() {
+
+        return "DuplicateIndex{"
+            + "maxDistance='" + maxDistance + '\''
+            + ", size='" + size() + '\''
+            + "}";
+    }
+
+
+    /**
+     * A page indexed by one of its SimHash blocks.
+     */
+    private static final class Entry {
+
+        private final URL url;
+        private final ContentFingerprint fingerprint;
+
+
+        private Entry(@Nonnull final URL url, @Nonnull final ContentFingerprint fingerprint) {
+
+            this.url = url;
+            this.fingerprint = fingerprint;
+        }
+    }
+}
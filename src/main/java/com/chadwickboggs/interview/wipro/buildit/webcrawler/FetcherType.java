@@ -0,0 +1,59 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * The page fetcher implementations selectable on the command line.
+ */
+public enum FetcherType {
+
+    HTTP_CLIENT("http-client", HttpClientPageFetcher::new),
+    URL_STREAM("url-stream", UrlStreamPageFetcher::new);
+
+    private final String optionValue;
+    private final Supplier<PageFetcher> factory;
+
+
+    FetcherType(@Nonnull final String optionValue, @Nonnull final Supplier<PageFetcher> factory) {
+
+        this.optionValue = optionValue;
+        this.factory = factory;
+    }
+
+
+    @Nonnull
+    public String getOptionValue() {
+        return optionValue;
+    }
+
+
+    /**
+     * Create a new fetcher of this type.
+     *
+     * @return the new fetcher.
+     */
+    @Nonnull
+    public PageFetcher create() {
+        return factory.get();
+    }
+
+
+    /**
+     * Find the fetcher type with the given command line option value.
+     *
+     * @param optionValue the option value, e.g. "url-stream".
+     * @return the fetcher type, or empty if there is none with that value.
+     */
+    @Nonnull
+    public static Optional<FetcherType> fromOptionValue(@Nullable final String optionValue) {
+
+        return Arrays.stream(values())
+            .filter(type -> type.optionValue.equalsIgnoreCase(String.valueOf(optionValue).trim()))
+            .findFirst();
+    }
+}
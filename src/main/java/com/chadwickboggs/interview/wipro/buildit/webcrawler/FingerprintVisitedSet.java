@@ -0,0 +1,137 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Compact visited set holding one 64-bit fingerprint per page, see
+ * {@link UrlKeys#fingerprint(URL)}, in a lock-free open addressing table of
+ * primitive longs.  Eight bytes per slot instead of several hundred per
+ * {@link URL}; distinct pages share a fingerprint so rarely that collisions are
+ * negligible below billions of pages.
+ *
+ * <p>The table is sized once from a memory cap.  When it reaches its maximum
+ * load no further pages are accepted, so the cap bounds the crawl.</p>
+ */
+public final class FingerprintVisitedSet implements VisitedSet {
+
+    private static final double MAX_LOAD_FACTOR = 0.75;
+    private static final long EMPTY = 0L;
+
+    private final AtomicLongSlots slots;
+    private final int mask;
+    private final long maxSize;
+    private final AtomicLong size = new AtomicLong();
+    private final AtomicBoolean fullReported = new AtomicBoolean();
+
+
+    /**
+     * Construct instance.
+     *
+     * @param memoryBytes the most memory the table may use.
+     * @param offHeap true to hold the table in a direct buffer outside of the heap.
+     */
+    public FingerprintVisitedSet(long memoryBytes, boolean offHeap) {
+
+        final long requestedSlots = Math.min(memoryBytes / Long.BYTES, AtomicLongSlots.MAX_SLOTS);
+        if (requestedSlots < 2) {
+            throw new IllegalArgumentException(String.format(
+                "Visited set memory is too small.  Memory Bytes: %d", memoryBytes
+            ));
+        }
+
+        final int length = Integer.highestOneBit((int) requestedSlots);
+        this.slots = offHeap ? AtomicLongSlots.offHeap(length) : AtomicLongSlots.onHeap(length);
+        this.mask = length - 1;
+        this.maxSize = (long) (length * MAX_LOAD_FACTOR);
+    }
+
+
+    @Override
+    public boolean add(@Nonnull final URL url) {
+
+        final long fingerprint = slotValue(url);
+        int index = (int) fingerprint & mask;
+        while (true) {
+            final long current = slots.get(index);
+            if (current == fingerprint) {
+                return false;
+            }
+
+            if (current == EMPTY) {
+                if (size.get() >= maxSize) {
+                    reportFull();
+
+                    return false;
+                }
+
+                if (slots.compareAndSet(index, EMPTY, fingerprint)) {
+                    size.incrementAndGet();
+
+                    return true;
+                }
+
+                continue;
+            }
+
+            index = (index + 1) & mask;
+        }
+    }
+
+
+    @Override
+    public boolean contains(@Nonnull final URL url) {
+
+        final long fingerprint = slotValue(url);
+        int index = (int) fingerprint & mask;
+        while (true) {
+            final long current = slots.get(index);
+            if (current == fingerprint) {
+                return true;
+            }
+
+            if (current == EMPTY) {
+                return false;
+            }
+
+            index = (index + 1) & mask;
+        }
+    }
+
+
+    @Override
+    public long size() {
+        return size.get();
+    }
+
+
+    /**
+     * Returns the most pages the table accepts.
+     *
+     * @return the most pages the table accepts.
+     */
+    public long getCapacity() {
+        return maxSize;
+    }
+
+
+    private static long slotValue(@Nonnull final URL url) {
+
+        final long fingerprint = UrlKeys.fingerprint(url);
+
+        return fingerprint == EMPTY ? 1L : fingerprint;
+    }
+
+
+    private void reportFull() {
+
+        if (fullReported.compareAndSet(false, true)) {
+            System.err.println(String.format(
+                "Visited set is full.  No further pages will be crawled.  Capacity: %d", maxSize
+            ));
+        }
+    }
+}
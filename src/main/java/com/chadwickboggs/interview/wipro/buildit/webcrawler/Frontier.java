@@ -0,0 +1,224 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * The shared queue of pages waiting to be crawled.  Workers take tasks from the
+ * frontier and offer the links they discover back to it.  The frontier tracks
+ * the number of tasks which are either queued or still being worked on, so it
+ * can tell its workers when the crawl is finished.
+ *
+ * <p>Tasks are stored in a {@link FrontierQueue}.  When the frontier has a
+ * {@link CrawlJournal} every task offered and every task done is recorded in it,
+ * so the crawl can be resumed.</p>
+ *
+ * <p>With a {@link CrawlBudget} the frontier stops handing out tasks once the
+ * budget is spent, as if the crawl were finished.  The tasks left stay pending,
+ * in the queue and the journal.</p>
+ *
+ * <p>While held, the frontier keeps its workers waiting when no task is pending
+ * rather than telling them the crawl is finished, because in a cluster crawl
+ * other nodes may still forward tasks to it.</p>
+ */
+public final class Frontier implements Closeable {
+
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    private final FrontierQueue queue;
+    private final CrawlJournal journal;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Lock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private volatile CrawlBudget budget;
+    private volatile boolean held;
+
+
+    /**
+     * Create an in-memory frontier without a journal.
+     */
+    public Frontier() {
+
+        this(new MemoryFrontierQueue(), null);
+    }
+
+
+    /**
+     * Create instance.
+     *
+     * @param queue the queue tasks are stored in.
+     * @param journal the journal tasks are recorded in, if any.
+     */
+    public Frontier(@Nonnull final FrontierQueue queue, @Nullable final CrawlJournal journal) {
+
+        this.queue = queue;
+        this.journal = journal;
+    }
+
+
+    /**
+     * Set the budget tasks are handed out against.
+     *
+     * @param budget the budget, or null for none.
+     */
+    public void setBudget(@Nullable final CrawlBudget budget) {
+
+        this.budget = budget;
+        signal();
+    }
+
+
+    /**
+     * Keep workers waiting for tasks even when none is pending, until released.
+     */
+    public void hold() {
+
+        held = true;
+    }
+
+
+    /**
+     * Stop holding: once no task is pending the crawl is finished.
+     */
+    public void release() {
+
+        held = false;
+        signal();
+    }
+
+
+    /**
+     * Add a task to the frontier.
+     *
+     * @param task the task.
+     */
+    public void offer(@Nonnull final CrawlTask task) {
+
+        if (journal != null) {
+            journal.enqueued(task);
+        }
+
+        restore(task);
+    }
+
+
+    /**
+     * Add a task recovered from the journal, without recording it again.
+     *
+     * @param task the task.
+     */
+    public void restore(@Nonnull final CrawlTask task) {
+
+        pending.incrementAndGet();
+        queue.add(task);
+        signal();
+    }
+
+
+    /**
+     * Take the next task, waiting while other workers may still discover more.
+     * Every task returned must be followed by a call to {@link #done(CrawlTask)}.
+     *
+     * @return the next task, or null once the crawl is finished or its budget
+     *     spent.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    @Nullable
+    public CrawlTask take() throws InterruptedException {
+
+        while (true) {
+            final CrawlBudget currentBudget = budget;
+            if (currentBudget != null && currentBudget.isExhausted()) {
+                return null;
+            }
+
+            final CrawlTask task = queue.poll();
+            if (task != null) {
+                if (currentBudget == null || currentBudget.tryStartPage()) {
+                    return task;
+                }
+
+                // Still pending: put it back for a resumed crawl to find.
+                queue.add(task);
+
+                return null;
+            }
+
+            lock.lock();
+            try {
+                if (pending.get() == 0 && !held) {
+                    return null;
+                }
+
+                changed.await(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+    }
+
+
+    /**
+     * Mark a task previously returned by {@link #take()} as finished.
+     *
+     * @param task the task.
+     */
+    public void done(@Nonnull final CrawlTask task) {
+
+        if (journal != null) {
+            journal.completed(task);
+        }
+
+        if (pending.decrementAndGet() == 0) {
+            signal();
+        }
+    }
+
+
+    /**
+     * Returns the number of tasks queued or in progress.
+     *
+     * @return the number of tasks queued or in progress.
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+
+    /**
+     * Returns the number of tasks queued and not yet taken.
+     *
+     * @return the number of tasks queued and not yet taken.
+     */
+    public long size() {
+        return queue.size();
+    }
+
+
+    @Override
+    public void close() throws IOException {
+
+        queue.close();
+    }
+
+
+    private void signal() {
+
+        lock.lock();
+        try {
+            changed.signalAll();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * The crawl orders selectable on the command line, each a {@link TaskScorer}.
+ */
+public enum FrontierOrder {
+
+    /**
+     * Breadth first: shallower pages first, pages of one depth in the order they
+     * were found.
+     */
+    DEPTH("depth", listedUrls -> CrawlTask::getDepth),
+    /**
+     * Shallower pages first, and of one depth those with shorter paths, e.g. a
+     * section index before its archive pages.
+     */
+    PATH("path", listedUrls -> FrontierOrder::pathScore),
+    /**
+     * Pages listed in the site's XML sitemaps first, then as {@link #PATH}.
+     */
+    LISTED("listed", listedUrls -> task ->
+        (listedUrls.contains(task.getUrl().toString()) ? 0 : 1L << 62) | pathScore(task)
+    );
+
+    private static final int MAX_PATH_WEIGHT = 0xffff;
+
+    private final String optionValue;
+    private final Function<Set<String>, TaskScorer> factory;
+
+
+    FrontierOrder(@Nonnull final String optionValue, @Nonnull final Function<Set<String>, TaskScorer> factory) {
+
+        this.optionValue = optionValue;
+        this.factory = factory;
+    }
+
+
+    @Nonnull
+    public String getOptionValue() {
+        return optionValue;
+    }
+
+
+    /**
+     * Create a scorer for this order.
+     *
+     * @param listedUrls the URLs listed in the site's sitemaps, in canonical form.
+     *     Only used by {@link #LISTED}.
+     * @return the scorer.
+     */
+    @Nonnull
+    public TaskScorer create(@Nonnull final Set<String> listedUrls) {
+        return factory.apply(listedUrls);
+    }
+
+
+    /**
+     * Find the order with the given command line option value.
+     *
+     * @param optionValue the option value, e.g. "path".
+     * @return the order, or empty if there is none with that value.
+     */
+    @Nonnull
+    public static Optional<FrontierOrder> fromOptionValue(@Nullable final String optionValue) {
+
+        return Arrays.stream(values())
+            .filter(order -> order.optionValue.equalsIgnoreCase(String.valueOf(optionValue).trim()))
+            .findFirst();
+    }
+
+
+    /**
+     * Score by depth, then by the number of path segments, then by the presence of
+     * a query, so "/news/" comes before "/news/2019/04/" and both before
+     * "/news/?page=7".
+     */
+    private static long pathScore(@Nonnull final CrawlTask task) {
+
+        final URL url = task.getUrl();
+        final String path = url.getPath();
+        int segments = 0;
+        for (int i = 1; i < path.length(); i++) {
+            if (path.charAt(i - 1) == '/') {
+                segments++;
+            }
+        }
+        final int weight = Math.min(MAX_PATH_WEIGHT, segments * 2 + (url.getQuery() == null ? 0 : 1));
+
+        return ((long) task.getDepth() << 16) | weight;
+    }
+}
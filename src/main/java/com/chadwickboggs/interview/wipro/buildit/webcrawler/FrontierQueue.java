@@ -0,0 +1,43 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.Closeable;
+import java.io.IOException;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * The storage behind a {@link Frontier}: the tasks waiting to be taken, in the
+ * order they are to be taken in.  Implementations must be thread safe.
+ */
+public interface FrontierQueue extends Closeable {
+
+    /**
+     * Add a task.
+     *
+     * @param task the task.
+     */
+    void add(@Nonnull CrawlTask task);
+
+
+    /**
+     * Remove the next task, without waiting.
+     *
+     * @return the next task, or null if none is ready.
+     */
+    @Nullable
+    CrawlTask poll();
+
+
+    /**
+     * Returns the number of tasks waiting.
+     *
+     * @return the number of tasks waiting.
+     */
+    long size();
+
+
+    @Override
+    default void close() throws IOException {
+    }
+}
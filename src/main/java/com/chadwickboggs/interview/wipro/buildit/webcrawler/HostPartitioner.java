@@ -0,0 +1,78 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.net.URL;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Assigns each host to one node of a cluster by consistent hashing.  Every node
+ * is placed on a ring of 64-bit hashes at {@link #VIRTUAL_NODES} points, and a
+ * host belongs to the node at the first point at or after the host's own hash.
+ * Hosts are spread evenly, every node computes the same owner for a host from
+ * the node count alone, and adding a node moves only the hosts it takes over.
+ */
+final class HostPartitioner {
+
+    static final int VIRTUAL_NODES = 160;
+
+    private final int nodeCount;
+    private final NavigableMap<Long, Integer> ring = new TreeMap<>();
+
+
+    /**
+     * Construct instance.
+     *
+     * @param nodeCount the number of nodes, at least one.
+     */
+    HostPartitioner(int nodeCount) {
+
+        if (nodeCount < 1) {
+            throw new IllegalArgumentException(String.format(
+                "Node count must be at least one.  Node Count: %d", nodeCount
+            ));
+        }
+
+        this.nodeCount = nodeCount;
+        for (int node = 0; node < nodeCount; node++) {
+            for (int point = 0; point < VIRTUAL_NODES; point++) {
+                ring.putIfAbsent(UrlKeys.fingerprint("node-" + node + "#" + point), node);
+            }
+        }
+    }
+
+
+    int getNodeCount() {
+        return nodeCount;
+    }
+
+
+    /**
+     * Returns the node owning a host.
+     *
+     * @param host the host name, in any case.
+     * @return the node index, from zero.
+     */
+    int nodeOf(@Nonnull final String host) {
+
+        final Map.Entry<Long, Integer> entry = ring.ceilingEntry(
+            UrlKeys.fingerprint(host.toLowerCase(Locale.ENGLISH))
+        );
+
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+
+    /**
+     * Returns the node owning the host of a URL.
+     *
+     * @param url the URL.
+     * @return the node index, from zero.
+     */
+    int nodeOf(@Nonnull final URL url) {
+        return nodeOf(url.getHost());
+    }
+}
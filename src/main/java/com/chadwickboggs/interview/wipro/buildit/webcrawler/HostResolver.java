@@ -0,0 +1,30 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Looks up the addresses of a host name.  The crawl's {@link DnsCache} asks its
+ * resolver, so tests may stand in one which answers without the network.
+ */
+@FunctionalInterface
+public interface HostResolver {
+
+    /**
+     * The resolver of the Java runtime, and so of the operating system.
+     */
+    HostResolver SYSTEM = InetAddress::getAllByName;
+
+
+    /**
+     * Look up a host.
+     *
+     * @param host the host name, or an address literal.
+     * @return the host's addresses, at least one.
+     * @throws UnknownHostException if the host has no addresses.
+     */
+    @Nonnull
+    InetAddress[] resolve(@Nonnull String host) throws UnknownHostException;
+}
@@ -0,0 +1,150 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.net.URL;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Decides which hosts a crawl stays within: those of the start page's site, its
+ * registrable domain by the {@link PublicSuffixList}, plus any hosts matching an
+ * include pattern, less any matching an exclude pattern.  A pattern is either a
+ * host name, matching only that host, or "*." and a domain, matching the domain
+ * and every host under it.
+ *
+ * <p>The answer for each host is cached, so checking a link found on a page is a
+ * single lookup keyed on the host string the URL already holds, with nothing
+ * allocated.  The cache stops growing at {@link #MAX_CACHED_HOSTS}.</p>
+ */
+public final class HostScope {
+
+    static final int MAX_CACHED_HOSTS = 100000;
+
+    private static final String SUBDOMAIN_WILDCARD = "*.";
+
+    private final PublicSuffixList publicSuffixList;
+    private final String siteDomain;
+    private final String[] includePatterns;
+    private final String[] excludePatterns;
+    private final Map<String, Boolean> cache = new ConcurrentHashMap<>();
+
+
+    /**
+     * Create instance using the default public suffix list.
+     *
+     * @param startUrl the start page of the crawl.
+     * @param includePatterns patterns of other hosts to crawl.
+     * @param excludePatterns patterns of hosts not to crawl.
+     */
+    public HostScope(
+        @Nonnull final URL startUrl, @Nonnull final Collection<String> includePatterns,
+        @Nonnull final Collection<String> excludePatterns
+    ) {
+
+        this(startUrl, includePatterns, excludePatterns, PublicSuffixList.getDefault());
+    }
+
+
+    /**
+     * Create instance.
+     *
+     * @param startUrl the start page of the crawl.
+     * @param includePatterns patterns of other hosts to crawl.
+     * @param excludePatterns patterns of hosts not to crawl.
+     * @param publicSuffixList the public suffix list.
+     */
+    public HostScope(
+        @Nonnull final URL startUrl, @Nonnull final Collection<String> includePatterns,
+        @Nonnull final Collection<String> excludePatterns, @Nonnull final PublicSuffixList publicSuffixList
+    ) {
+
+        this.publicSuffixList = publicSuffixList;
+        this.siteDomain = publicSuffixList.getRegistrableDomain(startUrl.getHost());
+        this.includePatterns = normalize(includePatterns);
+        this.excludePatterns = normalize(excludePatterns);
+    }
+
+
+    /**
+     * Returns true if a URL's host is in scope.
+     *
+     * @param url the URL.
+     * @return true if the URL may be crawled.
+     */
+    public boolean contains(@Nonnull final URL url) {
+
+        final String host = url.getHost();
+        final Boolean cached = cache.get(host);
+        if (cached != null) {
+            return cached;
+        }
+
+        final boolean inScope = computeContains(host.toLowerCase(Locale.ENGLISH));
+        if (cache.size() < MAX_CACHED_HOSTS) {
+            cache.put(host, inScope);
+        }
+
+        return inScope;
+    }
+
+
+    @Nonnull
+    public String getSiteDomain() {
+        return siteDomain;
+    }
+
+
+    private boolean computeContains(@Nonnull final String host) {
+
+        if (matchesAny(host, excludePatterns)) {
+            return false;
+        }
+
+        return matchesAny(host, includePatterns) || siteDomain.equals(publicSuffixList.getRegistrableDomain(host));
+    }
+
+
+    private static boolean matchesAny(@Nonnull final String host, @Nonnull final String[] patterns) {
+
+        for (final String pattern : patterns) {
+            if (pattern.startsWith(SUBDOMAIN_WILDCARD)) {
+                final String domain = pattern.substring(SUBDOMAIN_WILDCARD.length());
+                if (host.equals(domain)
+                    || host.endsWith(domain) && host.charAt(host.length() - domain.length() - 1) == '.') {
+
+                    return true;
+                }
+            }
+            else if (host.equals(pattern)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    @Nonnull
+    private static String[] normalize(@Nonnull final Collection<String> patterns) {
+
+        return patterns.stream()
+            .map(pattern -> pattern.trim().toLowerCase(Locale.ENGLISH))
+            .filter(pattern -> !pattern.isEmpty())
+            .toArray(String[]::new);
+    }
+
+
+    @Override
+    @Nonnull
+    public String toString() {
+
+        return "HostScope{"
+            + "siteDomain='" + siteDomain + '\''
+            + ", includePatterns='" + String.join(",", includePatterns) + '\''
+            + ", excludePatterns='" + String.join(",", excludePatterns) + '\''
+            + "}";
+    }
+}
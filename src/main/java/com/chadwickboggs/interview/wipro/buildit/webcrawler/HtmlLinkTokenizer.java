@@ -0,0 +1,585 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Single pass, streaming HTML link tokenizer.  It runs a small state machine over
+ * the raw bytes of a page, skipping comments, declarations and the contents of
+ * script and style elements, and reports the values of link attributes: href,
+ * src, each candidate of srcset, and the href of base.  Attribute values may span
+ * lines and buffer boundaries; bytes are fed in whatever chunks they arrive in.
+ *
+ * <p>The tokenizer only recognizes ASCII markup, so the bytes must be in an ASCII
+ * compatible encoding.  Nothing is decoded and nothing is allocated per tag; the
+ * handler receives a slice of an internal buffer which is only valid during the
+ * call.  Instances are not thread safe.</p>
+ */
+public final class HtmlLinkTokenizer {
+
+    /**
+     * The kind of attribute a link was found in.
+     */
+    public enum LinkAttribute {
+        HREF, SRC, SRCSET, BASE_HREF
+    }
+
+
+    /**
+     * Receives the links found by the tokenizer.
+     */
+    public interface LinkHandler {
+
+        /**
+         * Handle one link.
+         *
+         * @param attribute the attribute the link was found in.
+         * @param value the buffer holding the raw attribute value bytes.
+         * @param offset the offset of the value in the buffer.
+         * @param length the length of the value.
+         */
+        void onLink(@Nonnull LinkAttribute attribute, @Nonnull byte[] value, int offset, int length);
+    }
+
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_NAME_LENGTH = 16;
+    private static final int MAX_VALUE_LENGTH = 8 * 1024;
+
+    private static final byte[] HREF = ascii("href");
+    private static final byte[] SRC = ascii("src");
+    private static final byte[] SRCSET = ascii("srcset");
+    private static final byte[] BASE = ascii("base");
+    private static final byte[] SCRIPT = ascii("script");
+    private static final byte[] STYLE = ascii("style");
+
+    private static final int TEXT = 0;
+    private static final int TAG_OPEN = 1;
+    private static final int END_TAG_OPEN = 2;
+    private static final int TAG_NAME = 3;
+    private static final int BEFORE_ATTRIBUTE_NAME = 4;
+    private static final int ATTRIBUTE_NAME = 5;
+    private static final int AFTER_ATTRIBUTE_NAME = 6;
+    private static final int BEFORE_ATTRIBUTE_VALUE = 7;
+    private static final int ATTRIBUTE_VALUE_DOUBLE_QUOTED = 8;
+    private static final int ATTRIBUTE_VALUE_SINGLE_QUOTED = 9;
+    private static final int ATTRIBUTE_VALUE_UNQUOTED = 10;
+    private static final int MARKUP_DECLARATION = 11;
+    private static final int MARKUP_DECLARATION_DASH = 12;
+    private static final int COMMENT = 13;
+    private static final int BOGUS_COMMENT = 14;
+    private static final int RAW_TEXT = 15;
+
+    private final LinkHandler handler;
+
+    private int state = TEXT;
+    private boolean endTag;
+    private final byte[] tagName = new byte[MAX_NAME_LENGTH];
+    private int tagNameLength;
+    private final byte[] attributeName = new byte[MAX_NAME_LENGTH];
+    private int attributeNameLength;
+    private byte[] value = new byte[256];
+    private int valueLength;
+    private int commentDashes;
+    private byte[] rawTextEndTag;
+    private int rawTextMatched;
+
+
+    /**
+     * Construct instance.
+     *
+     * @param handler the handler links are reported to.
+     */
+    public HtmlLinkTokenizer(@Nonnull final LinkHandler handler) {
+
+        this.handler = handler;
+    }
+
+
+    /**
+     * Tokenize a whole stream, reading it to its end.
+     *
+     * @param inputStream the stream.
+     * @param handler the handler links are reported to.
+     * @throws IOException on error reading the stream.
+     */
+    public static void tokenize(@Nonnull final InputStream inputStream, @Nonnull final LinkHandler handler)
+        throws IOException {
+
+        final HtmlLinkTokenizer tokenizer = new HtmlLinkTokenizer(handler);
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        int count;
+        while ((count = inputStream.read(buffer)) != -1) {
+            tokenizer.feed(buffer, 0, count);
+        }
+    }
+
+
+    /**
+     * Feed the remaining bytes of a buffer, advancing its position to its limit.
+     *
+     * @param buffer the buffer.
+     */
+    public void feed(@Nonnull final ByteBuffer buffer) {
+
+        if (buffer.hasArray()) {
+            feed(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            buffer.position(buffer.limit());
+
+            return;
+        }
+
+        while (buffer.hasRemaining()) {
+            next(buffer.get() & 0xff);
+        }
+    }
+
+
+    /**
+     * Feed a chunk of bytes.
+     *
+     * @param bytes the bytes.
+     * @param offset the offset of the first byte.
+     * @param length the number of bytes.
+     */
+    public void feed(@Nonnull final byte[] bytes, int offset, int length) {
+
+        final int end = offset + length;
+        int i = offset;
+        while (i < end) {
+            if (state == TEXT || (state == RAW_TEXT && rawTextMatched == 0)) {
+                while (i < end && bytes[i] != '<') {
+                    i++;
+                }
+                if (i == end) {
+                    return;
+                }
+            }
+            else if (state == ATTRIBUTE_VALUE_DOUBLE_QUOTED || state == ATTRIBUTE_VALUE_SINGLE_QUOTED) {
+                i = appendQuotedValue(bytes, i, end, state == ATTRIBUTE_VALUE_DOUBLE_QUOTED ? '"' : '\'');
+                if (i == end) {
+                    return;
+                }
+            }
+
+            next(bytes[i++] & 0xff);
+        }
+    }
+
+
+    /**
+     * Append the bytes of a quoted attribute value up to its closing quote in one
+     * copy, returning the index of the quote or the end of the chunk.
+     */
+    private int appendQuotedValue(@Nonnull final byte[] bytes, int start, int end, int quote) {
+
+        int i = start;
+        while (i < end && bytes[i] != quote) {
+            i++;
+        }
+
+        final int count = i - start;
+        if (valueLength + count > MAX_VALUE_LENGTH) {
+            valueLength = MAX_VALUE_LENGTH + 1;
+        }
+        else {
+            if (valueLength + count > value.length) {
+                value = Arrays.copyOf(value, Math.min(
+                    Math.max(value.length * 2, valueLength + count), MAX_VALUE_LENGTH + 1
+                ));
+            }
+            System.arraycopy(bytes, start, value, valueLength, count);
+            valueLength += count;
+        }
+
+        return i;
+    }
+
+
+    private void next(int c) {
+
+        switch (state) {
+            case TEXT:
+                if (c == '<') {
+                    state = TAG_OPEN;
+                }
+                break;
+
+            case TAG_OPEN:
+                if (c == '!') {
+                    state = MARKUP_DECLARATION;
+                }
+                else if (c == '/') {
+                    state = END_TAG_OPEN;
+                }
+                else if (c == '?') {
+                    state = BOGUS_COMMENT;
+                }
+                else if (isLetter(c)) {
+                    startTagName(c, false);
+                }
+                else if (c != '<') {
+                    state = TEXT;
+                }
+                break;
+
+            case END_TAG_OPEN:
+                if (isLetter(c)) {
+                    startTagName(c, true);
+                }
+                else {
+                    state = c == '>' ? TEXT : BOGUS_COMMENT;
+                }
+                break;
+
+            case TAG_NAME:
+                if (isWhitespace(c) || c == '/') {
+                    state = BEFORE_ATTRIBUTE_NAME;
+                }
+                else if (c == '>') {
+                    endOfTag();
+                }
+                else {
+                    tagNameLength = append(tagName, tagNameLength, c);
+                }
+                break;
+
+            case BEFORE_ATTRIBUTE_NAME:
+                if (c == '>') {
+                    endOfTag();
+                }
+                else if (!isWhitespace(c) && c != '/') {
+                    startAttributeName(c);
+                }
+                break;
+
+            case ATTRIBUTE_NAME:
+                if (isWhitespace(c)) {
+                    state = AFTER_ATTRIBUTE_NAME;
+                }
+                else if (c == '/') {
+                    state = BEFORE_ATTRIBUTE_NAME;
+                }
+                else if (c == '=') {
+                    state = BEFORE_ATTRIBUTE_VALUE;
+                }
+                else if (c == '>') {
+                    endOfTag();
+                }
+                else {
+                    attributeNameLength = append(attributeName, attributeNameLength, c);
+                }
+                break;
+
+            case AFTER_ATTRIBUTE_NAME:
+                if (c == '=') {
+                    state = BEFORE_ATTRIBUTE_VALUE;
+                }
+                else if (c == '/') {
+                    state = BEFORE_ATTRIBUTE_NAME;
+                }
+                else if (c == '>') {
+                    endOfTag();
+                }
+                else if (!isWhitespace(c)) {
+                    startAttributeName(c);
+                }
+                break;
+
+            case BEFORE_ATTRIBUTE_VALUE:
+                valueLength = 0;
+                if (c == '"') {
+                    state = ATTRIBUTE_VALUE_DOUBLE_QUOTED;
+                }
+                else if (c == '\'') {
+                    state = ATTRIBUTE_VALUE_SINGLE_QUOTED;
+                }
+                else if (c == '>') {
+                    endOfTag();
+                }
+                else if (!isWhitespace(c)) {
+                    appendValue(c);
+                    state = ATTRIBUTE_VALUE_UNQUOTED;
+                }
+                break;
+
+            case ATTRIBUTE_VALUE_DOUBLE_QUOTED:
+                if (c == '"') {
+                    endOfAttributeValue();
+                    state = BEFORE_ATTRIBUTE_NAME;
+                }
+                else {
+                    appendValue(c);
+                }
+                break;
+
+            case ATTRIBUTE_VALUE_SINGLE_QUOTED:
+                if (c == '\'') {
+                    endOfAttributeValue();
+                    state = BEFORE_ATTRIBUTE_NAME;
+                }
+                else {
+                    appendValue(c);
+                }
+                break;
+
+            case ATTRIBUTE_VALUE_UNQUOTED:
+                if (isWhitespace(c)) {
+                    endOfAttributeValue();
+                    state = BEFORE_ATTRIBUTE_NAME;
+                }
+                else if (c == '>') {
+                    endOfAttributeValue();
+                    endOfTag();
+                }
+                else {
+                    appendValue(c);
+                }
+                break;
+
+            case MARKUP_DECLARATION:
+                state = c == '-' ? MARKUP_DECLARATION_DASH : c == '>' ? TEXT : BOGUS_COMMENT;
+                break;
+
+            case MARKUP_DECLARATION_DASH:
+                if (c == '-') {
+                    commentDashes = 0;
+                    state = COMMENT;
+                }
+                else {
+                    state = c == '>' ? TEXT : BOGUS_COMMENT;
+                }
+                break;
+
+            case COMMENT:
+                if (c == '-') {
+                    commentDashes++;
+                }
+                else if (c == '>' && commentDashes >= 2) {
+                    state = TEXT;
+                }
+                else {
+                    commentDashes = 0;
+                }
+                break;
+
+            case BOGUS_COMMENT:
+                if (c == '>') {
+                    state = TEXT;
+                }
+                break;
+
+            case RAW_TEXT:
+                nextRawText(c);
+                break;
+
+            default:
+                throw new IllegalStateException("Unknown tokenizer state: " + state);
+        }
+    }
+
+
+    /**
+     * Look for the end tag closing a script or style element, "&lt;/script" or
+     * "&lt;/style", in any case.
+     */
+    private void nextRawText(int c) {
+
+        final int expected;
+        if (rawTextMatched == 0) {
+            expected = '<';
+        }
+        else if (rawTextMatched == 1) {
+            expected = '/';
+        }
+        else {
+            expected = rawTextEndTag[rawTextMatched - 2];
+        }
+
+        if (toLowerCase(c) == expected) {
+            rawTextMatched++;
+            if (rawTextMatched == rawTextEndTag.length + 2) {
+                state = BOGUS_COMMENT;
+            }
+        }
+        else {
+            rawTextMatched = c == '<' ? 1 : 0;
+        }
+    }
+
+
+    private void startTagName(int c, boolean isEndTag) {
+
+        endTag = isEndTag;
+        tagNameLength = append(tagName, 0, c);
+        state = TAG_NAME;
+    }
+
+
+    private void startAttributeName(int c) {
+
+        attributeNameLength = append(attributeName, 0, c);
+        state = ATTRIBUTE_NAME;
+    }
+
+
+    private void endOfTag() {
+
+        state = TEXT;
+        if (endTag) {
+            return;
+        }
+
+        if (nameEquals(tagName, tagNameLength, SCRIPT)) {
+            startRawText(SCRIPT);
+        }
+        else if (nameEquals(tagName, tagNameLength, STYLE)) {
+            startRawText(STYLE);
+        }
+    }
+
+
+    private void startRawText(@Nonnull final byte[] endTagName) {
+
+        rawTextEndTag = endTagName;
+        rawTextMatched = 0;
+        state = RAW_TEXT;
+    }
+
+
+    private void endOfAttributeValue() {
+
+        if (endTag || valueLength > MAX_VALUE_LENGTH) {
+            return;
+        }
+
+        if (nameEquals(attributeName, attributeNameLength, HREF)) {
+            emitTrimmed(
+                nameEquals(tagName, tagNameLength, BASE) ? LinkAttribute.BASE_HREF : LinkAttribute.HREF,
+                0, valueLength
+            );
+        }
+        else if (nameEquals(attributeName, attributeNameLength, SRC)) {
+            emitTrimmed(LinkAttribute.SRC, 0, valueLength);
+        }
+        else if (nameEquals(attributeName, attributeNameLength, SRCSET)) {
+            emitSrcSet();
+        }
+    }
+
+
+    /**
+     * Split a srcset value into its image candidates, "url [descriptor], ...",
+     * emitting each candidate URL.
+     */
+    private void emitSrcSet() {
+
+        int i = 0;
+        while (i < valueLength) {
+            while (i < valueLength && (isWhitespace(value[i]) || value[i] == ',')) {
+                i++;
+            }
+
+            final int start = i;
+            while (i < valueLength && !isWhitespace(value[i])) {
+                i++;
+            }
+
+            int end = i;
+            while (end > start && value[end - 1] == ',') {
+                end--;
+            }
+            if (end > start) {
+                handler.onLink(LinkAttribute.SRCSET, value, start, end - start);
+            }
+
+            if (end == i) {
+                while (i < valueLength && value[i] != ',') {
+                    i++;
+                }
+            }
+        }
+    }
+
+
+    private void emitTrimmed(@Nonnull final LinkAttribute attribute, int start, int end) {
+
+        while (start < end && isWhitespace(value[start])) {
+            start++;
+        }
+        while (end > start && isWhitespace(value[end - 1])) {
+            end--;
+        }
+
+        handler.onLink(attribute, value, start, end - start);
+    }
+
+
+    private void appendValue(int c) {
+
+        if (valueLength > MAX_VALUE_LENGTH) {
+            return;
+        }
+
+        if (valueLength == value.length) {
+            value = Arrays.copyOf(value, Math.min(value.length * 2, MAX_VALUE_LENGTH + 1));
+        }
+        value[valueLength++] = (byte) c;
+    }
+
+
+    /**
+     * Append a lower case name character, counting but not storing characters past
+     * the maximum name length so that over long names never match.
+     */
+    private static int append(@Nonnull final byte[] name, int length, int c) {
+
+        if (length < name.length) {
+            name[length] = (byte) toLowerCase(c);
+        }
+
+        return length + 1;
+    }
+
+
+    private static boolean nameEquals(@Nonnull final byte[] name, int length, @Nonnull final byte[] expected) {
+
+        if (length != expected.length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (name[i] != expected[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    private static boolean isLetter(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\n' || c == '\t' || c == '\r' || c == '\f';
+    }
+
+
+    private static int toLowerCase(int c) {
+        return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+
+
+    @Nonnull
+    private static byte[] ascii(@Nonnull final String string) {
+        return string.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,129 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Fetches pages with the {@link HttpClient}.  One client is shared by every
+ * request, so connections are pooled and kept alive per host, and requests to
+ * servers which support HTTP/2 are multiplexed over a single connection.  Each
+ * request is sent blocking, on the crawl's worker or virtual thread, which then
+ * streams the body into the link scanner; the crawl's concurrency comes from
+ * its threads, not from callbacks.
+ */
+public final class HttpClientPageFetcher implements PageFetcher {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+
+
+    /**
+     * Create instance.
+     */
+    public HttpClientPageFetcher() {
+
+        this(HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(CONNECT_TIMEOUT)
+            .build());
+    }
+
+
+    /**
+     * Create instance.
+     *
+     * @param client the client requests are sent with.
+     */
+    public HttpClientPageFetcher(@Nonnull final HttpClient client) {
+
+        this.client = client;
+    }
+
+
+    @Override
+    @Nonnull
+    public PageResponse fetch(@Nonnull final URL url) throws IOException {
+
+        return fetch(url, Collections.emptyMap());
+    }
+
+
+    @Override
+    @Nonnull
+    public PageResponse fetch(@Nonnull final URL url, @Nonnull final Map<String, String> requestHeaders)
+        throws IOException {
+
+        return send(newRequest(url, "GET", requestHeaders));
+    }
+
+
+    @Override
+    @Nonnull
+    public PageResponse head(@Nonnull final URL url) throws IOException {
+
+        return send(newRequest(url, "HEAD", Collections.emptyMap()));
+    }
+
+
+    @Nonnull
+    private PageResponse send(@Nonnull final HttpRequest request) throws IOException {
+
+        try {
+            return toPageResponse(client.send(request, HttpResponse.BodyHandlers.ofInputStream()));
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new InterruptedIOException(String.format(
+                "Interrupted fetching page.  URL: \"%s\"", request.uri()
+            ));
+        }
+    }
+
+
+    @Nonnull
+    private static HttpRequest newRequest(
+        @Nonnull final URL url, @Nonnull final String method, @Nonnull final Map<String, String> requestHeaders
+    ) throws MalformedURLException {
+
+        try {
+            final HttpRequest.Builder builder = HttpRequest.newBuilder(url.toURI())
+                .timeout(REQUEST_TIMEOUT)
+                .header("User-Agent", USER_AGENT)
+                .method(method, HttpRequest.BodyPublishers.noBody());
+            requestHeaders.forEach(builder::header);
+
+            return builder.build();
+        }
+        catch (URISyntaxException | IllegalArgumentException e) {
+            throw new MalformedURLException(String.format(
+                "Unable to convert URL to URI.  URL: \"%s\", Error Message: \"%s\"", url, e.getMessage()
+            ));
+        }
+    }
+
+
+    @Nonnull
+    private static PageResponse toPageResponse(@Nonnull final HttpResponse<InputStream> response)
+        throws MalformedURLException {
+
+        return new PageResponse(
+            response.uri().toURL(), response.statusCode(), response.headers().map(), response.body()
+        );
+    }
+}
@@ -0,0 +1,27 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.IOException;
+import javax.annotation.Nonnull;
+
+
+/**
+ * An unsuccessful HTTP response to a page fetch.
+ */
+final class HttpStatusException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+
+
+    HttpStatusException(@Nonnull final String message, int statusCode) {
+
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+
+    int getStatusCode() {
+        return statusCode;
+    }
+}
@@ -0,0 +1,131 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+
+
+/**
+ * A growable array of primitive ints: four bytes an element instead of the
+ * twenty or so of a boxed {@link Integer} in a list.  Not thread safe.
+ */
+final class IntArray {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int fill;
+    private int[] values;
+    private int size;
+
+
+    /**
+     * Construct instance.
+     *
+     * @param fill the value of elements not yet set when the array grows past
+     *     them by {@link #set(int, int)}.
+     */
+    IntArray(int fill) {
+
+        this.fill = fill;
+        this.values = new int[INITIAL_CAPACITY];
+        Arrays.fill(values, fill);
+    }
+
+
+    /**
+     * Append a value.
+     *
+     * @param value the value.
+     * @return the index of the value.
+     */
+    int add(int value) {
+
+        ensureCapacity(size + 1);
+        values[size] = value;
+
+        return size++;
+    }
+
+
+    /**
+     * Set the value at an index, growing the array to include it.
+     *
+     * @param index the index, from zero.
+     * @param value the value.
+     */
+    void set(int index, int value) {
+
+        ensureCapacity(index + 1);
+        values[index] = value;
+        size = Math.max(size, index + 1);
+    }
+
+
+    /**
+     * Returns the value at an index, or the fill value past the end.
+     *
+     * @param index the index, from zero.
+     * @return the value.
+     */
+    int get(int index) {
+        return index < size ? values[index] : fill;
+    }
+
+
+    int size() {
+        return size;
+    }
+
+
+    /**
+     * Remove the last value.
+     *
+     * @return the value removed.
+     */
+    int removeLast() {
+
+        final int value = values[--size];
+        values[size] = fill;
+
+        return value;
+    }
+
+
+    /**
+     * Returns the values as an array of the given length, padded with the fill
+     * value.
+     *
+     * @param length the length, at least the size.
+     * @return the new array.
+     */
+    @Nonnull
+    int[] toArray(int length) {
+
+        final int[] array = Arrays.copyOf(values, length);
+        if (length > values.length) {
+            Arrays.fill(array, values.length, length, fill);
+        }
+
+        return array;
+    }
+
+
+    private void ensureCapacity(int capacity) {
+
+        if (capacity > values.length) {
+            final int length = values.length;
+            values = Arrays.copyOf(values, Math.max(capacity, length + (length >> 1)));
+            Arrays.fill(values, length, values.length, fill);
+        }
+    }
+
+
+    @Override
+    @Nonnull
+    public String toString() {
+
+        return "IntArray{"
+            + "size='" + size + '\''
+            + ", capacity='" + values.length + '\''
+            + "}";
+    }
+}
@@ -0,0 +1,89 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URL;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Writes the sitemap as JSON Lines, one object per page in the order pages are
+ * crawled, e.g.
+ * <pre>{"url":"http://example.com/","depth":0,"links":["http://example.com/a.html"]}</pre>
+ * A page found to be a copy of another names it, e.g.
+ * <pre>{"url":"http://example.com/?print=1","depth":1,"links":[],"alias_of":"http://example.com/"}</pre>
+ */
+final class JsonLinesSitemapSink implements SitemapSink {
+
+    private final Writer writer;
+
+
+    /**
+     * Construct instance.
+     *
+     * @param writer the writer the lines are written to.
+     */
+    JsonLinesSitemapSink(@Nonnull final Writer writer) {
+
+        this.writer = writer;
+    }
+
+
+    @Override
+    public void write(@Nonnull final SitemapPage page) throws IOException {
+
+        writer.write("{\"url\":");
+        writeString(page.getUrl().toString());
+        writer.write(",\"depth\":");
+        writer.write(Integer.toString(page.getDepth()));
+        writer.write(",\"links\":[");
+        boolean first = true;
+        for (final URL link : page.getLinks()) {
+            if (!first) {
+                writer.write(',');
+            }
+            writeString(link.toString());
+            first = false;
+        }
+        writer.write(']');
+        if (page.getAliasOf() != null) {
+            writer.write(",\"alias_of\":");
+            writeString(page.getAliasOf().toString());
+        }
+        writer.write("}\n");
+    }
+
+
+    @Override
+    public void flush() throws IOException {
+
+        writer.flush();
+    }
+
+
+    @Override
+    public void close() throws IOException {
+
+        writer.close();
+    }
+
+
+    private void writeString(@Nonnull final String value) throws IOException {
+
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                writer.write('\\');
+                writer.write(c);
+            }
+            else if (c < 0x20) {
+                writer.write(String.format("\\u%04x", (int) c));
+            }
+            else {
+                writer.write(c);
+            }
+        }
+        writer.write('"');
+    }
+}
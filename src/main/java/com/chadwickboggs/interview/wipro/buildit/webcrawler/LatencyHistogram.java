@@ -0,0 +1,95 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Lock-free histogram of durations in nanoseconds.  Buckets are log-linear: 16
+ * per power of two, so a percentile is reported to within about 6%, in a fixed
+ * 8KB whatever the number of values recorded.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(64 * SUB_BUCKETS);
+
+
+    /**
+     * Record a duration.
+     *
+     * @param nanos the duration in nanoseconds.
+     */
+    void record(long nanos) {
+        counts.incrementAndGet(index(Math.max(0, nanos)));
+    }
+
+
+    /**
+     * Returns the number of durations recorded.
+     *
+     * @return the count.
+     */
+    long getCount() {
+
+        long count = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+        }
+
+        return count;
+    }
+
+
+    /**
+     * Returns a percentile of the durations recorded: the upper bound of the
+     * bucket it falls in.
+     *
+     * @param percentile the percentile, e.g. 0.99.
+     * @return the duration in nanoseconds, or zero if none were recorded.
+     */
+    long getPercentile(double percentile) {
+
+        final long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(percentile * count));
+        long cumulative = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            cumulative += counts.get(i);
+            if (cumulative >= rank) {
+                return lowerBound(i + 1) - 1;
+            }
+        }
+
+        return Long.MAX_VALUE;
+    }
+
+
+    private static int index(long value) {
+
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+
+    private static long lowerBound(int index) {
+
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+
+        final int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+
+        return (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+    }
+}
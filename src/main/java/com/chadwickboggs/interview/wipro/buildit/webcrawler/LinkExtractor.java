@@ -0,0 +1,323 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.SequenceInputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * Extracts the outgoing links of a page with an {@link HtmlLinkTokenizer}.  Only
+ * the attribute values found are decoded.  Character references in them are
+ * replaced, and each is resolved by a {@link UrlCanonicalizer} against the page
+ * URL, or against the page's base href if it has one, into its canonical form.
+ * Links to schemes other than http and https, such as mailto: and javascript:,
+ * are dropped.
+ *
+ * <p>The page charset is found by {@link CharsetDetector}.  Pages in an ASCII
+ * compatible charset, nearly all of them, are tokenized in place in the buffer
+ * they are read into, with no decode step at all.  Only pages in other charsets,
+ * such as UTF-16, are transcoded to UTF-8 on the way to the tokenizer.</p>
+ */
+public final class LinkExtractor {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+
+
+    private LinkExtractor() {
+    }
+
+
+    /**
+     * Extract the links of a page, determining its charset from its Content-Type
+     * header or the start of its body.
+     *
+     * @param pageUrl the page URL.
+     * @param body the page body, read to its end.
+     * @param contentType the Content-Type header value, if any.
+     * @return the distinct links, in document order.
+     * @throws IOException on error reading the body.
+     */
+    @Nonnull
+    public static Collection<URL> extract(
+        @Nonnull final URL pageUrl, @Nonnull final InputStream body, @Nullable final String contentType
+    ) throws IOException {
+
+        return extract(pageUrl, body, contentType, UrlCanonicalizer.DEFAULT);
+    }
+
+
+    /**
+     * Extract the links of a page, determining its charset from its Content-Type
+     * header or the start of its body.
+     *
+     * @param pageUrl the page URL.
+     * @param body the page body, read to its end.
+     * @param contentType the Content-Type header value, if any.
+     * @param canonicalizer resolves and canonicalizes the links.
+     * @return the distinct links, in document order.
+     * @throws IOException on error reading the body.
+     */
+    @Nonnull
+    public static Collection<URL> extract(
+        @Nonnull final URL pageUrl, @Nonnull final InputStream body, @Nullable final String contentType,
+        @Nonnull final UrlCanonicalizer canonicalizer
+    ) throws IOException {
+
+        final byte[] buffer = BUFFER.get();
+        int length = 0;
+        int count;
+        while (length < CharsetDetector.PRESCAN_LENGTH
+            && (count = body.read(buffer, length, buffer.length - length)) != -1) {
+
+            length += count;
+        }
+
+        final Charset charset = CharsetDetector.detect(contentType, buffer, 0, length);
+        if (!CharsetDetector.isAsciiCompatible(charset)) {
+            return extractTranscoded(pageUrl, new SequenceInputStream(
+                new ByteArrayInputStream(buffer, 0, length), body
+            ), charset, canonicalizer);
+        }
+
+        final Links links = new Links(pageUrl, charset, canonicalizer);
+        final HtmlLinkTokenizer tokenizer = new HtmlLinkTokenizer(links);
+        tokenizer.feed(buffer, 0, length);
+        while ((count = body.read(buffer)) != -1) {
+            tokenizer.feed(buffer, 0, count);
+        }
+
+        return links.urls.values();
+    }
+
+
+    /**
+     * Extract the links of a page.
+     *
+     * @param pageUrl the page URL.
+     * @param body the page body, read to its end.
+     * @param charset the page charset, which must be ASCII compatible.
+     * @return the distinct links, in document order.
+     * @throws IOException on error reading the body.
+     */
+    @Nonnull
+    public static Collection<URL> extract(
+        @Nonnull final URL pageUrl, @Nonnull final InputStream body, @Nonnull final Charset charset
+    ) throws IOException {
+
+        final Links links = new Links(pageUrl, charset, UrlCanonicalizer.DEFAULT);
+        HtmlLinkTokenizer.tokenize(body, links);
+
+        return links.urls.values();
+    }
+
+
+    /**
+     * Extract the links of a page in a charset which is not ASCII compatible by
+     * transcoding it to UTF-8 a buffer at a time.
+     */
+    @Nonnull
+    private static Collection<URL> extractTranscoded(
+        @Nonnull final URL pageUrl, @Nonnull final InputStream body, @Nonnull final Charset charset,
+        @Nonnull final UrlCanonicalizer canonicalizer
+    ) throws IOException {
+
+        final Links links = new Links(pageUrl, StandardCharsets.UTF_8, canonicalizer);
+        final HtmlLinkTokenizer tokenizer = new HtmlLinkTokenizer(links);
+        final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE / 4);
+        final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+
+        try (Reader reader = new InputStreamReader(body, charset)) {
+            boolean endOfInput = false;
+            while (!endOfInput) {
+                endOfInput = reader.read(chars) == -1;
+                chars.flip();
+                encoder.encode(chars, bytes, endOfInput);
+                if (endOfInput) {
+                    encoder.flush(bytes);
+                }
+                chars.compact();
+
+                bytes.flip();
+                tokenizer.feed(bytes);
+                bytes.clear();
+            }
+        }
+
+        return links.urls.values();
+    }
+
+
+    /**
+     * Replace the character references in an attribute value, e.g. "&amp;amp;",
+     * "&amp;#47;" and "&amp;#x2F;".  Unknown named references are left as they are.
+     *
+     * @param value the attribute value.
+     * @return the value with its character references replaced.
+     */
+    @Nonnull
+    static String decodeCharacterReferences(@Nonnull final String value) {
+
+        int ampersand = value.indexOf('&');
+        if (ampersand < 0) {
+            return value;
+        }
+
+        final StringBuilder buf = new StringBuilder(value.length());
+        int start = 0;
+        while (ampersand >= 0) {
+            final int semicolon = value.indexOf(';', ampersand);
+            if (semicolon < 0) {
+                break;
+            }
+
+            final String replacement = characterReference(value.substring(ampersand + 1, semicolon));
+            if (replacement != null) {
+                buf.append(value, start, ampersand).append(replacement);
+                start = semicolon + 1;
+            }
+
+            ampersand = value.indexOf('&', replacement != null ? start : ampersand + 1);
+        }
+
+        return buf.append(value, start, value.length()).toString();
+    }
+
+
+    @Nullable
+    private static String characterReference(@Nonnull final String name) {
+
+        switch (name) {
+            case "amp":
+                return "&";
+            case "quot":
+                return "\"";
+            case "apos":
+                return "'";
+            case "lt":
+                return "<";
+            case "gt":
+                return ">";
+            default:
+                break;
+        }
+
+        if (name.length() < 2 || name.charAt(0) != '#') {
+            return null;
+        }
+
+        try {
+            final int codePoint = name.charAt(1) == 'x' || name.charAt(1) == 'X'
+                ? Integer.parseInt(name.substring(2), 16)
+                : Integer.parseInt(name.substring(1));
+
+            return Character.isValidCodePoint(codePoint) ? new String(Character.toChars(codePoint)) : null;
+        }
+        catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+
+    /**
+     * Returns true if a link has no scheme, and so is relative, or has the http or
+     * https scheme.
+     */
+    private static boolean isHttpOrRelative(@Nonnull final String link) {
+
+        for (int i = 0; i < link.length(); i++) {
+            final char c = link.charAt(i);
+            if (c == ':') {
+                final String scheme = link.substring(0, i).toLowerCase(Locale.ENGLISH);
+
+                return "http".equals(scheme) || "https".equals(scheme);
+            }
+
+            if (c == '/' || c == '?' || c == '#') {
+                return true;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Collects the links reported by the tokenizer.
+     */
+    private static final class Links implements HtmlLinkTokenizer.LinkHandler {
+
+        private final URL pageUrl;
+        private final Charset charset;
+        private final UrlCanonicalizer canonicalizer;
+        private final Map<String, URL> urls = new LinkedHashMap<>();
+        private URL base;
+
+
+        private Links(
+            @Nonnull final URL pageUrl, @Nonnull final Charset charset, @Nonnull final UrlCanonicalizer canonicalizer
+        ) {
+
+            this.pageUrl = pageUrl;
+            this.charset = charset;
+            this.canonicalizer = canonicalizer;
+            this.base = pageUrl;
+        }
+
+
+        @Override
+        public void onLink(
+            @Nonnull final HtmlLinkTokenizer.LinkAttribute attribute, @Nonnull final byte[] value, int offset,
+            int length
+        ) {
+
+            if (length == 0) {
+                return;
+            }
+
+            final String link = decodeCharacterReferences(new String(value, offset, length, charset));
+            if (!isHttpOrRelative(link)) {
+                return;
+            }
+
+            try {
+                if (attribute == HtmlLinkTokenizer.LinkAttribute.BASE_HREF) {
+                    if (base == pageUrl) {
+                        base = canonicalizer.resolve(pageUrl, link);
+                    }
+
+                    return;
+                }
+
+                final URL url = canonicalizer.resolve(base, link);
+                urls.putIfAbsent(UrlKeys.canonicalKey(url), url);
+            }
+            catch (MalformedURLException e) {
+                System.err.println(String.format(
+                    "Error parsing URL in page.  Page: \"%s\", URL: \"%s\"", pageUrl, link
+                ));
+            }
+        }
+    }
+}
@@ -0,0 +1,397 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+
+
+/**
+ * The link graph of a crawl, held in primitive arrays so that it fits in memory
+ * for sites far larger than a {@code Map<URL, Set<URL>>} would.  Each URL, page
+ * or link, is interned to an int ID by the 64-bit fingerprint of its canonical
+ * key, see {@link UrlKeys#fingerprint(URL)}, in an open addressing table of
+ * primitive longs.  The text of a URL is kept, as UTF-8 in one shared byte
+ * array, only once a page is added for it, so a URL which is never crawled
+ * costs some fifty bytes of primitive arrays, and each link four more.
+ * The links of each page are appended as IDs as pages arrive; {@link #freeze()}
+ * then lays them out in compressed sparse row form, ordered by page ID, and
+ * counts the in-links of every page.
+ *
+ * <p>Pages are added by one thread, the sitemap writer's, and the graph is read
+ * once frozen.  Not thread safe.</p>
+ */
+final class LinkGraph {
+
+    /**
+     * The ID of no URL, e.g. the page a page which is not an alias is an alias of.
+     */
+    static final int NONE = -1;
+
+    private static final long EMPTY = 0L;
+    private static final int INITIAL_TABLE_SIZE = 1024;
+
+    private long[] keys = new long[INITIAL_TABLE_SIZE];
+    private int[] keyIds = new int[INITIAL_TABLE_SIZE];
+    private int idCount;
+    private byte[] text = new byte[16 * 1024];
+    private int textSize;
+    private final IntArray textOffsets = new IntArray(NONE);
+    private final IntArray textLengths = new IntArray(0);
+    private final IntArray depths = new IntArray(NONE);
+    private final IntArray aliases = new IntArray(NONE);
+    private final IntArray linkStarts = new IntArray(NONE);
+    private final IntArray linkCounts = new IntArray(0);
+    private final IntArray links = new IntArray(NONE);
+    private final IntArray pages = new IntArray(NONE);
+    private int[] offsets;
+    private int[] targets;
+    private int[] inDegrees;
+
+
+    /**
+     * Add a page and its links.  A page already added is ignored.
+     *
+     * @param page the page.
+     * @return the page's ID, or {@link #NONE} if it was added before.
+     * @throws IllegalStateException if the graph is frozen.
+     */
+    int add(@Nonnull final SitemapPage page) {
+
+        if (offsets != null) {
+            throw new IllegalStateException("Link graph is frozen.  No page can be added.");
+        }
+
+        final int id = intern(page.getUrl());
+        if (depths.get(id) != NONE) {
+            return NONE;
+        }
+
+        depths.set(id, page.getDepth());
+        appendText(id, page.getUrl().toString());
+        if (page.getAliasOf() != null) {
+            aliases.set(id, intern(page.getAliasOf()));
+        }
+        linkStarts.set(id, links.size());
+        linkCounts.set(id, page.getLinks().size());
+        for (final URL link : page.getLinks()) {
+            links.add(intern(link));
+        }
+        pages.add(id);
+
+        return id;
+    }
+
+
+    /**
+     * Lay the links out in compressed sparse row form and count in-links.  The
+     * graph is read only from then on.  Calling it again does nothing.
+     */
+    void freeze() {
+
+        if (offsets != null) {
+            return;
+        }
+
+        offsets = new int[idCount + 1];
+        for (int id = 0; id < idCount; id++) {
+            offsets[id + 1] = offsets[id] + linkCounts.get(id);
+        }
+        targets = new int[offsets[idCount]];
+        inDegrees = new int[idCount];
+        final int[] lastSource = new int[idCount];
+        Arrays.fill(lastSource, NONE);
+        for (int id = 0; id < idCount; id++) {
+            final int start = linkStarts.get(id);
+            for (int i = 0; i < linkCounts.get(id); i++) {
+                final int target = links.get(start + i);
+                targets[offsets[id] + i] = target;
+                if (target != id && lastSource[target] != id) {
+                    lastSource[target] = id;
+                    inDegrees[target]++;
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Returns the number of pages added.
+     *
+     * @return the number of pages.
+     */
+    int getPageCount() {
+        return pages.size();
+    }
+
+
+    /**
+     * Returns the ID of a page by the order it was added in.
+     *
+     * @param index the index, from zero.
+     * @return the page's ID.
+     */
+    int getPage(int index) {
+        return pages.get(index);
+    }
+
+
+    /**
+     * Returns the number of URLs interned, pages and links never crawled.
+     *
+     * @return the number of IDs.
+     */
+    int getIdCount() {
+        return idCount;
+    }
+
+
+    /**
+     * Returns true if a page was added for an ID, not only links to it.
+     *
+     * @param id the ID.
+     * @return true if the ID is a page.
+     */
+    boolean isPage(int id) {
+        return depths.get(id) != NONE;
+    }
+
+
+    /**
+     * Returns the URL of a page.
+     *
+     * @param id the page's ID.
+     * @return the URL, as the page was added.
+     */
+    @Nonnull
+    String getUrl(int id) {
+
+        final int offset = textOffsets.get(id);
+        if (offset == NONE) {
+            throw new IllegalArgumentException(String.format("Not a page.  ID: %d", id));
+        }
+
+        return new String(text, offset, textLengths.get(id), StandardCharsets.UTF_8);
+    }
+
+
+    int getDepth(int id) {
+        return depths.get(id);
+    }
+
+
+    /**
+     * Returns the page a page was found to be a copy of.
+     *
+     * @param id the page's ID.
+     * @return the original page's ID, or {@link #NONE}.
+     */
+    int getAliasOf(int id) {
+        return aliases.get(id);
+    }
+
+
+    /**
+     * Returns the index of a page's first link in the link targets, once frozen.
+     *
+     * @param id the page's ID.
+     * @return the index.
+     */
+    int getLinkStart(int id) {
+        return frozen().offsets[id];
+    }
+
+
+    /**
+     * Returns the index past a page's last link in the link targets, once frozen.
+     *
+     * @param id the page's ID.
+     * @return the index.
+     */
+    int getLinkEnd(int id) {
+        return frozen().offsets[id + 1];
+    }
+
+
+    /**
+     * Returns the ID a link points to, once frozen.
+     *
+     * @param index the link's index, from a page's start to its end.
+     * @return the ID linked to.
+     */
+    int getLinkTarget(int index) {
+        return frozen().targets[index];
+    }
+
+
+    /**
+     * Returns the number of other pages linking to a URL, once frozen.
+     *
+     * @param id the URL's ID.
+     * @return the number of pages.
+     */
+    int getInDegree(int id) {
+        return frozen().inDegrees[id];
+    }
+
+
+    /**
+     * Returns the pages by the number of other pages linking to them, most first
+     * and ties in the order added, once frozen.  Aliases are left out.
+     *
+     * @return the page IDs.
+     */
+    @Nonnull
+    int[] rankByInDegree() {
+
+        frozen();
+        final long[] keyed = new long[pages.size()];
+        int count = 0;
+        for (int i = 0; i < pages.size(); i++) {
+            final int id = pages.get(i);
+            if (aliases.get(id) == NONE) {
+                keyed[count++] = (long) inDegrees[id] << Integer.SIZE | (Integer.MAX_VALUE - i);
+            }
+        }
+        Arrays.sort(keyed, 0, count);
+
+        final int[] ranked = new int[count];
+        for (int i = 0; i < count; i++) {
+            ranked[i] = pages.get(Integer.MAX_VALUE - (int) keyed[count - 1 - i]);
+        }
+
+        return ranked;
+    }
+
+
+    /**
+     * Returns the orphan pages: those no other page crawled links to, other than
+     * seed pages and aliases, in the order added, once frozen.  They were found
+     * only through the site's XML sitemaps.
+     *
+     * @return the page IDs.
+     */
+    @Nonnull
+    int[] findOrphans() {
+
+        frozen();
+        final IntArray orphans = new IntArray(NONE);
+        for (int i = 0; i < pages.size(); i++) {
+            final int id = pages.get(i);
+            if (inDegrees[id] == 0 && depths.get(id) > 0 && aliases.get(id) == NONE) {
+                orphans.add(id);
+            }
+        }
+
+        return orphans.toArray(orphans.size());
+    }
+
+
+    /**
+     * Returns an estimate of the memory held by the graph.
+     *
+     * @return the bytes held by its arrays.
+     */
+    long getMemoryBytes() {
+
+        long bytes = (long) keys.length * Long.BYTES + (long) keyIds.length * Integer.BYTES + text.length;
+        bytes += (long) Integer.BYTES * (textOffsets.size() + textLengths.size() + depths.size() + aliases.size()
+            + linkStarts.size() + linkCounts.size() + links.size() + pages.size());
+        if (offsets != null) {
+            bytes += (long) Integer.BYTES * (offsets.length + targets.length + inDegrees.length);
+        }
+
+        return bytes;
+    }
+
+
+    /**
+     * Returns the ID of a URL, assigning the next one if it has none.
+     */
+    private int intern(@Nonnull final URL url) {
+
+        long key = UrlKeys.fingerprint(url);
+        if (key == EMPTY) {
+            key = 1;
+        }
+
+        int mask = keys.length - 1;
+        int slot = (int) key & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return keyIds[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if ((idCount + 1) * 2 > keys.length) {
+            growTable();
+            mask = keys.length - 1;
+            slot = (int) key & mask;
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+        }
+        keys[slot] = key;
+        keyIds[slot] = idCount;
+
+        return idCount++;
+    }
+
+
+    private void growTable() {
+
+        final long[] oldKeys = keys;
+        final int[] oldIds = keyIds;
+        keys = new long[oldKeys.length * 2];
+        keyIds = new int[oldKeys.length * 2];
+        final int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = (int) oldKeys[i] & mask;
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                keyIds[slot] = oldIds[i];
+            }
+        }
+    }
+
+
+    private void appendText(int id, @Nonnull final String url) {
+
+        final byte[] bytes = url.getBytes(StandardCharsets.UTF_8);
+        if (textSize + bytes.length > text.length) {
+            text = Arrays.copyOf(text, Math.max(textSize + bytes.length, text.length + (text.length >> 1)));
+        }
+        System.arraycopy(bytes, 0, text, textSize, bytes.length);
+        textOffsets.set(id, textSize);
+        textLengths.set(id, bytes.length);
+        textSize += bytes.length;
+    }
+
+
+    @Nonnull
+    private LinkGraph frozen() {
+
+        if (offsets == null) {
+            throw new IllegalStateException("Link graph is not frozen.  Freeze it first.");
+        }
+
+        return this;
+    }
+
+
+    @Override
+    @Nonnull
+    public String toString() {
+
+        return "LinkGraph{"
+            + "pages='" + pages.size() + '\''
+            + ", ids='" + idCount + '\''
+            + ", links='" + links.size() + '\''
+            + ", frozen='" + (offsets != null) + '\''
+            + "}";
+    }
+}
@@ -0,0 +1,92 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Passes pages on to a sitemap sink, keeping their links in a {@link LinkGraph},
+ * and once the sink is closed writes a report of the graph: every page ranked by
+ * the number of other pages linking to it, then the orphan pages no crawled page
+ * links to, e.g.
+ * <pre>
+ * # In-links	URL
+ * 41	http://example.com/
+ * 3	http://example.com/about.html
+ * 0	http://example.com/old.html
+ * # Orphan pages
+ * http://example.com/old.html
+ * </pre>
+ * A tree sitemap already holds the graph, so its graph is shared rather than
+ * built twice.
+ */
+final class LinkReportSink implements SitemapSink {
+
+    private final SitemapSink sink;
+    private final Path reportPath;
+    private final LinkGraph graph;
+    private final boolean sharedGraph;
+
+
+    /**
+     * Construct instance.
+     *
+     * @param sink the sink pages are passed on to.
+     * @param reportPath the file the report is written to.
+     */
+    LinkReportSink(@Nonnull final SitemapSink sink, @Nonnull final Path reportPath) {
+
+        this.sink = sink;
+        this.reportPath = reportPath;
+        this.sharedGraph = sink instanceof TreeSitemapSink;
+        this.graph = sharedGraph ? ((TreeSitemapSink) sink).getGraph() : new LinkGraph();
+    }
+
+
+    @Override
+    public void write(@Nonnull final SitemapPage page) throws IOException {
+
+        if (!sharedGraph) {
+            graph.add(page);
+        }
+        sink.write(page);
+    }
+
+
+    @Override
+    public void flush() throws IOException {
+
+        sink.flush();
+    }
+
+
+    @Override
+    public void close() throws IOException {
+
+        try {
+            sink.close();
+        }
+        finally {
+            graph.freeze();
+            try (Writer writer = new BufferedWriter(Files.newBufferedWriter(reportPath, StandardCharsets.UTF_8))) {
+                writer.write("# In-links\tURL\n");
+                for (final int page : graph.rankByInDegree()) {
+                    writer.write(Integer.toString(graph.getInDegree(page)));
+                    writer.write('\t');
+                    writer.write(graph.getUrl(page));
+                    writer.write('\n');
+                }
+                writer.write("# Orphan pages\n");
+                for (final int page : graph.findOrphans()) {
+                    writer.write(graph.getUrl(page));
+                    writer.write('\n');
+                }
+            }
+        }
+    }
+}
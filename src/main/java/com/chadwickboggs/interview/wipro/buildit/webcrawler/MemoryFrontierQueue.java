@@ -0,0 +1,88 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.util.PriorityQueue;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * Unbounded frontier queue held in memory, handing out tasks in the order of a
+ * {@link TaskScorer}: lowest score first, equal scores first in, first out.
+ */
+public final class MemoryFrontierQueue implements FrontierQueue {
+
+    private final TaskScorer scorer;
+    private final PriorityQueue<ScoredTask> tasks = new PriorityQueue<>();
+    private long sequence;
+
+
+    /**
+     * Create a breadth first queue.
+     */
+    public MemoryFrontierQueue() {
+
+        this(CrawlTask::getDepth);
+    }
+
+
+    /**
+     * Create instance.
+     *
+     * @param scorer the scorer ordering the tasks.
+     */
+    public MemoryFrontierQueue(@Nonnull final TaskScorer scorer) {
+
+        this.scorer = scorer;
+    }
+
+
+    @Override
+    public synchronized void add(@Nonnull final CrawlTask task) {
+        tasks.add(new ScoredTask(task, scorer.score(task), sequence++));
+    }
+
+
+    @Override
+    @Nullable
+    public synchronized CrawlTask poll() {
+
+        final ScoredTask task = tasks.poll();
+
+        return task == null ? null : task.task;
+    }
+
+
+    @Override
+    public synchronized long size() {
+        return tasks.size();
+    }
+
+
+    /**
+     * A task with its score, and its sequence number to keep equal scores first
+     * in, first out.
+     */
+    static final class ScoredTask implements Comparable<ScoredTask> {
+
+        final CrawlTask task;
+        private final long score;
+        private final long sequence;
+
+
+        ScoredTask(@Nonnull final CrawlTask task, long score, long sequence) {
+
+            this.task = task;
+            this.score = score;
+            this.sequence = sequence;
+        }
+
+
+        @Override
+        public int compareTo(@Nonnull final ScoredTask other) {
+
+            final int byScore = Long.compare(score, other.score);
+
+            return byScore != 0 ? byScore : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+
+/**
+ * A Flight Recorder event for each page crawled, spanning the whole crawl of
+ * the page, with the time spent in each of its stages.  The event is disabled
+ * unless a recording enables it, e.g. with
+ * {@code -XX:StartFlightRecording:settings=profile}, and costs next to nothing
+ * then.
+ */
+@Name("com.chadwickboggs.webcrawler.PageCrawl")
+@Label("Page Crawl")
+@Category("Web Crawler")
+@Description("A page fetched and scanned for links")
+@StackTrace(false)
+final class PageCrawlEvent extends Event {
+
+    @Label("URL")
+    String url;
+
+    @Label("Depth")
+    int depth;
+
+    @Label("Status Code")
+    int statusCode;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Links")
+    int links;
+
+    @Label("Fetch Time")
+    @Description("Sending the request and waiting for the response headers")
+    @Timespan
+    long fetchTime;
+
+    @Label("Transfer Time")
+    @Description("Reading the response body")
+    @Timespan
+    long transferTime;
+
+    @Label("Parse Time")
+    @Description("Scanning the page for links, less the time spent reading it")
+    @Timespan
+    long parseTime;
+}
@@ -0,0 +1,80 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Map;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Downloads pages.  The crawl engine reads every page through a fetcher, so the
+ * transport used, its connection handling and its protocol version are decided
+ * by the implementation.
+ */
+public interface PageFetcher extends Closeable {
+
+    /**
+     * The User-Agent header sent with every request.  Its product token is the
+     * name robots.txt groups are matched against.
+     */
+    String USER_AGENT = "WebCrawler/1.0";
+
+
+    /**
+     * Fetch a page, waiting until its response headers have arrived.  The body is
+     * streamed from the returned response, which must be closed by the caller.
+     *
+     * @param url the page URL.
+     * @return the response.
+     * @throws IOException on error connecting or reading the response headers.
+     */
+    @Nonnull
+    PageResponse fetch(@Nonnull URL url) throws IOException;
+
+
+    /**
+     * Fetch a page, sending extra request headers, e.g. the If-None-Match and
+     * If-Modified-Since headers of a conditional request.  The default
+     * implementation ignores the headers, which is always correct for a
+     * conditional request: the server answers in full.
+     *
+     * @param url the page URL.
+     * @param requestHeaders the extra request headers.
+     * @return the response.
+     * @throws IOException on error connecting or reading the response headers.
+     */
+    @Nonnull
+    default PageResponse fetch(@Nonnull final URL url, @Nonnull final Map<String, String> requestHeaders)
+        throws IOException {
+
+        return fetch(url);
+    }
+
+
+    /**
+     * Request only the headers of a page, to learn its type and size before
+     * deciding to download it.  The default implementation fetches the page and
+     * closes its body unread.
+     *
+     * @param url the page URL.
+     * @return the response, with an empty body.
+     * @throws IOException on error connecting or reading the response headers.
+     */
+    @Nonnull
+    default PageResponse head(@Nonnull final URL url) throws IOException {
+
+        try (PageResponse response = fetch(url)) {
+            return new PageResponse(
+                response.getUrl(), response.getStatusCode(), response.getHeaders(),
+                new ByteArrayInputStream(new byte[0])
+            );
+        }
+    }
+
+
+    @Override
+    default void close() throws IOException {
+    }
+}
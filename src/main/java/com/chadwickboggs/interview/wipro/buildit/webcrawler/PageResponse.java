@@ -0,0 +1,129 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import javax.annotation.Nonnull;
+
+
+/**
+ * The response to a page fetch: its status, headers and a stream over its body.
+ */
+public final class PageResponse implements Closeable {
+
+    private final URL url;
+    private final int statusCode;
+    private final Map<String, List<String>> headers;
+    private final InputStream body;
+
+
+    /**
+     * Construct instance.
+     *
+     * @param url the URL the response was read from, after any redirects.
+     * @param statusCode the HTTP status code, or 200 for non-HTTP URLs.
+     * @param headers the response headers.
+     * @param body the response body stream.
+     */
+    public PageResponse(
+        @Nonnull final URL url, int statusCode, @Nonnull final Map<String, List<String>> headers,
+        @Nonnull final InputStream body
+    ) {
+
+        this.url = url;
+        this.statusCode = statusCode;
+        this.headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.forEach((name, values) -> {
+            if (name != null) {
+                this.headers.put(name, values);
+            }
+        });
+        this.body = body;
+    }
+
+
+    @Nonnull
+    public URL getUrl() {
+        return url;
+    }
+
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+
+    /**
+     * Returns true if the status code is a 2xx success code.
+     *
+     * @return true if the status code is a 2xx success code.
+     */
+    public boolean isSuccessful() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+
+    /**
+     * Returns true if the status code is 304 Not Modified, the answer to a
+     * conditional request for a page which has not changed.
+     *
+     * @return true if the status code is 304.
+     */
+    public boolean isNotModified() {
+        return statusCode == 304;
+    }
+
+
+    @Nonnull
+    public Map<String, List<String>> getHeaders() {
+        return Collections.unmodifiableMap(headers);
+    }
+
+
+    /**
+     * Returns the first value of the named header.
+     *
+     * @param name the header name, in any case.
+     * @return the first value of the header, or empty if it is absent.
+     */
+    @Nonnull
+    public Optional<String> getHeader(@Nonnull final String name) {
+
+        final List<String> values = headers.get(name);
+        if (values == null || values.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(values.get(0));
+    }
+
+
+    @Nonnull
+    public InputStream getBody() {
+        return body;
+    }
+
+
+    @Override
+    public void close() throws IOException {
+
+        body.close();
+    }
+
+
+    @Override
+    @Nonnull
+    public String toString() {
+
+        return "PageResponse{"
+            + "url='" + url + '\''
+            + ", statusCode='" + statusCode + '\''
+            + "}";
+    }
+}
@@ -0,0 +1,164 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+
+
+/**
+ * One stage of a crawl pipeline: a bounded queue of items and a pool of threads
+ * of its own handling them.  Each thread takes the items waiting, up to a batch,
+ * and hands them to the handler together, so a stage doing cheap work per item
+ * pays for its queue once per batch.  A full queue blocks whoever puts to it,
+ * so a slow stage holds back the stages feeding it rather than letting work
+ * pile up, and the queue's occupancy shows which stage is the bottleneck.
+ *
+ * @param <T> the type of item.
+ */
+final class PipelineStage<T> {
+
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    private final String name;
+    private final int batchSize;
+    private final BatchHandler<T> handler;
+    private final BlockingQueue<T> queue;
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean closing;
+
+
+    /**
+     * Create and start the stage.
+     *
+     * @param name the stage name, e.g. "parse".
+     * @param threadCount the number of threads, at least one.
+     * @param queueCapacity the most items waiting, at least one.
+     * @param batchSize the most items handed to the handler at once, at least one.
+     * @param handler the handler.
+     */
+    PipelineStage(
+        @Nonnull final String name, int threadCount, int queueCapacity, int batchSize,
+        @Nonnull final BatchHandler<T> handler
+    ) {
+
+        this.name = name;
+        this.batchSize = batchSize;
+        this.handler = handler;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        for (int i = 0; i < threadCount; i++) {
+            final Thread thread = new Thread(this::drain, "web-crawler-" + name + "-" + (i + 1));
+            thread.setDaemon(true);
+            threads.add(thread);
+        }
+        threads.forEach(Thread::start);
+    }
+
+
+    @Nonnull
+    String getName() {
+        return name;
+    }
+
+
+    /**
+     * Put an item on the queue, waiting while it is full.
+     *
+     * @param item the item.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    void put(@Nonnull final T item) throws InterruptedException {
+
+        queue.put(item);
+    }
+
+
+    /**
+     * Returns the number of items waiting.
+     *
+     * @return the number of items waiting.
+     */
+    int getQueueDepth() {
+        return queue.size();
+    }
+
+
+    /**
+     * Handle the items still waiting, then stop the threads.  Must be called only
+     * once nothing more will be put.
+     *
+     * @throws InterruptedException if interrupted while waiting for the threads.
+     */
+    void close() throws InterruptedException {
+
+        closing = true;
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+
+    private void drain() {
+
+        final List<T> batch = new ArrayList<>(batchSize);
+        try {
+            while (true) {
+                final T item = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (item == null) {
+                    if (closing) {
+                        return;
+                    }
+                    continue;
+                }
+
+                batch.add(item);
+                queue.drainTo(batch, batchSize - 1);
+                try {
+                    handler.handle(batch);
+                }
+                catch (RuntimeException e) {
+                    System.err.println(String.format(
+                        "Error in crawl stage.  Stage: \"%s\", Error Message: \"%s\"", name, e.getMessage()
+                    ));
+                }
+                batch.clear();
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    @Override
+    @Nonnull
+    public String toString() {
+
+        return "PipelineStage{"
+            + "name='" + name + '\''
+            + ", threads='" + threads.size() + '\''
+            + ", batchSize='" + batchSize + '\''
+            + ", queueDepth='" + queue.size() + '\''
+            + "}";
+    }
+
+
+    /**
+     * Handles the items of a stage.
+     *
+     * @param <T> the type of item.
+     */
+    @FunctionalInterface
+    interface BatchHandler<T> {
+
+        /**
+         * Handle a batch of items.  Called from the stage's threads at once.
+         *
+         * @param batch the items, in the order they were put.
+         * @throws InterruptedException if interrupted while passing them on.
+         */
+        void handle(@Nonnull List<T> batch) throws InterruptedException;
+    }
+}
@@ -0,0 +1,197 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * Frontier queue which spaces out the requests made to each host.  Tasks are
+ * drawn from another queue into one queue per host, and a host's next task is
+ * only released once its token bucket allows another request.  The bucket rate
+ * is the configured per host rate, lowered to the site's robots.txt Crawl-delay
+ * once that is known.
+ *
+ * <p>Hosts waiting for a token are kept ordered by the time their next token is
+ * due, so a slow host never holds up the others: whichever host is ready first is
+ * served first.  Each host's own tasks are kept in the order of the underlying
+ * queue's {@link TaskScorer}, so a page found later still goes ahead of the
+ * host's other pages if it scores lower.  At most {@link #LOOKAHEAD} tasks are
+ * drawn from the underlying queue at a time, which keeps a disk-backed frontier
+ * mostly on disk; as the underlying queue's best task is drawn again on every
+ * poll, the order holds past the lookahead too.</p>
+ */
+public final class PolitenessScheduler implements FrontierQueue {
+
+    static final int LOOKAHEAD = 10000;
+
+    private final FrontierQueue delegate;
+    private final TaskScorer scorer;
+    private final double hostRequestsPerSecond;
+    private final RobotsCache robots;
+    private final Map<String, HostQueue> hosts = new HashMap<>();
+    private final PriorityQueue<HostQueue> ready = new PriorityQueue<>(
+        Comparator.comparingLong(host -> host.readyAt)
+    );
+    private int buffered;
+    private long sequence;
+
+
+    /**
+     * Create instance over a breadth first queue.
+     *
+     * @param delegate the queue tasks are drawn from, breadth first.
+     * @param hostRequestsPerSecond the most requests per second made to one host,
+     *     or zero for no limit other than the Crawl-delay.
+     * @param robots the cache the Crawl-delay of each site is read from, if any.
+     */
+    public PolitenessScheduler(
+        @Nonnull final FrontierQueue delegate, double hostRequestsPerSecond, @Nullable final RobotsCache robots
+    ) {
+
+        this(delegate, CrawlTask::getDepth, hostRequestsPerSecond, robots);
+    }
+
+
+    /**
+     * Create instance.
+     *
+     * @param delegate the queue tasks are drawn from.
+     * @param scorer the scorer ordering the delegate's tasks, by which each
+     *     host's tasks are kept in order too.
+     * @param hostRequestsPerSecond the most requests per second made to one host,
+     *     or zero for no limit other than the Crawl-delay.
+     * @param robots the cache the Crawl-delay of each site is read from, if any.
+     */
+    public PolitenessScheduler(
+        @Nonnull final FrontierQueue delegate, @Nonnull final TaskScorer scorer, double hostRequestsPerSecond,
+        @Nullable final RobotsCache robots
+    ) {
+
+        this.delegate = delegate;
+        this.scorer = scorer;
+        this.hostRequestsPerSecond = hostRequestsPerSecond;
+        this.robots = robots;
+    }
+
+
+    @Override
+    public void add(@Nonnull final CrawlTask task) {
+
+        delegate.add(task);
+    }
+
+
+    @Override
+    @Nullable
+    public synchronized CrawlTask poll() {
+
+        final long now = System.nanoTime();
+        fill(now);
+
+        HostQueue host;
+        while ((host = ready.peek()) != null && host.readyAt <= now) {
+            ready.poll();
+            updateRate(host, now);
+            if (host.bucket == null || host.bucket.tryAcquire(now)) {
+                final CrawlTask task = host.tasks.poll().task;
+                buffered--;
+                if (!host.tasks.isEmpty()) {
+                    schedule(host, now);
+                }
+
+                return task;
+            }
+
+            schedule(host, now);
+        }
+
+        return null;
+    }
+
+
+    @Override
+    public synchronized long size() {
+        return delegate.size() + buffered;
+    }
+
+
+    @Override
+    public void close() throws IOException {
+
+        delegate.close();
+    }
+
+
+    /**
+     * Draw tasks from the underlying queue into their host queues.
+     */
+    private void fill(long now) {
+
+        CrawlTask task;
+        while (buffered < LOOKAHEAD && (task = delegate.poll()) != null) {
+            final HostQueue host = hosts.computeIfAbsent(
+                task.getUrl().getHost().toLowerCase(Locale.ENGLISH), key -> new HostQueue()
+            );
+            host.tasks.add(new MemoryFrontierQueue.ScoredTask(task, scorer.score(task), sequence++));
+            buffered++;
+            if (host.tasks.size() == 1) {
+                schedule(host, now);
+            }
+        }
+    }
+
+
+    private void schedule(@Nonnull final HostQueue host, long now) {
+
+        updateRate(host, now);
+        host.readyAt = host.bucket == null ? now : now + host.bucket.nanosUntilAvailable(now);
+        ready.add(host);
+    }
+
+
+    /**
+     * Set a host's bucket to the configured rate, or to its Crawl-delay if that is
+     * slower.
+     */
+    private void updateRate(@Nonnull final HostQueue host, long now) {
+
+        final double crawlDelaySeconds = robots == null || host.tasks.isEmpty()
+            ? 0
+            : robots.getCrawlDelaySeconds(host.tasks.peek().task.getUrl());
+
+        double rate = hostRequestsPerSecond;
+        double capacity = Math.max(1, rate);
+        if (crawlDelaySeconds > 0) {
+            rate = rate > 0 ? Math.min(rate, 1 / crawlDelaySeconds) : 1 / crawlDelaySeconds;
+            capacity = 1;
+        }
+
+        if (rate <= 0) {
+            host.bucket = null;
+        }
+        else if (host.bucket == null) {
+            host.bucket = new TokenBucket(rate, capacity, now);
+        }
+        else if (host.bucket.getTokensPerSecond() != rate) {
+            host.bucket.setRate(rate, capacity);
+        }
+    }
+
+
+    /**
+     * The tasks waiting for one host, lowest score first, and the bucket limiting
+     * its request rate.
+     */
+    private static final class HostQueue {
+
+        private final PriorityQueue<MemoryFrontierQueue.ScoredTask> tasks = new PriorityQueue<>();
+        private TokenBucket bucket;
+        private long readyAt;
+    }
+}
@@ -0,0 +1,203 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.IDN;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import javax.annotation.Nonnull;
+
+
+/**
+ * The Mozilla Public Suffix List, held as a trie of domain labels from the
+ * rightmost, e.g. "uk" then "co".  It finds the registrable domain of a host,
+ * the public suffix plus one label, e.g. "example.co.uk" for
+ * "www.example.co.uk", which is what separates one site from another.
+ *
+ * <p>The list shipped in the "public_suffix_list.dat" resource is used by
+ * default.  Wildcard rules, e.g. "*.ck", and exception rules, e.g. "!www.ck",
+ * are supported.  Rules are stored in their ASCII (punycode) form.</p>
+ */
+public final class PublicSuffixList {
+
+    private static final String RESOURCE_FILENAME = "public_suffix_list.dat";
+    private static final String WILDCARD = "*";
+
+    private final Node root = new Node();
+
+
+    private PublicSuffixList() {
+    }
+
+
+    /**
+     * Returns the list shipped with the crawler, loaded on first use.
+     *
+     * @return the default list.
+     */
+    @Nonnull
+    public static PublicSuffixList getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+
+    /**
+     * Parse a list in the publicsuffix.org format: one rule per line, "//"
+     * comments.
+     *
+     * @param reader the list.
+     * @return the parsed list.
+     * @throws IOException on error reading the list.
+     */
+    @Nonnull
+    public static PublicSuffixList parse(@Nonnull final Reader reader) throws IOException {
+
+        final PublicSuffixList list = new PublicSuffixList();
+        final BufferedReader lines = new BufferedReader(reader);
+        String line;
+        while ((line = lines.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("//")) {
+                continue;
+            }
+
+            final int whitespace = line.indexOf(' ');
+            list.addRule(whitespace < 0 ? line : line.substring(0, whitespace));
+        }
+
+        return list;
+    }
+
+
+    /**
+     * Returns the registrable domain of a host: its public suffix plus one more
+     * label.  A host which is an IP address, has a single label or is itself a
+     * public suffix is returned as it is.
+     *
+     * @param host the host, e.g. "www.example.co.uk".
+     * @return the registrable domain in lower case, e.g. "example.co.uk".
+     */
+    @Nonnull
+    public String getRegistrableDomain(@Nonnull final String host) {
+
+        final String lowerHost = host.toLowerCase(Locale.ENGLISH);
+        if (lowerHost.indexOf('.') < 0 || lowerHost.indexOf(':') >= 0 || isIpv4Address(lowerHost)) {
+            return lowerHost;
+        }
+
+        final String[] labels = lowerHost.split("\\.");
+        int suffixLabels = 1;
+        Node node = root;
+        for (int i = 0; i < labels.length && node != null; i++) {
+            final Node child = node.children.get(labels[labels.length - 1 - i]);
+            if (child != null && child.exception) {
+                suffixLabels = i;
+                break;
+            }
+            if (child != null && child.rule || node.children.containsKey(WILDCARD)) {
+                suffixLabels = i + 1;
+            }
+            node = child;
+        }
+
+        if (labels.length <= suffixLabels) {
+            return lowerHost;
+        }
+
+        final StringBuilder domain = new StringBuilder(lowerHost.length());
+        for (int i = labels.length - suffixLabels - 1; i < labels.length; i++) {
+            if (domain.length() > 0) {
+                domain.append('.');
+            }
+            domain.append(labels[i]);
+        }
+
+        return domain.toString();
+    }
+
+
+    private void addRule(@Nonnull final String rule) {
+
+        final boolean exception = rule.startsWith("!");
+        final String ascii;
+        try {
+            ascii = IDN.toASCII(exception ? rule.substring(1) : rule, IDN.ALLOW_UNASSIGNED)
+                .toLowerCase(Locale.ENGLISH);
+        }
+        catch (IllegalArgumentException e) {
+            return;
+        }
+
+        final String[] labels = ascii.split("\\.");
+        Node node = root;
+        for (int i = labels.length - 1; i >= 0; i--) {
+            node = node.children.computeIfAbsent(labels[i], label -> new Node());
+        }
+
+        if (exception) {
+            node.exception = true;
+        }
+        else {
+            node.rule = true;
+        }
+    }
+
+
+    private static boolean isIpv4Address(@Nonnull final String host) {
+
+        for (int i = 0; i < host.length(); i++) {
+            final char c = host.charAt(i);
+            if (c != '.' && (c < '0' || c > '9')) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * One label of the trie.
+     */
+    private static final class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+        private boolean rule;
+        private boolean exception;
+    }
+
+
+    /**
+     * Loads the default list on first use.
+     */
+    private static final class DefaultHolder {
+
+        private static final PublicSuffixList INSTANCE = load();
+
+
+        @Nonnull
+        private static PublicSuffixList load() {
+
+            try (InputStream in = PublicSuffixList.class.getClassLoader().getResourceAsStream(RESOURCE_FILENAME)) {
+                if (in == null) {
+                    throw new IllegalStateException(String.format(
+                        "Public suffix list resource not found.  Resource: \"%s\"", RESOURCE_FILENAME
+                    ));
+                }
+
+                return parse(new InputStreamReader(in, StandardCharsets.UTF_8));
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(String.format(
+                    "Error reading public suffix list.  Resource: \"%s\"", RESOURCE_FILENAME
+                ), e);
+            }
+        }
+    }
+}
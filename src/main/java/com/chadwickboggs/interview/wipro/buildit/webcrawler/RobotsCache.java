@@ -0,0 +1,211 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Fetches the robots.txt of each site once and caches its rules for a time to
+ * live.  Concurrent requests for a site not yet cached wait on the one fetch in
+ * progress rather than fetching it again.
+ *
+ * <p>As RFC 9309 asks, a robots.txt which is missing, status 4xx, allows every
+ * page, and one which is unreachable, status 5xx or a network error, disallows
+ * every page.  The unreachable case is retried after a few minutes.</p>
+ */
+public final class RobotsCache {
+
+    public static final long DEFAULT_TIME_TO_LIVE_MILLIS = TimeUnit.HOURS.toMillis(24);
+
+    private static final long UNREACHABLE_TIME_TO_LIVE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final int MAX_ROBOTS_BYTES = 500 * 1024;
+
+    private final PageFetcher fetcher;
+    private final long timeToLiveMillis;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+
+    /**
+     * Create instance.
+     *
+     * @param fetcher the fetcher robots.txt files are read with.
+     * @param timeToLiveMillis how long rules are cached for.
+     */
+    public RobotsCache(@Nonnull final PageFetcher fetcher, long timeToLiveMillis) {
+
+        this.fetcher = fetcher;
+        this.timeToLiveMillis = timeToLiveMillis;
+    }
+
+
+    /**
+     * Returns true if the robots.txt of a page's site allows it to be crawled,
+     * fetching the robots.txt if it is not cached.
+     *
+     * @param url the page URL.
+     * @return true if the page may be crawled.
+     */
+    public boolean isAllowed(@Nonnull final URL url) {
+
+        final String file = url.getFile();
+
+        return getRules(url).isAllowed(file.isEmpty() ? "/" : file);
+    }
+
+
+    /**
+     * Returns the rules of a page's site, fetching its robots.txt if it is not
+     * cached.
+     *
+     * @param url a page URL.
+     * @return the rules.
+     */
+    @Nonnull
+    public RobotsRules getRules(@Nonnull final URL url) {
+
+        final String origin = origin(url);
+        final long now = System.currentTimeMillis();
+        final Entry current = entries.get(origin);
+        if (current != null && !current.isExpired(now)) {
+            return current.rules.join();
+        }
+
+        final Entry fresh = new Entry();
+        final Entry installed = entries.compute(
+            origin, (key, existing) -> existing != null && !existing.isExpired(now) ? existing : fresh
+        );
+        if (installed == fresh) {
+            fresh.complete(fetchRules(url), now, timeToLiveMillis);
+        }
+
+        return installed.rules.join();
+    }
+
+
+    /**
+     * Returns the Crawl-delay of a page's site if its robots.txt is cached, without
+     * fetching it.
+     *
+     * @param url a page URL.
+     * @return the Crawl-delay in seconds, or zero if there is none or it is not yet known.
+     */
+    public double getCrawlDelaySeconds(@Nonnull final URL url) {
+
+        final Entry entry = entries.get(origin(url));
+        if (entry == null || !entry.rules.isDone()) {
+            return 0;
+        }
+
+        return entry.rules.join().getCrawlDelaySeconds();
+    }
+
+
+    @Nonnull
+    private RulesResult fetchRules(@Nonnull final URL url) {
+
+        try {
+            final URL robotsUrl = new URL(url.getProtocol(), url.getHost(), url.getPort(), "/robots.txt");
+            try (PageResponse response = fetcher.fetch(robotsUrl)) {
+                if (response.isSuccessful()) {
+                    return new RulesResult(
+                        RobotsRules.parse(readText(response.getBody()), PageFetcher.USER_AGENT), false
+                    );
+                }
+
+                if (response.getStatusCode() >= 400 && response.getStatusCode() < 500) {
+                    return new RulesResult(RobotsRules.ALLOW_ALL, false);
+                }
+
+                System.err.println(String.format(
+                    "Unreachable robots.txt.  Disallowing site.  URL: \"%s\", Status Code: %d",
+                    robotsUrl, response.getStatusCode()
+                ));
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            System.err.println(String.format(
+                "Error reading robots.txt.  Disallowing site.  URL: \"%s\", Error Message: \"%s\"",
+                url, e.getMessage()
+            ));
+        }
+
+        return new RulesResult(RobotsRules.DISALLOW_ALL, true);
+    }
+
+
+    /**
+     * Read a robots.txt body, ignoring anything past the size crawlers are
+     * required to read.
+     */
+    @Nonnull
+    private static String readText(@Nonnull final InputStream body) throws IOException {
+
+        final ByteArrayOutputStream text = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        int count;
+        while (text.size() < MAX_ROBOTS_BYTES && (count = body.read(buffer)) != -1) {
+            text.write(buffer, 0, Math.min(count, MAX_ROBOTS_BYTES - text.size()));
+        }
+
+        return new String(text.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+
+    @Nonnull
+    private static String origin(@Nonnull final URL url) {
+
+        return url.getProtocol().toLowerCase(Locale.ENGLISH) + "://" + url.getHost().toLowerCase(Locale.ENGLISH)
+            + ":" + (url.getPort() == -1 ? url.getDefaultPort() : url.getPort());
+    }
+
+
+    /**
+     * The rules read for a site, and whether it was unreachable.
+     */
+    private static final class RulesResult {
+
+        private final RobotsRules rules;
+        private final boolean unreachable;
+
+
+        private RulesResult(@Nonnull final RobotsRules rules, boolean unreachable) {
+
+            this.rules = rules;
+            this.unreachable = unreachable;
+        }
+    }
+
+
+    /**
+     * The cached rules of one site.  The rules are completed by the one thread
+     * fetching them.
+     */
+    private static final class Entry {
+
+        private final CompletableFuture<RobotsRules> rules = new CompletableFuture<>();
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+
+        private void complete(@Nonnull final RulesResult result, long now, long timeToLiveMillis) {
+
+            expiresAt = now + (result.unreachable
+                ? Math.min(timeToLiveMillis, UNREACHABLE_TIME_TO_LIVE_MILLIS)
+                : timeToLiveMillis);
+            rules.complete(result.rules);
+        }
+
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
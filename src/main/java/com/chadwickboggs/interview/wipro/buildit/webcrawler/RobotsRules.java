@@ -0,0 +1,258 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import javax.annotation.Nonnull;
+
+
+/**
+ * The rules of a robots.txt file which apply to one crawler, per RFC 9309.  The
+ * group naming the crawler's product token is used if there is one, otherwise the
+ * "*" group.  The longest matching Allow or Disallow pattern decides whether a
+ * path may be crawled, Allow winning ties.  Patterns may use "*" to match any
+ * characters and a trailing "$" to anchor the end of the path.  The non-standard
+ * Crawl-delay is honored too.  Sitemap lines, which belong to no group, are
+ * collected for every crawler.
+ */
+public final class RobotsRules {
+
+    /**
+     * The rules of a site with no robots.txt.
+     */
+    public static final RobotsRules ALLOW_ALL = new RobotsRules(
+        Collections.emptyList(), 0, Collections.emptyList()
+    );
+
+    /**
+     * The rules of a site whose robots.txt could not be read.
+     */
+    public static final RobotsRules DISALLOW_ALL = new RobotsRules(
+        Collections.singletonList(new Rule("/", false)), 0, Collections.emptyList()
+    );
+
+    private static final String ROBOTS_PATH = "/robots.txt";
+
+    private final List<Rule> rules;
+    private final double crawlDelaySeconds;
+    private final List<String> sitemaps;
+
+
+    private RobotsRules(
+        @Nonnull final List<Rule> rules, double crawlDelaySeconds, @Nonnull final List<String> sitemaps
+    ) {
+
+        this.rules = rules;
+        this.crawlDelaySeconds = crawlDelaySeconds;
+        this.sitemaps = sitemaps;
+    }
+
+
+    /**
+     * Parse a robots.txt file.
+     *
+     * @param text the file content.
+     * @param userAgent the crawler's User-Agent, e.g. "WebCrawler/1.0".  Groups are
+     *     matched against its product token, "WebCrawler", ignoring case.
+     * @return the rules which apply to the crawler.
+     */
+    @Nonnull
+    public static RobotsRules parse(@Nonnull final String text, @Nonnull final String userAgent) {
+
+        final String productToken = productToken(userAgent);
+        final Group named = new Group();
+        final Group wildcard = new Group();
+        final List<String> sitemaps = new ArrayList<>();
+
+        boolean namedGroup = false;
+        boolean wildcardGroup = false;
+        boolean groupHasRules = true;
+        for (final String rawLine : text.split("\r\n|\r|\n")) {
+            final int comment = rawLine.indexOf('#');
+            final String line = comment < 0 ? rawLine : rawLine.substring(0, comment);
+            final int colon = line.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+
+            final String key = line.substring(0, colon).trim().toLowerCase(Locale.ENGLISH);
+            final String value = line.substring(colon + 1).trim();
+            if ("user-agent".equals(key)) {
+                if (groupHasRules) {
+                    namedGroup = false;
+                    wildcardGroup = false;
+                    groupHasRules = false;
+                }
+
+                final String agent = value.toLowerCase(Locale.ENGLISH);
+                namedGroup |= agent.equals(productToken);
+                wildcardGroup |= "*".equals(agent);
+                continue;
+            }
+
+            if ("sitemap".equals(key)) {
+                if (!value.isEmpty()) {
+                    sitemaps.add(value);
+                }
+                continue;
+            }
+
+            if (!"allow".equals(key) && !"disallow".equals(key) && !"crawl-delay".equals(key)) {
+                continue;
+            }
+
+            groupHasRules = true;
+            if (namedGroup) {
+                named.add(key, value);
+            }
+            if (wildcardGroup) {
+                wildcard.add(key, value);
+            }
+        }
+
+        final Group group = named.matched ? named : wildcard;
+
+        return new RobotsRules(group.rules, group.crawlDelaySeconds, Collections.unmodifiableList(sitemaps));
+    }
+
+
+    /**
+     * Returns true if a page may be crawled.
+     *
+     * @param path the path of the page URL, with its query if any.
+     * @return true if the page may be crawled.
+     */
+    public boolean isAllowed(@Nonnull final String path) {
+
+        final String target = path.isEmpty() ? "/" : path;
+        if (ROBOTS_PATH.equals(target)) {
+            return true;
+        }
+
+        Rule decidingRule = null;
+        for (final Rule rule : rules) {
+            if (rule.matches(target) && (decidingRule == null
+                || rule.pattern.length() > decidingRule.pattern.length()
+                || rule.pattern.length() == decidingRule.pattern.length() && rule.allow)) {
+
+                decidingRule = rule;
+            }
+        }
+
+        return decidingRule == null || decidingRule.allow;
+    }
+
+
+    /**
+     * Returns the Crawl-delay, the least number of seconds to wait between
+     * requests.
+     *
+     * @return the Crawl-delay in seconds, or zero if there is none.
+     */
+    public double getCrawlDelaySeconds() {
+        return crawlDelaySeconds;
+    }
+
+
+    /**
+     * Returns the URLs of the site's XML sitemaps, as written in its Sitemap lines.
+     *
+     * @return the sitemap URLs.
+     */
+    @Nonnull
+    public List<String> getSitemaps() {
+        return sitemaps;
+    }
+
+
+    @Nonnull
+    private static String productToken(@Nonnull final String userAgent) {
+
+        final int slash = userAgent.indexOf('/');
+
+        return (slash < 0 ? userAgent : userAgent.substring(0, slash)).trim().toLowerCase(Locale.ENGLISH);
+    }
+
+
+    /**
+     * The rules collected for one user agent, merged over every group naming it.
+     */
+    private static final class Group {
+
+        private final List<Rule> rules = new ArrayList<>();
+        private double crawlDelaySeconds;
+        private boolean matched;
+
+
+        private void add(@Nonnull final String key, @Nonnull final String value) {
+
+            matched = true;
+            if ("crawl-delay".equals(key)) {
+                try {
+                    crawlDelaySeconds = Math.max(0, Double.parseDouble(value));
+                }
+                catch (NumberFormatException e) {
+                    // Ignore a malformed Crawl-delay, as crawlers commonly do.
+                }
+            }
+            else if (!value.isEmpty()) {
+                rules.add(new Rule(value, "allow".equals(key)));
+            }
+        }
+    }
+
+
+    /**
+     * One Allow or Disallow line.
+     */
+    private static final class Rule {
+
+        private final String pattern;
+        private final boolean allow;
+
+
+        private Rule(@Nonnull final String pattern, boolean allow) {
+
+            this.pattern = pattern;
+            this.allow = allow;
+        }
+
+
+        private boolean matches(@Nonnull final String path) {
+            return matches(path, 0, 0);
+        }
+
+
+        private boolean matches(@Nonnull final String path, int pathIndex, int patternIndex) {
+
+            int p = patternIndex;
+            int i = pathIndex;
+            while (p < pattern.length()) {
+                final char c = pattern.charAt(p);
+                if (c == '$' && p == pattern.length() - 1) {
+                    return i == path.length();
+                }
+
+                if (c == '*') {
+                    for (int j = i; j <= path.length(); j++) {
+                        if (matches(path, j, p + 1)) {
+                            return true;
+                        }
+                    }
+
+                    return false;
+                }
+
+                if (i == path.length() || path.charAt(i) != c) {
+                    return false;
+                }
+
+                p++;
+                i++;
+            }
+
+            return true;
+        }
+    }
+}
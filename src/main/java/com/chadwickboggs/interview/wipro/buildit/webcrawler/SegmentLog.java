@@ -0,0 +1,266 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * An append-only log of byte records kept in fixed size, memory-mapped segment
+ * files named "&lt;name&gt;-&lt;index&gt;.seg".  Each record is an int length
+ * followed by its bytes.  A record never spans segments; when one does not fit
+ * the rest of the segment is skipped, marked by a length of -1.
+ *
+ * <p>A position in the log is the segment index times the segment size plus the
+ * offset in that segment, so positions only grow.  Appends, reads and the read
+ * cursor are synchronized; callers share one instance across threads.</p>
+ */
+final class SegmentLog implements Closeable {
+
+    static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private static final int END_OF_SEGMENT = -1;
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final String name;
+    private final int segmentSize;
+    private final Map<Integer, MappedByteBuffer> segments = new HashMap<>();
+    private long writePosition;
+    private long readPosition;
+
+
+    /**
+     * Open a log, appending after any records already in it up to the given
+     * position.
+     *
+     * @param directory the directory holding the segment files.
+     * @param name the log name, the prefix of its segment file names.
+     * @param segmentSize the size of each segment file in bytes.
+     * @param writePosition the position new records are appended at.
+     */
+    SegmentLog(@Nonnull final Path directory, @Nonnull final String name, int segmentSize, long writePosition) {
+
+        this.directory = directory;
+        this.name = name;
+        this.segmentSize = segmentSize;
+        this.writePosition = writePosition;
+    }
+
+
+    /**
+     * Append a record.
+     *
+     * @param record the record bytes.
+     * @return the position after the record.
+     */
+    synchronized long append(@Nonnull final byte[] record) {
+
+        if (Integer.BYTES + record.length > segmentSize) {
+            throw new IllegalArgumentException(String.format(
+                "Record is larger than a segment.  Log: \"%s\", Record Length: %d", name, record.length
+            ));
+        }
+
+        int offset = offset(writePosition);
+        if (offset + Integer.BYTES + record.length > segmentSize) {
+            if (offset + Integer.BYTES <= segmentSize) {
+                segment(segmentIndex(writePosition)).putInt(offset, END_OF_SEGMENT);
+            }
+            writePosition = (segmentIndex(writePosition) + 1L) * segmentSize;
+            offset = 0;
+        }
+
+        final MappedByteBuffer segment = segment(segmentIndex(writePosition));
+        segment.putInt(offset, record.length);
+        segment.position(offset + Integer.BYTES);
+        segment.put(record);
+        writePosition += Integer.BYTES + record.length;
+
+        return writePosition;
+    }
+
+
+    /**
+     * Returns the position the next record will be appended at.
+     *
+     * @return the write position.
+     */
+    synchronized long getWritePosition() {
+        return writePosition;
+    }
+
+
+    /**
+     * Read the records between two positions.
+     *
+     * @param from the position of the first record.
+     * @param to the position after the last record.
+     * @param handler the handler each record is passed to.
+     */
+    synchronized void read(long from, long to, @Nonnull final RecordHandler handler) {
+
+        long position = from;
+        while (position < to) {
+            final byte[] record = recordAt(position);
+            if (record == null) {
+                position = (segmentIndex(position) + 1L) * segmentSize;
+                continue;
+            }
+
+            handler.onRecord(record);
+            position += Integer.BYTES + record.length;
+        }
+    }
+
+
+    /**
+     * Read the next record after the read cursor, deleting each segment once the
+     * cursor has passed it.  Used to consume the log as a queue.
+     *
+     * @return the record, or null if the cursor has reached the write position.
+     */
+    @Nullable
+    synchronized byte[] poll() {
+
+        while (readPosition < writePosition) {
+            final byte[] record = recordAt(readPosition);
+            if (record != null) {
+                readPosition += Integer.BYTES + record.length;
+
+                return record;
+            }
+
+            final int passedSegment = segmentIndex(readPosition);
+            readPosition = (passedSegment + 1L) * segmentSize;
+            deleteSegment(passedSegment);
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Flush the segments to disk.
+     */
+    synchronized void force() {
+
+        segments.values().forEach(MappedByteBuffer::force);
+    }
+
+
+    /**
+     * Delete every segment and start the log again from position zero.
+     *
+     * @throws IOException on error deleting the segment files.
+     */
+    synchronized void reset() throws IOException {
+
+        segments.clear();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, name + "-*" + SEGMENT_SUFFIX)) {
+            for (final Path file : files) {
+                Files.delete(file);
+            }
+        }
+        writePosition = 0;
+        readPosition = 0;
+    }
+
+
+    @Override
+    public synchronized void close() {
+
+        force();
+        segments.clear();
+    }
+
+
+    @Nullable
+    private byte[] recordAt(long position) {
+
+        final int offset = offset(position);
+        if (offset + Integer.BYTES > segmentSize) {
+            return null;
+        }
+
+        final MappedByteBuffer segment = segment(segmentIndex(position));
+        final int length = segment.getInt(offset);
+        if (length == END_OF_SEGMENT) {
+            return null;
+        }
+
+        final byte[] record = new byte[length];
+        segment.position(offset + Integer.BYTES);
+        segment.get(record);
+
+        return record;
+    }
+
+
+    @Nonnull
+    private MappedByteBuffer segment(int index) {
+
+        return segments.computeIfAbsent(index, i -> {
+            try (FileChannel channel = FileChannel.open(
+                segmentFile(i), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE
+            )) {
+                return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(String.format(
+                    "Error mapping log segment.  File: \"%s\"", segmentFile(i)
+                ), e);
+            }
+        });
+    }
+
+
+    private void deleteSegment(int index) {
+
+        segments.remove(index);
+        try {
+            Files.deleteIfExists(segmentFile(index));
+        }
+        catch (IOException e) {
+            System.err.println(String.format(
+                "Error deleting log segment.  File: \"%s\", Error Message: \"%s\"",
+                segmentFile(index), e.getMessage()
+            ));
+        }
+    }
+
+
+    @Nonnull
+    private Path segmentFile(int index) {
+        return directory.resolve(String.format("%s-%05d%s", name, index, SEGMENT_SUFFIX));
+    }
+
+
+    private int segmentIndex(long position) {
+        return (int) (position / segmentSize);
+    }
+
+
+    private int offset(long position) {
+        return (int) (position % segmentSize);
+    }
+
+
+    /**
+     * Receives the records read from a log.
+     */
+    interface RecordHandler {
+
+        void onRecord(@Nonnull byte[] record);
+    }
+}
@@ -0,0 +1,93 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * The sitemap output formats selectable on the command line.
+ */
+public enum SitemapFormat {
+
+    TREE("tree", (output, siteUrl) -> new TreeSitemapSink(output.open())),
+    XML("xml", XmlSitemapSink::new),
+    JSONL("jsonl", (output, siteUrl) -> new JsonLinesSitemapSink(output.open())),
+    NONE("none", (output, siteUrl) -> new DiscardingSink());
+
+    private final String optionValue;
+    private final SinkFactory factory;
+
+
+    SitemapFormat(@Nonnull final String optionValue, @Nonnull final SinkFactory factory) {
+
+        this.optionValue = optionValue;
+        this.factory = factory;
+    }
+
+
+    @Nonnull
+    public String getOptionValue() {
+        return optionValue;
+    }
+
+
+    /**
+     * Create a sink writing this format.
+     *
+     * @param output the output written to.
+     * @param siteUrl the start page of the crawl.
+     * @return the new sink.
+     * @throws IOException on error opening the output.
+     */
+    @Nonnull
+    public SitemapSink create(@Nonnull final SitemapOutput output, @Nonnull final URL siteUrl) throws IOException {
+        return factory.create(output, siteUrl);
+    }
+
+
+    /**
+     * Find the format with the given command line option value.
+     *
+     * @param optionValue the option value, e.g. "xml".
+     * @return the format, or empty if there is none with that value.
+     */
+    @Nonnull
+    public static Optional<SitemapFormat> fromOptionValue(@Nullable final String optionValue) {
+
+        return Arrays.stream(values())
+            .filter(format -> format.optionValue.equalsIgnoreCase(String.valueOf(optionValue).trim()))
+            .findFirst();
+    }
+
+
+    /**
+     * Writes nothing, for crawls whose pages are consumed as {@link CrawlResult}s.
+     */
+    private static final class DiscardingSink implements SitemapSink {
+
+        @Override
+        public void write(@Nonnull final SitemapPage page) {
+        }
+
+
+        @Override
+        public void flush() {
+        }
+
+
+        @Override
+        public void close() {
+        }
+    }
+
+
+    private interface SinkFactory {
+
+        @Nonnull
+        SitemapSink create(@Nonnull SitemapOutput output, @Nonnull URL siteUrl) throws IOException;
+    }
+}
@@ -0,0 +1,154 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * Where a sitemap is written: a file, or the standard output stream, optionally
+ * gzip compressed as it is written.  Compressed file names are given a ".gz"
+ * suffix.  Formats which split their output into parts write each part to a file
+ * named after the output file, e.g. "sitemap-2.xml" next to "sitemap.xml".
+ */
+public final class SitemapOutput {
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+    private static final String GZIP_SUFFIX = ".gz";
+
+    private final Path path;
+    private final PrintStream printStream;
+    private final boolean gzip;
+
+
+    /**
+     * Construct instance.
+     *
+     * @param path the output file, or null to write to the print stream.
+     * @param printStream the stream written to when there is no output file.
+     * @param gzip true to gzip compress the output.
+     */
+    public SitemapOutput(@Nullable final Path path, @Nonnull final PrintStream printStream, boolean gzip) {
+
+        this.path = path == null || !gzip || path.getFileName().toString().endsWith(GZIP_SUFFIX)
+            ? path
+            : path.resolveSibling(path.getFileName() + GZIP_SUFFIX);
+        this.printStream = printStream;
+        this.gzip = gzip;
+    }
+
+
+    /**
+     * Returns the output file.
+     *
+     * @return the output file, or null if writing to the print stream.
+     */
+    @Nullable
+    public Path getPath() {
+        return path;
+    }
+
+
+    /**
+     * Returns the file of one part of a split output.
+     *
+     * @param part the part number, from one.
+     * @return the part file.
+     * @throws IllegalStateException if there is no output file.
+     */
+    @Nonnull
+    public Path getPartPath(int part) {
+
+        if (path == null) {
+            throw new IllegalStateException("Split output needs an output file.");
+        }
+
+        final String fileName = path.getFileName().toString();
+        final String compressedSuffix = gzip ? GZIP_SUFFIX : "";
+        final String uncompressedName = fileName.substring(0, fileName.length() - compressedSuffix.length());
+        final int dot = uncompressedName.lastIndexOf('.');
+        final String baseName = dot <= 0 ? uncompressedName : uncompressedName.substring(0, dot);
+        final String extension = dot <= 0 ? "" : uncompressedName.substring(dot);
+
+        return path.resolveSibling(baseName + "-" + part + extension + compressedSuffix);
+    }
+
+
+    /**
+     * Open the output for writing.
+     *
+     * @return a buffered writer, which must be closed.
+     * @throws IOException on error opening the output file.
+     */
+    @Nonnull
+    public Writer open() throws IOException {
+
+        if (path == null) {
+            return newWriter(new UnclosedOutputStream(printStream));
+        }
+
+        return open(path);
+    }
+
+
+    /**
+     * Open a file for writing, such as the file of a part.
+     *
+     * @param file the file.
+     * @return a buffered writer, which must be closed.
+     * @throws IOException on error opening the file.
+     */
+    @Nonnull
+    public Writer open(@Nonnull final Path file) throws IOException {
+
+        final Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        return newWriter(Files.newOutputStream(file));
+    }
+
+
+    @Nonnull
+    private Writer newWriter(@Nonnull final OutputStream out) throws IOException {
+
+        final OutputStream stream = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+
+        return new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+
+    /**
+     * Flushes rather than closes the stream it wraps, so the standard output
+     * stream stays open.
+     */
+    private static final class UnclosedOutputStream extends FilterOutputStream {
+
+        private UnclosedOutputStream(@Nonnull final OutputStream out) {
+            super(out);
+        }
+
+
+        @Override
+        public void write(@Nonnull final byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
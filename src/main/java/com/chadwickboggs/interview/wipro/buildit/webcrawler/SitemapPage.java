@@ -0,0 +1,97 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * One page listed in the sitemap: its URL, the depth at which the crawl reached
+ * it, and the same-site links found on it, in document order.  Pages which were
+ * not scanned, such as images or pages which failed to load, have no links.  A
+ * page found to be a copy of another is an alias of it, and has no links.
+ */
+public final class SitemapPage {
+
+    private final URL url;
+    private final int depth;
+    private final List<URL> links;
+    private final URL aliasOf;
+
+
+    /**
+     * Construct instance.
+     *
+     * @param url the page URL.
+     * @param depth the link depth from the start page.
+     * @param links the same-site links found on the page.
+     */
+    public SitemapPage(@Nonnull final URL url, int depth, @Nonnull final Collection<URL> links) {
+
+        this(url, depth, links, null);
+    }
+
+
+    /**
+     * Construct instance.
+     *
+     * @param url the page URL.
+     * @param depth the link depth from the start page.
+     * @param links the same-site links found on the page.
+     * @param aliasOf the page this one is a copy of, if any.
+     */
+    public SitemapPage(
+        @Nonnull final URL url, int depth, @Nonnull final Collection<URL> links, @Nullable final URL aliasOf
+    ) {
+
+        this.url = url;
+        this.depth = depth;
+        this.links = links.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(links));
+        this.aliasOf = aliasOf;
+    }
+
+
+    @Nonnull
+    public URL getUrl() {
+        return url;
+    }
+
+
+    public int getDepth() {
+        return depth;
+    }
+
+
+    @Nonnull
+    public List<URL> getLinks() {
+        return links;
+    }
+
+
+    /**
+     * Returns the page this one was found to be a copy of.
+     *
+     * @return the original page's URL, or null if this page is not an alias.
+     */
+    @Nullable
+    public URL getAliasOf() {
+        return aliasOf;
+    }
+
+
+    @Override
+    @Nonnull
+    public String toString() {
+
+        return "SitemapPage{"
+            + "url='" + url + '\''
+            + ", depth='" + depth + '\''
+            + ", links='" + links.size() + '\''
+            + ", aliasOf='" + aliasOf + '\''
+            + "}";
+    }
+}
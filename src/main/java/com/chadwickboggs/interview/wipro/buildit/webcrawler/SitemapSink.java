@@ -0,0 +1,31 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.Closeable;
+import java.io.IOException;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Writes the pages of a sitemap in one output format.  A sink is only ever
+ * called from the one {@link SitemapWriter} thread, so it need not be thread
+ * safe.  Closing it completes and closes its output.
+ */
+public interface SitemapSink extends Closeable {
+
+    /**
+     * Write one page.
+     *
+     * @param page the page.
+     * @throws IOException on error writing the output.
+     */
+    void write(@Nonnull SitemapPage page) throws IOException;
+
+
+    /**
+     * Flush what has been written, called once the writer has caught up with the
+     * crawl.
+     *
+     * @throws IOException on error writing the output.
+     */
+    void flush() throws IOException;
+}
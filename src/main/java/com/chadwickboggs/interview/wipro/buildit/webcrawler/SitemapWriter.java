@@ -0,0 +1,154 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Writes sitemap pages on a thread of its own, so crawl workers never wait on
+ * output.  Workers hand pages over through an unbounded queue; the writer thread
+ * drains it in batches into a {@link SitemapSink} and flushes only when it has
+ * caught up, so output is written in large blocks however fast pages arrive.
+ */
+public final class SitemapWriter implements Closeable {
+
+    private static final int BATCH_SIZE = 1024;
+    private static final SitemapPage END = endMarker();
+
+    private final SitemapSink sink;
+    private final BlockingQueue<SitemapPage> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private volatile IOException error;
+
+
+    /**
+     * Start the writer thread.
+     *
+     * @param sink the sink pages are written to.
+     */
+    public SitemapWriter(@Nonnull final SitemapSink sink) {
+
+        this.sink = sink;
+        this.thread = new Thread(this::drain, "web-crawler-sitemap-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+
+    /**
+     * Queue a page to be written.  Never blocks.
+     *
+     * @param page the page.
+     */
+    public void write(@Nonnull final SitemapPage page) {
+
+        queue.add(page);
+    }
+
+
+    /**
+     * Write the pages still queued, then close the sink.
+     *
+     * @throws IOException on error writing the sitemap.
+     */
+    @Override
+    public void close() throws IOException {
+
+        queue.add(END);
+        try {
+            thread.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new InterruptedIOException("Interrupted waiting for the sitemap to be written.");
+        }
+
+        try {
+            sink.close();
+        }
+        catch (IOException e) {
+            if (error == null) {
+                error = e;
+            }
+        }
+
+        if (error != null) {
+            throw error;
+        }
+    }
+
+
+    private void drain() {
+
+        final List<SitemapPage> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                for (final SitemapPage page : batch) {
+                    if (page == END) {
+                        return;
+                    }
+                    sink.write(page);
+                }
+                batch.clear();
+
+                if (queue.isEmpty()) {
+                    sink.flush();
+                }
+            }
+        }
+        catch (IOException e) {
+            error = e;
+            System.err.println(String.format(
+                "Error writing sitemap.  Error Message: \"%s\"", e.getMessage()
+            ));
+            drainAfterError();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * Returns the page queued to tell the writer thread to stop.
+     */
+    @Nonnull
+    private static SitemapPage endMarker() {
+
+        try {
+            return new SitemapPage(new URL("http://localhost/"), -1, Collections.emptyList());
+        }
+        catch (MalformedURLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+
+    /**
+     * Keep taking pages after a write error so workers are not left filling the
+     * queue, until the writer is closed.
+     */
+    private void drainAfterError() {
+
+        try {
+            while (queue.take() != END) {
+                // Discard.
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.PriorityQueue;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * Frontier queue which holds up to a threshold of tasks in memory and spills the
+ * rest to a {@link SegmentLog} on disk.  Spilled tasks are read back a batch at a
+ * time once memory drains, and their segments deleted as they are consumed, so
+ * neither heap nor disk grows without bound.  The tasks in memory are handed out
+ * in the order of a {@link TaskScorer}; spilled tasks come back in the order they
+ * were spilled, and are ordered again as each batch is read back.
+ */
+public final class SpillingFrontierQueue implements FrontierQueue {
+
+    private static final String SPILL_LOG_NAME = "spill";
+
+    private final int memoryThreshold;
+    private final TaskScorer scorer;
+    private final PriorityQueue<MemoryFrontierQueue.ScoredTask> memory = new PriorityQueue<>();
+    private final SegmentLog spill;
+    private long spilledCount;
+    private long sequence;
+
+
+    /**
+     * Construct a breadth first queue.
+     *
+     * @param spillDirectory the directory spilled tasks are written to.
+     * @param memoryThreshold the most tasks held in memory.
+     * @throws IOException on error clearing earlier spill files.
+     */
+    public SpillingFrontierQueue(@Nonnull final Path spillDirectory, int memoryThreshold) throws IOException {
+
+        this(spillDirectory, memoryThreshold, CrawlTask::getDepth);
+    }
+
+
+    /**
+     * Construct instance.
+     *
+     * @param spillDirectory the directory spilled tasks are written to.
+     * @param memoryThreshold the most tasks held in memory.
+     * @param scorer the scorer ordering the tasks in memory.
+     * @throws IOException on error clearing earlier spill files.
+     */
+    public SpillingFrontierQueue(
+        @Nonnull final Path spillDirectory, int memoryThreshold, @Nonnull final TaskScorer scorer
+    ) throws IOException {
+
+        if (memoryThreshold < 1) {
+            throw new IllegalArgumentException(String.format(
+                "Frontier memory threshold must be at least one.  Threshold: %d", memoryThreshold
+            ));
+        }
+
+        this.memoryThreshold = memoryThreshold;
+        this.scorer = scorer;
+        this.spill = new SegmentLog(spillDirectory, SPILL_LOG_NAME, SegmentLog.DEFAULT_SEGMENT_SIZE, 0);
+        this.spill.reset();
+    }
+
+
+    @Override
+    public synchronized void add(@Nonnull final CrawlTask task) {
+
+        if (spilledCount == 0 && memory.size() < memoryThreshold) {
+            addToMemory(task);
+
+            return;
+        }
+
+        spill.append(CrawlJournal.encode(task));
+        spilledCount++;
+    }
+
+
+    @Override
+    @Nullable
+    public synchronized CrawlTask poll() {
+
+        if (memory.isEmpty() && spilledCount > 0) {
+            byte[] record;
+            while (memory.size() < memoryThreshold && (record = spill.poll()) != null) {
+                addToMemory(CrawlJournal.decode(record));
+                spilledCount--;
+            }
+        }
+
+        final MemoryFrontierQueue.ScoredTask task = memory.poll();
+
+        return task == null ? null : task.task;
+    }
+
+
+    private void addToMemory(@Nonnull final CrawlTask task) {
+        memory.add(new MemoryFrontierQueue.ScoredTask(task, scorer.score(task), sequence++));
+    }
+
+
+    @Override
+    public synchronized long size() {
+        return memory.size() + spilledCount;
+    }
+
+
+    /**
+     * Returns the number of tasks currently spilled to disk.
+     *
+     * @return the number of spilled tasks.
+     */
+    public synchronized long getSpilledCount() {
+        return spilledCount;
+    }
+
+
+    @Override
+    public synchronized void close() throws IOException {
+
+        spill.close();
+        spill.reset();
+    }
+}
@@ -0,0 +1,22 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import javax.annotation.Nonnull;
+
+
+/**
+ * Decides the order pages are crawled in.  The frontier hands out the task with
+ * the lowest score first, tasks with equal scores in the order they were
+ * offered.  A task is scored once, when it is offered, so its score must not
+ * change while it waits.
+ */
+@FunctionalInterface
+public interface TaskScorer {
+
+    /**
+     * Score a task.
+     *
+     * @param task the task.
+     * @return its score, lower first.
+     */
+    long score(@Nonnull CrawlTask task);
+}
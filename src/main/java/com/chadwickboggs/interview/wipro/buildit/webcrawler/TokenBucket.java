@@ -0,0 +1,96 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Token bucket rate limiter on {@link System#nanoTime()} time.  Tokens accrue at a
+ * fixed rate up to a capacity, which bounds the burst allowed after a quiet
+ * period.  Not thread safe; callers synchronize.
+ */
+final class TokenBucket {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private double tokensPerSecond;
+    private double tokensPerNano;
+    private double capacity;
+    private double tokens;
+    private long refilledAt;
+
+
+    /**
+     * Create a full bucket.
+     *
+     * @param tokensPerSecond the rate tokens accrue at.
+     * @param capacity the most tokens held.
+     * @param now the current time.
+     */
+    TokenBucket(double tokensPerSecond, double capacity, long now) {
+
+        setRate(tokensPerSecond, capacity);
+        this.tokens = capacity;
+        this.refilledAt = now;
+    }
+
+
+    /**
+     * Change the rate and capacity, keeping the tokens already accrued up to the
+     * new capacity.
+     *
+     * @param tokensPerSecond the rate tokens accrue at.
+     * @param capacity the most tokens held, at least one.
+     */
+    void setRate(double tokensPerSecond, double capacity) {
+
+        this.tokensPerSecond = tokensPerSecond;
+        this.tokensPerNano = tokensPerSecond / NANOS_PER_SECOND;
+        this.capacity = capacity;
+        this.tokens = Math.min(tokens, capacity);
+    }
+
+
+    double getTokensPerSecond() {
+        return tokensPerSecond;
+    }
+
+
+    /**
+     * Take a token if one is available.
+     *
+     * @param now the current time.
+     * @return true if a token was taken.
+     */
+    boolean tryAcquire(long now) {
+
+        refill(now);
+        if (tokens < 1) {
+            return false;
+        }
+
+        tokens--;
+
+        return true;
+    }
+
+
+    /**
+     * Returns how long until a token is available.
+     *
+     * @param now the current time.
+     * @return the nanoseconds to wait, zero if a token is available now.
+     */
+    long nanosUntilAvailable(long now) {
+
+        refill(now);
+
+        return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+
+    private void refill(long now) {
+
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+    }
+}
@@ -0,0 +1,184 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Comparator;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Writes the sitemap as a tree, one page per line indented by one tab per level.
+ * Pages arrive in whatever order concurrent workers finish them, so the tree is
+ * only built once the crawl is done: each page is placed under the first page
+ * linking to it in a breadth-first walk of the links from the start page, with
+ * siblings in the order they are linked.  The same site therefore always gives
+ * the same tree.  Pages the walk does not reach, e.g. seed pages other than
+ * the start page, follow by depth then URL, at the depth they were found.
+ * A page found to be a copy of another is followed by the page it is an alias
+ * of, e.g. {@code http://example.com/?print=1 (alias of http://example.com/)}.
+ * Pages are held until then in a {@link LinkGraph}, a few bytes per link.
+ */
+final class TreeSitemapSink implements SitemapSink {
+
+    private final Writer writer;
+    private final LinkGraph graph = new LinkGraph();
+
+
+    /**
+     * Construct instance.
+     *
+     * @param writer the writer the tree is written to when the sink is closed.
+     */
+    TreeSitemapSink(@Nonnull final Writer writer) {
+
+        this.writer = writer;
+    }
+
+
+    /**
+     * Returns the graph of the pages written, frozen once the sink is closed.
+     *
+     * @return the link graph.
+     */
+    @Nonnull
+    LinkGraph getGraph() {
+        return graph;
+    }
+
+
+    @Override
+    public void write(@Nonnull final SitemapPage page) {
+
+        graph.add(page);
+    }
+
+
+    @Override
+    public void flush() {
+        // The tree is written on close.
+    }
+
+
+    @Override
+    public void close() throws IOException {
+
+        try {
+            graph.freeze();
+            final int[] parents = new int[graph.getIdCount()];
+            Arrays.fill(parents, LinkGraph.NONE);
+            int root = LinkGraph.NONE;
+            for (int i = 0; i < graph.getPageCount() && root == LinkGraph.NONE; i++) {
+                if (graph.getDepth(graph.getPage(i)) == 0) {
+                    root = graph.getPage(i);
+                }
+            }
+            if (root != LinkGraph.NONE) {
+                placeChildren(root, parents);
+                writeTree(root, parents);
+            }
+
+            for (final int page : unreached(parents)) {
+                writeLine(page, graph.getDepth(page));
+            }
+        }
+        finally {
+            writer.close();
+        }
+    }
+
+
+    /**
+     * Place every page reachable from the root under its parent, breadth first,
+     * the root being its own parent.
+     */
+    private void placeChildren(int root, @Nonnull final int[] parents) {
+
+        final int[] queue = new int[graph.getPageCount()];
+        int head = 0;
+        int tail = 0;
+        parents[root] = root;
+        queue[tail++] = root;
+        while (head < tail) {
+            final int parent = queue[head++];
+            for (int i = graph.getLinkStart(parent); i < graph.getLinkEnd(parent); i++) {
+                final int child = graph.getLinkTarget(i);
+                if (graph.isPage(child) && parents[child] == LinkGraph.NONE) {
+                    parents[child] = parent;
+                    queue[tail++] = child;
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Returns the pages the walk from the root did not reach, by depth then
+     * URL, as they would otherwise follow the order the pages arrived in.
+     */
+    @Nonnull
+    private Integer[] unreached(@Nonnull final int[] parents) {
+
+        final Integer[] pages = new Integer[graph.getPageCount()];
+        int count = 0;
+        for (int i = 0; i < graph.getPageCount(); i++) {
+            final int page = graph.getPage(i);
+            if (parents[page] == LinkGraph.NONE) {
+                pages[count++] = page;
+            }
+        }
+        final Integer[] unreached = Arrays.copyOf(pages, count);
+        Arrays.sort(unreached, Comparator.comparingInt(graph::getDepth).thenComparing(graph::getUrl));
+
+        return unreached;
+    }
+
+
+    /**
+     * Write the tree depth first, without recursion, so deep sites do not
+     * overflow the stack.  Children are pushed in reverse link order, so they
+     * are written in link order; a child linked twice is written at its first
+     * link.
+     */
+    private void writeTree(int root, @Nonnull final int[] parents) throws IOException {
+
+        final boolean[] written = new boolean[parents.length];
+        final IntArray stack = new IntArray(LinkGraph.NONE);
+        final IntArray depths = new IntArray(0);
+        stack.add(root);
+        depths.add(0);
+        while (stack.size() > 0) {
+            final int page = stack.removeLast();
+            final int depth = depths.removeLast();
+            if (written[page]) {
+                continue;
+            }
+
+            written[page] = true;
+            writeLine(page, depth);
+            for (int i = graph.getLinkEnd(page) - 1; i >= graph.getLinkStart(page); i--) {
+                final int child = graph.getLinkTarget(i);
+                if (parents[child] == page && !written[child]) {
+                    stack.add(child);
+                    depths.add(depth + 1);
+                }
+            }
+        }
+    }
+
+
+    private void writeLine(int page, int depth) throws IOException {
+
+        for (int i = 0; i < depth; i++) {
+            writer.write('\t');
+        }
+        writer.write(graph.getUrl(page));
+        final int aliasOf = graph.getAliasOf(page);
+        if (aliasOf != LinkGraph.NONE && graph.isPage(aliasOf)) {
+            writer.write(" (alias of ");
+            writer.write(graph.getUrl(aliasOf));
+            writer.write(')');
+        }
+        writer.write(System.lineSeparator());
+    }
+}
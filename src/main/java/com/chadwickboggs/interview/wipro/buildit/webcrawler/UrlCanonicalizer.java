@@ -0,0 +1,555 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.net.IDN;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * Resolves links against the page they are found on, by RFC 3986 section 5.2,
+ * and puts them in a canonical form so each page is known by a single URL:
+ * lower case scheme and host, no default port, a "/" path when the path is
+ * empty, no "." or ".." path segments, upper case percent-encoding with
+ * unreserved characters decoded, no fragment, and query parameters sorted by
+ * name.  Query parameters matching a strip rule, such as "utm_*" tracking
+ * parameters, are removed.
+ *
+ * <p>A strip rule is a parameter name, or a prefix followed by "*".  Names are
+ * matched ignoring case.</p>
+ */
+public final class UrlCanonicalizer {
+
+    /**
+     * Canonicalizes without stripping any query parameters.
+     */
+    public static final UrlCanonicalizer DEFAULT = new UrlCanonicalizer(Collections.emptyList());
+
+    private static final String HEX_DIGITS = "0123456789ABCDEF";
+    private static final boolean[] ENCODED = new boolean[0x80];
+    private static final Comparator<String> PARAMETER_ORDER = UrlCanonicalizer::compareParameters;
+
+    static {
+        for (char c = 0; c <= ' '; c++) {
+            ENCODED[c] = true;
+        }
+        for (final char c : "\"<>\\^`{|}\u007f".toCharArray()) {
+            ENCODED[c] = true;
+        }
+    }
+
+    private final String[] stripNames;
+    private final String[] stripPrefixes;
+
+
+    /**
+     * Create instance.
+     *
+     * @param stripParameters the rules of query parameters to remove.
+     */
+    public UrlCanonicalizer(@Nonnull final Collection<String> stripParameters) {
+
+        final List<String> names = new ArrayList<>();
+        final List<String> prefixes = new ArrayList<>();
+        for (final String rule : stripParameters) {
+            final String trimmed = rule.trim().toLowerCase(Locale.ENGLISH);
+            if (trimmed.endsWith("*")) {
+                prefixes.add(trimmed.substring(0, trimmed.length() - 1));
+            }
+            else if (!trimmed.isEmpty()) {
+                names.add(trimmed);
+            }
+        }
+
+        this.stripNames = names.toArray(new String[0]);
+        this.stripPrefixes = prefixes.toArray(new String[0]);
+    }
+
+
+    /**
+     * Returns the canonical form of a URL.
+     *
+     * @param url the URL.
+     * @return the canonical URL.
+     * @throws MalformedURLException if the canonical form is not a valid URL.
+     */
+    @Nonnull
+    public URL canonicalize(@Nonnull final URL url) throws MalformedURLException {
+        return resolve(null, url.toString());
+    }
+
+
+    /**
+     * Resolves a link against a base URL and returns its canonical form.
+     *
+     * @param base the URL the link is relative to, or null if it is absolute.
+     * @param link the link, e.g. "../a.html?x=1#top".
+     * @return the canonical URL.
+     * @throws MalformedURLException if the link is relative with no base, or does
+     *     not resolve to a valid URL.
+     */
+    @Nonnull
+    public URL resolve(@Nullable final URL base, @Nonnull final String link) throws MalformedURLException {
+
+        final Reference reference = Reference.parse(link.trim());
+        final String scheme;
+        final String authority;
+        final String path;
+        final String query;
+        if (reference.scheme != null) {
+            scheme = reference.scheme;
+            authority = reference.authority;
+            path = removeDotSegments(reference.path);
+            query = reference.query;
+        }
+        else if (base == null) {
+            throw new MalformedURLException(String.format(
+                "Relative link without a base URL.  Link: \"%s\"", link
+            ));
+        }
+        else if (reference.authority != null) {
+            scheme = base.getProtocol();
+            authority = reference.authority;
+            path = removeDotSegments(reference.path);
+            query = reference.query;
+        }
+        else {
+            scheme = base.getProtocol();
+            authority = base.getAuthority();
+            if (reference.path.isEmpty()) {
+                path = base.getPath();
+                query = reference.query != null ? reference.query : base.getQuery();
+            }
+            else {
+                path = removeDotSegments(reference.path.startsWith("/")
+                    ? reference.path
+                    : merge(base, reference.path));
+                query = reference.query;
+            }
+        }
+
+        return new URL(format(scheme.toLowerCase(Locale.ENGLISH), authority, path, query));
+    }
+
+
+    @Nonnull
+    private String format(
+        @Nonnull final String scheme, @Nullable final String authority, @Nonnull final String path,
+        @Nullable final String query
+    ) {
+
+        final StringBuilder buf = new StringBuilder(
+            scheme.length() + path.length() + (authority == null ? 0 : authority.length())
+                + (query == null ? 0 : query.length()) + 8
+        );
+        buf.append(scheme).append(':');
+        if (authority != null) {
+            buf.append("//");
+            appendAuthority(buf, scheme, authority);
+        }
+        if (path.isEmpty() && authority != null) {
+            buf.append('/');
+        }
+        else {
+            appendEncoded(buf, path);
+        }
+        if (query != null) {
+            appendQuery(buf, query);
+        }
+
+        return buf.toString();
+    }
+
+
+    private static void appendAuthority(
+        @Nonnull final StringBuilder buf, @Nonnull final String scheme, @Nonnull final String authority
+    ) {
+
+        final int at = authority.lastIndexOf('@');
+        if (at >= 0) {
+            appendEncoded(buf, authority.substring(0, at));
+            buf.append('@');
+        }
+
+        final String hostAndPort = authority.substring(at + 1);
+        final int bracket = hostAndPort.lastIndexOf(']');
+        final int colon = hostAndPort.lastIndexOf(':');
+        final boolean hasPort = colon > bracket;
+        String host = (hasPort ? hostAndPort.substring(0, colon) : hostAndPort).toLowerCase(Locale.ENGLISH);
+        if (!isAscii(host)) {
+            try {
+                host = IDN.toASCII(host, IDN.ALLOW_UNASSIGNED);
+            }
+            catch (IllegalArgumentException e) {
+                // Left as it is; URL parsing rejects it if it is not a valid host.
+            }
+        }
+        buf.append(host);
+
+        final String port = hasPort ? hostAndPort.substring(colon + 1) : "";
+        if (!port.isEmpty() && !port.equals(defaultPort(scheme))) {
+            buf.append(':').append(port);
+        }
+    }
+
+
+    private void appendQuery(@Nonnull final StringBuilder buf, @Nonnull final String query) {
+
+        final List<String> parameters = new ArrayList<>(4);
+        boolean sorted = true;
+        int start = 0;
+        while (start <= query.length()) {
+            int end = query.indexOf('&', start);
+            if (end < 0) {
+                end = query.length();
+            }
+            if (end > start && !isStripped(query, start, end)) {
+                final String parameter = query.substring(start, end);
+                if (sorted && !parameters.isEmpty()
+                    && PARAMETER_ORDER.compare(parameters.get(parameters.size() - 1), parameter) > 0) {
+
+                    sorted = false;
+                }
+                parameters.add(parameter);
+            }
+            start = end + 1;
+        }
+
+        if (parameters.isEmpty()) {
+            return;
+        }
+
+        if (!sorted) {
+            parameters.sort(PARAMETER_ORDER);
+        }
+        buf.append('?');
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) {
+                buf.append('&');
+            }
+            appendEncoded(buf, parameters.get(i));
+        }
+    }
+
+
+    /**
+     * Returns true if the query parameter between two indexes matches a strip rule.
+     */
+    private boolean isStripped(@Nonnull final String query, int start, int end) {
+
+        int nameEnd = query.indexOf('=', start);
+        if (nameEnd < 0 || nameEnd > end) {
+            nameEnd = end;
+        }
+
+        final int nameLength = nameEnd - start;
+        for (final String stripName : stripNames) {
+            if (stripName.length() == nameLength && query.regionMatches(true, start, stripName, 0, nameLength)) {
+                return true;
+            }
+        }
+        for (final String stripPrefix : stripPrefixes) {
+            if (stripPrefix.length() <= nameLength
+                && query.regionMatches(true, start, stripPrefix, 0, stripPrefix.length())) {
+
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Orders query parameters by name, without splitting them.  The sort is
+     * stable, so parameters of the same name keep their order.
+     */
+    private static int compareParameters(@Nonnull final String a, @Nonnull final String b) {
+
+        final int length = Math.min(a.length(), b.length());
+        for (int i = 0; i < length; i++) {
+            final char ca = a.charAt(i);
+            final char cb = b.charAt(i);
+            if (ca == '=' || cb == '=') {
+                return ca == cb ? 0 : ca == '=' ? -1 : 1;
+            }
+            if (ca != cb) {
+                return ca - cb;
+            }
+        }
+
+        final boolean aEnded = a.length() == length || a.charAt(length) == '=';
+        final boolean bEnded = b.length() == length || b.charAt(length) == '=';
+
+        return aEnded == bEnded ? 0 : aEnded ? -1 : 1;
+    }
+
+
+    /**
+     * Merge a relative path with the path of its base, by RFC 3986 section 5.2.3.
+     */
+    @Nonnull
+    private static String merge(@Nonnull final URL base, @Nonnull final String path) {
+
+        final String basePath = base.getPath();
+        if (base.getAuthority() != null && basePath.isEmpty()) {
+            return "/" + path;
+        }
+
+        return basePath.substring(0, basePath.lastIndexOf('/') + 1) + path;
+    }
+
+
+    /**
+     * Remove the "." and ".." segments of a path, by RFC 3986 section 5.2.4.
+     *
+     * @param path the path.
+     * @return the path without dot segments.
+     */
+    @Nonnull
+    static String removeDotSegments(@Nonnull final String path) {
+
+        if (!hasDotSegment(path)) {
+            return path;
+        }
+
+        final StringBuilder input = new StringBuilder(path);
+        final StringBuilder output = new StringBuilder(path.length());
+        while (input.length() > 0) {
+            if (startsWith(input, "../")) {
+                input.delete(0, 3);
+            }
+            else if (startsWith(input, "./")) {
+                input.delete(0, 2);
+            }
+            else if (startsWith(input, "/./")) {
+                input.delete(0, 2);
+            }
+            else if (equals(input, "/.")) {
+                input.setLength(1);
+            }
+            else if (startsWith(input, "/../")) {
+                input.delete(0, 3);
+                removeLastSegment(output);
+            }
+            else if (equals(input, "/..")) {
+                input.setLength(1);
+                removeLastSegment(output);
+            }
+            else if (equals(input, ".") || equals(input, "..")) {
+                input.setLength(0);
+            }
+            else {
+                int end = input.indexOf("/", 1);
+                if (end < 0) {
+                    end = input.length();
+                }
+                output.append(input, 0, end);
+                input.delete(0, end);
+            }
+        }
+
+        return output.toString();
+    }
+
+
+    /**
+     * Returns true if a path has a "." or ".." segment, which few do.
+     */
+    private static boolean hasDotSegment(@Nonnull final String path) {
+
+        int dot = path.indexOf('.');
+        while (dot >= 0) {
+            if (dot == 0 || path.charAt(dot - 1) == '/') {
+                final int end = dot + 1 < path.length() && path.charAt(dot + 1) == '.' ? dot + 2 : dot + 1;
+                if (end == path.length() || path.charAt(end) == '/') {
+                    return true;
+                }
+            }
+            dot = path.indexOf('.', dot + 1);
+        }
+
+        return false;
+    }
+
+
+    private static boolean startsWith(@Nonnull final StringBuilder buf, @Nonnull final String prefix) {
+        return buf.length() >= prefix.length() && buf.indexOf(prefix) == 0;
+    }
+
+
+    private static boolean equals(@Nonnull final StringBuilder buf, @Nonnull final String value) {
+        return buf.length() == value.length() && buf.indexOf(value) == 0;
+    }
+
+
+    private static void removeLastSegment(@Nonnull final StringBuilder output) {
+        output.setLength(Math.max(0, output.lastIndexOf("/")));
+    }
+
+
+    /**
+     * Append a path or query, normalizing its percent-encoding: escapes of
+     * unreserved characters are decoded, other escapes made upper case, and ASCII
+     * characters not allowed in a URL, such as spaces, encoded.  Other characters
+     * are left as they are, as {@link URL} accepts them.
+     */
+    private static void appendEncoded(@Nonnull final StringBuilder buf, @Nonnull final String value) {
+
+        int first = 0;
+        while (first < value.length() && !needsNormalizing(value.charAt(first))) {
+            first++;
+        }
+        if (first == value.length()) {
+            buf.append(value);
+
+            return;
+        }
+
+        buf.append(value, 0, first);
+        for (int i = first; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '%') {
+                final int high = i + 2 < value.length() ? Character.digit(value.charAt(i + 1), 16) : -1;
+                final int low = high >= 0 ? Character.digit(value.charAt(i + 2), 16) : -1;
+                if (low < 0) {
+                    buf.append("%25");
+                }
+                else {
+                    final char decoded = (char) (high << 4 | low);
+                    if (isUnreserved(decoded)) {
+                        buf.append(decoded);
+                    }
+                    else {
+                        buf.append('%').append(HEX_DIGITS.charAt(high)).append(HEX_DIGITS.charAt(low));
+                    }
+                    i += 2;
+                }
+            }
+            else if (c < ENCODED.length && ENCODED[c]) {
+                buf.append('%').append(HEX_DIGITS.charAt(c >> 4)).append(HEX_DIGITS.charAt(c & 0xf));
+            }
+            else {
+                buf.append(c);
+            }
+        }
+    }
+
+
+    private static boolean needsNormalizing(char c) {
+        return c == '%' || c < ENCODED.length && ENCODED[c];
+    }
+
+
+    private static boolean isUnreserved(char c) {
+
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9'
+            || c == '-' || c == '.' || c == '_' || c == '~';
+    }
+
+
+    private static boolean isAscii(@Nonnull final String value) {
+
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    @Nullable
+    private static String defaultPort(@Nonnull final String scheme) {
+
+        switch (scheme) {
+            case "http":
+                return "80";
+            case "https":
+                return "443";
+            default:
+                return null;
+        }
+    }
+
+
+    /**
+     * The components of a URI reference, by RFC 3986 appendix B.  The fragment
+     * is dropped.
+     */
+    private static final class Reference {
+
+        private String scheme;
+        private String authority;
+        private String path;
+        private String query;
+
+
+        @Nonnull
+        private static Reference parse(@Nonnull final String link) {
+
+            final Reference reference = new Reference();
+            int end = link.indexOf('#');
+            if (end < 0) {
+                end = link.length();
+            }
+
+            int start = 0;
+            final int colon = schemeEnd(link, end);
+            if (colon > 0) {
+                reference.scheme = link.substring(0, colon);
+                start = colon + 1;
+            }
+
+            if (link.startsWith("//", start)) {
+                int authorityEnd = start + 2;
+                while (authorityEnd < end && "/?".indexOf(link.charAt(authorityEnd)) < 0) {
+                    authorityEnd++;
+                }
+                reference.authority = link.substring(start + 2, authorityEnd);
+                start = authorityEnd;
+            }
+
+            final int question = link.indexOf('?', start);
+            if (question >= 0 && question < end) {
+                reference.path = link.substring(start, question);
+                reference.query = link.substring(question + 1, end);
+            }
+            else {
+                reference.path = link.substring(start, end);
+            }
+
+            return reference;
+        }
+
+
+        /**
+         * Returns the index of the colon ending the scheme, or -1 if the
+         * reference has no scheme.
+         */
+        private static int schemeEnd(@Nonnull final String link, int end) {
+
+            for (int i = 0; i < end; i++) {
+                final char c = link.charAt(i);
+                if (c == ':') {
+                    return i;
+                }
+
+                final boolean letter = c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+                if (!letter && (i == 0 || !(c >= '0' && c <= '9' || c == '+' || c == '-' || c == '.'))) {
+                    return -1;
+                }
+            }
+
+            return -1;
+        }
+    }
+}
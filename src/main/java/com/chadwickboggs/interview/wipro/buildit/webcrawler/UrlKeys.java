@@ -0,0 +1,105 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.net.URL;
+import java.util.Locale;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Builds the keys pages are deduplicated by.  Unlike {@link URL#equals(Object)}
+ * and {@link URL#hashCode()}, which resolve host names, keys are computed from
+ * the URL text alone and never do network I/O.
+ */
+public final class UrlKeys {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+
+    private UrlKeys() {
+    }
+
+
+    /**
+     * Returns the canonical text form of a URL: lower case scheme and host, no
+     * default port, a "/" path when the path is empty, and no fragment.
+     *
+     * @param url the URL.
+     * @return the canonical key.
+     */
+    @Nonnull
+    public static String canonicalKey(@Nonnull final URL url) {
+
+        final String protocol = url.getProtocol().toLowerCase(Locale.ENGLISH);
+        final String host = url.getHost().toLowerCase(Locale.ENGLISH);
+        final String path = url.getPath();
+        final String query = url.getQuery();
+
+        final StringBuilder buf = new StringBuilder(
+            protocol.length() + host.length() + path.length() + (query == null ? 0 : query.length()) + 16
+        );
+        buf.append(protocol).append("://");
+        if (url.getUserInfo() != null) {
+            buf.append(url.getUserInfo()).append('@');
+        }
+        buf.append(host);
+        if (url.getPort() != -1 && url.getPort() != url.getDefaultPort()) {
+            buf.append(':').append(url.getPort());
+        }
+        buf.append(path.isEmpty() ? "/" : path);
+        if (query != null) {
+            buf.append('?').append(query);
+        }
+
+        return buf.toString();
+    }
+
+
+    /**
+     * Returns a 64-bit fingerprint of the canonical key of a URL.
+     *
+     * @param url the URL.
+     * @return the fingerprint.
+     */
+    public static long fingerprint(@Nonnull final URL url) {
+        return fingerprint(canonicalKey(url));
+    }
+
+
+    /**
+     * Returns a 64-bit fingerprint of a key: its FNV-1a hash with a final
+     * avalanche so every bit depends on every character.
+     *
+     * @param key the key.
+     * @return the fingerprint.
+     */
+    public static long fingerprint(@Nonnull final CharSequence key) {
+
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < key.length(); i++) {
+            final char c = key.charAt(i);
+            hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+
+        return mix(hash);
+    }
+
+
+    /**
+     * Returns the MurmurHash3 64-bit finalizer of a value.
+     *
+     * @param value the value.
+     * @return the mixed value.
+     */
+    static long mix(long value) {
+
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+
+        return value;
+    }
+}
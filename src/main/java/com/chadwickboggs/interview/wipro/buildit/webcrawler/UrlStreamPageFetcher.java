@@ -0,0 +1,75 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Collections;
+import java.util.Map;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Fetches pages through {@link URL#openConnection()}, the classic blocking
+ * transport.  Kept as a fallback for URLs and environments the HTTP client does
+ * not handle.
+ */
+public final class UrlStreamPageFetcher implements PageFetcher {
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 10_000;
+    private static final int READ_TIMEOUT_MILLIS = 30_000;
+
+
+    @Override
+    @Nonnull
+    public PageResponse fetch(@Nonnull final URL url) throws IOException {
+
+        return fetch(url, Collections.emptyMap());
+    }
+
+
+    @Override
+    @Nonnull
+    public PageResponse fetch(@Nonnull final URL url, @Nonnull final Map<String, String> requestHeaders)
+        throws IOException {
+
+        return open(url, "GET", requestHeaders);
+    }
+
+
+    @Override
+    @Nonnull
+    public PageResponse head(@Nonnull final URL url) throws IOException {
+
+        return open(url, "HEAD", Collections.emptyMap());
+    }
+
+
+    @Nonnull
+    private static PageResponse open(
+        @Nonnull final URL url, @Nonnull final String method, @Nonnull final Map<String, String> requestHeaders
+    ) throws IOException {
+
+        final URLConnection connection = url.openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+        connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+        connection.setRequestProperty("User-Agent", USER_AGENT);
+        requestHeaders.forEach(connection::setRequestProperty);
+
+        if (!(connection instanceof HttpURLConnection)) {
+            return new PageResponse(url, 200, connection.getHeaderFields(), connection.getInputStream());
+        }
+
+        final HttpURLConnection httpConnection = (HttpURLConnection) connection;
+        httpConnection.setRequestMethod(method);
+        final int statusCode = httpConnection.getResponseCode();
+        InputStream body = statusCode < 400 ? httpConnection.getInputStream() : httpConnection.getErrorStream();
+        if (body == null) {
+            body = new ByteArrayInputStream(new byte[0]);
+        }
+
+        return new PageResponse(httpConnection.getURL(), statusCode, httpConnection.getHeaderFields(), body);
+    }
+}
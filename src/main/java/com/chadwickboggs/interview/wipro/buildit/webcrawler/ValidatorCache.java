@@ -0,0 +1,279 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * On-disk cache of the validators, ETag and Last-Modified, of each page crawled,
+ * together with the links found on it.  A re-crawl sends a conditional request
+ * for every cached page, and a 304 Not Modified answer lets it reuse the cached
+ * links without downloading or scanning the page.
+ *
+ * <p>The cache is held in memory and persisted as an append-only log in the
+ * cache directory.  Every update appends a record; the log is loaded on open, the
+ * last record for a page winning, and rewritten without superseded records on
+ * close once they make up most of it.  A record torn by a crash is dropped.</p>
+ */
+public final class ValidatorCache implements Closeable {
+
+    private static final String LOG_FILENAME = "validators.log";
+    private static final int COMPACTION_RATIO = 2;
+
+    private final Path logFile;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final DataOutputStream log;
+    private long recordCount;
+
+
+    /**
+     * Open the cache in a directory, creating the directory if needed.
+     *
+     * @param directory the cache directory.
+     * @throws IOException on error reading or opening the cache log.
+     */
+    public ValidatorCache(@Nonnull final Path directory) throws IOException {
+
+        this.logFile = Files.createDirectories(directory).resolve(LOG_FILENAME);
+        load();
+        this.log = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(
+            logFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND
+        )));
+    }
+
+
+    /**
+     * Returns the cached entry of a page.
+     *
+     * @param url the page URL.
+     * @return the entry, or null if the page is not cached.
+     */
+    @Nullable
+    public Entry get(@Nonnull final URL url) {
+        return entries.get(UrlKeys.canonicalKey(url));
+    }
+
+
+    /**
+     * Cache the validators and links of a page.  Pages with neither validator are
+     * not cached, since no conditional request can be made for them.
+     *
+     * @param url the page URL.
+     * @param entityTag the ETag response header, if any.
+     * @param lastModified the Last-Modified response header, if any.
+     * @param links the links found on the page.
+     */
+    public void put(
+        @Nonnull final URL url, @Nullable final String entityTag, @Nullable final String lastModified,
+        @Nonnull final Collection<URL> links
+    ) {
+
+        if (entityTag == null && lastModified == null) {
+            return;
+        }
+
+        final String[] linkStrings = new String[links.size()];
+        int i = 0;
+        for (final URL link : links) {
+            linkStrings[i++] = link.toString();
+        }
+
+        final String key = UrlKeys.canonicalKey(url);
+        final Entry entry = new Entry(entityTag, lastModified, linkStrings);
+        entries.put(key, entry);
+        append(key, entry);
+    }
+
+
+    /**
+     * Returns the number of pages cached.
+     *
+     * @return the number of pages cached.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+
+    @Override
+    public synchronized void close() throws IOException {
+
+        log.close();
+        if (recordCount > (long) entries.size() * COMPACTION_RATIO) {
+            compact();
+        }
+    }
+
+
+    private synchronized void append(@Nonnull final String key, @Nonnull final Entry entry) {
+
+        try {
+            write(log, key, entry);
+            recordCount++;
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(String.format(
+                "Error writing validator cache.  File: \"%s\"", logFile
+            ), e);
+        }
+    }
+
+
+    private void load() throws IOException {
+
+        if (!Files.exists(logFile)) {
+            return;
+        }
+
+        boolean torn = false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(logFile)))) {
+            while (true) {
+                in.mark(1);
+                if (in.read() == -1) {
+                    break;
+                }
+                in.reset();
+
+                final String key = in.readUTF();
+                final String entityTag = in.readUTF();
+                final String lastModified = in.readUTF();
+                final String[] links = new String[in.readInt()];
+                for (int i = 0; i < links.length; i++) {
+                    links[i] = in.readUTF();
+                }
+
+                entries.put(key, new Entry(
+                    entityTag.isEmpty() ? null : entityTag, lastModified.isEmpty() ? null : lastModified, links
+                ));
+                recordCount++;
+            }
+        }
+        catch (EOFException e) {
+            torn = true;
+        }
+
+        if (torn) {
+            // A record torn by a crash.  Drop it so new records are appended after the last whole one.
+            compact();
+        }
+    }
+
+
+    /**
+     * Rewrite the log with only the current entry of each page.
+     */
+    private void compact() throws IOException {
+
+        final Path temporaryFile = logFile.resolveSibling(LOG_FILENAME + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+            Files.newOutputStream(temporaryFile)
+        ))) {
+            for (final Map.Entry<String, Entry> entry : new HashMap<>(entries).entrySet()) {
+                write(out, entry.getKey(), entry.getValue());
+            }
+        }
+
+        Files.move(temporaryFile, logFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        recordCount = entries.size();
+    }
+
+
+    private static void write(
+        @Nonnull final DataOutputStream out, @Nonnull final String key, @Nonnull final Entry entry
+    ) throws IOException {
+
+        out.writeUTF(key);
+        out.writeUTF(entry.entityTag == null ? "" : entry.entityTag);
+        out.writeUTF(entry.lastModified == null ? "" : entry.lastModified);
+        out.writeInt(entry.links.length);
+        for (final String link : entry.links) {
+            out.writeUTF(link);
+        }
+    }
+
+
+    /**
+     * The validators and links cached for one page.
+     */
+    public static final class Entry {
+
+        private final String entityTag;
+        private final String lastModified;
+        private final String[] links;
+
+
+        private Entry(
+            @Nullable final String entityTag, @Nullable final String lastModified, @Nonnull final String[] links
+        ) {
+
+            this.entityTag = entityTag;
+            this.lastModified = lastModified;
+            this.links = links;
+        }
+
+
+        /**
+         * Returns the headers making a request for the page conditional on it
+         * having changed.
+         *
+         * @return the If-None-Match and If-Modified-Since headers.
+         */
+        @Nonnull
+        public Map<String, String> getConditionalHeaders() {
+
+            final Map<String, String> headers = new HashMap<>(2);
+            if (entityTag != null) {
+                headers.put("If-None-Match", entityTag);
+            }
+            if (lastModified != null) {
+                headers.put("If-Modified-Since", lastModified);
+            }
+
+            return headers;
+        }
+
+
+        /**
+         * Returns the links found on the page when it was cached.
+         *
+         * @return the links.
+         */
+        @Nonnull
+        public List<URL> getLinks() {
+
+            final List<URL> urls = new ArrayList<>(links.length);
+            for (final String link : links) {
+                try {
+                    urls.add(new URL(link));
+                }
+                catch (MalformedURLException e) {
+                    System.err.println(String.format(
+                        "Error parsing cached URL.  URL: \"%s\"", link
+                    ));
+                }
+            }
+
+            return urls;
+        }
+    }
+}
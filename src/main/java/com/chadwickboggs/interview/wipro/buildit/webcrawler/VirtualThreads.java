@@ -0,0 +1,49 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Access to virtual threads without requiring a Java runtime which has them.
+ * The executor is looked up reflectively so the crawler still builds and runs
+ * on older runtimes.
+ */
+final class VirtualThreads {
+
+    private static final String FACTORY_METHOD_NAME = "newVirtualThreadPerTaskExecutor";
+
+
+    private VirtualThreads() {
+    }
+
+
+    /**
+     * Create an executor which starts a new virtual thread for each task.
+     *
+     * @return the executor, or empty if this Java runtime has no virtual threads.
+     */
+    @Nonnull
+    static Optional<ExecutorService> newVirtualThreadPerTaskExecutor() {
+
+        try {
+            final Method method = Executors.class.getMethod(FACTORY_METHOD_NAME);
+
+            return Optional.of((ExecutorService) method.invoke(null));
+        }
+        catch (NoSuchMethodException e) {
+            return Optional.empty();
+        }
+        catch (IllegalAccessException | InvocationTargetException e) {
+            System.err.println(String.format(
+                "Error creating virtual thread executor.  Error Message: \"%s\"", e.getMessage()
+            ));
+
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.net.URL;
+import javax.annotation.Nonnull;
+
+
+/**
+ * The set of pages already visited, or queued to be, during a crawl.  Shared by
+ * every worker, so implementations must be thread safe.
+ */
+public interface VisitedSet {
+
+    /**
+     * Add a page, reporting whether it was new.
+     *
+     * @param url the page URL.
+     * @return true if the page had not been added before.
+     */
+    boolean add(@Nonnull URL url);
+
+
+    /**
+     * Returns true if the page has been added.
+     *
+     * @param url the page URL.
+     * @return true if the page has been added.
+     */
+    boolean contains(@Nonnull URL url);
+
+
+    /**
+     * Returns the number of pages added.
+     *
+     * @return the number of pages added.
+     */
+    long size();
+}
@@ -3,17 +3,19 @@ package com.chadwickboggs.interview.wipro.buildit.webcrawler;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.PrintStream;
+import java.net.InetSocketAddress;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.Charset;
-import java.util.HashSet;
-import java.util.Locale;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.IntStream;
+import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -22,7 +24,7 @@ import javax.annotation.Nullable;
  * Web Crawler scans a site building a sitemap.  It takes the root homepage to
  * start at as a command line parameter.  Its scans for links on that page within
  * the same domain and scans them.  Its output is a tab indented one page per
- * line.
+ * line.  The scanning itself is done by a {@link CrawlEngine}.
  */
 public final class WebCrawler implements Runnable {
 
@@ -31,6 +33,8 @@ public final class WebCrawler implements Runnable {
     );
 
     private static final String USAGE_FILENAME = "usage.txt";
+    private static final long KILOBYTE = 1024L;
+    private static final long MEGABYTE = 1024L * 1024;
 
     private final CommandLine commandLine;
 
@@ -43,9 +47,7 @@ public final class WebCrawler implements Runnable {
     public static void main(@Nullable final String... args) {
 
         try {
-            // TODO: Usage a configurable threadpool.
-
-            new Thread(new WebCrawler(parseCommandLineArguments(args))).start();
+            new WebCrawler(parseCommandLineArguments(args)).run();
         }
         catch (ArgsInvalidException e) {
             System.err.println(getUsage());
@@ -72,6 +74,105 @@ public final class WebCrawler implements Runnable {
         commandLine.registerArg(new CommandLine.ArgWithArgument(
             't', "target", false, ""
         ));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            'w', "workers", false, ""
+        ));
+        commandLine.registerArg(new CommandLine.Arg('v', "virtual-threads", false));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            'i', "max-in-flight", false, ""
+        ));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            'G', "pipeline", false, ""
+        ));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            'Q', "stage-queue", false, ""
+        ));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            'f', "fetcher", false, ""
+        ));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            'd', "dedupe", false, ""
+        ));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            'm', "dedupe-memory", false, ""
+        ));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            'p', "dedupe-fpp", false, ""
+        ));
+        commandLine.registerArg(new CommandLine.Arg('O', "off-heap", false));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            's', "state-dir", false, ""
+        ));
+        commandLine.registerArg(new CommandLine.Arg('r', "resume", false));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            'k', "checkpoint-interval", false, ""
+        ));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            'M', "frontier-memory", false, ""
+        ));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            'H', "host-rate", false, ""
+        ));
+        commandLine.registerArg(new CommandLine.Arg('I', "ignore-robots", false));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            'a', "allow-host", false, ""
+        ));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            'b', "block-host", false, ""
+        ));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            'q', "strip-params", false, ""
+        ));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            'c', "cache-dir", false, ""
+        ));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            'x', "max-size", false, ""
+        ));
+        commandLine.registerArg(new CommandLine.Arg('X', "head-requests", false));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            'o', "output", false, ""
+        ));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            'F', "format", false, ""
+        ));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            'R', "link-report", false, ""
+        ));
+        commandLine.registerArg(new CommandLine.Arg('z', "gzip", false));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            'P', "progress", false, ""
+        ));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            'S', "order", false, ""
+        ));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            'D', "max-depth", false, ""
+        ));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            'N', "max-pages", false, ""
+        ));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            'B', "max-bytes", false, ""
+        ));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            'T', "max-time", false, ""
+        ));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            'C', "cluster", false, ""
+        ));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            'n', "node", false, ""
+        ));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            'E', "accept-encoding", false, ""
+        ));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            'L', "dns-ttl", false, ""
+        ));
+        commandLine.registerArg(new CommandLine.ArgWithArgument(
+            'U', "near-duplicates", false, ""
+        ));
         commandLine.setRequiredCount(1);
 
         commandLine.parseArgs(args);
@@ -123,6 +224,248 @@ public final class WebCrawler implements Runnable {
     }
 
 
+    @Nonnull
+    private Optional<String> getArgument(char symbol) {
+
+        return commandLine.getParsedArgs().stream()
+            .filter(arg -> Character.valueOf(symbol).equals(arg.getSymbol()))
+            .filter(WebCrawler::test)
+            .map(arg -> ((CommandLine.ArgWithArgument) arg).getArgument())
+            .filter(argument -> argument != null && argument.trim().length() > 0)
+            .findFirst();
+    }
+
+
+    @Nonnull
+    private List<String> getListArgument(char symbol) {
+
+        return getArgument(symbol)
+            .map(argument -> Arrays.asList(argument.split(",")))
+            .orElse(Collections.emptyList());
+    }
+
+
+    private int getIntArgument(char symbol, int defaultValue) {
+
+        final Optional<String> argument = getArgument(symbol);
+        if (!argument.isPresent()) {
+            return defaultValue;
+        }
+
+        try {
+            return Integer.parseInt(argument.get().trim());
+        }
+        catch (NumberFormatException e) {
+            System.err.println(String.format(
+                "Unable to parse numeric option.  Option: \"-%s\", Value: \"%s\"", symbol, argument.get()
+            ));
+            System.err.println(getUsage());
+
+            System.exit(2);
+
+            return defaultValue;
+        }
+    }
+
+
+    private double getDoubleArgument(char symbol, double defaultValue) {
+
+        final Optional<String> argument = getArgument(symbol);
+        if (!argument.isPresent()) {
+            return defaultValue;
+        }
+
+        try {
+            return Double.parseDouble(argument.get().trim());
+        }
+        catch (NumberFormatException e) {
+            System.err.println(String.format(
+                "Unable to parse numeric option.  Option: \"-%s\", Value: \"%s\"", symbol, argument.get()
+            ));
+            System.err.println(getUsage());
+
+            System.exit(2);
+
+            return defaultValue;
+        }
+    }
+
+
+    @Nonnull
+    private CrawlConfiguration createConfiguration() {
+
+        final CrawlConfiguration configuration = new CrawlConfiguration();
+        try {
+            configuration.setWorkers(getIntArgument('w', CrawlConfiguration.DEFAULT_WORKERS));
+            configuration.setVirtualThreads(commandLine.getParsedArgs().contains(new CommandLine.Arg('v')));
+            configuration.setMaxInFlight(getIntArgument('i', CrawlConfiguration.DEFAULT_MAX_IN_FLIGHT));
+            final List<String> pipelineArguments = getListArgument('G');
+            if (!pipelineArguments.isEmpty()) {
+                if (pipelineArguments.size() != 3) {
+                    throw new IllegalArgumentException(String.format(
+                        "Malformed pipeline thread counts.  Pipeline: \"%s\"", String.join(",", pipelineArguments)
+                    ));
+                }
+                if (configuration.isVirtualThreads()) {
+                    throw new IllegalArgumentException("A pipelined crawl can not run on virtual threads.");
+                }
+                try {
+                    configuration.setPipeline(true)
+                        .setParseThreads(Integer.parseInt(pipelineArguments.get(0).trim()))
+                        .setDedupeThreads(Integer.parseInt(pipelineArguments.get(1).trim()))
+                        .setEmitThreads(Integer.parseInt(pipelineArguments.get(2).trim()));
+                }
+                catch (NumberFormatException e) {
+                    throw new IllegalArgumentException(String.format(
+                        "Malformed pipeline thread counts.  Pipeline: \"%s\"", String.join(",", pipelineArguments)
+                    ), e);
+                }
+            }
+            configuration.setStageQueueCapacity(getIntArgument('Q', CrawlConfiguration.DEFAULT_STAGE_QUEUE_CAPACITY));
+
+            final Optional<String> fetcherArgument = getArgument('f');
+            if (fetcherArgument.isPresent()) {
+                configuration.setFetcherType(FetcherType.fromOptionValue(fetcherArgument.get())
+                    .orElseThrow(() -> new IllegalArgumentException(String.format(
+                        "Unknown fetcher.  Fetcher: \"%s\"", fetcherArgument.get()
+                    ))));
+            }
+
+            final Optional<String> dedupeArgument = getArgument('d');
+            if (dedupeArgument.isPresent()) {
+                configuration.setDedupeType(DedupeType.fromOptionValue(dedupeArgument.get())
+                    .orElseThrow(() -> new IllegalArgumentException(String.format(
+                        "Unknown dedupe mode.  Dedupe: \"%s\"", dedupeArgument.get()
+                    ))));
+            }
+            configuration.setDedupeMemoryBytes(getIntArgument(
+                'm', (int) (CrawlConfiguration.DEFAULT_DEDUPE_MEMORY_BYTES / MEGABYTE)
+            ) * MEGABYTE);
+            configuration.setDedupeFalsePositiveRate(getDoubleArgument(
+                'p', CrawlConfiguration.DEFAULT_DEDUPE_FALSE_POSITIVE_RATE
+            ));
+            configuration.setDedupeOffHeap(commandLine.getParsedArgs().contains(new CommandLine.Arg('O')));
+            configuration.setStateDirectory(getArgument('s').map(Paths::get).orElse(null));
+            configuration.setResume(commandLine.getParsedArgs().contains(new CommandLine.Arg('r')));
+            configuration.setCheckpointIntervalSeconds(getIntArgument(
+                'k', CrawlConfiguration.DEFAULT_CHECKPOINT_INTERVAL_SECONDS
+            ));
+            configuration.setFrontierMemoryTasks(getIntArgument('M', 0));
+            configuration.setHostRequestsPerSecond(getDoubleArgument(
+                'H', CrawlConfiguration.DEFAULT_HOST_REQUESTS_PER_SECOND
+            ));
+            configuration.setIgnoreRobots(commandLine.getParsedArgs().contains(new CommandLine.Arg('I')));
+            configuration.setAllowedHosts(getListArgument('a'));
+            configuration.setBlockedHosts(getListArgument('b'));
+            configuration.setStripParameters(getListArgument('q'));
+            configuration.setCacheDirectory(getArgument('c').map(Paths::get).orElse(null));
+            configuration.setMaxPageBytes(getIntArgument(
+                'x', (int) (CrawlConfiguration.DEFAULT_MAX_PAGE_BYTES / KILOBYTE)
+            ) * KILOBYTE);
+            configuration.setHeadRequests(commandLine.getParsedArgs().contains(new CommandLine.Arg('X')));
+            configuration.setOutputPath(getArgument('o').map(Paths::get).orElse(null));
+            configuration.setLinkReportPath(getArgument('R').map(Paths::get).orElse(null));
+
+            final Optional<String> formatArgument = getArgument('F');
+            if (formatArgument.isPresent()) {
+                configuration.setSitemapFormat(SitemapFormat.fromOptionValue(formatArgument.get())
+                    .orElseThrow(() -> new IllegalArgumentException(String.format(
+                        "Unknown sitemap format.  Format: \"%s\"", formatArgument.get()
+                    ))));
+            }
+            configuration.setGzip(commandLine.getParsedArgs().contains(new CommandLine.Arg('z')));
+            configuration.setProgressIntervalSeconds(getIntArgument('P', 0));
+
+            final Optional<String> orderArgument = getArgument('S');
+            if (orderArgument.isPresent()) {
+                configuration.setFrontierOrder(FrontierOrder.fromOptionValue(orderArgument.get())
+                    .orElseThrow(() -> new IllegalArgumentException(String.format(
+                        "Unknown crawl order.  Order: \"%s\"", orderArgument.get()
+                    ))));
+            }
+            configuration.setMaxDepth(getIntArgument('D', 0));
+            configuration.setMaxPages(getIntArgument('N', 0));
+            configuration.setMaxBytes(getIntArgument('B', 0) * MEGABYTE);
+            configuration.setMaxTimeSeconds(getIntArgument('T', 0));
+            configuration.setDnsTimeToLiveSeconds(getIntArgument(
+                'L', CrawlConfiguration.DEFAULT_DNS_TIME_TO_LIVE_SECONDS
+            ));
+            configuration.setDetectDuplicates(getArgument('U').isPresent());
+            configuration.setNearDuplicateDistance(getIntArgument(
+                'U', CrawlConfiguration.DEFAULT_NEAR_DUPLICATE_DISTANCE
+            ));
+            final List<String> encodingArguments = getListArgument('E');
+            if (!encodingArguments.isEmpty()) {
+                final List<ContentDecoder> decoders = new ArrayList<>();
+                for (String encodingArgument : encodingArguments) {
+                    if (!"identity".equalsIgnoreCase(encodingArgument.trim())) {
+                        decoders.add(ContentEncoding.fromOptionValue(encodingArgument)
+                            .orElseThrow(() -> new IllegalArgumentException(String.format(
+                                "Unknown content encoding.  Encoding: \"%s\"", encodingArgument
+                            ))));
+                    }
+                }
+                configuration.setContentDecoders(decoders);
+            }
+            configuration.setClusterNodes(getListArgument('C').stream()
+                .map(WebCrawler::parseNodeAddress)
+                .collect(Collectors.toList()));
+            configuration.setNodeIndex(getIntArgument('n', 0));
+            if (!configuration.getClusterNodes().isEmpty()) {
+                if (configuration.getNodeIndex() >= configuration.getClusterNodes().size()) {
+                    throw new IllegalArgumentException(String.format(
+                        "Node index out of range.  Node Index: %d, Node Count: %d",
+                        configuration.getNodeIndex(), configuration.getClusterNodes().size()
+                    ));
+                }
+                if (configuration.isResume()) {
+                    throw new IllegalArgumentException("A cluster crawl can not be resumed.");
+                }
+            }
+        }
+        catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(getUsage());
+
+            System.exit(2);
+        }
+
+        return configuration;
+    }
+
+
+    /**
+     * Parse a cluster node address of the form "host:port".
+     */
+    @Nonnull
+    private static InetSocketAddress parseNodeAddress(@Nonnull final String address) {
+
+        final int colon = address.lastIndexOf(':');
+        final InetSocketAddress nodeAddress;
+        try {
+            if (colon < 1) {
+                throw new IllegalArgumentException("No port.");
+            }
+            nodeAddress = new InetSocketAddress(
+                address.substring(0, colon).trim(), Integer.parseInt(address.substring(colon + 1).trim())
+            );
+        }
+        catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format(
+                "Malformed cluster node address.  Address: \"%s\"", address
+            ), e);
+        }
+
+        if (nodeAddress.isUnresolved()) {
+            throw new IllegalArgumentException(String.format(
+                "Unknown cluster node host.  Address: \"%s\"", address
+            ));
+        }
+
+        return nodeAddress;
+    }
+
+
     @Override
     public void run() {
 
@@ -150,8 +493,7 @@ public final class WebCrawler implements Runnable {
             final String urlString = ((CommandLine.ArgWithArgument) argOpt.get()).getArgument();
             try {
                 final URL startUrl = new URL(urlString);
-                final String domainNameLimit = extractDomainName(startUrl);
-                webCrawl(startUrl, domainNameLimit, 0, new HashSet<URL>(), System.out);
+                new CrawlEngine(createConfiguration(), System.out).crawl(startUrl);
             }
             catch (MalformedURLException e) {
                 System.err.println(String.format(
@@ -167,95 +509,10 @@ public final class WebCrawler implements Runnable {
 
                 System.exit(5);
             }
-        }
-
-    }
-
-
-    @Nonnull
-    private String extractDomainName(@Nonnull final URL startUrl) {
-
-        final String[] split = startUrl.getHost().split("\\.");
-        if (split.length < 2) {
-            throw new RuntimeException(String.format(
-                "URL must contain at least one '.' character.  URL: \"%s\"", startUrl
-            ));
-        }
-
-        final StringBuilder buf = new StringBuilder();
-        buf.append(split[split.length - 2]).append(".").append(split[split.length - 1]);
-
-        return buf.toString().toLowerCase(Locale.ENGLISH);
-    }
-
-
-    private void webCrawl(
-        @Nonnull final URL startUrl, @Nonnull final String domainNameLimit, int depth,
-        @Nonnull final Set<URL> siteMapUrls, @Nonnull final PrintStream printStream
-    ) throws IOException {
-
-        if (siteMapUrls.contains(startUrl)) {
-            return;
-        }
-
-        IntStream.range(0, depth).mapToObj(i -> "\t").forEachOrdered(printStream::print);
-        printStream.println(startUrl);
-
-        siteMapUrls.add(startUrl);
-
-        // TODO: Add a configurable threadpool for concurrency.
-
-        listUrls(startUrl).stream()
-            .filter(url -> !startUrl.equals(url))
-            .filter(url -> domainNameLimit.equals(extractDomainName(url)))
-            .forEach(url -> {
-                try {
-                    webCrawl(url, domainNameLimit, depth + 1, siteMapUrls, printStream);
-                }
-                catch (Exception e) {
-                    System.err.println(String.format(
-                        "Error crawling url.  URL: \"%s\"", url.toString()
-                    ));
-                }
-            });
-    }
-
-
-    @Nonnull
-    private Set<URL> listUrls(@Nonnull final URL url) throws IOException {
-
-        final Set<URL> urls = new HashSet<>();
-
-        String line;
-        try (BufferedReader reader =
-                 new BufferedReader(new InputStreamReader(url.openStream(), Charset.defaultCharset()))) {
-
-            while ((line = reader.readLine()) != null) {
-                final Matcher matcher = URL_PATTERN.matcher(line);
-                while (matcher.find()) {
-                    for (int i = 1; i <= matcher.groupCount(); i++) {
-                        String group = "";
-                        try {
-                            group = matcher.group(i);
-                            urls.add(new URL(group));
-                        }
-                        catch (MalformedURLException e) {
-                            try {
-                                group = url + "/" + group;
-                                urls.add(new URL(group));
-                            }
-                            catch (MalformedURLException muE) {
-                                System.err.println(String.format(
-                                    "Error parsing URL in page.  Page: \"%s\", URL: \"%s\"",
-                                    url, group
-                                ));
-                            }
-                        }
-                    }
-                }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
         }
 
-        return urls;
     }
 }
@@ -0,0 +1,190 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+
+/**
+ * Reads the page URLs listed in a site's sitemaps.org XML sitemaps, following
+ * sitemap indexes to the sitemaps they list.  Sitemaps are streamed, gzip
+ * compressed or not, with DTDs and external entities disabled.  At most
+ * {@link #MAX_SITEMAPS} sitemaps and {@link #MAX_URLS} URLs are read, so a
+ * hostile or runaway sitemap costs a bounded amount of work.
+ */
+final class XmlSitemapReader {
+
+    static final int MAX_SITEMAPS = 100;
+    static final int MAX_URLS = 1000000;
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = newXmlInputFactory();
+
+
+    private XmlSitemapReader() {
+    }
+
+
+    /**
+     * Read the URLs listed in the given sitemaps, and in the sitemaps listed by
+     * any sitemap indexes among them.  Unreadable sitemaps are reported and
+     * skipped.
+     *
+     * @param fetcher the fetcher sitemaps are downloaded with.
+     * @param sitemapUrls the sitemap URLs.
+     * @param canonicalizer the canonicalizer listed URLs are put in canonical form with.
+     * @param scope the test of whether a listed URL is to be kept.
+     * @return the canonical form of the URLs kept, in the order listed.  URLs are
+     *     told apart by their text: URL equality would look up their hosts.
+     */
+    @Nonnull
+    static Collection<URL> read(
+        @Nonnull final PageFetcher fetcher, @Nonnull final Collection<URL> sitemapUrls,
+        @Nonnull final UrlCanonicalizer canonicalizer, @Nonnull final Predicate<URL> scope
+    ) {
+
+        final Map<String, URL> urls = new LinkedHashMap<>();
+        final Deque<URL> sitemaps = new ArrayDeque<>(sitemapUrls);
+        final Set<String> seen = new HashSet<>();
+        while (!sitemaps.isEmpty() && seen.size() < MAX_SITEMAPS && urls.size() < MAX_URLS) {
+            final URL sitemapUrl = sitemaps.removeFirst();
+            if (!seen.add(sitemapUrl.toString())) {
+                continue;
+            }
+
+            try (PageResponse response = fetcher.fetch(sitemapUrl)) {
+                if (!response.isSuccessful()) {
+                    System.err.println(String.format(
+                        "Unable to read sitemap.  URL: \"%s\", Status Code: %d",
+                        sitemapUrl, response.getStatusCode()
+                    ));
+                    continue;
+                }
+
+                parse(response.getBody(), (isIndex, location) -> {
+                    final URL url = toUrl(sitemapUrl, location, canonicalizer);
+                    if (url == null) {
+                        return;
+                    }
+                    if (isIndex) {
+                        sitemaps.addLast(url);
+                    }
+                    else if (urls.size() < MAX_URLS && scope.test(url)) {
+                        urls.putIfAbsent(url.toString(), url);
+                    }
+                });
+            }
+            catch (IOException | XMLStreamException | RuntimeException e) {
+                System.err.println(String.format(
+                    "Error reading sitemap.  URL: \"%s\", Error Message: \"%s\"", sitemapUrl, e.getMessage()
+                ));
+            }
+        }
+
+        return urls.values();
+    }
+
+
+    /**
+     * Parse one sitemap or sitemap index, passing each location found to the
+     * consumer along with whether the document is an index.
+     *
+     * @param body the document, gzip compressed or not.
+     * @param locations the consumer of the locations.
+     * @throws IOException on error reading the body.
+     * @throws XMLStreamException on malformed XML.
+     */
+    static void parse(@Nonnull final InputStream body, @Nonnull final LocationConsumer locations)
+        throws IOException, XMLStreamException {
+
+        final XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(decompress(body));
+        try {
+            boolean isIndex = false;
+            boolean root = true;
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+
+                if (root) {
+                    isIndex = "sitemapindex".equals(reader.getLocalName());
+                    root = false;
+                }
+                else if ("loc".equals(reader.getLocalName())) {
+                    locations.accept(isIndex, reader.getElementText().trim());
+                }
+            }
+        }
+        finally {
+            reader.close();
+        }
+    }
+
+
+    /**
+     * Sniff gzip compression by its magic number: servers often send compressed
+     * sitemaps as application/octet-stream.
+     */
+    @Nonnull
+    private static InputStream decompress(@Nonnull final InputStream body) throws IOException {
+
+        final InputStream in = new BufferedInputStream(body);
+        in.mark(2);
+        final int first = in.read();
+        final int second = in.read();
+        in.reset();
+
+        return first == 0x1f && second == 0x8b ? new GZIPInputStream(in) : in;
+    }
+
+
+    @Nullable
+    private static URL toUrl(
+        @Nonnull final URL sitemapUrl, @Nonnull final String location, @Nonnull final UrlCanonicalizer canonicalizer
+    ) {
+
+        try {
+            return canonicalizer.resolve(sitemapUrl, location);
+        }
+        catch (MalformedURLException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+
+    @Nonnull
+    private static XMLInputFactory newXmlInputFactory() {
+
+        final XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        return factory;
+    }
+
+
+    /**
+     * Receives the locations listed in a sitemap.
+     */
+    @FunctionalInterface
+    interface LocationConsumer {
+
+        void accept(boolean isIndex, @Nonnull String location);
+    }
+}
@@ -0,0 +1,206 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Writes the sitemap in the sitemaps.org XML format, streaming each page out as
+ * it is crawled.  Written to a file, the sitemap is split into parts of at most
+ * 50,000 URLs and 50 MB, the protocol's limits, and the output file becomes a
+ * sitemap index listing the parts at the root of the crawled site.  A sitemap
+ * small enough for one file is written to the output file directly.  Pages
+ * found to be copies of others are left out, as search engines want only the
+ * pages they are aliases of.
+ */
+final class XmlSitemapSink implements SitemapSink {
+
+    static final int MAX_URLS = 50000;
+    static final long MAX_BYTES = 50L * 1024 * 1024;
+
+    private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n";
+    private static final String NAMESPACE = "http://www.sitemaps.org/schemas/sitemap/0.9";
+    private static final String URLSET_START = "<urlset xmlns=\"" + NAMESPACE + "\">\n";
+    private static final String URLSET_END = "</urlset>\n";
+
+    private final SitemapOutput output;
+    private final URL siteUrl;
+    private Writer writer;
+    private int part;
+    private int urlCount;
+    private long byteCount;
+    private boolean warnedOverLimit;
+
+
+    /**
+     * Construct instance.
+     *
+     * @param output the output written to.
+     * @param siteUrl the start page; split parts are listed in the index at its root.
+     */
+    XmlSitemapSink(@Nonnull final SitemapOutput output, @Nonnull final URL siteUrl) {
+
+        this.output = output;
+        this.siteUrl = siteUrl;
+    }
+
+
+    @Override
+    public void write(@Nonnull final SitemapPage page) throws IOException {
+
+        if (page.getAliasOf() != null) {
+            return;
+        }
+
+        final String entry = "  <url><loc>" + escape(page.getUrl().toString()) + "</loc></url>\n";
+        final int entryBytes = utf8Length(entry);
+        if (writer == null) {
+            startPart();
+        }
+        else if (urlCount == MAX_URLS || byteCount + entryBytes + URLSET_END.length() > MAX_BYTES) {
+            if (output.getPath() == null) {
+                warnOverLimit();
+            }
+            else {
+                endPart();
+                startPart();
+            }
+        }
+
+        writer.write(entry);
+        urlCount++;
+        byteCount += entryBytes;
+    }
+
+
+    @Override
+    public void flush() throws IOException {
+
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+
+    @Override
+    public void close() throws IOException {
+
+        if (writer == null) {
+            startPart();
+        }
+        endPart();
+
+        final Path path = output.getPath();
+        if (path == null) {
+            return;
+        }
+
+        if (part == 1) {
+            Files.move(output.getPartPath(1), path, StandardCopyOption.REPLACE_EXISTING);
+
+            return;
+        }
+
+        try (Writer index = output.open(path)) {
+            index.write(XML_DECLARATION);
+            index.write("<sitemapindex xmlns=\"" + NAMESPACE + "\">\n");
+            for (int i = 1; i <= part; i++) {
+                final URL partUrl = new URL(siteUrl, "/" + output.getPartPath(i).getFileName());
+                index.write("  <sitemap><loc>" + escape(partUrl.toString()) + "</loc></sitemap>\n");
+            }
+            index.write("</sitemapindex>\n");
+        }
+    }
+
+
+    private void startPart() throws IOException {
+
+        part++;
+        writer = output.getPath() == null ? output.open() : output.open(output.getPartPath(part));
+        writer.write(XML_DECLARATION);
+        writer.write(URLSET_START);
+        urlCount = 0;
+        byteCount = XML_DECLARATION.length() + URLSET_START.length();
+    }
+
+
+    private void endPart() throws IOException {
+
+        try {
+            writer.write(URLSET_END);
+        }
+        finally {
+            writer.close();
+        }
+    }
+
+
+    private void warnOverLimit() {
+
+        if (!warnedOverLimit) {
+            warnedOverLimit = true;
+            System.err.println(String.format(
+                "Sitemap exceeds %d URLs or %d bytes.  Write it to a file with --output to split it.",
+                MAX_URLS, MAX_BYTES
+            ));
+        }
+    }
+
+
+    /**
+     * Returns the number of bytes a string takes in UTF-8, the sitemap's encoding,
+     * without encoding it.
+     */
+    static int utf8Length(@Nonnull final String value) {
+
+        int length = value.length();
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c >= 0x800) {
+                length += Character.isSurrogate(c) ? 1 : 2;
+            }
+            else if (c >= 0x80) {
+                length++;
+            }
+        }
+
+        return length;
+    }
+
+
+    @Nonnull
+    static String escape(@Nonnull final String value) {
+
+        final StringBuilder buf = new StringBuilder(value.length() + 16);
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '&':
+                    buf.append("&amp;");
+                    break;
+                case '<':
+                    buf.append("&lt;");
+                    break;
+                case '>':
+                    buf.append("&gt;");
+                    break;
+                case '"':
+                    buf.append("&quot;");
+                    break;
+                case '\'':
+                    buf.append("&apos;");
+                    break;
+                default:
+                    buf.append(c);
+                    break;
+            }
+        }
+
+        return buf.toString();
+    }
+}
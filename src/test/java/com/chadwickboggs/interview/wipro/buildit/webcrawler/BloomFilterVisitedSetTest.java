@@ -0,0 +1,55 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import org.junit.Test;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class BloomFilterVisitedSetTest {
+
+
+    @Test
+    public void testAdd() throws MalformedURLException {
+
+        BloomFilterVisitedSet visitedSet = new BloomFilterVisitedSet(1024 * 1024, 0.0001, true);
+
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(visitedSet.add(new URL("http://example.com/" + i + ".html")));
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(visitedSet.contains(new URL("http://example.com/" + i + ".html")));
+            assertFalse(visitedSet.add(new URL("http://example.com/" + i + ".html")));
+        }
+
+        assertEquals(10000, visitedSet.size());
+
+    }
+
+
+    @Test
+    public void testFalsePositiveRate() throws MalformedURLException {
+
+        BloomFilterVisitedSet visitedSet = new BloomFilterVisitedSet(64 * 1024, 0.01, false);
+
+        for (int i = 0; visitedSet.size() < visitedSet.getCapacity(); i++) {
+            visitedSet.add(new URL("http://example.com/" + i + ".html"));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (visitedSet.contains(new URL("http://example.com/other/" + i + ".html"))) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 200);
+        assertFalse(visitedSet.add(new URL("http://example.com/new.html")));
+
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class CharsetDetectorTest {
+
+
+    @Test
+    public void testDetectFromContentType() {
+
+        assertEquals(
+            StandardCharsets.ISO_8859_1,
+            detect("text/html; charset=\"ISO-8859-1\"", "<meta charset=\"windows-1251\">")
+        );
+
+    }
+
+
+    @Test
+    public void testDetectFromMetaCharset() {
+
+        assertEquals(Charset.forName("windows-1251"), detect("text/html", "<head><META charset=windows-1251>"));
+
+    }
+
+
+    @Test
+    public void testDetectFromMetaHttpEquiv() {
+
+        assertEquals(
+            StandardCharsets.ISO_8859_1,
+            detect(null, "<meta http-equiv=\"Content-Type\" content=\"text/html; charset=iso-8859-1\">")
+        );
+
+    }
+
+
+    @Test
+    public void testDetectFromByteOrderMark() {
+
+        byte[] bytes = "\uFEFF<p>".getBytes(StandardCharsets.UTF_16LE);
+
+        assertEquals(
+            StandardCharsets.UTF_16LE,
+            CharsetDetector.detect("text/html; charset=utf-8", bytes, 0, bytes.length)
+        );
+
+    }
+
+
+    @Test
+    public void testDetectDefault() {
+
+        assertEquals(CharsetDetector.DEFAULT_CHARSET, detect("text/html", "<p>no declaration</p>"));
+        assertEquals(CharsetDetector.DEFAULT_CHARSET, detect("text/html; charset=bogus-charset", "<p>"));
+
+    }
+
+
+    @Test
+    public void testIsAsciiCompatible() {
+
+        assertTrue(CharsetDetector.isAsciiCompatible(StandardCharsets.UTF_8));
+        assertTrue(CharsetDetector.isAsciiCompatible(StandardCharsets.ISO_8859_1));
+        assertTrue(CharsetDetector.isAsciiCompatible(Charset.forName("Shift_JIS")));
+        assertFalse(CharsetDetector.isAsciiCompatible(StandardCharsets.UTF_16));
+
+    }
+
+
+    private Charset detect(String contentType, String html) {
+
+        byte[] bytes = html.getBytes(StandardCharsets.US_ASCII);
+
+        return CharsetDetector.detect(contentType, bytes, 0, bytes.length);
+    }
+
+}
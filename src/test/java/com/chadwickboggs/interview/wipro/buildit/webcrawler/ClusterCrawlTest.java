@@ -0,0 +1,90 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+
+public class ClusterCrawlTest {
+
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
+    @Test(timeout = 60000)
+    public void testNodesCrawlEveryPageOnce() throws Exception {
+
+        SyntheticSite.Configuration siteConfiguration = new SyntheticSite.Configuration()
+            .setPageCount(400)
+            .setFanOut(6)
+            .setDepth(3)
+            .setPageBytes(1024)
+            .setHostCount(6);
+        Path sitemapPath = temporaryFolder.getRoot().toPath().resolve("sitemap.jsonl");
+        List<InetSocketAddress> nodes = freeAddresses(3);
+        ExecutorService executor = Executors.newFixedThreadPool(nodes.size());
+        try (SyntheticSite site = new SyntheticSite(siteConfiguration)) {
+            List<Future<?>> crawls = new ArrayList<>();
+            for (int node = 0; node < nodes.size(); node++) {
+                CrawlConfiguration configuration = new CrawlConfiguration()
+                    .setWorkers(4)
+                    .setHostRequestsPerSecond(0)
+                    .setIgnoreRobots(true)
+                    .setAllowedHosts(site.getHosts())
+                    .setSitemapFormat(SitemapFormat.JSONL)
+                    .setOutputPath(sitemapPath)
+                    .setClusterNodes(nodes)
+                    .setNodeIndex(node);
+                crawls.add(executor.submit(() -> {
+                    new CrawlEngine(configuration, new PrintStream(OutputStream.nullOutputStream())).crawl(
+                        site.getStartUrl()
+                    );
+
+                    return null;
+                }));
+            }
+            for (Future<?> crawl : crawls) {
+                crawl.get(50, TimeUnit.SECONDS);
+            }
+
+            assertEquals(400, site.getPageRequests());
+            assertEquals(0, site.getDuplicateRequests());
+            assertEquals(400, Files.readAllLines(sitemapPath).size());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+    }
+
+
+    private static List<InetSocketAddress> freeAddresses(int count) throws IOException {
+
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+                addresses.add(new InetSocketAddress(InetAddress.getLoopbackAddress(), socket.getLocalPort()));
+            }
+        }
+
+        return addresses;
+    }
+}
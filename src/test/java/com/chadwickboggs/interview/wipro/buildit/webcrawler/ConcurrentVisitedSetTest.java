@@ -0,0 +1,60 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class ConcurrentVisitedSetTest {
+
+
+    private VisitedSet visitedSet;
+
+
+    @Before
+    public void setup() {
+
+        visitedSet = new ConcurrentVisitedSet();
+
+    }
+
+
+    @Test
+    public void testAdd() throws MalformedURLException {
+
+        assertTrue(visitedSet.add(new URL("http://example.com/a.html")));
+        assertFalse(visitedSet.add(new URL("http://example.com/a.html")));
+        assertEquals(1, visitedSet.size());
+
+    }
+
+
+    @Test
+    public void testAddCanonicalizesUrl() throws MalformedURLException {
+
+        visitedSet.add(new URL("http://example.com/a.html"));
+
+        assertTrue(visitedSet.contains(new URL("HTTP://Example.COM:80/a.html#top")));
+        assertFalse(visitedSet.contains(new URL("http://example.com:8080/a.html")));
+
+    }
+
+
+    @Test
+    public void testCanonicalKey() throws MalformedURLException {
+
+        assertEquals("http://example.com/", UrlKeys.canonicalKey(new URL("http://EXAMPLE.com")));
+        assertEquals(
+            "https://example.com:8443/a?b=c",
+            UrlKeys.canonicalKey(new URL("https://example.com:8443/a?b=c#d"))
+        );
+
+    }
+
+}
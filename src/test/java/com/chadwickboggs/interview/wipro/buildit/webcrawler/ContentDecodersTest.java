@@ -0,0 +1,144 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+
+public class ContentDecodersTest {
+
+    private static final byte[] PAGE = "<html><body><a href=\"/a.html\">a</a></body></html>"
+        .getBytes(StandardCharsets.UTF_8);
+
+    private final ContentDecoders decoders = new ContentDecoders(
+        Arrays.asList(ContentEncoding.GZIP, ContentEncoding.DEFLATE)
+    );
+
+
+    @Test
+    public void testAcceptEncoding() {
+
+        assertEquals("gzip, deflate", decoders.getAcceptEncoding());
+        assertNull(new ContentDecoders(Collections.emptyList()).getAcceptEncoding());
+
+    }
+
+
+    @Test
+    public void testGzip() throws IOException {
+
+        assertArrayEquals(PAGE, decode("gzip", gzip(PAGE)));
+        assertArrayEquals(PAGE, decode("X-GZIP", gzip(PAGE)));
+
+    }
+
+
+    @Test
+    public void testDeflate() throws IOException {
+
+        assertArrayEquals(PAGE, decode("deflate", deflate(PAGE, false)));
+        assertArrayEquals(PAGE, decode("deflate", deflate(PAGE, true)));
+
+    }
+
+
+    @Test
+    public void testStackedCodings() throws IOException {
+
+        assertArrayEquals(PAGE, decode("deflate, gzip", gzip(deflate(PAGE, false))));
+
+    }
+
+
+    @Test
+    public void testIdentity() throws IOException {
+
+        assertArrayEquals(PAGE, decode(null, PAGE));
+        assertArrayEquals(PAGE, decode("identity", PAGE));
+
+    }
+
+
+    @Test
+    public void testUnsupportedCoding() {
+
+        try {
+            decode("br", PAGE);
+            fail("Expected an IOException.");
+        }
+        catch (IOException e) {
+            assertEquals("Unsupported content encoding.  Content Encoding: \"br\"", e.getMessage());
+        }
+
+    }
+
+
+    @Test
+    public void testCompressedCrawl() throws IOException, InterruptedException {
+
+        SyntheticSite.Configuration siteConfiguration = new SyntheticSite.Configuration()
+            .setPageCount(200)
+            .setPageBytes(8192)
+            .setCompression(true);
+        try (SyntheticSite site = new SyntheticSite(siteConfiguration)) {
+            List<String> sitemap = site.crawl(configuration -> {
+            });
+
+            assertEquals(200, site.getPageRequests());
+            assertEquals(0, site.getDuplicateRequests());
+            assertTrue(site.getBytesServed() < 200 * 8192 / 2);
+            assertEquals(200, sitemap.size());
+        }
+
+    }
+
+
+    private byte[] decode(String contentEncoding, byte[] body) throws IOException {
+
+        try (InputStream in = decoders.decode(contentEncoding, new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+
+
+    private static byte[] gzip(byte[] body) throws IOException {
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(body);
+        }
+
+        return compressed.toByteArray();
+    }
+
+
+    private static byte[] deflate(byte[] body, boolean raw) throws IOException {
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, raw);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(compressed, deflater)) {
+            out.write(body);
+        }
+        finally {
+            deflater.end();
+        }
+
+        return compressed.toByteArray();
+    }
+}
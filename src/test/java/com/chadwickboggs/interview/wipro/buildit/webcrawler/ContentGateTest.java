@@ -0,0 +1,77 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class ContentGateTest {
+
+
+    @Test
+    public void testAdmitsHtmlWithinLimit() throws MalformedURLException {
+
+        ContentGate gate = new ContentGate(1000);
+
+        assertTrue(gate.admits(response("text/html; charset=UTF-8", "999")));
+        assertTrue(gate.admits(response("application/xhtml+xml", null)));
+        assertTrue(gate.admits(response(null, null)));
+        assertFalse(gate.admits(response("application/pdf", "10")));
+        assertFalse(gate.admits(response("image/x-icon", null)));
+        assertFalse(gate.admits(response("text/html", "1001")));
+
+    }
+
+
+    @Test
+    public void testIsProbablyHtml() throws MalformedURLException {
+
+        assertTrue(ContentGate.isProbablyHtml(new URL("http://example.com")));
+        assertTrue(ContentGate.isProbablyHtml(new URL("http://example.com/docs/")));
+        assertTrue(ContentGate.isProbablyHtml(new URL("http://example.com/v1.2/about")));
+        assertTrue(ContentGate.isProbablyHtml(new URL("http://example.com/resume.HTML")));
+        assertFalse(ContentGate.isProbablyHtml(new URL("http://example.com/resume.pdf")));
+        assertFalse(ContentGate.isProbablyHtml(new URL("http://example.com/favicon.ico?v=2")));
+
+    }
+
+
+    @Test
+    public void testLimitEndsBody() throws IOException {
+
+        InputStream body = new ContentGate(4).limit(new ByteArrayInputStream("0123456789".getBytes("US-ASCII")));
+        byte[] buffer = new byte[10];
+
+        assertEquals(4, body.read(buffer));
+        assertEquals(-1, body.read());
+
+    }
+
+
+    private static PageResponse response(String contentType, String contentLength) throws MalformedURLException {
+
+        Map<String, List<String>> headers = new HashMap<>();
+        if (contentType != null) {
+            headers.put("Content-Type", Collections.singletonList(contentType));
+        }
+        if (contentLength != null) {
+            headers.put("Content-Length", Arrays.asList(contentLength));
+        }
+
+        return new PageResponse(new URL("http://example.com/"), 200, headers, new ByteArrayInputStream(new byte[0]));
+    }
+
+}
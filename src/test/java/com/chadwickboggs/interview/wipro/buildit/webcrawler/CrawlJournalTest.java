@@ -0,0 +1,147 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+
+public class CrawlJournalTest {
+
+
+    private static final String TARGET = "http://example.com/";
+
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
+    @Test
+    public void testRecoverReplaysTasksUpToCheckpoint() throws IOException {
+
+        Path directory = temporaryFolder.getRoot().toPath();
+        URL target = new URL(TARGET);
+        CrawlTask start = new CrawlTask(target, 0);
+        CrawlTask page = new CrawlTask(new URL(TARGET + "a.html"), 1);
+
+        try (CrawlJournal journal = new CrawlJournal(directory)) {
+            journal.reset();
+            journal.enqueued(start);
+            journal.enqueued(page);
+            journal.completed(start);
+            journal.checkpoint(target);
+            journal.enqueued(new CrawlTask(new URL(TARGET + "after-checkpoint.html"), 2));
+        }
+
+        List<String> pending = new ArrayList<>();
+        List<String> completed = new ArrayList<>();
+        try (CrawlJournal journal = new CrawlJournal(directory)) {
+            assertTrue(journal.hasCheckpoint());
+            journal.recover(target, (task, done) -> (done ? completed : pending).add(task.toString()));
+        }
+
+        assertEquals(1, completed.size());
+        assertEquals(start.toString(), completed.get(0));
+        assertEquals(1, pending.size());
+        assertEquals(page.toString(), pending.get(0));
+
+    }
+
+
+    @Test
+    public void testResumedCrawlListsEveryPage() throws IOException, InterruptedException {
+
+        Path directory = temporaryFolder.getRoot().toPath().resolve("state");
+        SyntheticSite.Configuration siteConfiguration = new SyntheticSite.Configuration()
+            .setPageCount(200)
+            .setFanOut(6)
+            .setDepth(3);
+        try (SyntheticSite site = new SyntheticSite(siteConfiguration)) {
+            List<String> interrupted = site.crawl(configuration -> configuration
+                .setStateDirectory(directory)
+                .setMaxPages(50)
+            );
+            assertEquals(50, interrupted.size());
+
+            List<String> resumed = site.crawl(configuration -> configuration
+                .setStateDirectory(directory)
+                .setResume(true)
+            );
+
+            Set<String> urls = new HashSet<>();
+            for (String line : resumed) {
+                urls.add(line.substring(0, line.indexOf(",\"depth\"")));
+            }
+            assertEquals(200, resumed.size());
+            assertEquals(200, urls.size());
+            assertEquals(200, site.getPageRequests());
+            assertEquals(0, site.getDuplicateRequests());
+        }
+
+    }
+
+
+    @Test(expected = IOException.class)
+    public void testRecoverRejectsOtherTarget() throws IOException {
+
+        Path directory = temporaryFolder.getRoot().toPath();
+        try (CrawlJournal journal = new CrawlJournal(directory)) {
+            journal.reset();
+            journal.checkpoint(new URL(TARGET));
+        }
+
+        try (CrawlJournal journal = new CrawlJournal(directory)) {
+            journal.recover(new URL("http://example.org/"), (task, done) -> {
+            });
+        }
+
+    }
+
+
+    @Test
+    public void testResetDiscardsCheckpoint() throws IOException {
+
+        Path directory = temporaryFolder.getRoot().toPath();
+        try (CrawlJournal journal = new CrawlJournal(directory)) {
+            journal.checkpoint(new URL(TARGET));
+            journal.reset();
+        }
+
+        try (CrawlJournal journal = new CrawlJournal(directory)) {
+            assertFalse(journal.hasCheckpoint());
+        }
+
+    }
+
+
+    @Test
+    public void testSpillingQueueKeepsOrderAcrossDisk() throws IOException {
+
+        try (SpillingFrontierQueue queue = new SpillingFrontierQueue(temporaryFolder.getRoot().toPath(), 2)) {
+            for (int i = 0; i < 10; i++) {
+                queue.add(new CrawlTask(new URL(TARGET + i + ".html"), i));
+            }
+
+            assertEquals(10, queue.size());
+            assertTrue(queue.getSpilledCount() > 0);
+            for (int i = 0; i < 10; i++) {
+                assertEquals(i, queue.poll().getDepth());
+            }
+            assertNull(queue.poll());
+        }
+
+    }
+
+}
@@ -0,0 +1,293 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Crawls a {@link SyntheticSite} with {@link WebCrawler} and reports the crawl
+ * rate, the fetch latency and the peak heap used.  Run with
+ * {@code mvn -Pload test -Dload.args="--pages 100000"}, or directly:
+ *
+ * <pre>
+ *     java -cp ... CrawlLoadHarness --pages 1000000 --fan-out 20 --latency-ms 5 --latency log-normal \
+ *         -- -w 64 -d fingerprint
+ * </pre>
+ *
+ * <p>Arguments after {@code --} are passed to the crawler, in place of the
+ * default {@code -H 0 -I}; the target and a JSON Lines sitemap written to a
+ * temporary file are always added, and with several hosts an --allow-host of
+ * them all.  Latency is measured by the site, from receiving a request to
+ * sending the last byte of its response.</p>
+ *
+ * <p>With {@code --nodes} the crawl runs as a cluster of that many crawler JVMs
+ * on this machine, node zero writing the sitemap.  The peak heap is then that of
+ * each node's own process and is not reported.</p>
+ */
+public final class CrawlLoadHarness {
+
+    private static final String USAGE = "Usage: CrawlLoadHarness"
+        + " [--pages <count>] [--fan-out <links>] [--depth <levels>] [--page-kb <kilobytes>]"
+        + " [--latency-ms <millis>] [--latency fixed|uniform|exponential|log-normal]"
+        + " [--error-rate <fraction>] [--binary-ratio <fraction>] [--seed <seed>] [--hosts <count>]"
+        + " [--compression gzip|none] [--nodes <count>] [-- <crawler options>]";
+    private static final List<String> DEFAULT_CRAWLER_ARGS = Arrays.asList("-H", "0", "-I");
+    private static final long HEAP_SAMPLE_MILLIS = 10;
+
+
+    private CrawlLoadHarness() {
+    }
+
+
+    public static void main(@Nonnull final String... args)
+        throws IOException, ArgsInvalidException, InterruptedException {
+
+        final SyntheticSite.Configuration siteConfiguration = new SyntheticSite.Configuration()
+            .setPageCount(10000);
+        List<String> crawlerArgs = DEFAULT_CRAWLER_ARGS;
+        int nodeCount = 1;
+        double latencyMillis = 0;
+        SyntheticSite.LatencyDistribution latencyDistribution = SyntheticSite.LatencyDistribution.FIXED;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if ("--".equals(args[i])) {
+                    crawlerArgs = Arrays.asList(args).subList(i + 1, args.length);
+
+                    break;
+                }
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException(String.format("Missing value.  Option: \"%s\"", args[i]));
+                }
+
+                final String value = args[++i];
+                switch (args[i - 1]) {
+                    case "--pages":
+                        siteConfiguration.setPageCount(Integer.parseInt(value));
+                        break;
+                    case "--fan-out":
+                        siteConfiguration.setFanOut(Integer.parseInt(value));
+                        break;
+                    case "--depth":
+                        siteConfiguration.setDepth(Integer.parseInt(value));
+                        break;
+                    case "--page-kb":
+                        siteConfiguration.setPageBytes(Integer.parseInt(value) * 1024);
+                        break;
+                    case "--latency-ms":
+                        latencyMillis = Double.parseDouble(value);
+                        break;
+                    case "--latency":
+                        latencyDistribution = SyntheticSite.LatencyDistribution.valueOf(
+                            value.toUpperCase(Locale.ROOT).replace('-', '_')
+                        );
+                        break;
+                    case "--error-rate":
+                        siteConfiguration.setErrorRate(Double.parseDouble(value));
+                        break;
+                    case "--binary-ratio":
+                        siteConfiguration.setBinaryRatio(Double.parseDouble(value));
+                        break;
+                    case "--seed":
+                        siteConfiguration.setSeed(Long.parseLong(value));
+                        break;
+                    case "--hosts":
+                        siteConfiguration.setHostCount(Integer.parseInt(value));
+                        break;
+                    case "--compression":
+                        siteConfiguration.setCompression("gzip".equalsIgnoreCase(value));
+                        break;
+                    case "--nodes":
+                        nodeCount = Integer.parseInt(value);
+                        if (nodeCount < 1) {
+                            throw new IllegalArgumentException(String.format(
+                                "Node count must be at least one.  Node Count: %d", nodeCount
+                            ));
+                        }
+                        break;
+                    default:
+                        throw new IllegalArgumentException(String.format(
+                            "Unknown option.  Option: \"%s\"", args[i - 1]
+                        ));
+                }
+            }
+            siteConfiguration.setLatency(latencyMillis, latencyDistribution);
+        }
+        catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+
+            System.exit(2);
+        }
+
+        run(siteConfiguration, crawlerArgs, nodeCount);
+    }
+
+
+    private static void run(
+        @Nonnull final SyntheticSite.Configuration siteConfiguration, @Nonnull final List<String> crawlerArgs,
+        int nodeCount
+    ) throws IOException, ArgsInvalidException, InterruptedException {
+
+        final Path sitemapPath = Files.createTempFile("load-sitemap", ".jsonl");
+        try (SyntheticSite site = new SyntheticSite(siteConfiguration)) {
+            final List<String> args = new ArrayList<>(crawlerArgs);
+            args.addAll(Arrays.asList(
+                "-t", site.getStartUrl().toString(), "-F", "jsonl", "-o", sitemapPath.toString()
+            ));
+            if (site.getHosts().size() > 1) {
+                args.addAll(Arrays.asList("-a", String.join(",", site.getHosts())));
+            }
+            System.out.println("Site: " + siteConfiguration);
+            System.out.println("Crawler: " + String.join(" ", args));
+
+            final AtomicLong peakHeap = new AtomicLong();
+            final long start = System.nanoTime();
+            if (nodeCount == 1) {
+                crawl(args, peakHeap);
+            }
+            else {
+                crawlOnNodes(args, nodeCount);
+            }
+            final double seconds = (System.nanoTime() - start) / 1e9;
+
+            final long requests = site.getPageRequests() + site.getFileRequests();
+            final LatencyHistogram latencies = site.getLatencies();
+            System.out.println(String.format(Locale.ROOT,
+                "Pages: %d of %d, Files: %d, Errors: %d, Duplicates: %d, Sitemap Lines: %d",
+                site.getPageRequests(), siteConfiguration.getPageCount(), site.getFileRequests(),
+                site.getErrorResponses(), site.getDuplicateRequests(), lineCount(sitemapPath)
+            ));
+            System.out.println(String.format(Locale.ROOT,
+                "Elapsed: %.2f s, Pages/sec: %.0f, Requests/sec: %.0f, MB/sec: %.2f",
+                seconds, site.getPageRequests() / seconds, requests / seconds,
+                site.getBytesServed() / seconds / (1024 * 1024)
+            ));
+            System.out.println(String.format(Locale.ROOT,
+                "Fetch Latency: p50 %.2f ms, p99 %.2f ms%s",
+                latencies.getPercentile(0.50) / 1e6, latencies.getPercentile(0.99) / 1e6,
+                nodeCount == 1 ? ", Peak Heap: " + peakHeap.get() / (1024 * 1024) + " MB" : ""
+            ));
+        }
+        finally {
+            Files.deleteIfExists(sitemapPath);
+        }
+    }
+
+
+    /**
+     * Crawl in this JVM, sampling the heap used.
+     */
+    private static void crawl(@Nonnull final List<String> args, @Nonnull final AtomicLong peakHeap)
+        throws ArgsInvalidException {
+
+        final WebCrawler crawler = new WebCrawler(WebCrawler.parseCommandLineArguments(
+            args.toArray(new String[0])
+        ));
+        System.gc();
+        final Thread heapSampler = heapSampler(peakHeap);
+
+        final PrintStream out = System.out;
+        try {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            crawler.run();
+        }
+        finally {
+            System.setOut(out);
+            heapSampler.interrupt();
+        }
+    }
+
+
+    /**
+     * Crawl as a cluster of crawler JVMs on this machine, with this JVM's class
+     * path and heap limit, listening on free loopback ports.
+     */
+    private static void crawlOnNodes(@Nonnull final List<String> args, int nodeCount)
+        throws IOException, InterruptedException {
+
+        final List<String> addresses = new ArrayList<>();
+        for (int node = 0; node < nodeCount; node++) {
+            try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+                addresses.add(InetAddress.getLoopbackAddress().getHostAddress() + ":" + socket.getLocalPort());
+            }
+        }
+
+        final String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        final List<Process> processes = new ArrayList<>();
+        try {
+            for (int node = 0; node < nodeCount; node++) {
+                final List<String> command = new ArrayList<>(Arrays.asList(
+                    java, "-Xmx" + Runtime.getRuntime().maxMemory() / (1024 * 1024) + "m",
+                    "-cp", System.getProperty("java.class.path"), WebCrawler.class.getName()
+                ));
+                command.addAll(args);
+                command.addAll(Arrays.asList("-C", String.join(",", addresses), "-n", String.valueOf(node)));
+                processes.add(new ProcessBuilder(command)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start());
+            }
+
+            for (int node = 0; node < nodeCount; node++) {
+                final int exitCode = processes.get(node).waitFor();
+                if (exitCode != 0) {
+                    System.err.println(String.format("Crawler node failed.  Node: %d, Exit Code: %d", node, exitCode));
+                }
+            }
+        }
+        finally {
+            processes.forEach(Process::destroy);
+        }
+    }
+
+
+    /**
+     * Start a thread sampling the heap used until interrupted, keeping the
+     * highest sample.  Sampling the whole heap, rather than summing the peaks of
+     * each memory pool, which peak at different times, gives the high-water mark
+     * the crawl actually needed, give or take garbage not yet collected.
+     */
+    @Nonnull
+    private static Thread heapSampler(@Nonnull final AtomicLong peakHeap) {
+
+        final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        final Thread thread = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(HEAP_SAMPLE_MILLIS);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, "heap-sampler");
+        thread.setDaemon(true);
+        thread.start();
+
+        return thread;
+    }
+
+
+    private static long lineCount(@Nonnull final Path path) throws IOException {
+
+        try (Stream<String> lines = Files.lines(path)) {
+            return lines.count();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.util.Map;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+
+public class CrawlMetricsTest {
+
+
+    @Test
+    public void testCounters() throws Exception {
+
+        CrawlMetrics metrics = new CrawlMetrics(new URL("http://example.com/"));
+        metrics.recordPageFetched(1000);
+        metrics.recordPageFetched(500);
+        metrics.recordPageNotModified();
+        metrics.recordPageDuplicate();
+        metrics.recordLinks(10, 2, 3);
+        metrics.recordError(new HttpStatusException("Not found.", 404));
+        metrics.recordError(new HttpStatusException("Gone.", 410));
+        metrics.recordError(new SocketTimeoutException());
+        metrics.setFrontierDepth(() -> 42);
+
+        assertEquals(2, metrics.getPagesFetched());
+        assertEquals(1500, metrics.getBytesFetched());
+        assertEquals(1, metrics.getPagesNotModified());
+        assertEquals(1, metrics.getPagesDuplicate());
+        assertEquals(10, metrics.getLinksExtracted());
+        assertEquals(2, metrics.getLinksOutOfScope());
+        assertEquals(3, metrics.getDedupeHits());
+        assertEquals(42, metrics.getFrontierDepth());
+        assertEquals(3, metrics.getErrorCount());
+        assertEquals(Long.valueOf(2), metrics.getErrors().get("HTTP 4xx"));
+        assertEquals(Long.valueOf(1), metrics.getErrors().get("SocketTimeoutException"));
+        assertTrue(metrics.getProgressLine().contains("Pages: 2,"));
+
+    }
+
+
+    @Test
+    public void testLatencyPercentiles() throws Exception {
+
+        CrawlMetrics metrics = new CrawlMetrics(new URL("http://example.com/"));
+        for (long millis = 1; millis <= 100; millis++) {
+            metrics.recordLatency(CrawlStage.FETCH, millis * 1000000);
+        }
+
+        Map<String, Double> p50 = metrics.getLatencyMillisP50();
+        assertEquals(50, p50.get("fetch"), 50 * 0.07);
+        assertEquals(99, metrics.getLatencyMillisP99().get("fetch"), 99 * 0.07);
+        assertEquals(0, p50.get("parse"), 0);
+        assertEquals(CrawlStage.values().length, p50.size());
+
+    }
+
+
+    @Test
+    public void testRegisteredWithJmx() throws Exception {
+
+        CrawlMetrics metrics = new CrawlMetrics(new URL("http://example.com/"));
+        metrics.recordPageFetched(100);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        ObjectName name = metrics.register();
+        try {
+            assertNotNull(name);
+            assertEquals(1L, server.getAttribute(name, "PagesFetched"));
+            assertEquals("http://example.com/", server.getAttribute(name, "StartUrl"));
+        }
+        finally {
+            CrawlMetrics.unregister(name);
+        }
+
+        assertFalse(server.isRegistered(name));
+
+    }
+
+
+    @Test
+    public void testSameSiteCrawlsRegisterApart() throws Exception {
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        CrawlMetrics first = new CrawlMetrics(new URL("http://example.com/"));
+        CrawlMetrics second = new CrawlMetrics(new URL("http://example.com/"));
+        first.recordPageFetched(100);
+
+        ObjectName firstName = first.register();
+        ObjectName secondName = second.register();
+        try {
+            assertNotNull(firstName);
+            assertNotNull(secondName);
+            assertNotEquals(firstName, secondName);
+            assertEquals(1L, server.getAttribute(firstName, "PagesFetched"));
+            assertEquals(0L, server.getAttribute(secondName, "PagesFetched"));
+        }
+        finally {
+            CrawlMetrics.unregister(firstName);
+            CrawlMetrics.unregister(secondName);
+        }
+
+    }
+}
@@ -0,0 +1,248 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+
+public class CrawlerTest {
+
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
+    @Test
+    public void testPublishesEveryPage() throws IOException, InterruptedException {
+
+        try (SyntheticSite site = new SyntheticSite(new SyntheticSite.Configuration().setPageCount(200))) {
+            Crawler crawler = Crawler.builder()
+                .seed(site.getStartUrl())
+                .workers(4)
+                .hostRequestsPerSecond(0)
+                .ignoreRobots(true)
+                .build();
+            Set<String> urls = ConcurrentHashMap.newKeySet();
+            List<CrawlResult> results = new CopyOnWriteArrayList<>();
+            CountDownLatch completed = new CountDownLatch(1);
+            crawler.subscribe(new Flow.Subscriber<CrawlResult>() {
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+
+                @Override
+                public void onNext(CrawlResult result) {
+
+                    urls.add(result.getUrl().toString());
+                    results.add(result);
+                }
+
+
+                @Override
+                public void onError(Throwable throwable) {
+                    fail(throwable.toString());
+                }
+
+
+                @Override
+                public void onComplete() {
+                    completed.countDown();
+                }
+            });
+
+            assertTrue(completed.await(60, TimeUnit.SECONDS));
+            assertEquals(200, results.size());
+            assertEquals(200, urls.size());
+            assertTrue(results.stream().allMatch(result -> result.getStatusCode() == 200));
+            assertTrue(results.stream().allMatch(result -> result.getFetchNanos() > 0 && result.getBytes() > 0));
+            assertEquals(Collections.singleton(0), results.stream()
+                .filter(result -> result.getUrl().toString().equals(site.getStartUrl().toString()))
+                .map(CrawlResult::getDepth)
+                .collect(Collectors.toSet()));
+        }
+
+    }
+
+
+    @Test
+    public void testSlowSubscriberThrottlesCrawl() throws IOException, InterruptedException {
+
+        try (SyntheticSite site = new SyntheticSite(new SyntheticSite.Configuration().setPageCount(500))) {
+            Crawler crawler = Crawler.builder()
+                .seed(site.getStartUrl())
+                .workers(4)
+                .hostRequestsPerSecond(0)
+                .ignoreRobots(true)
+                .bufferSize(4)
+                .build();
+            AtomicReference<Flow.Subscription> subscription = new AtomicReference<>();
+            CountDownLatch received = new CountDownLatch(10);
+            crawler.subscribe(new Flow.Subscriber<CrawlResult>() {
+
+                @Override
+                public void onSubscribe(Flow.Subscription newSubscription) {
+
+                    subscription.set(newSubscription);
+                    newSubscription.request(10);
+                }
+
+
+                @Override
+                public void onNext(CrawlResult result) {
+                    received.countDown();
+                }
+
+
+                @Override
+                public void onError(Throwable throwable) {
+                }
+
+
+                @Override
+                public void onComplete() {
+                }
+            });
+
+            assertTrue(received.await(60, TimeUnit.SECONDS));
+            Thread.sleep(500);
+            long requested = site.getPageRequests();
+            assertTrue("Pages fetched: " + requested, requested <= 10 + 4 + 4 + 2);
+
+            subscription.get().cancel();
+            Thread.sleep(500);
+            assertTrue(site.getPageRequests() <= requested + 4);
+        }
+
+    }
+
+
+    @Test
+    public void testBuildCopiesConfiguration() throws IOException {
+
+        Crawler.Builder builder = Crawler.builder()
+            .seed(new URL("http://example.com/"))
+            .seed(new URL("http://example.org/"))
+            .allowHost("*.example.net")
+            .blockHost("ads.example.com");
+        Crawler first = builder.build();
+        Crawler second = builder.maxPages(10).blockHost("cdn.example.com").build();
+
+        assertTrue(first.toString(), first.toString().contains("allowedHosts='[*.example.net, example.org]'"));
+        assertTrue(first.toString(), first.toString().contains("blockedHosts='[ads.example.com]'"));
+        assertTrue(first.toString(), first.toString().contains("maxPages='0'"));
+        assertTrue(second.toString(), second.toString().contains("allowedHosts='[*.example.net, example.org]'"));
+        assertTrue(
+            second.toString(), second.toString().contains("blockedHosts='[ads.example.com, cdn.example.com]'")
+        );
+        assertTrue(second.toString(), second.toString().contains("maxPages='10'"));
+
+    }
+
+
+    @Test
+    public void testOneJournaledSubscriptionAtATime() throws IOException, InterruptedException {
+
+        try (SyntheticSite site = new SyntheticSite(new SyntheticSite.Configuration().setPageCount(200))) {
+            Crawler crawler = Crawler.builder()
+                .seed(site.getStartUrl())
+                .hostRequestsPerSecond(0)
+                .ignoreRobots(true)
+                .bufferSize(1)
+                .configure(configuration -> configuration.setStateDirectory(
+                    temporaryFolder.getRoot().toPath().resolve("state")
+                ))
+                .build();
+            AtomicReference<Flow.Subscription> first = new AtomicReference<>();
+            AtomicReference<Throwable> firstError = new AtomicReference<>();
+            crawler.subscribe(new RecordingSubscriber(first, firstError));
+            AtomicReference<Throwable> secondError = new AtomicReference<>();
+            CountDownLatch secondFailed = new CountDownLatch(1);
+            crawler.subscribe(new RecordingSubscriber(new AtomicReference<>(), secondError) {
+
+                @Override
+                public void onError(Throwable throwable) {
+
+                    super.onError(throwable);
+                    secondFailed.countDown();
+                }
+            });
+
+            assertTrue(secondFailed.await(10, TimeUnit.SECONDS));
+            assertTrue(secondError.get() instanceof IllegalStateException);
+            assertNull(firstError.get());
+            first.get().cancel();
+        }
+
+    }
+
+
+    @Test(expected = IllegalStateException.class)
+    public void testSeedRequired() {
+
+        Crawler.builder().build();
+
+    }
+
+
+    /**
+     * Requests nothing, so a crawl publishing to it waits, and records its
+     * subscription and any error.
+     */
+    private static class RecordingSubscriber implements Flow.Subscriber<CrawlResult> {
+
+        private final AtomicReference<Flow.Subscription> subscription;
+        private final AtomicReference<Throwable> error;
+
+
+        private RecordingSubscriber(
+            AtomicReference<Flow.Subscription> subscription, AtomicReference<Throwable> error
+        ) {
+
+            this.subscription = subscription;
+            this.error = error;
+        }
+
+
+        @Override
+        public void onSubscribe(Flow.Subscription newSubscription) {
+            subscription.set(newSubscription);
+        }
+
+
+        @Override
+        public void onNext(CrawlResult result) {
+        }
+
+
+        @Override
+        public void onError(Throwable throwable) {
+            error.set(throwable);
+        }
+
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.security.Security;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+
+public class DnsCacheTest {
+
+    private final Map<String, AtomicInteger> lookups = new ConcurrentHashMap<>();
+
+
+    @Test
+    public void testCachesAddresses() throws UnknownHostException {
+
+        try (DnsCache cache = new DnsCache(this::resolve, 60000)) {
+            assertEquals("10.0.0.1", cache.resolve("example.com")[0].getHostAddress());
+            assertEquals("10.0.0.1", cache.resolve("EXAMPLE.com")[0].getHostAddress());
+
+            assertEquals(1, lookups.get("example.com").get());
+        }
+
+    }
+
+
+    @Test
+    public void testCachesUnknownHosts() {
+
+        try (DnsCache cache = new DnsCache(this::resolve, 60000)) {
+            for (int i = 0; i < 3; i++) {
+                try {
+                    cache.resolve("dead.example.com");
+                    fail("Expected an UnknownHostException.");
+                }
+                catch (UnknownHostException e) {
+                    assertEquals("dead.example.com", e.getMessage());
+                }
+            }
+
+            assertEquals(1, lookups.get("dead.example.com").get());
+        }
+
+    }
+
+
+    @Test
+    public void testExpiry() throws UnknownHostException, InterruptedException {
+
+        try (DnsCache cache = new DnsCache(this::resolve, 1)) {
+            cache.resolve("example.com");
+            Thread.sleep(5);
+            cache.resolve("example.com");
+
+            assertEquals(2, lookups.get("example.com").get());
+        }
+
+    }
+
+
+    @Test
+    public void testPrefetch() throws UnknownHostException, InterruptedException {
+
+        CountDownLatch resolved = new CountDownLatch(1);
+        HostResolver resolver = host -> {
+            InetAddress[] addresses = resolve(host);
+            resolved.countDown();
+
+            return addresses;
+        };
+        try (DnsCache cache = new DnsCache(resolver, 60000)) {
+            cache.prefetch("example.com");
+            cache.prefetch("example.com");
+
+            assertTrue(resolved.await(10, TimeUnit.SECONDS));
+            assertEquals("10.0.0.1", cache.resolve("example.com")[0].getHostAddress());
+            assertEquals(1, lookups.get("example.com").get());
+        }
+
+    }
+
+
+    @Test
+    public void testUnresolvableHostIsLookedUpOnce() throws IOException, InterruptedException {
+
+        SyntheticSite.Configuration siteConfiguration = new SyntheticSite.Configuration()
+            .setPageCount(200)
+            .setHostCount(2);
+        try (SyntheticSite site = new SyntheticSite(siteConfiguration)) {
+            site.crawl(configuration -> configuration
+                .setAllowedHosts(site.getHosts())
+                .setHostResolver(host -> {
+                    lookups.computeIfAbsent(host, key -> new AtomicInteger()).incrementAndGet();
+                    if (host.equals("127.0.0.2")) {
+                        throw new UnknownHostException(host);
+                    }
+
+                    return InetAddress.getAllByName(host);
+                })
+            );
+
+            assertEquals(1, lookups.get("127.0.0.1").get());
+            assertEquals(1, lookups.get("127.0.0.2").get());
+            assertTrue(site.getPageRequests() < 200);
+            assertEquals(0, site.getDuplicateRequests());
+        }
+
+    }
+
+
+    @Test
+    public void testDefaultTimeToLiveIsTheRuntimes() {
+
+        assertEquals(
+            DnsCache.runtimeTimeToLiveSeconds(), CrawlConfiguration.DEFAULT_DNS_TIME_TO_LIVE_SECONDS
+        );
+        Assume.assumeTrue(Security.getProperty("networkaddress.cache.ttl") == null);
+
+        String previous = System.getProperty("sun.net.inetaddr.ttl");
+        try {
+            System.clearProperty("sun.net.inetaddr.ttl");
+            assertEquals(30, DnsCache.runtimeTimeToLiveSeconds());
+            System.setProperty("sun.net.inetaddr.ttl", "120");
+            assertEquals(120, DnsCache.runtimeTimeToLiveSeconds());
+            System.setProperty("sun.net.inetaddr.ttl", "-1");
+            assertEquals(300, DnsCache.runtimeTimeToLiveSeconds());
+        }
+        finally {
+            if (previous == null) {
+                System.clearProperty("sun.net.inetaddr.ttl");
+            }
+            else {
+                System.setProperty("sun.net.inetaddr.ttl", previous);
+            }
+        }
+
+    }
+
+
+    private InetAddress[] resolve(String host) throws UnknownHostException {
+
+        lookups.computeIfAbsent(host, key -> new AtomicInteger()).incrementAndGet();
+        if (host.startsWith("dead.")) {
+            throw new UnknownHostException(host);
+        }
+
+        return new InetAddress[] {InetAddress.getByAddress(host, new byte[] {10, 0, 0, 1})};
+    }
+}
@@ -0,0 +1,160 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+
+public class DuplicateIndexTest {
+
+
+    @Test
+    public void testFingerprintIgnoresMarkupAndCase() {
+
+        ContentFingerprint page = fingerprint("<p><a href=\"/a.html\">About us</a></p> <p>Contact us</p>");
+        ContentFingerprint copy = fingerprint("<P><A HREF=\"/a.html?sid=42\">ABOUT us</A></P>\n<div>contact US</div>");
+
+        assertEquals(page.getExactHash(), copy.getExactHash());
+        assertEquals(page.getSimHash(), copy.getSimHash());
+        assertNull(fingerprint("<html><body><img src=\"a.png\"></body></html>"));
+
+    }
+
+
+    @Test
+    public void testExactHashTakesInLinkTargets() {
+
+        ContentFingerprint page = fingerprint("<a class=x href=\"/cal/2024/05\">Next month</a>");
+        ContentFingerprint nextPage = fingerprint("<a class=x href=\"/cal/2024/06\">Next month</a>");
+        ContentFingerprint copy = fingerprint("<A Href = '/cal/2024/05?sid=1#top' title=x>next MONTH</A>");
+        ContentFingerprint unquoted = fingerprint("<a href=/cal/2024/05?utm_source=x>Next month</a>");
+
+        assertNotEquals(page.getExactHash(), nextPage.getExactHash());
+        assertEquals(page.getSimHash(), nextPage.getSimHash());
+        assertEquals(page.getExactHash(), copy.getExactHash());
+        assertEquals(page.getExactHash(), unquoted.getExactHash());
+        assertNotEquals(
+            page.getExactHash(), fingerprint("<a data-href=\"/cal/2024/05\">Next month</a>").getExactHash()
+        );
+
+    }
+
+
+    @Test
+    public void testStreamedFingerprintMatchesWhole() {
+
+        byte[] body = text(500, -1).getBytes(StandardCharsets.UTF_8);
+        ContentFingerprint.Builder builder = new ContentFingerprint.Builder();
+        for (int i = 0; i < body.length; i += 7) {
+            builder.update(body, i, Math.min(7, body.length - i));
+        }
+        ContentFingerprint streamed = builder.build();
+        ContentFingerprint whole = ContentFingerprint.of(body);
+
+        assertEquals(whole.getExactHash(), streamed.getExactHash());
+        assertEquals(whole.getSimHash(), streamed.getSimHash());
+
+    }
+
+
+    @Test
+    public void testExactCopies() throws IOException {
+
+        DuplicateIndex index = new DuplicateIndex(0);
+        URL original = new URL("http://example.com/a.html");
+
+        assertNull(index.register(original, fingerprint(text(500, -1))));
+        assertEquals(original, index.register(new URL("http://example.com/a.html?sid=1"), fingerprint(text(500, -1))));
+        assertNull(index.register(new URL("http://example.com/b.html"), fingerprint(text(500, 250))));
+        assertEquals(2, index.size());
+
+    }
+
+
+    @Test
+    public void testNearCopies() throws IOException {
+
+        ContentFingerprint page = fingerprint(text(2000, -1));
+        ContentFingerprint edited = fingerprint(text(2000, 1000));
+        assertNotEquals(page.getExactHash(), edited.getExactHash());
+
+        DuplicateIndex index = new DuplicateIndex(DuplicateIndex.MAX_DISTANCE);
+        URL original = new URL("http://example.com/a.html");
+        assertNull(index.register(original, page));
+        assertEquals(original, index.register(new URL("http://example.com/print/a.html"), edited));
+        assertNull(index.register(new URL("http://example.com/b.html"), fingerprint(text(2000, -1).substring(5000))));
+
+    }
+
+
+    @Test
+    public void testNearCopiesDifferInBlocks() throws IOException {
+
+        DuplicateIndex index = new DuplicateIndex(3);
+        URL original = new URL("http://example.com/a.html");
+        long simHash = 0x0123456789abcdefL;
+        index.register(original, new ContentFingerprint(1, simHash));
+
+        assertEquals(original, index.register(original, new ContentFingerprint(2, simHash ^ 0x8001000100000000L)));
+        assertNull(index.register(original, new ContentFingerprint(3, simHash ^ 0x8001000100010000L)));
+        assertEquals(2, index.size());
+
+    }
+
+
+    @Test
+    public void testDuplicatePagesAreAliases() throws IOException, InterruptedException {
+
+        for (boolean pipeline : new boolean[] {false, true}) {
+            SyntheticSite.Configuration siteConfiguration = new SyntheticSite.Configuration()
+                .setPageCount(200)
+                .setFanOut(6)
+                .setDepth(3)
+                .setPageBytes(2048)
+                .setSessionRatio(0.1);
+            try (SyntheticSite site = new SyntheticSite(siteConfiguration)) {
+                List<String> sitemap = site.crawl(configuration -> configuration
+                    .setWorkers(4)
+                    .setPipeline(pipeline)
+                    .setDetectDuplicates(true)
+                    .setNearDuplicateDistance(0)
+                );
+
+                long aliases = sitemap.stream().filter(line -> line.contains("\"alias_of\"")).count();
+                assertEquals(200, sitemap.size() - aliases);
+                assertTrue(aliases > 0);
+                assertEquals(aliases, site.getDuplicateRequests());
+                assertEquals(200 + aliases, site.getPageRequests());
+                assertTrue(site.getPageRequests() < 2 * 200);
+            }
+        }
+
+    }
+
+
+    /**
+     * Returns a page of distinct words, one of which, if any, is changed.
+     */
+    private static String text(int words, int changed) {
+
+        StringBuilder text = new StringBuilder("<html><body><p>");
+        for (int i = 0; i < words; i++) {
+            text.append(i == changed ? "edited" : "word" + i).append(i % 20 == 19 ? "</p>\n<p>" : " ");
+        }
+
+        return text.append("</p></body></html>").toString();
+    }
+
+
+    private static ContentFingerprint fingerprint(String html) {
+        return ContentFingerprint.of(html.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,61 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import org.junit.Test;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class FingerprintVisitedSetTest {
+
+
+    @Test
+    public void testAdd() throws MalformedURLException {
+
+        testAdd(new FingerprintVisitedSet(1024 * 1024, false));
+
+    }
+
+
+    @Test
+    public void testAddOffHeap() throws MalformedURLException {
+
+        testAdd(new FingerprintVisitedSet(1024 * 1024, true));
+
+    }
+
+
+    @Test
+    public void testAddStopsAtCapacity() throws MalformedURLException {
+
+        FingerprintVisitedSet visitedSet = new FingerprintVisitedSet(64 * Long.BYTES, false);
+
+        for (int i = 0; i < 100; i++) {
+            visitedSet.add(new URL("http://example.com/" + i + ".html"));
+        }
+
+        assertEquals(visitedSet.getCapacity(), visitedSet.size());
+        assertFalse(visitedSet.add(new URL("http://example.com/new.html")));
+
+    }
+
+
+    private void testAdd(VisitedSet visitedSet) throws MalformedURLException {
+
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(visitedSet.add(new URL("http://example.com/" + i + ".html")));
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertFalse(visitedSet.add(new URL("http://EXAMPLE.com/" + i + ".html")));
+        }
+
+        assertEquals(10000, visitedSet.size());
+        assertFalse(visitedSet.contains(new URL("http://example.com/10000.html")));
+
+    }
+
+}
@@ -0,0 +1,154 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+
+public class FrontierTest {
+
+
+    private Frontier frontier;
+
+
+    @Before
+    public void setup() {
+
+        frontier = new Frontier();
+
+    }
+
+
+    @Test
+    public void testTakeReturnsOfferedTask() throws MalformedURLException, InterruptedException {
+
+        frontier.offer(new CrawlTask(new URL("http://example.com/"), 0));
+
+        CrawlTask task = frontier.take();
+
+        assertNotNull(task);
+        assertEquals(0, task.getDepth());
+        assertEquals(1, frontier.getPendingCount());
+
+    }
+
+
+    @Test
+    public void testTakeReturnsNullWhenFinished() throws MalformedURLException, InterruptedException {
+
+        frontier.offer(new CrawlTask(new URL("http://example.com/"), 0));
+        frontier.done(frontier.take());
+
+        assertNull(frontier.take());
+        assertEquals(0, frontier.getPendingCount());
+
+    }
+
+
+    @Test
+    public void testTakeWaitsForInProgressTask() throws Exception {
+
+        frontier.offer(new CrawlTask(new URL("http://example.com/"), 0));
+        CrawlTask startTask = frontier.take();
+
+        Thread worker = new Thread(() -> {
+            try {
+                Thread.sleep(200);
+                frontier.offer(new CrawlTask(new URL("http://example.com/a.html"), 1));
+            }
+            catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            finally {
+                frontier.done(startTask);
+            }
+        });
+        worker.start();
+
+        CrawlTask task = frontier.take();
+
+        assertNotNull(task);
+        assertEquals(1, task.getDepth());
+        worker.join();
+
+    }
+
+
+    @Test
+    public void testTasksTakenInScoreOrder() throws MalformedURLException, InterruptedException {
+
+        frontier = new Frontier(
+            new MemoryFrontierQueue(FrontierOrder.PATH.create(Collections.emptySet())), null
+        );
+        frontier.offer(new CrawlTask(new URL("http://example.com/news/2019/04/"), 2));
+        frontier.offer(new CrawlTask(new URL("http://example.com/news/?page=7"), 1));
+        frontier.offer(new CrawlTask(new URL("http://example.com/news/2019/"), 1));
+        frontier.offer(new CrawlTask(new URL("http://example.com/news/"), 1));
+        frontier.offer(new CrawlTask(new URL("http://example.com/about/"), 1));
+
+        assertEquals("/news/", frontier.take().getUrl().getFile());
+        assertEquals("/about/", frontier.take().getUrl().getFile());
+        assertEquals("/news/?page=7", frontier.take().getUrl().getFile());
+        assertEquals("/news/2019/", frontier.take().getUrl().getFile());
+        assertEquals("/news/2019/04/", frontier.take().getUrl().getFile());
+
+    }
+
+
+    @Test
+    public void testListedTasksTakenFirst() throws MalformedURLException, InterruptedException {
+
+        frontier = new Frontier(new MemoryFrontierQueue(FrontierOrder.LISTED.create(
+            Collections.singleton("http://example.com/deep/listed.html")
+        )), null);
+        frontier.offer(new CrawlTask(new URL("http://example.com/a.html"), 1));
+        frontier.offer(new CrawlTask(new URL("http://example.com/deep/listed.html"), 3));
+
+        assertEquals("/deep/listed.html", frontier.take().getUrl().getFile());
+        assertEquals("/a.html", frontier.take().getUrl().getFile());
+
+    }
+
+
+    @Test
+    public void testBudgetStopsTakingAndLeavesTasksPending() throws Exception {
+
+        CrawlConfiguration configuration = new CrawlConfiguration().setMaxPages(2);
+        frontier.setBudget(new CrawlBudget(configuration, new CrawlMetrics(new URL("http://example.com/"))));
+        for (int i = 0; i < 4; i++) {
+            frontier.offer(new CrawlTask(new URL("http://example.com/" + i + ".html"), 1));
+        }
+
+        frontier.done(frontier.take());
+        frontier.done(frontier.take());
+
+        assertNull(frontier.take());
+        assertEquals(2, frontier.getPendingCount());
+        assertEquals(2, frontier.size());
+
+    }
+
+
+    @Test
+    public void testBudgetLimitsDepth() throws MalformedURLException {
+
+        CrawlBudget budget = new CrawlBudget(
+            new CrawlConfiguration().setMaxDepth(2), new CrawlMetrics(new URL("http://example.com/"))
+        );
+
+        assertTrue(budget.followsLinksAt(1));
+        assertFalse(budget.followsLinksAt(2));
+        assertFalse(budget.isExhausted());
+
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class HostPartitionerTest {
+
+
+    @Test
+    public void testHostsSpreadEvenly() {
+
+        HostPartitioner partitioner = new HostPartitioner(4);
+        int[] counts = new int[4];
+        for (int i = 0; i < 10000; i++) {
+            counts[partitioner.nodeOf("host-" + i + ".example.com")]++;
+        }
+
+        for (int count : counts) {
+            assertTrue("Count: " + count, count > 2500 * 0.75 && count < 2500 * 1.25);
+        }
+
+    }
+
+
+    @Test
+    public void testOwnerIgnoresCase() {
+
+        HostPartitioner partitioner = new HostPartitioner(8);
+
+        assertEquals(partitioner.nodeOf("www.example.com"), partitioner.nodeOf("WWW.Example.COM"));
+
+    }
+
+
+    @Test
+    public void testAddingNodeMovesOnlyItsHosts() {
+
+        HostPartitioner four = new HostPartitioner(4);
+        HostPartitioner five = new HostPartitioner(5);
+        int moved = 0;
+        for (int i = 0; i < 10000; i++) {
+            String host = "host-" + i + ".example.com";
+            if (four.nodeOf(host) != five.nodeOf(host)) {
+                assertEquals(4, five.nodeOf(host));
+                moved++;
+            }
+        }
+
+        assertTrue("Moved: " + moved, moved > 2000 * 0.75 && moved < 2000 * 1.25);
+
+    }
+}
@@ -0,0 +1,96 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class HostScopeTest {
+
+
+    @Test
+    public void testRegistrableDomain() {
+
+        PublicSuffixList list = PublicSuffixList.getDefault();
+
+        assertEquals("chadwickboggs.com", list.getRegistrableDomain("chadwickboggs.com"));
+        assertEquals("chadwickboggs.com", list.getRegistrableDomain("WWW.ChadwickBoggs.com"));
+        assertEquals("example.co.uk", list.getRegistrableDomain("www.example.co.uk"));
+        assertEquals("co.uk", list.getRegistrableDomain("co.uk"));
+        assertEquals("localhost", list.getRegistrableDomain("localhost"));
+        assertEquals("127.0.0.1", list.getRegistrableDomain("127.0.0.1"));
+
+    }
+
+
+    @Test
+    public void testWildcardAndExceptionRules() throws IOException {
+
+        PublicSuffixList list = PublicSuffixList.parse(new StringReader(
+            "// comment\n"
+                + "com\n"
+                + "*.ck\n"
+                + "!www.ck\n"
+                + "\n"
+        ));
+
+        assertEquals("example.com", list.getRegistrableDomain("a.b.example.com"));
+        assertEquals("example.foo.ck", list.getRegistrableDomain("www.example.foo.ck"));
+        assertEquals("foo.ck", list.getRegistrableDomain("foo.ck"));
+        assertEquals("www.ck", list.getRegistrableDomain("a.www.ck"));
+        assertEquals("example.org", list.getRegistrableDomain("a.example.org"));
+
+    }
+
+
+    @Test
+    public void testContainsSiteHosts() throws MalformedURLException {
+
+        HostScope scope = new HostScope(
+            new URL("http://www.example.co.uk/"), Collections.emptyList(), Collections.emptyList()
+        );
+
+        assertEquals("example.co.uk", scope.getSiteDomain());
+        assertTrue(scope.contains(new URL("http://www.example.co.uk/a.html")));
+        assertTrue(scope.contains(new URL("https://shop.EXAMPLE.co.uk/")));
+        assertTrue(scope.contains(new URL("http://example.co.uk/")));
+        assertFalse(scope.contains(new URL("http://other.co.uk/")));
+        assertFalse(scope.contains(new URL("http://example.com/")));
+
+    }
+
+
+    @Test
+    public void testIncludeAndExcludePatterns() throws MalformedURLException {
+
+        HostScope scope = new HostScope(
+            new URL("http://example.com/"),
+            Arrays.asList("cdn.example.net", "*.example.org"),
+            Arrays.asList(" Private.example.com ", "*.blocked.example.org")
+        );
+
+        assertTrue(scope.contains(new URL("http://cdn.example.net/")));
+        assertFalse(scope.contains(new URL("http://www.example.net/")));
+        assertTrue(scope.contains(new URL("http://example.org/")));
+        assertTrue(scope.contains(new URL("http://a.b.example.org/")));
+        assertFalse(scope.contains(new URL("http://notexample.org/")));
+        assertFalse(scope.contains(new URL("http://private.example.com/")));
+        assertTrue(scope.contains(new URL("http://public.example.com/")));
+        assertFalse(scope.contains(new URL("http://blocked.example.org/")));
+        assertFalse(scope.contains(new URL("http://x.blocked.example.org/")));
+
+        // Cached answers match.
+        assertTrue(scope.contains(new URL("http://a.b.example.org/page.html")));
+        assertFalse(scope.contains(new URL("http://private.example.com/page.html")));
+
+    }
+}
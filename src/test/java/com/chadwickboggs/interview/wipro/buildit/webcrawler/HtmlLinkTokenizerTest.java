@@ -0,0 +1,112 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+
+public class HtmlLinkTokenizerTest {
+
+
+    @Test
+    public void testHref() throws IOException {
+
+        assertEquals(
+            Arrays.asList("HREF a.html", "HREF b.html", "HREF c.html"),
+            tokenize("<a href=\"a.html\">a</a><A\nHREF='b.html'>b</A><a class=x href=c.html>c</a>")
+        );
+
+    }
+
+
+    @Test
+    public void testHrefSplitAcrossLines() throws IOException {
+
+        assertEquals(
+            Arrays.asList("HREF a.html"),
+            tokenize("<a\n   href\n=\n\"  a.html\n\">a</a>")
+        );
+
+    }
+
+
+    @Test
+    public void testSrcSrcSetAndBase() throws IOException {
+
+        assertEquals(
+            Arrays.asList(
+                "BASE_HREF http://example.com/", "SRC i.png", "SRCSET i1.png", "SRCSET i2.png", "SRCSET i3.png"
+            ),
+            tokenize("<base href=\"http://example.com/\"><img src=i.png srcset=\"i1.png 1x, i2.png 2x,i3.png\">")
+        );
+
+    }
+
+
+    @Test
+    public void testSkipsCommentsAndScripts() throws IOException {
+
+        assertEquals(
+            Arrays.asList("HREF live.html"),
+            tokenize(
+                "<!DOCTYPE html><!-- <a href=\"dead.html\"> -- > --><script>var s = '<a href=\"js.html\">';"
+                    + "</scr' + 'ipt>';</SCRIPT><style>a[href=\"x\"]{}</style><a href=\"live.html\">"
+            )
+        );
+
+    }
+
+
+    @Test
+    public void testIgnoresOtherAttributesAndEndTags() throws IOException {
+
+        assertEquals(
+            Arrays.asList("HREF a.html"),
+            tokenize("<a data-href=\"x.html\" hreflang=en href=a.html></a href=\"y.html\">")
+        );
+
+    }
+
+
+    @Test
+    public void testFeedOneByteAtATime() {
+
+        byte[] bytes = "<p>text</p><!-- x --><a title='t' href=\"a.html\"><img src=b.png>"
+            .getBytes(StandardCharsets.US_ASCII);
+        List<String> links = new ArrayList<>();
+        HtmlLinkTokenizer tokenizer = new HtmlLinkTokenizer(handler(links));
+        for (int i = 0; i < bytes.length; i++) {
+            tokenizer.feed(bytes, i, 1);
+        }
+
+        assertEquals(Arrays.asList("HREF a.html", "SRC b.png"), links);
+
+    }
+
+
+    private List<String> tokenize(String html) throws IOException {
+
+        List<String> links = new ArrayList<>();
+        HtmlLinkTokenizer.tokenize(
+            new ByteArrayInputStream(html.getBytes(StandardCharsets.UTF_8)), handler(links)
+        );
+
+        return links;
+    }
+
+
+    private HtmlLinkTokenizer.LinkHandler handler(List<String> links) {
+
+        return (attribute, value, offset, length) -> links.add(
+            attribute + " " + new String(value, offset, length, StandardCharsets.UTF_8)
+        );
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+
+public class LatencyHistogramTest {
+
+
+    @Test
+    public void testPercentiles() {
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000000);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500e6, histogram.getPercentile(0.50), 500e6 * 0.07);
+        assertEquals(990e6, histogram.getPercentile(0.99), 990e6 * 0.07);
+        assertEquals(0, new LatencyHistogram().getPercentile(0.99));
+
+    }
+}
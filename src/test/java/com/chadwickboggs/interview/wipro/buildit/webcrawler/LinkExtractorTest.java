@@ -0,0 +1,106 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+
+public class LinkExtractorTest {
+
+
+    @Test
+    public void testExtractResolvesRelativeLinks() throws IOException {
+
+        assertEquals(
+            List.of("http://example.com/sub/c.html", "http://example.com/d.html", "http://other.com/e.html"),
+            extract(
+                "http://example.com/sub/b.html",
+                "<a href=\"c.html\"><a href=\"/d.html\"><a href=\"http://other.com/e.html\"><a href=\"c.html\">"
+            )
+        );
+
+    }
+
+
+    @Test
+    public void testExtractHonorsBaseHref() throws IOException {
+
+        assertEquals(
+            List.of("http://cdn.example.com/assets/a.png"),
+            extract(
+                "http://example.com/page.html",
+                "<head><base href=\"http://cdn.example.com/assets/\"></head><img src=\"a.png\">"
+            )
+        );
+
+    }
+
+
+    @Test
+    public void testExtractDropsOtherSchemes() throws IOException {
+
+        assertEquals(
+            List.of("http://example.com/a.html"),
+            extract(
+                "http://example.com/",
+                "<a href=\"mailto:me@example.com\"><a href=\"javascript:void(0)\"><a href=\"a.html\">"
+            )
+        );
+
+    }
+
+
+    @Test
+    public void testExtractDecodesLinksInPageCharset() throws IOException {
+
+        byte[] html = "<meta charset=\"iso-8859-1\"><a href=\"caf\u00e9.html\">".getBytes(StandardCharsets.ISO_8859_1);
+
+        assertEquals(
+            List.of("http://example.com/caf\u00e9.html"),
+            LinkExtractor.extract(new URL("http://example.com/"), new ByteArrayInputStream(html), (String) null)
+                .stream().map(URL::toString).collect(Collectors.toList())
+        );
+
+    }
+
+
+    @Test
+    public void testExtractTranscodesUtf16() throws IOException {
+
+        byte[] html = "<a href=\"a.html\"><img src=\"b.png\">".getBytes(StandardCharsets.UTF_16);
+
+        assertEquals(
+            List.of("http://example.com/a.html", "http://example.com/b.png"),
+            LinkExtractor.extract(new URL("http://example.com/"), new ByteArrayInputStream(html), (String) null)
+                .stream().map(URL::toString).collect(Collectors.toList())
+        );
+
+    }
+
+
+    @Test
+    public void testDecodeCharacterReferences() {
+
+        assertEquals("a.html?b=1&c=2", LinkExtractor.decodeCharacterReferences("a.html?b=1&amp;c=2"));
+        assertEquals("/a/b", LinkExtractor.decodeCharacterReferences("&#47;a&#x2F;b"));
+        assertEquals("a&b;c", LinkExtractor.decodeCharacterReferences("a&b;c"));
+
+    }
+
+
+    private List<String> extract(String pageUrl, String html) throws IOException {
+
+        return LinkExtractor.extract(
+            new URL(pageUrl), new ByteArrayInputStream(html.getBytes(StandardCharsets.UTF_8)),
+            StandardCharsets.UTF_8
+        ).stream().map(URL::toString).collect(Collectors.toList());
+    }
+
+}
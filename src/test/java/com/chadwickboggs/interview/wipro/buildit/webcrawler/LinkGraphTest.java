@@ -0,0 +1,112 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class LinkGraphTest {
+
+
+    @Test
+    public void testLinksAreInternedToIds() throws IOException {
+
+        LinkGraph graph = new LinkGraph();
+        int root = graph.add(page("/", 0, "/a.html", "/b.html", "/a.html"));
+        int a = graph.add(page("/a.html", 1, "/c.html", "/"));
+        assertEquals(LinkGraph.NONE, graph.add(page("/a.html", 1)));
+        graph.freeze();
+
+        assertEquals(2, graph.getPageCount());
+        assertEquals(4, graph.getIdCount());
+        assertEquals("http://example.com/a.html", graph.getUrl(a));
+        assertEquals(3, graph.getLinkEnd(root) - graph.getLinkStart(root));
+        assertEquals(a, graph.getLinkTarget(graph.getLinkStart(root)));
+        assertEquals(a, graph.getLinkTarget(graph.getLinkStart(root) + 2));
+        assertEquals(root, graph.getLinkTarget(graph.getLinkEnd(a) - 1));
+        int b = graph.getLinkTarget(graph.getLinkStart(root) + 1);
+        assertFalse(graph.isPage(b));
+        assertEquals(0, graph.getLinkEnd(b) - graph.getLinkStart(b));
+
+    }
+
+
+    @Test
+    public void testInDegreeRanking() throws IOException {
+
+        LinkGraph graph = new LinkGraph();
+        int root = graph.add(page("/", 0, "/a.html", "/b.html", "/a.html", "/"));
+        int a = graph.add(page("/a.html", 1, "/b.html", "/"));
+        int b = graph.add(page("/b.html", 1, "/a.html", "/"));
+        int c = graph.add(page("/c.html", 1, "/b.html"));
+        graph.freeze();
+
+        assertEquals(2, graph.getInDegree(root));
+        assertEquals(2, graph.getInDegree(a));
+        assertEquals(3, graph.getInDegree(b));
+        assertEquals(0, graph.getInDegree(c));
+        assertArrayEquals(new int[] {b, root, a, c}, graph.rankByInDegree());
+        assertArrayEquals(new int[] {c}, graph.findOrphans());
+
+    }
+
+
+    @Test
+    public void testAliasesAreNotRankedOrOrphans() throws IOException {
+
+        LinkGraph graph = new LinkGraph();
+        int root = graph.add(page("/", 0, "/a.html"));
+        int a = graph.add(page("/a.html", 1));
+        int alias = graph.add(new SitemapPage(
+            new URL("http://example.com/a.html?sid=1"), 1, new ArrayList<>(), new URL("http://example.com/a.html")
+        ));
+        graph.freeze();
+
+        assertEquals(a, graph.getAliasOf(alias));
+        assertEquals(LinkGraph.NONE, graph.getAliasOf(a));
+        assertArrayEquals(new int[] {a, root}, graph.rankByInDegree());
+        assertEquals(0, graph.findOrphans().length);
+
+    }
+
+
+    @Test
+    public void testLargeGraphIsCompact() throws IOException {
+
+        LinkGraph graph = new LinkGraph();
+        int pages = 20000;
+        for (int i = 0; i < pages; i++) {
+            List<String> links = new ArrayList<>();
+            for (int j = 1; j <= 10; j++) {
+                links.add("/" + (i * 7 + j) % pages + ".html");
+            }
+            graph.add(page("/" + i + ".html", 1, links.toArray(new String[0])));
+        }
+        graph.freeze();
+
+        assertEquals(pages, graph.getIdCount());
+        assertEquals(10, Arrays.stream(graph.rankByInDegree()).map(graph::getInDegree).max().getAsInt());
+        assertTrue(graph.getMemoryBytes() < pages * 200L);
+
+    }
+
+
+    private static SitemapPage page(String path, int depth, String... links) throws IOException {
+
+        List<URL> urls = new ArrayList<>();
+        for (String link : links) {
+            urls.add(new URL("http://example.com" + link));
+        }
+
+        return new SitemapPage(new URL("http://example.com" + path), depth, urls);
+    }
+}
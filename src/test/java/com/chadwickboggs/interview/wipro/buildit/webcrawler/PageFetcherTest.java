@@ -0,0 +1,150 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+
+public class PageFetcherTest {
+
+    private static final String PAGE = "<html><body><a href=\"/a.html\">a</a></body></html>";
+
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private HttpServer server;
+
+
+    @Before
+    public void startServer() throws IOException {
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/page.html", exchange -> {
+            exchange.getResponseHeaders().set("ETag", "\"v1\"");
+            send(exchange, 200, PAGE);
+        });
+        server.createContext("/old.html", exchange -> {
+            exchange.getResponseHeaders().set("Location", "/page.html");
+            send(exchange, 301, "");
+        });
+        server.createContext("/missing.html", exchange -> send(exchange, 404, "Not found."));
+        server.start();
+    }
+
+
+    @After
+    public void stopServer() {
+
+        server.stop(0);
+    }
+
+
+    @Test
+    public void testFetchReadsHeadersAndBody() throws IOException {
+
+        for (FetcherType type : FetcherType.values()) {
+            try (PageFetcher fetcher = type.create(); PageResponse response = fetcher.fetch(url("/page.html"))) {
+                assertEquals(type.name(), 200, response.getStatusCode());
+                assertTrue(type.name(), response.isSuccessful());
+                assertEquals(type.name(), "text/html; charset=UTF-8", response.getHeader("content-type").get());
+                assertEquals(type.name(), "\"v1\"", response.getHeader("ETAG").get());
+                assertFalse(type.name(), response.getHeader("X-Missing").isPresent());
+                assertEquals(type.name(), PAGE, new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+
+    }
+
+
+    @Test
+    public void testRedirectGivesFinalUrl() throws IOException {
+
+        for (FetcherType type : FetcherType.values()) {
+            try (PageFetcher fetcher = type.create(); PageResponse response = fetcher.fetch(url("/old.html"))) {
+                assertEquals(type.name(), 200, response.getStatusCode());
+                assertEquals(type.name(), url("/page.html").toString(), response.getUrl().toString());
+                assertEquals(type.name(), PAGE, new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+
+    }
+
+
+    @Test
+    public void testUnsuccessfulStatusFailsCrawl() throws IOException, InterruptedException {
+
+        for (FetcherType type : FetcherType.values()) {
+            try (PageFetcher fetcher = type.create(); PageResponse response = fetcher.fetch(url("/missing.html"))) {
+                assertEquals(type.name(), 404, response.getStatusCode());
+                assertFalse(type.name(), response.isSuccessful());
+            }
+
+            CrawlConfiguration configuration = new CrawlConfiguration()
+                .setFetcherType(type)
+                .setHostRequestsPerSecond(0)
+                .setIgnoreRobots(true);
+            try {
+                new CrawlEngine(configuration, new PrintStream(OutputStream.nullOutputStream())).crawl(
+                    url("/missing.html")
+                );
+                fail(type.name());
+            }
+            catch (HttpStatusException e) {
+                assertEquals(type.name(), 404, e.getStatusCode());
+            }
+        }
+
+    }
+
+
+    @Test
+    public void testUrlStreamFetchesNonHttpUrls() throws IOException {
+
+        Path file = temporaryFolder.newFile("page.html").toPath();
+        Files.write(file, PAGE.getBytes(StandardCharsets.UTF_8));
+
+        try (PageFetcher fetcher = FetcherType.URL_STREAM.create();
+             PageResponse response = fetcher.fetch(file.toUri().toURL())) {
+            assertEquals(200, response.getStatusCode());
+            assertEquals(file.toUri().toURL().toString(), response.getUrl().toString());
+            assertEquals(PAGE, new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+    }
+
+
+    private URL url(String path) throws IOException {
+        return new URL("http", server.getAddress().getHostString(), server.getAddress().getPort(), path);
+    }
+
+
+    private static void send(HttpExchange exchange, int statusCode, String body) throws IOException {
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+        exchange.sendResponseHeaders(statusCode, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
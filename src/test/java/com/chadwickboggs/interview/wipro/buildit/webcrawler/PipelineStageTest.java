@@ -0,0 +1,143 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class PipelineStageTest {
+
+
+    @Test
+    public void testCloseHandlesEveryItemInBatches() throws InterruptedException {
+
+        List<Integer> handled = new CopyOnWriteArrayList<>();
+        AtomicInteger largestBatch = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PipelineStage<Integer> stage = new PipelineStage<>("test", 1, 100, 10, batch -> {
+            started.countDown();
+            release.await();
+            largestBatch.accumulateAndGet(batch.size(), Math::max);
+            handled.addAll(batch);
+        });
+
+        stage.put(0);
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        for (int i = 1; i < 50; i++) {
+            stage.put(i);
+        }
+        assertEquals(49, stage.getQueueDepth());
+        release.countDown();
+        stage.close();
+
+        assertEquals(50, handled.size());
+        assertEquals(10, largestBatch.get());
+        assertEquals(0, stage.getQueueDepth());
+
+    }
+
+
+    @Test
+    public void testFullQueueBlocks() throws InterruptedException {
+
+        CountDownLatch release = new CountDownLatch(1);
+        PipelineStage<Integer> stage = new PipelineStage<>("test", 1, 2, 1, batch -> release.await());
+        stage.put(1);
+        Thread.sleep(100);
+        stage.put(2);
+        stage.put(3);
+
+        Thread producer = new Thread(() -> {
+            try {
+                stage.put(4);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        producer.join(200);
+
+        assertTrue(producer.isAlive());
+        release.countDown();
+        producer.join(10000);
+        assertFalse(producer.isAlive());
+        stage.close();
+
+    }
+
+
+    @Test
+    public void testPipelinedCrawlVisitsEveryPageOnce() throws IOException, InterruptedException {
+
+        SyntheticSite.Configuration siteConfiguration = new SyntheticSite.Configuration()
+            .setPageCount(300)
+            .setFanOut(8)
+            .setDepth(3)
+            .setPageBytes(4096)
+            .setBinaryRatio(0.1);
+        try (SyntheticSite site = new SyntheticSite(siteConfiguration)) {
+            List<String> sitemap = site.crawl(configuration -> configuration
+                .setWorkers(8)
+                .setPipeline(true)
+                .setParseThreads(2)
+                .setDedupeThreads(1)
+                .setEmitThreads(1)
+                .setStageQueueCapacity(4)
+            );
+
+            assertEquals(300, site.getPageRequests());
+            assertEquals(0, site.getDuplicateRequests());
+            assertEquals(sitemap.size(), 300 + site.getFileRequests());
+        }
+
+    }
+
+
+    @Test(timeout = 60000)
+    public void testThrowingStageStillFinishesCrawl() throws IOException, InterruptedException {
+
+        SyntheticSite.Configuration siteConfiguration = new SyntheticSite.Configuration()
+            .setPageCount(100)
+            .setFanOut(4)
+            .setDepth(3);
+        try (SyntheticSite site = new SyntheticSite(siteConfiguration)) {
+            CrawlConfiguration configuration = new CrawlConfiguration()
+                .setHostRequestsPerSecond(0)
+                .setIgnoreRobots(true)
+                .setWorkers(4)
+                .setPipeline(true)
+                .setEmitThreads(1);
+            AtomicInteger results = new AtomicInteger();
+            new CrawlEngine(configuration, new PrintStream(OutputStream.nullOutputStream())).crawl(
+                site.getStartUrl(), Collections.emptyList(), result -> {
+                    // Slow enough for pages to wait on the emit stage, and be handed to it in batches.
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(2));
+                    if (results.incrementAndGet() % 5 == 0) {
+                        throw new IllegalStateException("Listener failed.");
+                    }
+
+                    return true;
+                }
+            );
+
+            assertEquals(100, site.getPageRequests());
+            assertEquals(100, results.get());
+        }
+
+    }
+}
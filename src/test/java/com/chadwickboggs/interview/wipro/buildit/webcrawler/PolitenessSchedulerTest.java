@@ -0,0 +1,142 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+
+public class PolitenessSchedulerTest {
+
+
+    @Test
+    public void testHostIsRateLimited() throws MalformedURLException {
+
+        PolitenessScheduler scheduler = new PolitenessScheduler(new MemoryFrontierQueue(), 0.5, null);
+        scheduler.add(new CrawlTask(new URL("http://example.com/a.html"), 1));
+        scheduler.add(new CrawlTask(new URL("http://example.com/b.html"), 1));
+
+        assertNotNull(scheduler.poll());
+        assertNull(scheduler.poll());
+        assertEquals(1, scheduler.size());
+
+    }
+
+
+    @Test
+    public void testOtherHostsAreNotHeldUp() throws MalformedURLException {
+
+        PolitenessScheduler scheduler = new PolitenessScheduler(new MemoryFrontierQueue(), 0.5, null);
+        scheduler.add(new CrawlTask(new URL("http://example.com/a.html"), 1));
+        scheduler.add(new CrawlTask(new URL("http://example.com/b.html"), 1));
+        scheduler.add(new CrawlTask(new URL("http://example.org/c.html"), 1));
+
+        assertEquals("example.com", scheduler.poll().getUrl().getHost());
+        assertEquals("example.org", scheduler.poll().getUrl().getHost());
+        assertNull(scheduler.poll());
+
+    }
+
+
+    @Test
+    public void testTokensAccrueOverTime() throws Exception {
+
+        PolitenessScheduler scheduler = new PolitenessScheduler(new MemoryFrontierQueue(), 20, null);
+        for (int i = 0; i < 25; i++) {
+            scheduler.add(new CrawlTask(new URL("http://example.com/" + i + ".html"), 1));
+        }
+
+        int taken = 0;
+        while (scheduler.poll() != null) {
+            taken++;
+        }
+        Thread.sleep(200);
+        while (scheduler.poll() != null) {
+            taken++;
+        }
+
+        assertEquals(20 + 4, taken, 1);
+
+    }
+
+
+    @Test
+    public void testHostTasksKeepTheirOrder() throws MalformedURLException {
+
+        TaskScorer scorer = FrontierOrder.PATH.create(Collections.emptySet());
+        PolitenessScheduler scheduler = new PolitenessScheduler(new MemoryFrontierQueue(scorer), scorer, 0, null);
+        scheduler.add(new CrawlTask(new URL("http://example.com/a/b/c/d/1"), 1));
+        scheduler.add(new CrawlTask(new URL("http://example.com/a/b/c/d/2"), 1));
+        assertEquals("/a/b/c/d/1", scheduler.poll().getUrl().getPath());
+
+        scheduler.add(new CrawlTask(new URL("http://example.com/x"), 1));
+        assertEquals("/x", scheduler.poll().getUrl().getPath());
+        assertEquals("/a/b/c/d/2", scheduler.poll().getUrl().getPath());
+        assertNull(scheduler.poll());
+
+    }
+
+
+    @Test
+    public void testOrderHoldsPastLookahead() throws MalformedURLException {
+
+        PolitenessScheduler scheduler = new PolitenessScheduler(new MemoryFrontierQueue(), 0, null);
+        for (int i = 0; i <= PolitenessScheduler.LOOKAHEAD; i++) {
+            scheduler.add(new CrawlTask(new URL("http://example.com/" + i + ".html"), 2));
+        }
+        assertEquals(2, scheduler.poll().getDepth());
+
+        scheduler.add(new CrawlTask(new URL("http://example.com/a.html"), 1));
+        assertEquals(1, scheduler.poll().getDepth());
+        assertEquals(PolitenessScheduler.LOOKAHEAD, scheduler.size());
+
+    }
+
+
+    @Test
+    public void testPoliteCrawlKeepsPathOrder() throws IOException, InterruptedException {
+
+        SyntheticSite.Configuration siteConfiguration = new SyntheticSite.Configuration()
+            .setPageCount(200)
+            .setFanOut(6)
+            .setDepth(3)
+            .setSessionRatio(0.2);
+        try (SyntheticSite site = new SyntheticSite(siteConfiguration)) {
+            List<String> sitemap = site.crawl(configuration -> configuration
+                .setHostRequestsPerSecond(1000)
+                .setIgnoreRobots(false)
+                .setFrontierOrder(FrontierOrder.PATH)
+                .setMaxDepth(3)
+                .setWorkers(1)
+            );
+
+            // Of each depth, the pages without a query come before those with a session ID.
+            Map<String, Boolean> sessionSeen = new HashMap<>();
+            int sessionPages = 0;
+            for (String line : sitemap) {
+                String depth = line.substring(line.indexOf("\"depth\":"), line.indexOf(",\"links\""));
+                boolean session = line.substring(0, line.indexOf(",\"depth\"")).contains("?sid=");
+                if (session) {
+                    sessionPages++;
+                    sessionSeen.put(depth, true);
+                }
+                else {
+                    assertFalse(line, sessionSeen.getOrDefault(depth, false));
+                }
+            }
+            assertTrue(sessionPages > 0);
+        }
+
+    }
+}
@@ -0,0 +1,104 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class RobotsRulesTest {
+
+
+    private static final String USER_AGENT = "WebCrawler/1.0";
+
+
+    @Test
+    public void testWildcardGroupApplies() {
+
+        RobotsRules rules = RobotsRules.parse(
+            "User-agent: *\nDisallow: /private/\nCrawl-delay: 1.5\n", USER_AGENT
+        );
+
+        assertFalse(rules.isAllowed("/private/page.html"));
+        assertTrue(rules.isAllowed("/public/page.html"));
+        assertEquals(1.5, rules.getCrawlDelaySeconds(), 0);
+
+    }
+
+
+    @Test
+    public void testNamedGroupOverridesWildcardGroup() {
+
+        RobotsRules rules = RobotsRules.parse(
+            "User-agent: *\nDisallow: /\n\nUser-agent: OtherBot\nUser-agent: webcrawler\nDisallow: /tmp\n",
+            USER_AGENT
+        );
+
+        assertTrue(rules.isAllowed("/index.html"));
+        assertFalse(rules.isAllowed("/tmp/file"));
+
+    }
+
+
+    @Test
+    public void testLongestMatchWinsAndAllowWinsTies() {
+
+        RobotsRules rules = RobotsRules.parse(
+            "User-agent: *\nDisallow: /docs\nAllow: /docs/public\nDisallow: /page\nAllow: /page\n", USER_AGENT
+        );
+
+        assertFalse(rules.isAllowed("/docs/private.html"));
+        assertTrue(rules.isAllowed("/docs/public/index.html"));
+        assertTrue(rules.isAllowed("/page"));
+
+    }
+
+
+    @Test
+    public void testWildcardsAndEndAnchor() {
+
+        RobotsRules rules = RobotsRules.parse(
+            "User-agent: *\nDisallow: /*.pdf$\nDisallow: /*?session=\n", USER_AGENT
+        );
+
+        assertFalse(rules.isAllowed("/files/resume.pdf"));
+        assertTrue(rules.isAllowed("/files/resume.pdf.html"));
+        assertFalse(rules.isAllowed("/index.html?session=1"));
+        assertTrue(rules.isAllowed("/index.html?page=1"));
+
+    }
+
+
+    @Test
+    public void testCommentsAndEmptyDisallowAreIgnored() {
+
+        RobotsRules rules = RobotsRules.parse(
+            "# Allow everything\nUser-agent: * # every crawler\nDisallow:\n", USER_AGENT
+        );
+
+        assertTrue(rules.isAllowed("/anything"));
+        assertTrue(RobotsRules.DISALLOW_ALL.isAllowed("/robots.txt"));
+        assertFalse(RobotsRules.DISALLOW_ALL.isAllowed("/"));
+
+    }
+
+
+    @Test
+    public void testSitemapsBelongToNoGroup() {
+
+        RobotsRules rules = RobotsRules.parse(
+            "Sitemap: https://example.com/sitemap.xml\nUser-agent: OtherBot\nDisallow: /\n"
+                + "Sitemap: /news-sitemap.xml.gz\n",
+            USER_AGENT
+        );
+
+        assertEquals(
+            Arrays.asList("https://example.com/sitemap.xml", "/news-sitemap.xml.gz"), rules.getSitemaps()
+        );
+        assertTrue(rules.isAllowed("/"));
+
+    }
+}
@@ -0,0 +1,257 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class SitemapWriterTest {
+
+
+    private static final String NL = System.lineSeparator();
+
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
+    @Test
+    public void testTreeIsIndependentOfArrivalOrder() throws IOException {
+
+        SitemapPage root = page("/", 0, "/a.html", "/b.html");
+        SitemapPage a = page("/a.html", 1, "/c.html", "/b.html");
+        SitemapPage b = page("/b.html", 1);
+        SitemapPage c = page("/c.html", 2, "/");
+        String expected = "http://example.com/" + NL
+            + "\thttp://example.com/a.html" + NL
+            + "\t\thttp://example.com/c.html" + NL
+            + "\thttp://example.com/b.html" + NL;
+
+        assertEquals(expected, write(SitemapFormat.TREE, root, a, b, c));
+        assertEquals(expected, write(SitemapFormat.TREE, c, b, root, a));
+
+    }
+
+
+    @Test
+    public void testUnreachedPagesAreIndependentOfArrivalOrder() throws IOException {
+
+        SitemapPage root = page("/", 0, "/a.html");
+        SitemapPage a = page("/a.html", 1);
+        SitemapPage seedB = page("/seed-b.html", 1);
+        SitemapPage seedA = page("/seed-a.html", 1);
+        SitemapPage deep = page("/deep.html", 2);
+        String expected = "http://example.com/" + NL
+            + "\thttp://example.com/a.html" + NL
+            + "\thttp://example.com/seed-a.html" + NL
+            + "\thttp://example.com/seed-b.html" + NL
+            + "\t\thttp://example.com/deep.html" + NL;
+
+        assertEquals(expected, write(SitemapFormat.TREE, root, a, deep, seedB, seedA));
+        assertEquals(expected, write(SitemapFormat.TREE, seedA, deep, a, seedB, root));
+
+    }
+
+
+    @Test
+    public void testJsonLines() throws IOException {
+
+        String output = write(SitemapFormat.JSONL, page("/\"q\".html", 1, "/a.html"));
+
+        assertEquals(
+            "{\"url\":\"http://example.com/\\\"q\\\".html\",\"depth\":1,\"links\":[\"http://example.com/a.html\"]}\n",
+            output
+        );
+
+    }
+
+
+    @Test
+    public void testAliases() throws IOException {
+
+        SitemapPage root = page("/", 0, "/a.html", "/a.html?sid=1");
+        SitemapPage a = page("/a.html", 1);
+        SitemapPage alias = new SitemapPage(
+            new URL("http://example.com/a.html?sid=1"), 1, Collections.emptyList(), new URL("http://example.com/a.html")
+        );
+
+        assertEquals(
+            "http://example.com/" + NL
+                + "\thttp://example.com/a.html" + NL
+                + "\thttp://example.com/a.html?sid=1 (alias of http://example.com/a.html)" + NL,
+            write(SitemapFormat.TREE, root, a, alias)
+        );
+        assertEquals(
+            "{\"url\":\"http://example.com/a.html?sid=1\",\"depth\":1,\"links\":[],"
+                + "\"alias_of\":\"http://example.com/a.html\"}\n",
+            write(SitemapFormat.JSONL, alias)
+        );
+        assertFalse(write(SitemapFormat.XML, root, a, alias).contains("sid=1</loc>"));
+
+    }
+
+
+    @Test
+    public void testLinkReport() throws IOException {
+
+        Path reportPath = temporaryFolder.getRoot().toPath().resolve("links.tsv");
+        SitemapPage root = page("/", 0, "/a.html", "/b.html");
+        SitemapPage a = page("/a.html", 1, "/b.html");
+        SitemapPage b = page("/b.html", 1, "/");
+        SitemapPage listed = page("/listed.html", 1, "/");
+        for (SitemapFormat format : new SitemapFormat[] {SitemapFormat.TREE, SitemapFormat.JSONL}) {
+            try (SitemapWriter writer = new SitemapWriter(new LinkReportSink(
+                format.create(new SitemapOutput(null, new PrintStream(new ByteArrayOutputStream()), false),
+                    new URL("http://example.com/")),
+                reportPath
+            ))) {
+                for (SitemapPage page : Arrays.asList(root, a, b, listed)) {
+                    writer.write(page);
+                }
+            }
+
+            assertEquals(
+                Arrays.asList(
+                    "# In-links\tURL",
+                    "2\thttp://example.com/",
+                    "2\thttp://example.com/b.html",
+                    "1\thttp://example.com/a.html",
+                    "0\thttp://example.com/listed.html",
+                    "# Orphan pages",
+                    "http://example.com/listed.html"
+                ),
+                Files.readAllLines(reportPath)
+            );
+        }
+
+    }
+
+
+    @Test
+    public void testXmlIsSplitUnderIndex() throws IOException {
+
+        Path path = temporaryFolder.getRoot().toPath().resolve("sitemap.xml");
+        SitemapOutput output = new SitemapOutput(path, System.out, true);
+        try (SitemapWriter writer = new SitemapWriter(
+            SitemapFormat.XML.create(output, new URL("http://example.com/"))
+        )) {
+            for (int i = 0; i <= XmlSitemapSink.MAX_URLS; i++) {
+                writer.write(page("/" + i + ".html?a=1&b=2", 1));
+            }
+        }
+
+        String index = gunzip(temporaryFolder.getRoot().toPath().resolve("sitemap.xml.gz"));
+        assertTrue(index.contains("<loc>http://example.com/sitemap-1.xml.gz</loc>"));
+        assertTrue(index.contains("<loc>http://example.com/sitemap-2.xml.gz</loc>"));
+
+        String secondPart = gunzip(temporaryFolder.getRoot().toPath().resolve("sitemap-2.xml.gz"));
+        assertTrue(secondPart.contains("<loc>http://example.com/50000.html?a=1&amp;b=2</loc>"));
+        assertFalse(secondPart.contains("/49999.html"));
+
+    }
+
+
+    @Test
+    public void testXmlIsSplitByUtf8Bytes() throws IOException {
+
+        for (String value : new String[] {"a&b", "caf\u00e9", "\u20ac1", "\ud83d\ude00"}) {
+            assertEquals(value, value.getBytes(StandardCharsets.UTF_8).length, XmlSitemapSink.utf8Length(value));
+        }
+
+        // Fewer characters than the byte limit, but more bytes in UTF-8.
+        String name = String.join("", Collections.nCopies(400, "\u20ac"));
+        Path path = temporaryFolder.getRoot().toPath().resolve("sitemap.xml");
+        try (SitemapWriter writer = new SitemapWriter(SitemapFormat.XML.create(
+            new SitemapOutput(path, System.out, true), new URL("http://example.com/")
+        ))) {
+            for (int i = 0; i < 48000; i++) {
+                writer.write(page("/" + i + name, 1));
+            }
+        }
+
+        String firstPart = gunzip(temporaryFolder.getRoot().toPath().resolve("sitemap-1.xml.gz"));
+        assertTrue(firstPart.getBytes(StandardCharsets.UTF_8).length <= XmlSitemapSink.MAX_BYTES);
+        assertTrue(firstPart.endsWith("</urlset>\n"));
+        assertTrue(gunzip(temporaryFolder.getRoot().toPath().resolve("sitemap-2.xml.gz")).contains("/47999"));
+
+    }
+
+
+    @Test
+    public void testSmallXmlIsOneFile() throws IOException {
+
+        Path path = temporaryFolder.getRoot().toPath().resolve("sitemap.xml");
+        try (SitemapWriter writer = new SitemapWriter(SitemapFormat.XML.create(
+            new SitemapOutput(path, System.out, false), new URL("http://example.com/")
+        ))) {
+            writer.write(page("/", 0));
+        }
+
+        String sitemap = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        assertTrue(sitemap.contains("<urlset"));
+        assertTrue(sitemap.contains("<loc>http://example.com/</loc>"));
+        assertFalse(Files.exists(temporaryFolder.getRoot().toPath().resolve("sitemap-1.xml")));
+
+    }
+
+
+    private static String write(SitemapFormat format, SitemapPage... pages) throws IOException {
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream printStream = new PrintStream(bytes, true, "UTF-8");
+        try (SitemapWriter writer = new SitemapWriter(
+            format.create(new SitemapOutput(null, printStream, false), new URL("http://example.com/"))
+        )) {
+            for (SitemapPage page : pages) {
+                writer.write(page);
+            }
+        }
+
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+
+    private static SitemapPage page(String path, int depth, String... links) throws IOException {
+
+        URL[] urls = new URL[links.length];
+        for (int i = 0; i < links.length; i++) {
+            urls[i] = new URL("http://example.com" + links[i]);
+        }
+
+        return new SitemapPage(
+            new URL("http://example.com" + path), depth, links.length == 0 ? Collections.emptyList() : Arrays.asList(urls)
+        );
+    }
+
+
+    private static String gunzip(Path path) throws IOException {
+
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(path))) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                bytes.write(buffer, 0, count);
+            }
+
+            return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+}
@@ -0,0 +1,843 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * A generated website served on the loopback interface, for testing the crawler
+ * repeatably and offline.  Pages are numbered from zero, page zero being the
+ * home page.  Each page links to its children in a tree spanning the site, so
+ * every page is reachable within the configured depth, and then to pages, or
+ * binary files, chosen at random up to the configured fan-out.  Pages are padded
+ * with text to the configured size.  Responses are delayed by a latency drawn
+ * from the configured distribution, and a fraction of pages answer with a
+ * server error.  Everything is derived from the seed, so a site is the same on
+ * every run; no page is held in memory.
+ *
+ * <p>Requests served are counted, along with the bytes served, the time taken to
+ * serve them, the most served at once and any page requested more than once.</p>
+ *
+ * <p>A site may be spread over several hosts, 127.0.0.1, 127.0.0.2 and so on, all
+ * loopback addresses on Linux, served on the same port.  Page n is on host n
+ * modulo the host count, and links to pages on other hosts are absolute.</p>
+ *
+ * <p>With compression pages are gzipped for requests accepting it, and the bytes
+ * served are those sent.</p>
+ *
+ * <p>A fraction of pages may link to a page with a session ID, "?sid=" and the
+ * linking page's number.  A page requested with a session ID is the same page
+ * but with the session ID on every link, so each session ID reaches a copy of
+ * the whole site.</p>
+ */
+final class SyntheticSite implements Closeable {
+
+    private static final String PAGE_PREFIX = "/page/";
+    private static final String PAGE_SUFFIX = ".html";
+    private static final String FILE_PREFIX = "/file/";
+    private static final String FILE_SUFFIX = ".pdf";
+    private static final String SESSION_PARAMETER = "sid=";
+    private static final byte[] FILLER = (
+        "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor incididunt ut labore. "
+    ).getBytes(StandardCharsets.US_ASCII);
+
+    static {
+        // Without TCP_NODELAY the server's separate header and body writes wait
+        // on the client's delayed ACK, adding 40ms to every response.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final Configuration configuration;
+    private final int branching;
+    private final List<HttpServer> servers = new ArrayList<>();
+    private final int port;
+    private final ExecutorService executor;
+    private final URL startUrl;
+    private final BitSet pagesServed;
+    private final BitSet filesServed;
+    private final LongAdder pageRequests = new LongAdder();
+    private final LongAdder fileRequests = new LongAdder();
+    private final LongAdder errorResponses = new LongAdder();
+    private final LongAdder duplicateRequests = new LongAdder();
+    private final LongAdder bytesServed = new LongAdder();
+    private final AtomicInteger concurrentRequests = new AtomicInteger();
+    private final AtomicInteger maxConcurrentRequests = new AtomicInteger();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+
+    /**
+     * Start serving a site.
+     *
+     * @param configuration the shape of the site.
+     * @throws IOException on error starting the server.
+     */
+    SyntheticSite(@Nonnull final Configuration configuration) throws IOException {
+
+        this.configuration = configuration;
+        this.branching = branching(configuration.pageCount, configuration.depth);
+        this.pagesServed = new BitSet(configuration.pageCount);
+        this.filesServed = new BitSet(configuration.pageCount);
+
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "synthetic-site-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        });
+        int serverPort = 0;
+        try {
+            for (int host = 0; host < configuration.hostCount; host++) {
+                final HttpServer server = HttpServer.create(
+                    new InetSocketAddress(InetAddress.getByName(hostName(host)), serverPort), 1024
+                );
+                servers.add(server);
+                server.createContext("/", this::handle);
+                server.setExecutor(executor);
+                server.start();
+                serverPort = server.getAddress().getPort();
+            }
+        }
+        catch (IOException e) {
+            close();
+
+            throw e;
+        }
+        this.port = serverPort;
+        this.startUrl = pageUrl(0);
+    }
+
+
+    @Nonnull
+    URL getStartUrl() {
+        return startUrl;
+    }
+
+
+    /**
+     * Crawl the site from its start page, unthrottled and ignoring robots.txt,
+     * to a JSON Lines sitemap.
+     *
+     * @param configurer sets the rest of the crawl's configuration.
+     * @return the lines of the sitemap.
+     * @throws IOException on error crawling or reading the sitemap.
+     * @throws InterruptedException if interrupted while crawling.
+     */
+    @Nonnull
+    List<String> crawl(@Nonnull final Consumer<CrawlConfiguration> configurer)
+        throws IOException, InterruptedException {
+
+        final Path sitemapPath = Files.createTempFile("sitemap-", ".jsonl");
+        try {
+            final CrawlConfiguration crawlConfiguration = new CrawlConfiguration()
+                .setHostRequestsPerSecond(0)
+                .setIgnoreRobots(true)
+                .setSitemapFormat(SitemapFormat.JSONL)
+                .setOutputPath(sitemapPath);
+            configurer.accept(crawlConfiguration);
+            new CrawlEngine(crawlConfiguration, new PrintStream(OutputStream.nullOutputStream())).crawl(getStartUrl());
+
+            return Files.readAllLines(sitemapPath);
+        }
+        finally {
+            Files.deleteIfExists(sitemapPath);
+        }
+    }
+
+
+    /**
+     * Returns the URL of a page.
+     *
+     * @param page the page number.
+     * @return the page URL.
+     * @throws MalformedURLException never in practice.
+     */
+    @Nonnull
+    URL pageUrl(int page) throws MalformedURLException {
+        return new URL("http", hostName(page % configuration.hostCount), port, PAGE_PREFIX + page + PAGE_SUFFIX);
+    }
+
+
+    /**
+     * Returns the names of the hosts the site is served on.
+     *
+     * @return the host names, the start page's first.
+     */
+    @Nonnull
+    List<String> getHosts() {
+
+        final List<String> hosts = new ArrayList<>();
+        for (int host = 0; host < configuration.hostCount; host++) {
+            hosts.add(hostName(host));
+        }
+
+        return Collections.unmodifiableList(hosts);
+    }
+
+
+    /**
+     * Returns true if a page answers with a server error.
+     *
+     * @param page the page number.
+     * @return true if the page is an error page.
+     */
+    boolean isErrorPage(int page) {
+        return page != 0 && unitHash(page, 0x5eed) < configuration.errorRate;
+    }
+
+
+    /**
+     * Returns true if a page links to a page with a session ID.
+     *
+     * @param page the page number.
+     * @return true if the page has a session link.
+     */
+    boolean hasSessionLink(int page) {
+        return unitHash(page, 0x5e55) < configuration.sessionRatio;
+    }
+
+
+    long getPageRequests() {
+        return pageRequests.sum();
+    }
+
+
+    long getFileRequests() {
+        return fileRequests.sum();
+    }
+
+
+    long getErrorResponses() {
+        return errorResponses.sum();
+    }
+
+
+    long getDuplicateRequests() {
+        return duplicateRequests.sum();
+    }
+
+
+    long getBytesServed() {
+        return bytesServed.sum();
+    }
+
+
+    /**
+     * Returns the most requests served at the same time.
+     *
+     * @return the most concurrent requests.
+     */
+    int getMaxConcurrentRequests() {
+        return maxConcurrentRequests.get();
+    }
+
+
+    /**
+     * Returns the times taken to serve requests, from receiving a request to
+     * sending the last byte of the response, including the simulated latency.
+     *
+     * @return the latency histogram.
+     */
+    @Nonnull
+    LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+
+    @Override
+    public void close() {
+
+        servers.forEach(server -> server.stop(0));
+        executor.shutdownNow();
+    }
+
+
+    private void handle(@Nonnull final HttpExchange exchange) throws IOException {
+
+        final long start = System.nanoTime();
+        try {
+            final String path = exchange.getRequestURI().getPath();
+            final String query = exchange.getRequestURI().getQuery();
+            final String session = query != null && query.startsWith(SESSION_PARAMETER)
+                ? query.substring(SESSION_PARAMETER.length())
+                : null;
+            final int page = number(path, PAGE_PREFIX, PAGE_SUFFIX);
+            final int file = page < 0 ? number(path, FILE_PREFIX, FILE_SUFFIX) : -1;
+            if (page < 0 && file < 0) {
+                exchange.sendResponseHeaders(404, -1);
+
+                return;
+            }
+
+            // Counted only until the response is sent, as the client may send its next request the moment it is.
+            maxConcurrentRequests.accumulateAndGet(concurrentRequests.incrementAndGet(), Math::max);
+            try {
+                sleep(page >= 0 ? page : file);
+            }
+            finally {
+                concurrentRequests.decrementAndGet();
+            }
+            if (page >= 0) {
+                pageRequests.increment();
+                countServed(pagesServed, page);
+                if (isErrorPage(page)) {
+                    errorResponses.increment();
+                    exchange.sendResponseHeaders(500, -1);
+
+                    return;
+                }
+
+                final String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+                if (configuration.compression && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                    exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+                    send(exchange, "text/html; charset=UTF-8", gzip(page(page, session)));
+                }
+                else {
+                    send(exchange, "text/html; charset=UTF-8", page(page, session));
+                }
+            }
+            else {
+                fileRequests.increment();
+                countServed(filesServed, file);
+                send(exchange, "application/pdf", new byte[configuration.pageBytes]);
+            }
+        }
+        finally {
+            exchange.close();
+            latencies.record(System.nanoTime() - start);
+        }
+    }
+
+
+    private void send(
+        @Nonnull final HttpExchange exchange, @Nonnull final String contentType, @Nonnull final byte[] body
+    ) throws IOException {
+
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+        bytesServed.add(body.length);
+    }
+
+
+    @Nonnull
+    private static byte[] gzip(@Nonnull final byte[] body) throws IOException {
+
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(body);
+        }
+
+        return compressed.toByteArray();
+    }
+
+
+    private void countServed(@Nonnull final BitSet served, int number) {
+
+        synchronized (served) {
+            if (served.get(number)) {
+                duplicateRequests.increment();
+            }
+            served.set(number);
+        }
+    }
+
+
+    private void sleep(int seed) {
+
+        final double latencyMillis = configuration.latencyDistribution.sample(
+            configuration.latencyMillis, new Random(configuration.seed * 31 + seed + System.nanoTime())
+        );
+        if (latencyMillis <= 0) {
+            return;
+        }
+
+        try {
+            final long nanos = (long) (latencyMillis * TimeUnit.MILLISECONDS.toNanos(1));
+            Thread.sleep(nanos / 1000000, (int) (nanos % 1000000));
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * Generate a page: links to its children in the spanning tree, then to random
+     * pages and files, then to a page with a session ID if it has one, padded
+     * with text to the page size.  Requested with a session ID, every link has
+     * that session ID instead, and the page is padded with as much text as
+     * without, so its text is the same.
+     */
+    @Nonnull
+    private byte[] page(int page, @Nullable final String session) {
+
+        final int footerLength = "</body></html>\n".length();
+        final byte[] head = head(page, session);
+        final int headLength = session == null ? head.length : head(page, null).length;
+        final byte[] body = Arrays.copyOf(
+            head, head.length + Math.max(footerLength, configuration.pageBytes - headLength)
+        );
+        int position = head.length;
+        while (position < body.length - footerLength) {
+            final int length = Math.min(FILLER.length, body.length - footerLength - position);
+            System.arraycopy(FILLER, 0, body, position, length);
+            position += length;
+        }
+        System.arraycopy("</body></html>\n".getBytes(StandardCharsets.US_ASCII), 0, body, position, footerLength);
+
+        return body;
+    }
+
+
+    /**
+     * Generate the markup of a page, up to its padding.
+     */
+    @Nonnull
+    private byte[] head(int page, @Nullable final String session) {
+
+        final Random random = new Random(configuration.seed * 1000003L + page);
+        final StringBuilder html = new StringBuilder(configuration.pageBytes + 256);
+        html.append("<!DOCTYPE html>\n<html><head><title>Page ").append(page).append("</title></head><body>\n");
+
+        int links = 0;
+        for (long child = (long) page * branching + 1;
+             child <= (long) page * branching + branching && child < configuration.pageCount;
+             child++) {
+
+            html.append("<p><a href=\"").append(href(page, (int) child, PAGE_PREFIX, PAGE_SUFFIX, session))
+                .append("\">Page ").append(child).append("</a></p>\n");
+            links++;
+        }
+        for (; links < configuration.fanOut; links++) {
+            final int target = random.nextInt(configuration.pageCount);
+            if (random.nextDouble() < configuration.binaryRatio) {
+                html.append("<p><a href=\"").append(href(page, target, FILE_PREFIX, FILE_SUFFIX, session))
+                    .append("\">File ").append(target).append("</a></p>\n");
+            }
+            else {
+                html.append("<p><a href=\"").append(href(page, target, PAGE_PREFIX, PAGE_SUFFIX, session))
+                    .append("\">Page ").append(target).append("</a></p>\n");
+            }
+        }
+        if (hasSessionLink(page)) {
+            final int target = random.nextInt(configuration.pageCount);
+            final String linkSession = session != null ? session : Integer.toString(page);
+            html.append("<p><a href=\"").append(href(page, target, PAGE_PREFIX, PAGE_SUFFIX, linkSession))
+                .append("\">Page ").append(target).append("</a></p>\n");
+        }
+
+        return html.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * Returns the link from a page to a page or file: its path on the same host,
+     * or its absolute URL on another.
+     */
+    @Nonnull
+    private String href(
+        int page, int target, @Nonnull final String prefix, @Nonnull final String suffix,
+        @Nullable final String session
+    ) {
+
+        final int host = target % configuration.hostCount;
+        final String path = prefix + target + suffix + (session == null ? "" : "?" + SESSION_PARAMETER + session);
+
+        return host == page % configuration.hostCount ? path : "http://" + hostName(host) + ":" + port + path;
+    }
+
+
+    @Nonnull
+    private static String hostName(int host) {
+        return "127.0.0." + (host + 1);
+    }
+
+
+    private int number(@Nonnull final String path, @Nonnull final String prefix, @Nonnull final String suffix) {
+
+        if (!path.startsWith(prefix) || !path.endsWith(suffix)) {
+            return -1;
+        }
+
+        try {
+            final int number = Integer.parseInt(path.substring(prefix.length(), path.length() - suffix.length()));
+
+            return number >= 0 && number < configuration.pageCount ? number : -1;
+        }
+        catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+
+    /**
+     * Returns the branching factor of a tree of the given depth spanning the
+     * given number of pages.
+     */
+    private static int branching(int pageCount, int depth) {
+
+        int branching = 1;
+        while (treeSize(branching, depth) < pageCount) {
+            branching++;
+        }
+
+        return branching;
+    }
+
+
+    private static long treeSize(int branching, int depth) {
+
+        long size = 1;
+        long level = 1;
+        for (int i = 0; i < depth && size < Integer.MAX_VALUE; i++) {
+            level *= branching;
+            size += level;
+        }
+
+        return size;
+    }
+
+
+    /**
+     * Returns a value in [0, 1) determined by its inputs.
+     */
+    private double unitHash(int value, long salt) {
+        return (UrlKeys.mix(configuration.seed ^ salt ^ ((long) value << 20)) >>> 11) * 0x1.0p-53;
+    }
+
+
+    /**
+     * The random distributions a response latency may be drawn from.
+     */
+    enum LatencyDistribution {
+
+        FIXED {
+            @Override
+            double sample(double mean, @Nonnull final Random random) {
+                return mean;
+            }
+        },
+        UNIFORM {
+            @Override
+            double sample(double mean, @Nonnull final Random random) {
+                return random.nextDouble() * 2 * mean;
+            }
+        },
+        EXPONENTIAL {
+            @Override
+            double sample(double mean, @Nonnull final Random random) {
+                return -mean * Math.log(1 - random.nextDouble());
+            }
+        },
+        /**
+         * Log-normal with a standard deviation of one in log space: a long tail,
+         * the 99th percentile about six times the mean, as real servers have.
+         */
+        LOG_NORMAL {
+            @Override
+            double sample(double mean, @Nonnull final Random random) {
+                return mean <= 0 ? 0 : Math.exp(Math.log(mean) - 0.5 + random.nextGaussian());
+            }
+        };
+
+
+        /**
+         * Draw a latency.
+         *
+         * @param mean the mean latency.
+         * @param random the source of randomness.
+         * @return the latency.
+         */
+        abstract double sample(double mean, @Nonnull Random random);
+    }
+
+
+    /**
+     * The shape of a synthetic site.
+     */
+    static final class Configuration {
+
+        private int pageCount = 1000;
+        private int fanOut = 10;
+        private int depth = 4;
+        private int pageBytes = 16 * 1024;
+        private double latencyMillis;
+        private LatencyDistribution latencyDistribution = LatencyDistribution.FIXED;
+        private double errorRate;
+        private double binaryRatio;
+        private long seed = 1;
+        private int hostCount = 1;
+        private boolean compression;
+        private double sessionRatio;
+
+
+        /**
+         * Set the number of HTML pages.
+         *
+         * @param pageCount the number of pages, at least one.
+         * @return this configuration.
+         */
+        @Nonnull
+        Configuration setPageCount(int pageCount) {
+
+            if (pageCount < 1) {
+                throw new IllegalArgumentException(String.format(
+                    "Page count must be at least one.  Page Count: %d", pageCount
+                ));
+            }
+
+            this.pageCount = pageCount;
+
+            return this;
+        }
+
+
+        /**
+         * Set the number of links on each page.  Pages link to at least their
+         * children in the tree spanning the site.
+         *
+         * @param fanOut the number of links per page.
+         * @return this configuration.
+         */
+        @Nonnull
+        Configuration setFanOut(int fanOut) {
+
+            if (fanOut < 0) {
+                throw new IllegalArgumentException(String.format(
+                    "Fan-out must not be negative.  Fan-out: %d", fanOut
+                ));
+            }
+
+            this.fanOut = fanOut;
+
+            return this;
+        }
+
+
+        /**
+         * Set the depth of the tree spanning the site: the most links followed
+         * from the home page to reach any page.
+         *
+         * @param depth the depth, at least one.
+         * @return this configuration.
+         */
+        @Nonnull
+        Configuration setDepth(int depth) {
+
+            if (depth < 1) {
+                throw new IllegalArgumentException(String.format(
+                    "Depth must be at least one.  Depth: %d", depth
+                ));
+            }
+
+            this.depth = depth;
+
+            return this;
+        }
+
+
+        /**
+         * Set the size of each page, and of each binary file.
+         *
+         * @param pageBytes the size in bytes.
+         * @return this configuration.
+         */
+        @Nonnull
+        Configuration setPageBytes(int pageBytes) {
+
+            if (pageBytes < 0) {
+                throw new IllegalArgumentException(String.format(
+                    "Page size must not be negative.  Page Bytes: %d", pageBytes
+                ));
+            }
+
+            this.pageBytes = pageBytes;
+
+            return this;
+        }
+
+
+        /**
+         * Set the latency added to each response.
+         *
+         * @param latencyMillis the mean latency in milliseconds.
+         * @param latencyDistribution the distribution latencies are drawn from.
+         * @return this configuration.
+         */
+        @Nonnull
+        Configuration setLatency(double latencyMillis, @Nonnull final LatencyDistribution latencyDistribution) {
+
+            if (!(latencyMillis >= 0)) {
+                throw new IllegalArgumentException(String.format(
+                    "Latency must not be negative.  Latency Millis: %s", latencyMillis
+                ));
+            }
+
+            this.latencyMillis = latencyMillis;
+            this.latencyDistribution = latencyDistribution;
+
+            return this;
+        }
+
+
+        /**
+         * Set the fraction of pages, other than the home page, answering with a
+         * server error.
+         *
+         * @param errorRate the fraction, from zero to one.
+         * @return this configuration.
+         */
+        @Nonnull
+        Configuration setErrorRate(double errorRate) {
+
+            this.errorRate = fraction(errorRate, "Error rate");
+
+            return this;
+        }
+
+
+        /**
+         * Set the fraction of random links pointing to binary files instead of
+         * pages.
+         *
+         * @param binaryRatio the fraction, from zero to one.
+         * @return this configuration.
+         */
+        @Nonnull
+        Configuration setBinaryRatio(double binaryRatio) {
+
+            this.binaryRatio = fraction(binaryRatio, "Binary ratio");
+
+            return this;
+        }
+
+
+        @Nonnull
+        Configuration setSeed(long seed) {
+
+            this.seed = seed;
+
+            return this;
+        }
+
+
+        /**
+         * Set the number of hosts the site is spread over.
+         *
+         * @param hostCount the number of hosts, from one to 254.
+         * @return this configuration.
+         */
+        @Nonnull
+        Configuration setHostCount(int hostCount) {
+
+            if (hostCount < 1 || hostCount > 254) {
+                throw new IllegalArgumentException(String.format(
+                    "Host count must be from one to 254.  Host Count: %d", hostCount
+                ));
+            }
+
+            this.hostCount = hostCount;
+
+            return this;
+        }
+
+
+        /**
+         * Set whether pages are gzipped for requests accepting it.
+         *
+         * @param compression true to compress pages.
+         * @return this configuration.
+         */
+        @Nonnull
+        Configuration setCompression(boolean compression) {
+
+            this.compression = compression;
+
+            return this;
+        }
+
+
+        /**
+         * Set the fraction of pages linking to a page with a session ID.
+         *
+         * @param sessionRatio the fraction, from zero to one.
+         * @return this configuration.
+         */
+        @Nonnull
+        Configuration setSessionRatio(double sessionRatio) {
+
+            this.sessionRatio = fraction(sessionRatio, "Session ratio");
+
+            return this;
+        }
+
+
+        int getPageCount() {
+            return pageCount;
+        }
+
+
+        private static double fraction(double value, @Nonnull final String name) {
+
+            if (!(value >= 0 && value <= 1)) {
+                throw new IllegalArgumentException(String.format(
+                    "%s must be from zero to one.  Value: %s", name, value
+                ));
+            }
+
+            return value;
+        }
+
+
+        @Override
+        @Nonnull
+        public String toString() {
+
+            return "Configuration{"
+                + "pageCount='" + pageCount + '\''
+                + ", fanOut='" + fanOut + '\''
+                + ", depth='" + depth + '\''
+                + ", pageBytes='" + pageBytes + '\''
+                + ", latencyMillis='" + latencyMillis + '\''
+                + ", latencyDistribution='" + latencyDistribution + '\''
+                + ", errorRate='" + errorRate + '\''
+                + ", binaryRatio='" + binaryRatio + '\''
+                + ", seed='" + seed + '\''
+                + ", hostCount='" + hostCount + '\''
+                + ", compression='" + compression + '\''
+                + ", sessionRatio='" + sessionRatio + '\''
+                + "}";
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class SyntheticSiteTest {
+
+
+    @Test
+    public void testCrawlVisitsEveryPageOnce() throws IOException, InterruptedException {
+
+        SyntheticSite.Configuration siteConfiguration = new SyntheticSite.Configuration()
+            .setPageCount(300)
+            .setFanOut(8)
+            .setDepth(3)
+            .setPageBytes(4096)
+            .setBinaryRatio(0.1);
+        try (SyntheticSite site = new SyntheticSite(siteConfiguration)) {
+            List<String> sitemap = site.crawl(configuration -> {
+            });
+
+            assertEquals(300, site.getPageRequests());
+            assertEquals(0, site.getDuplicateRequests());
+            assertEquals(0, site.getErrorResponses());
+            assertTrue(site.getBytesServed() >= 300 * 4096);
+            assertEquals(site.getPageRequests() + site.getFileRequests(), site.getLatencies().getCount());
+            assertTrue(sitemap.size() > 300);
+        }
+
+    }
+
+
+    @Test
+    public void testErrorPages() throws IOException {
+
+        SyntheticSite.Configuration siteConfiguration = new SyntheticSite.Configuration()
+            .setPageCount(200)
+            .setErrorRate(0.25);
+        try (SyntheticSite site = new SyntheticSite(siteConfiguration)) {
+            int errorPages = 0;
+            for (int page = 0; page < 200; page++) {
+                HttpURLConnection connection = (HttpURLConnection) site.pageUrl(page).openConnection();
+                int status = connection.getResponseCode();
+                if (status == 200) {
+                    try (InputStream in = connection.getInputStream()) {
+                        assertEquals(16 * 1024, in.readAllBytes().length);
+                    }
+                }
+                assertEquals(site.isErrorPage(page) ? 500 : 200, status);
+                errorPages += site.isErrorPage(page) ? 1 : 0;
+            }
+
+            assertTrue(errorPages > 25 && errorPages < 75);
+            assertEquals(errorPages, site.getErrorResponses());
+        }
+
+    }
+}
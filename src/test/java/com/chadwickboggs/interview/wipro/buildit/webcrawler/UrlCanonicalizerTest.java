@@ -0,0 +1,196 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import org.junit.Test;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+
+public class UrlCanonicalizerTest {
+
+
+    @Test
+    public void testResolveRfc3986Examples() throws MalformedURLException {
+
+        URL base = new URL("http://a/b/c/d;p?q");
+        String[][] examples = {
+            {"g", "http://a/b/c/g"},
+            {"./g", "http://a/b/c/g"},
+            {"g/", "http://a/b/c/g/"},
+            {"/g", "http://a/g"},
+            {"//g", "http://g/"},
+            {"?y", "http://a/b/c/d;p?y"},
+            {"g?y", "http://a/b/c/g?y"},
+            {"#s", "http://a/b/c/d;p?q"},
+            {"g#s", "http://a/b/c/g"},
+            {";x", "http://a/b/c/;x"},
+            {"", "http://a/b/c/d;p?q"},
+            {".", "http://a/b/c/"},
+            {"..", "http://a/b/"},
+            {"../g", "http://a/b/g"},
+            {"../..", "http://a/"},
+            {"../../g", "http://a/g"},
+            {"../../../g", "http://a/g"},
+            {"/./g", "http://a/g"},
+            {"/../g", "http://a/g"},
+            {"g.", "http://a/b/c/g."},
+            {"..g", "http://a/b/c/..g"},
+            {"./../g", "http://a/b/g"},
+            {"./g/.", "http://a/b/c/g/"},
+            {"g/../h", "http://a/b/c/h"},
+            {"g;x=1/../y", "http://a/b/c/y"},
+            {"g?y/./x", "http://a/b/c/g?y/./x"},
+            {"g#s/../x", "http://a/b/c/g"},
+        };
+
+        for (String[] example : examples) {
+            assertEquals(example[0], example[1], UrlCanonicalizer.DEFAULT.resolve(base, example[0]).toString());
+        }
+
+    }
+
+
+    @Test
+    public void testCanonicalForm() throws MalformedURLException {
+
+        UrlCanonicalizer canonicalizer = UrlCanonicalizer.DEFAULT;
+
+        assertEquals(
+            "http://example.com/a/c.html",
+            canonicalizer.resolve(null, "HTTP://Example.COM:80/a/./b/../c.html#top").toString()
+        );
+        assertEquals("https://example.com/", canonicalizer.resolve(null, "https://example.com:443").toString());
+        assertEquals("http://example.com:8080/", canonicalizer.resolve(null, "http://example.com:8080").toString());
+        assertEquals(
+            "http://example.com/~a/b%2Fc%20d?a=1&b=2&b=1",
+            canonicalizer.resolve(null, "http://example.com/%7ea/b%2fc d?b=2&a=1&&b=1").toString()
+        );
+        assertEquals(
+            "http://example.com/a%22b%7C", canonicalizer.resolve(null, "http://example.com/a\"b|").toString()
+        );
+        assertEquals(
+            "http://example.com/a.html",
+            canonicalizer.canonicalize(new URL("http://example.com/x/../a.html?")).toString()
+        );
+
+    }
+
+
+    @Test
+    public void testStripParameters() throws MalformedURLException {
+
+        UrlCanonicalizer canonicalizer = new UrlCanonicalizer(Arrays.asList("utm_*", " SessionId ", ""));
+
+        assertEquals(
+            "http://example.com/a?id=7&page=2",
+            canonicalizer.resolve(
+                new URL("http://example.com/"), "a?utm_source=x&page=2&sessionid=abc&id=7&UTM_medium=y"
+            ).toString()
+        );
+        assertEquals(
+            "http://example.com/a",
+            canonicalizer.resolve(new URL("http://example.com/"), "/a?utm_source=x").toString()
+        );
+
+    }
+
+
+    @Test
+    public void testQueryOrder() throws MalformedURLException {
+
+        UrlCanonicalizer canonicalizer = UrlCanonicalizer.DEFAULT;
+
+        // Already sorted, as most queries are, and kept as it is.
+        assertEquals(
+            "http://example.com/?a=1&ab=2&b",
+            canonicalizer.resolve(null, "http://example.com/?a=1&ab=2&b").toString()
+        );
+        // Sorted by name only: a name sorts before the longer names it starts.
+        assertEquals(
+            "http://example.com/?a=z&a&ab=1&b=0",
+            canonicalizer.resolve(null, "http://example.com/?ab=1&a=z&b=0&a").toString()
+        );
+        // Parameters of the same name keep their order, whatever their values.
+        assertEquals(
+            "http://example.com/?a=3&a=1&a=2&b=9",
+            canonicalizer.resolve(null, "http://example.com/?b=9&a=3&a=1&a=2").toString()
+        );
+        assertEquals(
+            "http://example.com/?a=3&a=1",
+            canonicalizer.resolve(null, "http://example.com/?a=3&&a=1&").toString()
+        );
+        assertEquals("http://example.com/", canonicalizer.resolve(null, "http://example.com/?&&").toString());
+
+    }
+
+
+    @Test
+    public void testStripRuleMatching() throws MalformedURLException {
+
+        UrlCanonicalizer canonicalizer = new UrlCanonicalizer(Arrays.asList("sid", "utm_*"));
+
+        // An exact name strips only that name, with or without a value.
+        assertEquals(
+            "http://example.com/?sid_x=2&sidebar=1&xsid=3",
+            canonicalizer.resolve(null, "http://example.com/?SID=9&sidebar=1&sid&sid_x=2&xsid=3").toString()
+        );
+        // A prefix strips every name it starts, itself included, but not names with it later on.
+        assertEquals(
+            "http://example.com/?utm=2&x_utm_a=3",
+            canonicalizer.resolve(null, "http://example.com/?utm_=1&utm=2&Utm_Source=x&x_utm_a=3").toString()
+        );
+        // Only the name is matched, not a value, nor an "=" of a later parameter.
+        assertEquals(
+            "http://example.com/?a=sid&s",
+            canonicalizer.resolve(null, "http://example.com/?a=sid&s&sid=1").toString()
+        );
+
+    }
+
+
+    @Test
+    public void testRemoveDotSegments() {
+
+        String[][] examples = {
+            {"/a/b/c", "/a/b/c"},
+            {"/a./b", "/a./b"},
+            {"/.a/b.", "/.a/b."},
+            {"/a/..b/c..", "/a/..b/c.."},
+            {"/a/./b", "/a/b"},
+            {"/a/../b", "/b"},
+            {"/a/b/.", "/a/b/"},
+            {"/a/b/..", "/a/"},
+            {"./a", "a"},
+            {"../a", "a"},
+            {".", ""},
+            {"..", ""},
+        };
+
+        for (String[] example : examples) {
+            assertEquals(example[0], example[1], UrlCanonicalizer.removeDotSegments(example[0]));
+        }
+
+    }
+
+
+    @Test
+    public void testPercentEscapes() throws MalformedURLException {
+
+        UrlCanonicalizer canonicalizer = UrlCanonicalizer.DEFAULT;
+
+        assertEquals("http://example.com/aA%3F", canonicalizer.resolve(null, "http://example.com/a%41%3f").toString());
+        // An escape cut short by the end of the path or query is not an escape.
+        assertEquals("http://example.com/a%25", canonicalizer.resolve(null, "http://example.com/a%").toString());
+        assertEquals("http://example.com/a%254", canonicalizer.resolve(null, "http://example.com/a%4").toString());
+        assertEquals("http://example.com/a%25G1", canonicalizer.resolve(null, "http://example.com/a%G1").toString());
+        assertEquals("http://example.com/a%254G", canonicalizer.resolve(null, "http://example.com/a%4G").toString());
+        assertEquals(
+            "http://example.com/?a=%25&b=%252&c=B",
+            canonicalizer.resolve(null, "http://example.com/?a=%&b=%2&c=%42").toString()
+        );
+
+    }
+}
@@ -0,0 +1,90 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+
+public class ValidatorCacheTest {
+
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
+    @Test
+    public void testEntriesSurviveReopen() throws IOException {
+
+        Path directory = temporaryFolder.getRoot().toPath();
+        URL page = new URL("http://example.com/index.html");
+        try (ValidatorCache cache = new ValidatorCache(directory)) {
+            cache.put(page, "\"abc\"", "Sat, 17 Oct 2026 06:00:00 GMT", Arrays.asList(
+                new URL("http://example.com/a.html"), new URL("http://example.com/b.html")
+            ));
+        }
+
+        try (ValidatorCache cache = new ValidatorCache(directory)) {
+            ValidatorCache.Entry entry = cache.get(new URL("HTTP://Example.com:80/index.html#top"));
+
+            assertNotNull(entry);
+            Map<String, String> headers = entry.getConditionalHeaders();
+            assertEquals("\"abc\"", headers.get("If-None-Match"));
+            assertEquals("Sat, 17 Oct 2026 06:00:00 GMT", headers.get("If-Modified-Since"));
+            assertEquals(2, entry.getLinks().size());
+            assertEquals("http://example.com/b.html", entry.getLinks().get(1).toString());
+        }
+
+    }
+
+
+    @Test
+    public void testPagesWithoutValidatorsAreNotCached() throws IOException {
+
+        try (ValidatorCache cache = new ValidatorCache(temporaryFolder.getRoot().toPath())) {
+            URL page = new URL("http://example.com/");
+            cache.put(page, null, null, Collections.emptyList());
+
+            assertNull(cache.get(page));
+        }
+
+    }
+
+
+    @Test
+    public void testTornRecordIsDropped() throws IOException {
+
+        Path directory = temporaryFolder.getRoot().toPath();
+        try (ValidatorCache cache = new ValidatorCache(directory)) {
+            cache.put(new URL("http://example.com/a.html"), "\"a\"", null, Collections.emptyList());
+        }
+        try (OutputStream out = Files.newOutputStream(
+            directory.resolve("validators.log"), StandardOpenOption.APPEND
+        )) {
+            out.write(new byte[] {0, 10, 'h', 't'});
+        }
+
+        try (ValidatorCache cache = new ValidatorCache(directory)) {
+            cache.put(new URL("http://example.com/b.html"), "\"b\"", null, Collections.emptyList());
+        }
+
+        try (ValidatorCache cache = new ValidatorCache(directory)) {
+            assertEquals(2, cache.size());
+        }
+
+    }
+
+}
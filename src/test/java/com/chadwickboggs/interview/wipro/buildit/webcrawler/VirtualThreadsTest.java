@@ -0,0 +1,40 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class VirtualThreadsTest {
+
+
+    @Test
+    public void testCrawlBoundsPagesInFlight() throws IOException, InterruptedException {
+
+        SyntheticSite.Configuration siteConfiguration = new SyntheticSite.Configuration()
+            .setPageCount(200)
+            .setFanOut(6)
+            .setDepth(3)
+            .setLatency(5, SyntheticSite.LatencyDistribution.FIXED);
+        try (SyntheticSite site = new SyntheticSite(siteConfiguration)) {
+            List<String> sitemap = site.crawl(configuration -> configuration
+                .setVirtualThreads(true)
+                .setWorkers(3)
+                .setMaxInFlight(6)
+            );
+
+            assertEquals(200, site.getPageRequests());
+            assertEquals(0, site.getDuplicateRequests());
+            assertEquals(200, sitemap.size());
+            // Without virtual threads the crawl falls back to the pool of workers.
+            int cap = Runtime.version().feature() >= 21 ? 6 : 3;
+            assertTrue(site.getMaxConcurrentRequests() <= cap);
+            assertTrue(site.getMaxConcurrentRequests() > 1);
+        }
+
+    }
+}
@@ -0,0 +1,85 @@
+package com.chadwickboggs.interview.wipro.buildit.webcrawler;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import javax.xml.stream.XMLStreamException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class XmlSitemapReaderTest {
+
+
+    @Test
+    public void testUrlSet() throws IOException, XMLStreamException {
+
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n"
+            + "<url><loc> http://example.com/a.html </loc><lastmod>2020-01-01</lastmod></url>\n"
+            + "<url><loc>http://example.com/b.html?x=1&amp;y=2</loc></url>\n"
+            + "</urlset>\n";
+        List<String> locations = new ArrayList<>();
+
+        XmlSitemapReader.parse(
+            new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)),
+            (isIndex, location) -> locations.add(isIndex + " " + location)
+        );
+
+        assertEquals(
+            Arrays.asList("false http://example.com/a.html", "false http://example.com/b.html?x=1&y=2"), locations
+        );
+
+    }
+
+
+    @Test
+    public void testGzippedIndex() throws IOException, XMLStreamException {
+
+        String xml = "<sitemapindex xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">"
+            + "<sitemap><loc>http://example.com/sitemap-1.xml.gz</loc></sitemap></sitemapindex>";
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(xml.getBytes(StandardCharsets.UTF_8));
+        }
+        List<String> locations = new ArrayList<>();
+
+        XmlSitemapReader.parse(
+            new ByteArrayInputStream(compressed.toByteArray()),
+            (isIndex, location) -> locations.add(isIndex + " " + location)
+        );
+
+        assertEquals(Arrays.asList("true http://example.com/sitemap-1.xml.gz"), locations);
+
+    }
+
+
+    @Test
+    public void testExternalEntitiesAreNotResolved() throws IOException {
+
+        String xml = "<?xml version=\"1.0\"?><!DOCTYPE urlset [<!ENTITY xxe SYSTEM \"file:///etc/hostname\">]>"
+            + "<urlset><url><loc>http://example.com/&xxe;</loc></url></urlset>";
+        List<String> locations = new ArrayList<>();
+
+        try {
+            XmlSitemapReader.parse(
+                new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)),
+                (isIndex, location) -> locations.add(location)
+            );
+        }
+        catch (XMLStreamException e) {
+            // Rejecting the undeclared entity is as good as ignoring it.
+        }
+
+        assertTrue(locations.isEmpty() || locations.equals(Arrays.asList("http://example.com/")));
+
+    }
+}